@@ -1820,6 +1820,35 @@ public class AbstractDelegate<C extends JComponent>
         });
     }
 
+    /**
+     *  Fades or slides the whole component in the current frame of an animation,
+     *  which is much cheaper than fading or sliding it through {@link #style(AnimationStatus, Styler)},
+     *  because the component is not restyled and rendered on every frame. Instead, it is rendered
+     *  once into a composited layer, which is then painted as a single image with the
+     *  supplied opacity and offset, for as long as the animation lasts.
+     *  This only works for components which SwingTree paints entirely, like the ones
+     *  created through the {@link UI} factory methods, any other component is painted as usual.
+     *  <p>
+     *  Here is an example of how to use this method to fade a panel in:
+     *  <pre>{@code
+     *      UI.panel().withStyle( it -> it.backgroundColor("steelblue").borderRadius(24).shadowBlurRadius(12) )
+     *      .onMouseClick( it -> it.animateFor(0.5, TimeUnit.SECONDS, status -> {
+     *          it.composite(status, status.fadeIn(), 0, 24 * (1 - status.progress()));
+     *      }))
+     *  }</pre>
+     *
+     * @param status The current animation status, which is important so that the composition can be synchronized with the animation.
+     * @param opacity The opacity of the component, between 0 (invisible) and 1 (fully visible).
+     * @param offsetX The horizontal offset of the component from its actual location, in unscaled pixels.
+     * @param offsetY The vertical offset of the component from its actual location, in unscaled pixels.
+     */
+    public final void composite( AnimationStatus status, double opacity, double offsetX, double offsetY ) {
+        Objects.requireNonNull(status);
+        UI.run(()->{ // This method might be called by the application thread, so we need to run on the EDT!
+            ComponentExtension.from(_component).addAnimatedComposition(status, opacity, offsetX, offsetY);
+        });
+    }
+
     /**
      *  Exposes access the animation builder API, where you can define the conditions
      *  under which the animation should be executed and then dispatch the animation to the EDT
@@ -0,0 +1,267 @@
+package swingtree;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swingtree.api.IconDeclaration;
+import swingtree.layout.Size;
+import swingtree.style.LibraryInternalCrossPackageStyleUtil;
+import swingtree.style.SvgIcon;
+
+import javax.swing.AbstractButton;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.plaf.UIResource;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Window;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ *  Loads icons on background threads, which is what {@link UI#findIconLater(IconDeclaration)}
+ *  and {@link IconDeclaration#findLater()} do. <br>
+ *  <br>
+ *  Reading and parsing an SVG document, and rasterizing it for the first time, easily takes
+ *  a few milliseconds, so a view with a few hundred icons used to block the UI thread for
+ *  seconds when it was first opened. Instead, an icon which is not in the icon cache
+ *  (see {@link SwingTree#getIconCache()}) is loaded by a small pool of daemon threads,
+ *  and an SVG icon of a definite size is also rasterized there, into the global raster cache
+ *  its first paint is going to read from. <br>
+ *  <br>
+ *  In the meantime, the caller gets a {@link PendingIcon}, which has the declared size,
+ *  paints a placeholder and remembers the components it was painted onto.
+ *  When the icon is ready, the UI thread puts it into the icon cache, lets the pending icon
+ *  delegate to it, and repaints each of those components exactly once
+ *  (and revalidates the ones whose icon turned out to have a different size).
+ *  Requests for an icon which is already being loaded share the same pending icon.
+ */
+final class BackgroundIconLoader
+{
+    private static final Logger log = LoggerFactory.getLogger(BackgroundIconLoader.class);
+
+    private static final int MAX_THREADS = 4;
+
+    private static final ThreadPoolExecutor _EXECUTOR = LibraryInternalCrossPackageStyleUtil._newDaemonThreadPool(
+                                                            "SwingTree-Icon-Loader", MAX_THREADS, Thread.NORM_PRIORITY - 1
+                                                        );
+
+    private static final Map<IconDeclaration, PendingIcon> _PENDING = new HashMap<>(); // Guarded by itself.
+
+    private BackgroundIconLoader() {}
+
+    /**
+     *  Returns the cached icon of the supplied declaration, or a pending icon
+     *  which paints the placeholder until the icon is loaded in the background.
+     */
+    static ImageIcon find( IconDeclaration declaration, @Nullable Icon placeholder ) {
+        final ImageIcon cached = SwingTree.get().getIconCache().get(declaration);
+        if ( cached != null )
+            return cached;
+        final PendingIcon pending;
+        synchronized ( _PENDING ) {
+            final PendingIcon alreadyPending = _PENDING.get(declaration);
+            if ( alreadyPending != null )
+                return alreadyPending;
+            pending = new PendingIcon(declaration, placeholder);
+            _PENDING.put(declaration, pending);
+        }
+        _EXECUTOR.execute(() -> _load(pending));
+        return pending;
+    }
+
+    private static void _load( PendingIcon pending ) {
+        @Nullable ImageIcon icon = null;
+        try {
+            icon = UIFactoryMethods._loadIconWithoutCaching(pending._declaration);
+            if ( icon instanceof SvgIcon )
+                LibraryInternalCrossPackageStyleUtil._prerasterize((SvgIcon) icon);
+        } catch ( Exception e ) {
+            log.error(SwingTree.get().logMarker(), "Failed to load icon from declaration '{}' in the background.", pending._declaration, e);
+        }
+        final @Nullable ImageIcon loaded = icon;
+        UI.run(() -> _publish(pending, loaded));
+    }
+
+    private static void _publish( PendingIcon pending, @Nullable ImageIcon loaded ) {
+        synchronized ( _PENDING ) {
+            _PENDING.remove(pending._declaration);
+        }
+        if ( loaded == null )
+            return; // The failure was logged, the placeholder stays.
+        final Map<IconDeclaration, ImageIcon> cache = SwingTree.get().getIconCache();
+        ImageIcon icon = cache.get(pending._declaration);
+        if ( icon == null ) {
+            icon = loaded;
+            cache.put(pending._declaration, icon);
+        }
+        pending._resolve(icon);
+    }
+
+    /**
+     *  Stands in for an icon which is being loaded in the background.
+     *  It paints the placeholder (or nothing) until the icon is loaded,
+     *  and from then on it delegates everything to the loaded icon. <br>
+     *  <br>
+     *  A disabled label or button does not paint its icon, but a gray version of the
+     *  {@link #getImage() image} of it, which the look and feel derives once and which the
+     *  component keeps. So if the image of the placeholder was handed out before the icon
+     *  was loaded, the disabled icons which the look and feel derived for the labels and
+     *  buttons showing this icon are dropped when it is loaded, so that they are derived anew. <br>
+     *  Like the icon itself, its image cannot be replaced, {@link #setImage(Image)} is ignored.
+     */
+    static final class PendingIcon extends ImageIcon
+    {
+        private final IconDeclaration _declaration;
+        private final @Nullable Icon  _placeholder;
+        private final Set<Component>  _paintedOnto = Collections.newSetFromMap(new WeakHashMap<>()); // Guarded by this icon.
+
+        private volatile @Nullable ImageIcon _icon = null;
+        private volatile boolean             _isImageOfPlaceholderInUse = false;
+
+        private PendingIcon( IconDeclaration declaration, @Nullable Icon placeholder ) {
+            super();
+            _declaration = declaration;
+            _placeholder = placeholder;
+        }
+
+        /** Whether the icon was loaded and is now painted instead of the placeholder. */
+        boolean isLoaded() {
+            return _icon != null;
+        }
+
+        private synchronized void _resolve( ImageIcon icon ) {
+            final int width  = getIconWidth();
+            final int height = getIconHeight();
+            _icon = icon;
+            final boolean sizeChanged = width != icon.getIconWidth() || height != icon.getIconHeight();
+            final List<Component> components = new ArrayList<>(_paintedOnto);
+            _paintedOnto.clear();
+            for ( Component component : components ) {
+                if ( sizeChanged && component instanceof JComponent )
+                    ((JComponent) component).revalidate();
+                component.repaint();
+            }
+            if ( _isImageOfPlaceholderInUse ) {
+                for ( Component component : components )
+                    _dropDisabledIconsDerivedFromThisIn(component);
+                for ( Window window : Window.getWindows() )
+                    _dropDisabledIconsDerivedFromThisIn(window);
+            }
+        }
+
+        private void _dropDisabledIconsDerivedFromThisIn( Component component ) {
+            if ( component instanceof JLabel ) {
+                final JLabel label = (JLabel) component;
+                if ( label.getIcon() == this && label.getDisabledIcon() instanceof UIResource ) {
+                    label.setDisabledIcon(null);
+                    label.repaint();
+                }
+            }
+            else if ( component instanceof AbstractButton ) {
+                final AbstractButton button = (AbstractButton) component;
+                if ( button.getIcon() == this ) {
+                    if ( button.getDisabledIcon() instanceof UIResource )
+                        button.setDisabledIcon(null);
+                    if ( button.getDisabledSelectedIcon() instanceof UIResource )
+                        button.setDisabledSelectedIcon(null);
+                    button.repaint();
+                }
+            }
+            if ( component instanceof Container )
+                for ( Component child : ((Container) component).getComponents() )
+                    _dropDisabledIconsDerivedFromThisIn(child);
+        }
+
+        @Override
+        public int getIconWidth() {
+            final ImageIcon icon = _icon;
+            if ( icon != null )
+                return icon.getIconWidth();
+            final Size size = _declaration.size().orElse(Size.unknown());
+            if ( size.hasPositiveWidth() )
+                return (int) UI.scale(size.widthOrElse(0f));
+            return _placeholder == null ? 0 : _placeholder.getIconWidth();
+        }
+
+        @Override
+        public int getIconHeight() {
+            final ImageIcon icon = _icon;
+            if ( icon != null )
+                return icon.getIconHeight();
+            final Size size = _declaration.size().orElse(Size.unknown());
+            if ( size.hasPositiveHeight() )
+                return (int) UI.scale(size.heightOrElse(0f));
+            return _placeholder == null ? 0 : _placeholder.getIconHeight();
+        }
+
+        @Override
+        public synchronized void paintIcon( @Nullable Component c, Graphics g, int x, int y ) {
+            final ImageIcon icon = _icon;
+            if ( icon != null ) {
+                icon.paintIcon(c, g, x, y);
+                return;
+            }
+            if ( c != null )
+                _paintedOnto.add(c);
+            if ( _placeholder != null )
+                _placeholder.paintIcon(c, g, x, y);
+        }
+
+        /**
+         *  Returns the image of the loaded icon, or an image of the placeholder
+         *  as long as the icon is not loaded, which is never {@code null},
+         *  because Swing derives disabled icons from it.
+         */
+        @Override
+        public Image getImage() {
+            final ImageIcon icon = _icon;
+            if ( icon != null )
+                return icon.getImage();
+            _isImageOfPlaceholderInUse = true;
+            final BufferedImage image = new BufferedImage(
+                                            Math.max(1, getIconWidth()),
+                                            Math.max(1, getIconHeight()),
+                                            BufferedImage.TYPE_INT_ARGB
+                                        );
+            if ( _placeholder != null ) {
+                final Graphics2D g2d = image.createGraphics();
+                try {
+                    _placeholder.paintIcon(null, g2d, 0, 0);
+                } finally {
+                    g2d.dispose();
+                }
+            }
+            return image;
+        }
+
+        /**
+         *  Does nothing, because the image of a pending icon is that of the icon it stands in for,
+         *  which is shared through the icon cache, so it cannot be replaced.
+         */
+        @Override
+        public void setImage( Image image ) {
+            // Intentionally ignored, see the class documentation.
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "[" +
+                        "declaration=" + _declaration + ", " +
+                        "icon=" + _icon +
+                    "]";
+        }
+    }
+}
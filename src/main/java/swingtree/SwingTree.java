@@ -712,6 +712,8 @@ public void setCacheMode( SwingTreeInitConfig.CacheMode cacheMode ) {
      *  independently of the component size using stretch tiling ("nine slice" rendering),
      *  which makes resizing styled components cheap because it does not invalidate
      *  their render caches (see {@link #setCacheTilingEnabled(boolean)}).
+     *  The same goes for the shadows of styles which cannot be cached this way as a whole,
+     *  each of which is then reassembled from a small cached rendering of itself.
      *
      * @return True if size independent (stretch tiled) render caching is allowed.
      */
@@ -740,6 +742,119 @@ public void setCacheMode( SwingTreeInitConfig.CacheMode cacheMode ) {
         }
     }
 
+    /**
+     *  Tells whether SwingTree may skip re-running the stylers of a component at the start
+     *  of a paint cycle if none of the inputs their last run read have changed since
+     *  (see {@link #setStyleMemoizationEnabled(boolean)}).
+     *
+     * @return True if unchanged style gatherings may be skipped during painting.
+     */
+    public boolean isStyleMemoizationEnabled() {
+        return _config.isStyleMemoizationEnabled();
+    }
+
+    /**
+     *  Enables or disables style memoization at runtime (see {@link #isStyleMemoizationEnabled()}
+     *  and {@link SwingTreeInitConfig#withStyleMemoizationEnabled(boolean)}). When enabled,
+     *  a repaint which changed none of the inputs the stylers of a component read last time
+     *  (size, preferred size, component state, id, style groups, inherited font and UI scale)
+     *  reuses the previously gathered style instead of running the stylers again. Changing the
+     *  flag takes effect immediately: every remembered style is forgotten.
+     *
+     * @param enabled Whether unchanged style gatherings may be skipped during painting.
+     */
+    public void setStyleMemoizationEnabled( boolean enabled ) {
+        if ( !UI.thisIsUIThread() ) {
+            UI.runNow(() -> setStyleMemoizationEnabled(enabled));
+        } else {
+            _config = _config.withStyleMemoizationEnabled(enabled);
+            swingtree.style.ComponentExtension.updateAllCachesFromLibraryConfig();
+        }
+    }
+
+    /**
+     *  Tells whether SwingTree stores the pixels of cached style renderings outside of
+     *  the Java heap, where they are freed as soon as they are evicted from the cache
+     *  (see {@link #setOffHeapCacheEnabled(boolean)}).
+     *
+     * @return True if cached style renderings store their pixels in native memory.
+     */
+    public boolean isOffHeapCacheEnabled() {
+        return _config.isOffHeapCacheEnabled();
+    }
+
+    /**
+     *  Enables or disables storing the pixels of cached style renderings outside of the Java
+     *  heap at runtime (see {@link #isOffHeapCacheEnabled()} and
+     *  {@link SwingTreeInitConfig#withOffHeapCacheEnabled(boolean)}). Changing it takes effect
+     *  immediately: every rendering cache is emptied, which frees all native pixel memory
+     *  held so far, and subsequent paints repopulate the caches in the new storage.
+     *
+     * @param enabled Whether cached style renderings store their pixels outside of the Java heap.
+     */
+    public void setOffHeapCacheEnabled( boolean enabled ) {
+        if ( !UI.thisIsUIThread() ) {
+            UI.runNow(() -> setOffHeapCacheEnabled(enabled));
+        } else {
+            _config = _config.withOffHeapCacheEnabled(enabled);
+            swingtree.style.ComponentExtension.updateAllCachesFromLibraryConfig();
+        }
+    }
+
+    /**
+     *  Returns the directory in which the exemplar renderings of stretch tiled component styles
+     *  are persisted across application restarts, if there is one
+     *  (see {@link #setExemplarDiskCacheDirectory(File)}).
+     *
+     * @return The directory exemplar renderings are persisted in, or an empty {@link Optional}
+     *         if they are not persisted.
+     */
+    public Optional<File> getExemplarDiskCacheDirectory() {
+        return _config.exemplarDiskCacheDirectory();
+    }
+
+    /**
+     *  Sets (or with {@code null} removes) the directory in which the exemplar renderings of
+     *  stretch tiled component styles are persisted across application restarts at runtime
+     *  (see {@link SwingTreeInitConfig#withExemplarDiskCacheDirectory(File)}). Entries which
+     *  are already cached in memory are not written to a new directory, only the ones
+     *  rendered from now on.
+     *
+     * @param directory The directory to persist exemplar renderings in, or null to not persist them.
+     */
+    public void setExemplarDiskCacheDirectory( @Nullable File directory ) {
+        if ( !UI.thisIsUIThread() ) {
+            UI.runNow(() -> setExemplarDiskCacheDirectory(directory));
+        } else {
+            _config = _config.withExemplarDiskCacheDirectory(directory);
+            swingtree.style.ComponentExtension.updateAllCachesFromLibraryConfig();
+        }
+    }
+
+    /**
+     *  Renders the cached style images of the supplied component tree on background threads
+     *  before the tree is shown, so that its first frame does not have to rasterize every
+     *  heavily styled component from scratch. Call it after the tree was laid out, for example
+     *  right after {@link Window#pack()} and before {@link Window#setVisible(boolean)}:
+     *  <pre>{@code
+     *      frame.pack();
+     *      SwingTree.get().prewarmStyleCaches(frame.getRootPane());
+     *      frame.setVisible(true);
+     *  }</pre>
+     *  Prewarming stays within the memory budget of the current {@link SwingTreeInitConfig.CacheMode}
+     *  and never delays painting: a component painted before its cache entry is ready simply
+     *  renders directly, as it would without prewarming. See
+     *  {@link swingtree.style.ComponentExtension#prewarmStyleCaches(Component)} for the details.
+     *
+     * @param root The root of the component tree whose style caches should be prewarmed.
+     * @return A future which completes with the number of cache entries rendered ahead of time,
+     *         and which can be cancelled to stop the prewarming of the remaining entries.
+     */
+    public java.util.concurrent.Future<Integer> prewarmStyleCaches( Component root ) {
+        Objects.requireNonNull(root);
+        return swingtree.style.ComponentExtension.prewarmStyleCaches(root);
+    }
+
 	/**
      *  The {@link StyleSheet} is an abstract class whose extensions are used to declare
      *  component styles through a CSS like DSL API.
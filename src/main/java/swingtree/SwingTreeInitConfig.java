@@ -7,6 +7,7 @@ import swingtree.style.StyleSheet;
 import swingtree.threading.EventProcessor;
 
 import java.awt.*;
+import java.io.File;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -144,7 +145,10 @@ public final class SwingTreeInitConfig
                         SystemProperties.getBool(SystemProperties.RECORD_DEBUG_SOURCE_TRACE, true ),
                         System.getProperty(SystemProperties.ENABLE_DEV_TOOL_KEY_STROKE,"ctrl shift I"),
                         SystemProperties.getEnum(SystemProperties.CACHE_MODE, CacheMode.class, CacheMode.BALANCED),
-                        SystemProperties.getBool(SystemProperties.CACHE_TILING, true)
+                        SystemProperties.getBool(SystemProperties.CACHE_TILING, true),
+                        SystemProperties.getBool(SystemProperties.STYLE_MEMOIZATION, false),
+                        SystemProperties.getBool(SystemProperties.CACHE_OFF_HEAP, false),
+                        SystemProperties.getFile(SystemProperties.CACHE_EXEMPLAR_DIRECTORY)
                     );
                     /*
                         Note that we want the refresh rate to be as high as possible so that the animation
@@ -178,6 +182,9 @@ public final class SwingTreeInitConfig
     private final String           _devToolKeyStrokeShortcut;
     private final CacheMode        _cacheMode;
     private final boolean          _isCacheTilingEnabled;
+    private final boolean          _isStyleMemoizationEnabled;
+    private final boolean          _isOffHeapCacheEnabled;
+    private final @Nullable File   _exemplarDiskCacheDirectory;
 
 
     private SwingTreeInitConfig(
@@ -193,7 +200,10 @@ public final class SwingTreeInitConfig
         boolean             recordDebugSourceTrace,
         String              devToolKeyStroke,
         CacheMode           cacheMode,
-        boolean             isCacheTilingEnabled
+        boolean             isCacheTilingEnabled,
+        boolean             isStyleMemoizationEnabled,
+        boolean             isOffHeapCacheEnabled,
+        @Nullable File      exemplarDiskCacheDirectory
     ) {
         _defaultFont              = defaultFont;
         _fontInstallation         = Objects.requireNonNull(fontInstallation);
@@ -208,6 +218,9 @@ public final class SwingTreeInitConfig
         _devToolKeyStrokeShortcut = Objects.requireNonNull(devToolKeyStroke);
         _cacheMode                = Objects.requireNonNull(cacheMode);
         _isCacheTilingEnabled     = isCacheTilingEnabled;
+        _isStyleMemoizationEnabled = isStyleMemoizationEnabled;
+        _isOffHeapCacheEnabled    = isOffHeapCacheEnabled;
+        _exemplarDiskCacheDirectory = exemplarDiskCacheDirectory;
     }
 
     /**
@@ -362,7 +375,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 newDefaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -386,7 +399,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 newDefaultFont, newFontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -404,7 +417,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, newEventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -419,7 +432,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, newStyleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -442,7 +455,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, newUiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -460,7 +473,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, newUiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -478,7 +491,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 newUiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -502,7 +515,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, newDefaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -520,7 +533,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, newLogMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -544,7 +557,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, isEnabled,
-                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -568,7 +581,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                keyStroke, _cacheMode, _isCacheTilingEnabled
+                keyStroke, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -601,7 +614,7 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, Objects.requireNonNull(cacheMode), _isCacheTilingEnabled
+                _devToolKeyStrokeShortcut, Objects.requireNonNull(cacheMode), _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
         );
     }
 
@@ -640,7 +653,135 @@ public final class SwingTreeInitConfig
         return new SwingTreeInitConfig(
                 _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
                 _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
-                _devToolKeyStrokeShortcut, _cacheMode, enabled
+                _devToolKeyStrokeShortcut, _cacheMode, enabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
+        );
+    }
+
+    /**
+     *  Tells whether SwingTree may skip re-running the stylers of a component at the start
+     *  of a paint cycle if none of the inputs their last run depended on have changed
+     *  (see {@link #withStyleMemoizationEnabled(boolean)}).
+     */
+    boolean isStyleMemoizationEnabled() {
+        return _isStyleMemoizationEnabled;
+    }
+
+    /**
+     *  Every paint cycle of a SwingTree component starts by running all of its stylers
+     *  (style sheet, local and animation stylers) to find out whether its style changed.
+     *  In views with many components, a large style sheet and frequent repaints, this is
+     *  the dominant cost of a repaint even though the style rarely changes. <br>
+     *  With style memoization enabled, SwingTree instead remembers which inputs the last
+     *  run of the stylers of a component read (its size, preferred size, component state
+     *  like focus, selection or rollover, its id, style groups, inherited font and the UI
+     *  scale) and reuses the previous style for as long as none of them changed.
+     *  Components with running animations are always re-styled.
+     *  Gathered styles are also interned in this mode, so that components with equal styles
+     *  share one instance and the render caches find their entries through a reference comparison.
+     *  <p>
+     *  This is opt-in because a styler may also read state which SwingTree cannot observe,
+     *  like a value captured from a view model instead of bound through
+     *  {@link UIForAnySwing#withStyle(sprouts.Val, swingtree.api.ItemStyler)}. Such a styler would
+     *  only be re-run once one of the tracked inputs changes. Only enable this if your
+     *  stylers are functions of the component and of bound properties.
+     *  It can also be set through the system property {@code "swingtree.style.memoize"}
+     *  and changed at runtime through {@link SwingTree#setStyleMemoizationEnabled(boolean)}.
+     *  <p>
+     *  <strong>Default</strong> {@code false}
+     *
+     * @param enabled Whether unchanged style gatherings may be skipped during painting.
+     * @return A new {@link SwingTreeInitConfig} instance with the new flag.
+     * @see SwingTree#isStyleMemoizationEnabled()
+     */
+    public SwingTreeInitConfig withStyleMemoizationEnabled( boolean enabled ) {
+        return new SwingTreeInitConfig(
+                _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
+                _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, enabled, _isOffHeapCacheEnabled, _exemplarDiskCacheDirectory
+        );
+    }
+
+    /**
+     *  Tells whether SwingTree stores the pixels of cached style renderings outside of
+     *  the Java heap (see {@link #withOffHeapCacheEnabled(boolean)}).
+     */
+    boolean isOffHeapCacheEnabled() {
+        return _isOffHeapCacheEnabled;
+    }
+
+    /**
+     *  SwingTree caches the rendered output of component styles in images which, like all
+     *  {@link java.awt.image.BufferedImage}s, keep their pixels in large {@code int} arrays on the
+     *  Java heap. With a generous {@link CacheMode} these arrays can add up to hundreds of
+     *  megabytes of long-lived objects, which every full garbage collection has to visit and
+     *  move, and which count against the maximum heap size. <br>
+     *  With this enabled, the pixels of cached style renderings are stored in native memory
+     *  instead, which is freed right away when an entry is evicted from the cache, rather than
+     *  whenever the garbage collector gets to it. The heap then no longer grows with the cache.
+     *  <p>
+     *  This is opt-in because Java2D has no optimized drawing routines for images it does
+     *  not own the pixel storage of, so rendering into and copying from the cache takes
+     *  longer. It pays off for large caches on machines where heap size and collection
+     *  pauses matter more than the cost of a cache hit.
+     *  It can also be set through the system property {@code "swingtree.cacheMode.offHeap"}
+     *  and changed at runtime through {@link SwingTree#setOffHeapCacheEnabled(boolean)}.
+     *  <p>
+     *  <strong>Default</strong> {@code false}
+     *
+     * @param enabled Whether cached style renderings store their pixels outside of the Java heap.
+     * @return A new {@link SwingTreeInitConfig} instance with the new flag.
+     * @see SwingTree#isOffHeapCacheEnabled()
+     */
+    public SwingTreeInitConfig withOffHeapCacheEnabled( boolean enabled ) {
+        return new SwingTreeInitConfig(
+                _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
+                _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, enabled, _exemplarDiskCacheDirectory
+        );
+    }
+
+    /**
+     *  Returns the directory in which SwingTree persists the small exemplar renderings of stretch
+     *  tiled component styles across application restarts, or an empty {@link Optional} if it does
+     *  not (see {@link #withExemplarDiskCacheDirectory(File)}).
+     */
+    Optional<File> exemplarDiskCacheDirectory() {
+        return Optional.ofNullable(_exemplarDiskCacheDirectory);
+    }
+
+    /**
+     *  Most component styles (rounded backgrounds, borders and shadows) are cached as a small
+     *  exemplar rendering from which any actual component size is reconstructed (see
+     *  {@link #withCacheTilingEnabled(boolean)}). These exemplars are cheap to keep but not to
+     *  make, and an application renders the very same ones again every time it starts, which
+     *  is a good part of why its first frames are slower than the ones after. <br>
+     *  Supply a directory here, and every exemplar rendering is additionally written to a small
+     *  file in it, from which it is read back (instead of rendered) the next time the application
+     *  needs it, even after a restart. Files are only ever read when an exemplar is first needed,
+     *  so a large directory costs nothing at startup, and they are read and written on a background
+     *  thread, so painting never waits for the disk: a component is rendered directly while the
+     *  file of its exemplar is being read.
+     *  <p>
+     *  Entries are keyed by the complete style configuration of the exemplar and by the rendering
+     *  hints it was rendered with, and they are versioned by the SwingTree version,
+     *  the Java version and the UI scale they were rendered for, so a
+     *  stale entry is never used, it is simply rendered and written again.
+     *  Unreadable or corrupt files are ignored in the same way. The directory is created if it
+     *  does not exist, and its contents may be deleted at any time the application is not running.
+     *  It can also be set through the system property {@code "swingtree.cacheMode.exemplarDirectory"}
+     *  and changed at runtime through {@link SwingTree#setExemplarDiskCacheDirectory(File)}.
+     *  <p>
+     *  <strong>Default</strong> {@code null}, which means that nothing is persisted.
+     *
+     * @param directory The directory to persist exemplar renderings in, or null to not persist them.
+     * @return A new {@link SwingTreeInitConfig} instance with the new directory.
+     * @see SwingTree#getExemplarDiskCacheDirectory()
+     */
+    public SwingTreeInitConfig withExemplarDiskCacheDirectory( @Nullable File directory ) {
+        return new SwingTreeInitConfig(
+                _defaultFont, _fontInstallation, _eventProcessor, _styleSheet, _uiScale, _uiScaleEnabled,
+                _uiScaleAllowScaleDown, _defaultAnimationInterval, _logMarker, _recordDebugSourceTrace,
+                _devToolKeyStrokeShortcut, _cacheMode, _isCacheTilingEnabled, _isStyleMemoizationEnabled, _isOffHeapCacheEnabled, directory
         );
     }
 
@@ -732,6 +873,35 @@ public final class SwingTreeInitConfig
          */
         String CACHE_TILING = "swingtree.cacheMode.tiling";
 
+        /**
+         * Enables or disables the reuse of a component's previously gathered style during
+         * painting for as long as none of the inputs its stylers read have changed
+         * (see {@link SwingTreeInitConfig#withStyleMemoizationEnabled(boolean)}).
+         * <p>
+         * <strong>Allowed Values</strong> {@code true} or {@code false}<br>
+         * <strong>Default</strong> {@code false}
+         */
+        String STYLE_MEMOIZATION = "swingtree.style.memoize";
+
+        /**
+         * Enables or disables storing the pixels of cached style renderings outside of
+         * the Java heap (see {@link SwingTreeInitConfig#withOffHeapCacheEnabled(boolean)}).
+         * <p>
+         * <strong>Allowed Values</strong> {@code true} or {@code false}<br>
+         * <strong>Default</strong> {@code false}
+         */
+        String CACHE_OFF_HEAP = "swingtree.cacheMode.offHeap";
+
+        /**
+         * Specifies a directory in which the exemplar renderings of stretch tiled component
+         * styles are persisted across application restarts
+         * (see {@link SwingTreeInitConfig#withExemplarDiskCacheDirectory(File)}).
+         * <p>
+         * <strong>Allowed Values</strong> a path to a writable directory<br>
+         * <strong>Default</strong> none, nothing is persisted
+         */
+        String CACHE_EXEMPLAR_DIRECTORY = "swingtree.cacheMode.exemplarDirectory";
+
         /**
          * Checks whether a system property is set and returns {@code true} if its value
          * is {@code "true"} (case-insensitive), otherwise it returns {@code false}.
@@ -742,6 +912,14 @@ public final class SwingTreeInitConfig
             return (value != null) ? Boolean.parseBoolean( value ) : defaultValue;
         }
 
+        /**
+         * Returns the file a system property names, or {@code null} if it is not set or blank.
+         */
+        static @Nullable File getFile( String key ) {
+            String value = System.getProperty( key );
+            return ( value != null && !value.trim().isEmpty() ) ? new File( value.trim() ) : null;
+        }
+
         /**
          * Similar to sun.java2d.SunGraphicsEnvironment.getScaleFactor(String)
          */
@@ -462,18 +462,18 @@ public final class UI extends UIFactoryMethods
     public enum NoiseType implements UIEnum<NoiseType>, NoiseFunction
     {
         CELLS(NoiseFunctions::cells),
-        FABRIC(NoiseFunctions::fabric),
-        GRAINY(NoiseFunctions::grainy),
-        HARD_SPOTS(NoiseFunctions::hardSpots),
-        HARD_TOPOLOGY(NoiseFunctions::hardTopology),
+        FABRIC(NoiseFunctions::fabric, NoiseFunctions::fabric),
+        GRAINY(NoiseFunctions::grainy, NoiseFunctions::grainy),
+        HARD_SPOTS(NoiseFunctions::hardSpots, NoiseFunctions::hardSpots),
+        HARD_TOPOLOGY(NoiseFunctions::hardTopology, NoiseFunctions::hardTopology),
         HAZE(NoiseFunctions::haze),
         MANDELBROT(NoiseFunctions::mandelbrot),
         MOSAIC(NoiseFunctions::mosaic),
         GEM_STONES(NoiseFunctions::gemStones),
         RETRO(NoiseFunctions::retro),
-        STOCHASTIC(NoiseFunctions::stochastic),
-        SMOOTH_TOPOLOGY(NoiseFunctions::smoothTopology),
-        SMOOTH_SPOTS(NoiseFunctions::smoothSpots),
+        STOCHASTIC(NoiseFunctions::stochastic, NoiseFunctions::stochastic),
+        SMOOTH_TOPOLOGY(NoiseFunctions::smoothTopology, NoiseFunctions::smoothTopology),
+        SMOOTH_SPOTS(NoiseFunctions::smoothSpots, NoiseFunctions::smoothSpots),
         SPIRALS(NoiseFunctions::spirals),
         TILES(NoiseFunctions::tiles),
         TISSUE(NoiseFunctions::tissue),
@@ -481,7 +481,7 @@ public final class UI extends UIFactoryMethods
         POND_IN_RAIN(NoiseFunctions::pondInRain),
         POND_OF_STRINGS(NoiseFunctions::pondOfStrings),
         POND_OF_TANGLED_STRINGS(NoiseFunctions::pondOfTangledStrings),
-        MARBLE(NoiseFunctions::marble),
+        MARBLE(NoiseFunctions::marble, NoiseFunctions::marble),
         WOOD(NoiseFunctions::wood),
         PLASMA(NoiseFunctions::plasma),
         CLOUDS(NoiseFunctions::clouds),
@@ -490,8 +490,8 @@ public final class UI extends UIFactoryMethods
         FLOW(NoiseFunctions::flow),
         LIGHTNING(NoiseFunctions::lightning),
         FOLIAGE(NoiseFunctions::foliage),
-        FRACTAL(NoiseFunctions::fractal),
-        TURBULENCE(NoiseFunctions::turbulence),
+        FRACTAL(NoiseFunctions::fractal, NoiseFunctions::fractal),
+        TURBULENCE(NoiseFunctions::turbulence, NoiseFunctions::turbulence),
         RIDGES(NoiseFunctions::ridges),
         BRUSHED_METAL(NoiseFunctions::brushedMetal),
         SCRATCHES(NoiseFunctions::scratches),
@@ -516,16 +516,37 @@ public final class UI extends UIFactoryMethods
         WAVES(NoiseFunctions::waves);
 
 
-        private final NoiseFunction function;
+        /** A row implementation of a noise function, see {@link NoiseFunction#fillRow(float[], float, float[], int)}. */
+        @Immutable
+        private interface RowFunction {
+            void fillRow( float[] xs, float y, float[] out, int count );
+        }
+
+        private final NoiseFunction         function;
+        private final @Nullable RowFunction rowFunction;
 
         NoiseType( NoiseFunction function ) {
-            this.function = function;
+            this.function    = function;
+            this.rowFunction = null;
+        }
+
+        NoiseType( NoiseFunction function, RowFunction rowFunction ) {
+            this.function    = function;
+            this.rowFunction = rowFunction;
         }
 
         @Override
         public float getFractionAt(float x, float y) {
             return function.getFractionAt(x, y);
         }
+
+        @Override
+        public void fillRow( float[] xs, float y, float[] out, int count ) {
+            if ( rowFunction != null )
+                rowFunction.fillRow(xs, y, out, count);
+            else
+                NoiseFunction.super.fillRow(xs, y, out, count);
+        }
     }
 
     /**
@@ -589,6 +610,37 @@ public final class UI extends UIFactoryMethods
         REPEAT
     }
 
+    /**
+     *  A hint for how a gradient, which SwingTree rasterizes itself rather than
+     *  through the Java 2D gradient paints, trades precision for speed.
+     *  Pass one of these to {@link GradientConf#quality(swingtree.UI.GradientQuality)}
+     *  as part of the style API (see {@link UIForAnySwing#withStyle(Styler)}).
+     *  <p>
+     *  Currently this only affects {@link GradientType#CONIC} gradients, whose every
+     *  pixel needs the angle around the center of the gradient.
+     *
+     * @see ComponentStyleDelegate#gradient(Configurator)
+     */
+    @Immutable
+    public enum GradientQuality implements UIEnum<GradientQuality>
+    {
+        /**
+         *  Computes every pixel as precisely as possible. This is the default.
+         */
+        EXACT,
+        /**
+         *  Steps from pixel to pixel incrementally and computes angles with a polynomial
+         *  approximation, which is several times faster. For the gradients whose colors
+         *  SwingTree looks up in a table, which are all but the ones with nearly coinciding
+         *  color stops, its error is far too small to change a single color level.
+         *  In the latter, a sharp transition may be displaced by up to 0.0006 degrees,
+         *  which is less than half a pixel within 40 000 pixels of the center.
+         *  Use this for large gradients which are rendered anew very often,
+         *  like an animated full screen background.
+         */
+        FAST
+    }
+
     /**
      *  Defines the shape of the "falloff curve" of a shadow, that is to say,
      *  the way in which the shadow color fades from its full strength into full
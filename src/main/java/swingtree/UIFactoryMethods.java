@@ -43,6 +43,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -6164,6 +6165,59 @@ public abstract class UIFactoryMethods extends UILayoutConstants
         animate(state, animatable.apply(state.get()));
     }
 
+    /**
+     *  Use this to animate the contents of a property through an {@link Animatable},
+     *  just like {@link UI#animate(Var, Animatable)}, except that the {@link AnimationTransformation}
+     *  is evaluated off the UI thread, by the animation frame clock. Only the final writes of the
+     *  transformed items to the property are committed to the UI thread, in one batch per frame,
+     *  together with the repaints of all animated components. <br>
+     *  This is meant for view models whose transformation is costly, for example because
+     *  they interpolate a lot of state, and works the same way for every {@link swingtree.threading.EventProcessor}. <br>
+     *  <b>The transformation must be thread safe, and it only ever receives the items it returned itself,
+     *  starting with the initial state of the animatable or the current item of the property,
+     *  so the property should not be changed by anyone else while the animation is running.</b>
+     *  Whether the animation should go on is decided on that same thread, for which see
+     *  {@link swingtree.animation.AnimationDispatcher#goInBackground(Var, AnimationTransformation)}.
+     *  <pre>{@code
+     *    UI.button("Login").onClick( it -> {
+     *      UI.animateInBackground(vm, vm.get().withLoginAnimation());
+     *    })
+     *  }</pre>
+     *
+     * @param state A mutable property or property lens holding an immutable item which should
+     *              be updated repeatedly by the {@link AnimationTransformation} inside the {@link Animatable}.
+     * @param animatable A wrapper for the transformational {@link AnimationTransformation} and the {@link LifeTime}
+     *                   defining the duration of the animation.
+     * @param <T> The type of the property or property lens.
+     */
+    public static <T> void animateInBackground( Var<T> state, Animatable<T> animatable ) {
+        Optional<T>     initialState = animatable.initialState();
+        LifeTime        lifeTime     = animatable.lifeTime();
+        AnimationTransformation<T> animator     = animatable.animator();
+
+        initialState.ifPresent(state::set);
+
+        if ( !lifeTime.equals(LifeTime.none()) )
+            UI.animateFor(lifeTime).goInBackground(state, animator);
+    }
+
+    /**
+     *  Use this to animate the contents of a property through an {@link Animatable}
+     *  created from the current item of the property, just like {@link UI#animate(Var, Function)},
+     *  except that the {@link AnimationTransformation} is evaluated off the UI thread.
+     *  See {@link UI#animateInBackground(Var, Animatable)} for more information.
+     *
+     * @param state A mutable property or property lens holding an immutable item which should
+     *              be updated repeatedly by the {@link AnimationTransformation} inside the {@link Animatable}.
+     * @param animatable A function taking in the current property item and returning
+     *                   a wrapper for the transformational {@link AnimationTransformation} and the {@link LifeTime}
+     *                   defining the duration of the animation.
+     * @param <T> The type of the property or property lens.
+     */
+    public static <T> void animateInBackground( Var<T> state, Function<T, Animatable<T>> animatable ) {
+        animateInBackground(state, animatable.apply(state.get()));
+    }
+
     /**
      *  Exposes an API for scheduling periodic animation updates.
      *  This is a convenience method for {@link AnimationDispatcher#animateFor(LifeTime)}. <br>
@@ -6837,28 +6891,97 @@ public abstract class UIFactoryMethods extends UILayoutConstants
      */
     public static Optional<ImageIcon> findIcon( IconDeclaration declaration ) {
         Objects.requireNonNull(declaration, "declaration");
-        Function<IconDeclaration, @Nullable ImageIcon> loader = _loaderFor(declaration.sourceFormat());
         Map<IconDeclaration, ImageIcon> cache = SwingTree.get().getIconCache();
         ImageIcon icon = cache.get(declaration);
         if ( icon == null ) {
-            icon = loader.apply(declaration);
+            icon = _loadIcon(declaration, cache::put);
             if ( icon != null )
                 cache.put(declaration, icon);
-            else {
-                IconDeclaration unscaled = IconDeclaration.of(Size.unknown(), declaration.sourceFormat(), declaration.source());
-                icon = loader.apply(unscaled);
-                if ( icon != null )
-                    cache.put(unscaled, icon);
-                Optional<Size> optionalSize = declaration.size();
-                if ( optionalSize.isPresent() )
-                    icon = (ImageIcon) scaleIconTo(optionalSize.get(), icon);
-                if ( icon != null )
-                    cache.put(declaration, icon);
-            }
         }
         return Optional.ofNullable(icon);
     }
 
+    /**
+     * Returns an icon for the supplied declaration right away, without blocking
+     * the calling thread on reading, parsing or rasterizing it. <br>
+     * If the icon is already in the icon cache (see {@link SwingTree#getIconCache()}),
+     * it is returned as is. Otherwise, it is loaded on a small pool of background threads,
+     * and what is returned is a stand-in for it, which paints nothing until the icon is ready.
+     * Every component the stand-in was painted onto in the meantime is then repainted
+     * exactly once, and the loaded icon is put into the icon cache.
+     * <br><br>
+     * The stand-in has the size of the declaration (see {@link IconDeclaration#size()}),
+     * if it has one. So to avoid a layout jump when an icon is ready, declare its size.
+     * <br><br>
+     * Note that the stand-in is a plain {@link ImageIcon} delegating to the loaded icon,
+     * so it is never an instance of {@link SvgIcon}, even if the loaded icon is one.
+     * Use {@link #findIcon(IconDeclaration)} if you need the loaded icon itself.
+     * <br><br>
+     * If the icon cannot be loaded, the failure is logged and the stand-in keeps painting
+     * nothing (or the placeholder) for good, it is not loaded again. A later call
+     * to this method for the same declaration makes a new attempt though.
+     *
+     * @param declaration The icon declaration, a value object defining the path to the icon.
+     * @return The cached icon, or a stand-in which paints the icon as soon as it is loaded.
+     * @throws NullPointerException if {@code declaration} is {@code null}.
+     */
+    public static ImageIcon findIconLater( IconDeclaration declaration ) {
+        Objects.requireNonNull(declaration, "declaration");
+        return BackgroundIconLoader.find(declaration, null);
+    }
+
+    /**
+     * Returns an icon for the supplied declaration right away, without blocking
+     * the calling thread on reading, parsing or rasterizing it, and which paints
+     * the supplied placeholder until the icon is loaded. <br>
+     * See {@link #findIconLater(IconDeclaration)} for the details.
+     * If the icon is already being loaded in the background, the placeholder
+     * of the first request for it is used.
+     *
+     * @param declaration The icon declaration, a value object defining the path to the icon.
+     * @param placeholder The icon to paint until the declared icon is loaded.
+     *                    If the declaration has no size, the stand-in has the size of the placeholder.
+     * @return The cached icon, or a stand-in which paints the placeholder until the icon is loaded.
+     * @throws NullPointerException if {@code declaration} or {@code placeholder} is {@code null}.
+     */
+    public static ImageIcon findIconLater( IconDeclaration declaration, Icon placeholder ) {
+        Objects.requireNonNull(declaration, "declaration");
+        Objects.requireNonNull(placeholder, "placeholder");
+        return BackgroundIconLoader.find(declaration, placeholder);
+    }
+
+    /**
+     *  Loads the icon of the supplied declaration exactly like {@link #findIcon(IconDeclaration)},
+     *  but without reading from or writing to the icon cache, which is only safe to touch
+     *  from the UI thread. This is what the {@link BackgroundIconLoader} does off the UI thread.
+     */
+    static @Nullable ImageIcon _loadIconWithoutCaching( IconDeclaration declaration ) {
+        return _loadIcon(declaration, (unscaled, icon) -> {});
+    }
+
+    /**
+     *  Loads the icon of the supplied declaration, or if that fails, the icon of its source
+     *  without a size, which is then scaled to the size of the declaration.
+     *  The unscaled icon is handed to the supplied consumer, so that it may be cached as well.
+     */
+    private static @Nullable ImageIcon _loadIcon(
+        IconDeclaration                        declaration,
+        BiConsumer<IconDeclaration, ImageIcon> unscaledIconConsumer
+    ) {
+        Function<IconDeclaration, @Nullable ImageIcon> loader = _loaderFor(declaration.sourceFormat());
+        ImageIcon icon = loader.apply(declaration);
+        if ( icon == null ) {
+            IconDeclaration unscaled = IconDeclaration.of(Size.unknown(), declaration.sourceFormat(), declaration.source());
+            icon = loader.apply(unscaled);
+            if ( icon != null )
+                unscaledIconConsumer.accept(unscaled, icon);
+            Optional<Size> optionalSize = declaration.size();
+            if ( optionalSize.isPresent() )
+                icon = (ImageIcon) scaleIconTo(optionalSize.get(), icon);
+        }
+        return icon;
+    }
+
     public static @Nullable Icon scaleIconTo( Size size, @Nullable Icon icon ) {
         if ( icon == null )
             return null;
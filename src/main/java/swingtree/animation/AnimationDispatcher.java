@@ -1,6 +1,7 @@
 package swingtree.animation;
 
 import org.jspecify.annotations.Nullable;
+import sprouts.Var;
 import swingtree.ComponentDelegate;
 
 import java.awt.*;
@@ -114,7 +115,8 @@ public final class AnimationDispatcher
      *  Use this to define a stop condition for the animation.
      *
      * @param shouldStop The stop condition for the animation, i.e. the animation will be executed
-     *                   until this condition is true.
+     *                   until this condition is true. For an animation which {@link #goInBackground(Var, AnimationTransformation) goes into the background},
+     *                   it is checked off the UI thread.
      * @return A new {@link AnimationDispatcher} instance that will be executed until the given stop condition is true.
      */
     public AnimationDispatcher until( Predicate<AnimationStatus> shouldStop ) {
@@ -125,7 +127,8 @@ public final class AnimationDispatcher
      *  Use this to define a running condition for the animation.
      *
      * @param shouldRun The running condition for the animation, i.e. the animation will be executed
-     *                  as long as this condition is true.
+     *                  as long as this condition is true. For an animation which {@link #goInBackground(Var, AnimationTransformation) goes into the background},
+     *                  it is checked off the UI thread.
      * @return A new {@link AnimationDispatcher} instance that will be executed as long as the given running condition is true.
      */
     public AnimationDispatcher asLongAs( Predicate<AnimationStatus> shouldRun ) {
@@ -156,6 +159,30 @@ public final class AnimationDispatcher
             ));
     }
 
+    /**
+     *  Animates the item of the supplied property through the supplied transformation,
+     *  based on the stop condition defined by {@link #until(Predicate)} or {@link #asLongAs(Predicate)},
+     *  just like {@link #go(Animation)} does for an {@link Animation#of(Var, AnimationTransformation)},
+     *  except that the transformation is evaluated off the UI thread, by the animation frame clock. <br>
+     *  Only the resulting items are written to the property on the UI thread,
+     *  together with those of all other animations evaluated in the same frame. <br>
+     *  <b>The transformation must therefore be thread safe, and it only ever receives
+     *  the items it returned itself, starting with the current item of the property,
+     *  so changes made to the property by anyone else during the animation are overwritten.</b> <br>
+     *  The same goes for the stop condition defined by {@link #until(Predicate)} or {@link #asLongAs(Predicate)},
+     *  which is checked for every frame right before the transformation, on the same thread.
+     *  It must be thread safe as well, so it should only look at the {@link AnimationStatus} it receives
+     *  (or at state which is safe to read from any thread), but never at components or at properties
+     *  which are changed on the UI thread.
+     *
+     * @param target The property whose item should be animated.
+     * @param animator The transformation of the item, which is evaluated off the UI thread.
+     * @param <T> The type of the item of the property.
+     */
+    public <T> void goInBackground( Var<T> target, AnimationTransformation<T> animator ) {
+        go( new BackgroundAnimation<>(target, animator) );
+    }
+
     /**
      *  Runs the given animation based on a time offset in the given time unit
      *  and the stop condition defined by {@link #until(Predicate)} or {@link #asLongAs(Predicate)}.
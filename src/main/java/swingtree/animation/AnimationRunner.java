@@ -1,100 +1,392 @@
 package swingtree.animation;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import swingtree.SwingTree;
 import swingtree.UI;
 import swingtree.style.ComponentExtension;
 
 import javax.swing.JComponent;
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  *  This is a singleton class responsible for running {@link RunningAnimation}
  *  instances (which are wrapper classes for {@link Animation} instances)
- *  in a regular interval based on a Swing {@link Timer}.
- *  The timer is started when the first animation is scheduled and stopped when the last animation is finished.
+ *  on a single frame clock, which all running animations share. <br>
+ *  <br>
+ *  The clock is a daemon thread which wakes up at the interval of the fastest
+ *  running animation, measured with {@link System#nanoTime()}, and posts a frame to the
+ *  UI thread. A frame advances every animation whose own interval has elapsed in one pass,
+ *  so animations with 16, 20 and 33 ms intervals no longer tick on three unsynchronized timers,
+ *  and it then repaints each of the animated components once, no matter how many
+ *  animations it has. So the repaint manager paints them all together, once per frame.
+ *  A component is only revalidated if the animated style changed its layout
+ *  (see {@link ComponentExtension#gatherApplyAndInstallAnimatedStyle()}). <br>
+ *  If the UI thread has not gotten around to the previous frame yet, the clock
+ *  drops the next one instead of queueing it up, and if the clock itself falls behind,
+ *  it skips the missed frames instead of catching up on them.
+ *  The clock is started when the first animation is scheduled and stops
+ *  when the last animation is finished. <br>
+ *  <br>
+ *  A frame allocates nothing but the {@link AnimationStatus} of every advanced animation,
+ *  which cannot be recycled, because user code and the animated stylers keep them around.
+ *  The running animations live in two lists which swap roles every frame:
+ *  the animations which keep running are copied from one into the other,
+ *  instead of iterating a fresh array snapshot and removing the finished ones one by one.
+ *  The components of a frame are collected in lists and identity maps, whose
+ *  open addressing tables (unlike the entries of a hash set) are reused from one frame to the next,
+ *  and every loop is indexed, so that not even an iterator is created. <br>
+ *  <br>
+ *  The {@link BackgroundAnimation}s of {@link swingtree.UI#animateInBackground(sprouts.Var, Animatable)}
+ *  are not advanced on the UI thread at all. The clock thread evaluates their status, their run
+ *  condition (see {@link AnimationDispatcher#goInBackground(sprouts.Var, AnimationTransformation)})
+ *  and their transformations right before it posts a frame, and only stages the resulting
+ *  property writes, of which the frame then commits the latest one of every animation,
+ *  all in one batch, before it advances the other animations.
  */
 final class AnimationRunner
 {
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(AnimationRunner.class);
 
-    private static final Map<Integer,AnimationRunner> _INSTANCES = new HashMap<>();
+    private static final AnimationRunner _INSTANCE = new AnimationRunner();
 
 
     public static void add( RunningAnimation toBeRun ) {
         Objects.requireNonNull(toBeRun);
         UI.run(()->{
-            int interval = (int) toBeRun.lifeSpan().lifeTime().getIntervalIn(TimeUnit.MILLISECONDS);
-            AnimationRunner runner = _INSTANCES.computeIfAbsent(interval, it -> new AnimationRunner(interval));
-            runner._add(toBeRun);
+            _INSTANCE._add(toBeRun);
         });
     }
 
 
-    private final Timer _timer;
+    private List<RunningAnimation>       _runningAnimations  = new ArrayList<>();
+    private List<RunningAnimation>       _keptAnimations     = new ArrayList<>(); // The other buffer, empty between frames.
+    private final List<Runnable>         _toBeFinished       = new ArrayList<>();
+    private final List<JComponent>       _toBeCleaned        = new ArrayList<>();
+    private List<Component>              _toBeRepainted      = new ArrayList<>();
+    private List<Component>              _beingRepainted     = new ArrayList<>(); // The other buffer, empty between frames.
+    private final Map<Component, Boolean>  _repaintRequested   = new IdentityHashMap<>();
+    private final Map<JComponent, Boolean> _advancedComponents = new IdentityHashMap<>();
+    private final AtomicBoolean          _framePending       = new AtomicBoolean(false);
 
-    private final List<RunningAnimation> _runningAnimations = new ArrayList<>();
-    private final List<Runnable>         _toBeFinished = new ArrayList<>();
-    private final List<JComponent>       _toBeCleaned = new ArrayList<>();
+    private final List<RunningAnimation>          _backgroundAnimations = new ArrayList<>();       // Guarded by this runner.
+    private final List<RunningAnimation>          _backgroundSnapshot   = new ArrayList<>();       // Only used by the clock thread.
+    private final Map<RunningAnimation, Runnable> _stagedCommits        = new LinkedHashMap<>();   // Guarded by this runner.
+    private final Set<Component>                  _stagedRepaints       = new LinkedHashSet<>();   // Guarded by this runner.
 
+    /** The nanoseconds between two frames, which is {@code 0} when there is nothing to animate. */
+    private volatile long _frameNanos = 0;
+    private @Nullable Thread _clock = null; // Guarded by this runner.
 
-    private AnimationRunner( int delay ) {
-         _timer = new Timer( delay, this::_run );
+
+    private AnimationRunner() {}
+
+    private void _add( RunningAnimation runningAnimation ) {
+        Objects.requireNonNull(runningAnimation, "Null is not a valid animator!");
+        runningAnimation.setLastFrameTime(System.currentTimeMillis());
+        if ( runningAnimation.animation() instanceof BackgroundAnimation ) {
+            synchronized ( this ) {
+                _backgroundAnimations.add(runningAnimation);
+            }
+        }
+        else
+            _runningAnimations.add(runningAnimation);
+        _updateFrameRate();
+    }
+
+    /**
+     *  Sets the frame interval to the interval of the fastest running animation,
+     *  and starts the clock if it is not running yet, or stops it if there is nothing left to do.
+     */
+    private void _updateFrameRate() {
+        long interval = Long.MAX_VALUE;
+        for ( int i = 0; i < _runningAnimations.size(); i++ )
+            interval = Math.min(interval, _intervalOf(_runningAnimations.get(i)));
+        synchronized ( this ) {
+            for ( int i = 0; i < _backgroundAnimations.size(); i++ )
+                interval = Math.min(interval, _intervalOf(_backgroundAnimations.get(i)));
+            boolean nothingToAnimate = _runningAnimations.isEmpty() && _backgroundAnimations.isEmpty();
+            long frameNanos = nothingToAnimate ? 0 : TimeUnit.MILLISECONDS.toNanos(Math.max(1, interval));
+            if ( frameNanos == 0 && ( !_toBeFinished.isEmpty() || !_toBeCleaned.isEmpty() || !_stagedCommits.isEmpty() ) )
+                frameNanos = _frameNanos; // One more frame for finishing and cleaning up the last animations.
+            _frameNanos = frameNanos;
+            if ( frameNanos > 0 && _clock == null ) {
+                _clock = new Thread(this::_tick, "SwingTree-Animation-Clock");
+                _clock.setDaemon(true); // Must never keep an application alive.
+                _clock.start();
+            }
+        }
+    }
+
+    private static long _intervalOf( RunningAnimation running ) {
+        return running.lifeSpan().lifeTime().getIntervalIn(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *  The loop of the clock thread, which evaluates the background animations and posts a frame
+     *  to the UI thread whenever the frame interval has passed, until there is nothing left to animate.
+     */
+    private void _tick() {
+        long nextFrame = System.nanoTime();
+        while ( true ) {
+            final long frameNanos;
+            synchronized ( this ) {
+                frameNanos = _frameNanos;
+                if ( frameNanos <= 0 ) {
+                    _clock = null;
+                    return;
+                }
+            }
+            nextFrame += frameNanos;
+            long now = System.nanoTime();
+            if ( nextFrame < now )
+                nextFrame = now; // We fell behind, so we skip the frames we missed.
+            while ( nextFrame - now > 0 ) {
+                LockSupport.parkNanos(nextFrame - now);
+                now = System.nanoTime();
+            }
+            ActionEvent event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "frame", System.currentTimeMillis(), 0);
+            _evaluateBackgroundAnimations(event);
+            if ( _framePending.compareAndSet(false, true) )
+                SwingUtilities.invokeLater(() -> _frame(event));
+            // Otherwise the UI thread is still busy with the last frame, so we drop this one.
+            // Its staged commits are not lost though, the pending frame or the next one commits them.
+        }
+    }
+
+    private void _frame( ActionEvent event ) {
+        try {
+            _commitBackgroundAnimations();
+            _run(event);
+        } finally {
+            _framePending.set(false);
+        }
+    }
+
+    /**
+     *  Advances the background animations whose interval has elapsed on the clock thread,
+     *  and stages the property writes of their results, which replace
+     *  the writes staged for them in a previous frame that was not committed yet.
+     */
+    private void _evaluateBackgroundAnimations( ActionEvent event ) {
+        synchronized ( this ) {
+            if ( _backgroundAnimations.isEmpty() )
+                return;
+            for ( int i = 0; i < _backgroundAnimations.size(); i++ )
+                _backgroundSnapshot.add(_backgroundAnimations.get(i));
+        }
+        long now = event.getWhen();
+        long halfFrame = TimeUnit.NANOSECONDS.toMillis(_frameNanos) / 2;
+        for ( int i = 0; i < _backgroundSnapshot.size(); i++ ) {
+            RunningAnimation running = _backgroundSnapshot.get(i);
+            if ( now - running.lastFrameTime() + halfFrame < _intervalOf(running) )
+                continue;
+            running.setLastFrameTime(now);
+            _evaluateAndStage(running, now, event);
+        }
+        _backgroundSnapshot.clear();
+    }
+
+    private void _evaluateAndStage( RunningAnimation running, long now, ActionEvent event ) {
+        if ( now < running.lifeSpan().getStartTimeIn(TimeUnit.MILLISECONDS) )
+            return;
+
+        BackgroundAnimation<?> animation = (BackgroundAnimation<?>) running.animation();
+        AnimationStatus status = AnimationStatus.of(running.lifeSpan(), running.stride(), event, now);
+        boolean shouldContinue = false;
+        try {
+            long duration = status.lifeSpan().lifeTime().getDurationIn(TimeUnit.MILLISECONDS);
+            shouldContinue = running.condition().shouldContinue(status) && duration > 0;
+        } catch ( Exception e ) {
+            log.warn(SwingTree.get().logMarker(), "An exception occurred while checking if an animation should continue!", e);
+        }
+
+        WeakReference<Component> compRef = running.compRef();
+        Component component = compRef == null ? null : compRef.get();
+        boolean componentIsGone = compRef != null && component == null;
+
+        Runnable commit = null;
+        try {
+            if ( componentIsGone )
+                shouldContinue = false;
+            else if ( shouldContinue ) {
+                running.setCurrentRepeat(status.repeats());
+                commit = animation.evaluate(status);
+            } else {
+                status = AnimationStatus.endOf(status.lifeSpan(), running.stride(), status.event(), running.currentRepeat());
+                animation.evaluate(status); // We run the animation one last time to get to its final state.
+                commit = animation.evaluateFinish(status);
+            }
+        } catch ( Exception e ) {
+            log.warn(SwingTree.get().logMarker(), "An exception occurred while evaluating an animation in the background!", e);
+            // Just like on the UI thread, an exception in a user provided animation must not mess up the other animations.
+        }
+
+        synchronized ( this ) {
+            if ( commit != null )
+                _stagedCommits.put(running, commit);
+            if ( component != null )
+                _stagedRepaints.add(component);
+            if ( !shouldContinue )
+                _backgroundAnimations.remove(running);
+        }
+    }
+
+    /**
+     *  Writes the results of the background animations to their properties, all in one batch,
+     *  and requests the repaint of their components together with the ones of the other animations.
+     */
+    private void _commitBackgroundAnimations() {
+        final Runnable[] commits;
+        synchronized ( this ) {
+            if ( _stagedCommits.isEmpty() && _stagedRepaints.isEmpty() )
+                return;
+            commits = _stagedCommits.values().toArray(new Runnable[0]);
+            _stagedCommits.clear();
+            for ( Component component : _stagedRepaints )
+                _requestRepaint(component);
+            _stagedRepaints.clear();
+        }
+        for ( Runnable commit : commits )
+            try {
+                commit.run();
+            } catch ( Exception e ) {
+                log.warn(SwingTree.get().logMarker(), "An exception occurred while committing the state of a background animation!", e);
+            }
     }
 
     private void _run( ActionEvent event ) {
 
         // We call "Animation.finish(..)" and trigger the last repaint cycle for components with terminated animations:
-        for ( Runnable finisher : _toBeFinished )
+        for ( int i = 0; i < _toBeFinished.size(); i++ )
             try {
-                finisher.run();
+                _toBeFinished.get(i).run();
             } catch ( Exception e ) {
                 log.warn( "Error finishing animation!", e );
             }
         _toBeFinished.clear();
 
         // In a previous run the animation terminated, so we remove animations from the component state:
-        for ( JComponent component : _toBeCleaned )
-            ComponentExtension.from(component).clearAnimations();
+        for ( int i = 0; i < _toBeCleaned.size(); i++ )
+            ComponentExtension.from(_toBeCleaned.get(i)).clearAnimations();
         _toBeCleaned.clear();
 
         if ( _runningAnimations.isEmpty() ) {
-            _timer.stop();
-            // We can remove the instance from the map since it's not needed anymore
-            _INSTANCES.remove(_timer.getDelay());
+            _repaintAnimatedComponents();
+            _updateFrameRate(); // Stops the clock.
             return;
         }
 
-        for ( RunningAnimation running : _runningAnimations )
-            running.component().ifPresent( component -> {
-                ComponentExtension.from(component).clearAnimations();
-            });
-
-        long now = System.currentTimeMillis();
+        long now = event.getWhen();
+        long halfFrame = TimeUnit.NANOSECONDS.toMillis(_frameNanos) / 2;
+
+        /*
+            User animation callbacks may add new animations on this very call (via AnimationRunner.add),
+            which are appended to the running animations. So we only advance the ones
+            which were there when the frame started, and carry the new ones over afterwards.
+        */
+        final int count = _runningAnimations.size();
+
+        /*
+            An animation is advanced if its interval has elapsed (give or take half a frame).
+            The animations of a component are cleared before they are advanced, so if one of them
+            is advanced, all the others of the same component have to be advanced as well,
+            or else they would be missing from the component until their own interval elapsed.
+        */
+        for ( int i = 0; i < count; i++ ) {
+            RunningAnimation running = _runningAnimations.get(i);
+            boolean advance = now - running.lastFrameTime() + halfFrame >= _intervalOf(running);
+            running.setAdvancing(advance);
+            JComponent component = running.componentOrNull();
+            if ( advance && component != null )
+                _advancedComponents.put(component, Boolean.TRUE);
+        }
+        for ( int i = 0; i < count; i++ ) {
+            RunningAnimation running = _runningAnimations.get(i);
+            JComponent component = running.componentOrNull();
+            if ( !running.isAdvancing() && component != null && _advancedComponents.containsKey(component) )
+                running.setAdvancing(true);
+        }
+        for ( int i = 0; i < count; i++ ) {
+            JComponent component = _runningAnimations.get(i).componentOrNull();
+            if ( component != null && _advancedComponents.remove(component) != null )
+                ComponentExtension.from(component).clearAnimations(); // Once per component.
+        }
 
-        // Snapshot to a typed array — user animation callbacks may add new animations
-        // back into `_runningAnimations` on this same EDT call (via AnimationRunner.add),
-        // so we must not iterate the live list directly.
-        RunningAnimation[] snapshot = _runningAnimations.toArray(new RunningAnimation[0]);
-        for ( int i = 0; i < snapshot.length; i++ ) {
-            RunningAnimation running = snapshot[i];
-            if ( !_runAndCheck(running, now, event) ) {
-                _runningAnimations.remove(running);
-                running.component().ifPresent( _toBeCleaned::add );
+        for ( int i = 0; i < count; i++ ) {
+            RunningAnimation running = _runningAnimations.get(i);
+            if ( running.isAdvancing() ) {
+                running.setLastFrameTime(now);
+                if ( !_runAndCheck(running, now, event) ) {
+                    JComponent component = running.componentOrNull();
+                    if ( component != null )
+                        _toBeCleaned.add(component);
+                    continue;
+                }
             }
+            _keptAnimations.add(running);
         }
+        for ( int i = count; i < _runningAnimations.size(); i++ )
+            _keptAnimations.add(_runningAnimations.get(i)); // Added during this frame.
+
+        List<RunningAnimation> previous = _runningAnimations;
+        _runningAnimations = _keptAnimations;
+        previous.clear();
+        _keptAnimations = previous;
+
+        _repaintAnimatedComponents();
+        _updateFrameRate();
     }
 
-    private void _add( RunningAnimation runningAnimation ) {
-        Objects.requireNonNull(runningAnimation, "Null is not a valid animator!");
-        _runningAnimations.add(runningAnimation);
-        if ( !_timer.isRunning() )
-            _timer.start();
+    private void _requestRepaint( @Nullable Component component ) {
+        if ( component != null && _repaintRequested.put(component, Boolean.TRUE) == null )
+            _toBeRepainted.add(component);
+    }
+
+    /**
+     *  Repaints every component whose animations were advanced in this frame exactly once,
+     *  so that the repaint manager paints all of them in a single pass.
+     *  A component is only revalidated as well if its animations changed
+     *  something which affects its layout, because a layout pass for an animation
+     *  which merely changes colors or shadows would be wasted.
+     */
+    private void _repaintAnimatedComponents() {
+        if ( _toBeRepainted.isEmpty() )
+            return;
+        List<Component> components = _toBeRepainted;
+        _toBeRepainted = _beingRepainted;
+        _beingRepainted = components;
+        _repaintRequested.clear();
+        for ( int i = 0; i < components.size(); i++ ) {
+            Component component = components.get(i);
+            boolean needsLayout = false;
+            if ( component instanceof JComponent ) {
+                /*
+                    We gather and install the style right away, instead of during the next paint,
+                    because only then do we know whether the layout changed.
+                    This is also necessary because there will be no repaint if the component is not visible.
+                    If the paint method encounters a component
+                    without size or parent, it will return early,
+                    and SwingTree code will not be reached.
+                 */
+                if ( ComponentExtension.from((JComponent) component).gatherApplyAndInstallAnimatedStyle() )
+                    needsLayout = true;
+            }
+            else
+                needsLayout = true;
+
+            if ( needsLayout || !component.isValid() ) // The installation itself may have invalidated the component.
+                component.revalidate();
+            component.repaint();
+        }
+        components.clear();
     }
 
     boolean _runAndCheck( RunningAnimation runningAnimation, long now, ActionEvent event )
@@ -129,23 +421,6 @@ final class AnimationRunner
         if ( compRef != null && component == null )
             return false; // There was a component, but it has been garbage collected.
 
-        Runnable requestComponentRepaint = () -> {
-                                                if ( component != null ) {
-                                                    if ( component.getParent() == null || !_isVisible(component) ) {
-                                                        ComponentExtension.from((JComponent) component).gatherApplyAndInstallStyle(false);
-                                                        /*
-                                                            There will be no repaint if the component is not visible.
-                                                            If the paint method encounters a component
-                                                            without size or parent, it will return early,
-                                                            and SwingTree code will not be reached.
-                                                            So we have to regather and apply the style information manually.
-                                                         */
-                                                    }
-                                                    component.revalidate();
-                                                    component.repaint();
-                                                }
-                                            };
-
         if ( !shouldContinue ) {
             try {
                 status = AnimationStatus.endOf(status.lifeSpan(), runningAnimation.stride(), status.event(), runningAnimation.currentRepeat());
@@ -166,7 +441,7 @@ final class AnimationRunner
                              as harmful as elsewhere!
                         */
                     }
-                    requestComponentRepaint.run();
+                    _requestRepaint(component);
                 });
             } catch ( Exception e ) {
                 log.warn(SwingTree.get().logMarker(), "An exception occurred while executing the finish procedure of an animation!", e);
@@ -182,7 +457,7 @@ final class AnimationRunner
                      library, thank you for using it! Good luck finding out what went wrong! :)
                 */
             }
-            requestComponentRepaint.run();
+            _requestRepaint(component);
             return false;
         }
 
@@ -204,34 +479,8 @@ final class AnimationRunner
             */
         }
 
-        requestComponentRepaint.run();
+        _requestRepaint(component);
         return true;
     }
 
-    /**
-     *  Determines the actual visibility of a component.
-     *  Merely checking {@link Component#isVisible()} is not enough, because
-     *  a component may be invisible if one of its parents is invisible
-     *  or if it has no size (width or height are 0).<br>
-     *  If a component is not visible, its paint method will not be called,
-     *  and so we have to manually gather and apply the style information.
-     *
-     * @param component The component to check for visibility to the user on the screen.
-     * @return True if the component is visible, false otherwise.
-     */
-    private static boolean _isVisible( Component component ) {
-        boolean hasSize = component.getWidth() > 0 && component.getHeight() > 0;
-        if ( !hasSize )
-            return false;
-
-        boolean isVisible = true;
-        for ( Component current = component; current != null; current = current.getParent() ) {
-            if ( !current.isVisible() ) {
-                isVisible = false;
-                break;
-            }
-        }
-        return isVisible;
-    }
-
 }
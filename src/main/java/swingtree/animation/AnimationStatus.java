@@ -195,11 +195,11 @@ public final class AnimationStatus implements Progress
     public LifeSpan lifeSpan() { return lifeSpan; }
 
     /**
-     *  Exposes the timer event that triggered the animation.
-     *  Note that under the hood, all animations with the same refresh rate will be
-     *  updated by the same timer and thus share the same event.
+     *  Exposes the frame event that triggered the animation.
+     *  Note that under the hood, all animations are updated by a single frame clock,
+     *  so all animations advanced in the same frame share the same event.
      *
-     * @return The timer event that triggered the animation.
+     * @return The frame event that triggered the animation.
      */
     public ActionEvent event() { return event; }
 
@@ -0,0 +1,66 @@
+package swingtree.animation;
+
+import sprouts.Var;
+
+import java.util.Objects;
+
+/**
+ *  An {@link Animation} of the item of a {@link Var} property, whose {@link AnimationTransformation}
+ *  is evaluated off the UI thread, by the frame clock of the {@link AnimationRunner}. <br>
+ *  The transformation only ever sees the items it produced itself, starting with the item of the property
+ *  at the time the animation was created, so it never reads the property from the clock thread.
+ *  Every evaluation returns the write of its result to the property,
+ *  which the runner commits on the UI thread, together with the writes of all other
+ *  background animations of the same frame.
+ *
+ * @param <T> The type of the item of the animated property.
+ */
+final class BackgroundAnimation<T> implements Animation
+{
+    private final Var<T>                     _target;
+    private final AnimationTransformation<T> _animator;
+    private T                                _value; // Only used by the clock thread once the animation is running.
+
+
+    BackgroundAnimation( Var<T> target, AnimationTransformation<T> animator ) {
+        _target   = Objects.requireNonNull(target);
+        _animator = Objects.requireNonNull(animator);
+        _value    = target.get();
+    }
+
+    /**
+     *  Transforms the item for the supplied status.
+     *
+     * @param status The status of the animation in the current frame.
+     * @return The write of the transformed item to the property, to be run on the UI thread.
+     * @throws Exception If the transformation throws, in which case nothing is written.
+     */
+    Runnable evaluate( AnimationStatus status ) throws Exception {
+        final T value = _animator.run(status, _value);
+        _value = value;
+        return () -> _target.set(value);
+    }
+
+    /**
+     *  Transforms the item one last time, after the animation has finished.
+     *
+     * @param status The final status of the animation.
+     * @return The write of the final item to the property, to be run on the UI thread.
+     * @throws Exception If the transformation throws, in which case nothing is written.
+     */
+    Runnable evaluateFinish( AnimationStatus status ) throws Exception {
+        final T value = _animator.finish(status, _value);
+        _value = value;
+        return () -> _target.set(value);
+    }
+
+    @Override
+    public void run( AnimationStatus status ) throws Exception {
+        evaluate(status).run();
+    }
+
+    @Override
+    public void finish( AnimationStatus status ) throws Exception {
+        evaluateFinish(status).run();
+    }
+}
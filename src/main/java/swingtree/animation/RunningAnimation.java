@@ -20,6 +20,8 @@ final class RunningAnimation
     private final RunCondition  _condition;
     private final Animation     _animation;
     private final AtomicLong    _currentRepeat = new AtomicLong(0);
+    private long                _lastFrameTime = 0; // Only used by the AnimationRunner, on the UI thread or, for a background animation, on its clock thread.
+    private boolean             _isAdvancing   = false; // Only used by the AnimationRunner on the UI thread.
 
 
     RunningAnimation(
@@ -41,9 +43,17 @@ final class RunningAnimation
     }
 
     public Optional<JComponent> component() {
-        if ( _compRef == null ) return Optional.empty();
+        return Optional.ofNullable( componentOrNull() );
+    }
+
+    /**
+     *  The same as {@link #component()}, but without wrapping the component in an {@link Optional},
+     *  which the {@link AnimationRunner} calls a few times per animation and frame.
+     */
+    @Nullable JComponent componentOrNull() {
+        if ( _compRef == null ) return null;
         Component _component = this._compRef.get();
-        return Optional.ofNullable( _component instanceof JComponent ? (JComponent) _component : null );
+        return _component instanceof JComponent ? (JComponent) _component : null;
     }
 
     public @Nullable WeakReference<Component> compRef() {
@@ -70,4 +80,28 @@ final class RunningAnimation
         _currentRepeat.set(repeat);
     }
 
+    /**
+     *  The time in milliseconds at which the {@link AnimationRunner} last advanced this animation,
+     *  which is used to advance it no more often than its interval.
+     */
+    long lastFrameTime() {
+        return _lastFrameTime;
+    }
+
+    void setLastFrameTime( long time ) {
+        _lastFrameTime = time;
+    }
+
+    /**
+     *  Whether the {@link AnimationRunner} advances this animation in the current frame,
+     *  which it decides for all animations before it advances any of them.
+     */
+    boolean isAdvancing() {
+        return _isAdvancing;
+    }
+
+    void setAdvancing( boolean isAdvancing ) {
+        _isAdvancing = isAdvancing;
+    }
+
 }
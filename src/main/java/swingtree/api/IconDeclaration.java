@@ -192,6 +192,19 @@ public interface IconDeclaration
         return UI.findIcon(this);
     }
 
+    /**
+     *  Returns the icon of this declaration right away, without blocking
+     *  the calling thread on loading it. If it is not cached yet, it is
+     *  loaded in the background, and what is returned is a stand-in which paints
+     *  nothing until the icon is ready and then repaints the components it was painted onto
+     *  (see {@link UI#findIconLater(IconDeclaration)}).
+     *
+     * @return The cached {@link ImageIcon}, or a stand-in which paints it as soon as it is loaded.
+     */
+    default ImageIcon findLater() {
+        return UI.findIconLater(this);
+    }
+
     /**
      *  Creates and returns an updated {@link IconDeclaration} instance
      *  with a new preferred size for the icon.
@@ -15,6 +15,13 @@ import swingtree.style.NoiseConf;
  * <b>Please take a look at {@link swingtree.UI.NoiseType} for a rich set of
  * predefined noise function implementations.<br>
  * There you will most likely find a noise function that fits your needs.</b>
+ * <p>
+ * <b>Thread safety:</b> A noise function must be thread safe, ideally a pure function
+ * of its arguments without any mutable state. SwingTree renders the tiles of a noise in parallel,
+ * so {@link #getFractionAt(float, float)} and {@link #fillRow(float[], float, float[], int)}
+ * are called concurrently from several threads, none of which is necessarily the UI thread.
+ * A function which needs scratch memory should keep it per thread, like the ones behind
+ * {@link swingtree.UI.NoiseType} do, rather than in a field.
  */
 @Immutable
 @FunctionalInterface
@@ -29,6 +36,26 @@ public interface NoiseFunction
      */
     float getFractionAt( float x, float y );
 
+    /**
+     * Computes the noise values of a whole row of coordinates sharing the same y coordinate,
+     * which is how SwingTree samples a noise whenever it can (an unrotated noise is rendered
+     * row by row). The result must be exactly the same as calling {@link #getFractionAt(float, float)}
+     * for every coordinate of the row, which is what this default implementation does. <br>
+     * A noise function may override this to compute the values of a row faster than one by one,
+     * typically by computing what only depends on the y coordinate (or on a neighbourhood
+     * shared by adjacent coordinates) only once per row. Many of the functions behind
+     * {@link swingtree.UI.NoiseType} do so.
+     *
+     * @param xs The x coordinates of the row in translated, scaled and rotated virtual space.
+     * @param y The y coordinate shared by the whole row.
+     * @param out The array receiving the gradient value of each x coordinate, at the same index.
+     * @param count The number of coordinates to compute, starting at index 0 of both arrays.
+     */
+    default void fillRow( float[] xs, float y, float[] out, int count ) {
+        for ( int i = 0; i < count; i++ )
+            out[i] = getFractionAt(xs[i], y);
+    }
+
     /**
      * Compose this noise function with another (scalar) function.
      * @param after The function to apply after this function.
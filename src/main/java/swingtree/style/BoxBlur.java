@@ -0,0 +1,433 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ *  The blur of a {@link FilterConf}, which blurs the rendering of a parent component
+ *  behind a child (a frosted glass panel, for example), implemented as three successive
+ *  box blurs in each direction, which is a close approximation of a gaussian blur. <br>
+ *  <br>
+ *  A box blur is a running sum along a row or column, so it costs the same
+ *  few additions per pixel no matter how large the radius, whereas the convolution with
+ *  a gaussian kernel it replaces costs as many multiplications per pixel as the kernel
+ *  is wide, which for a blur radius of 20 to 40 pixels is a lot, on every single paint. <br>
+ *  <br>
+ *  Like the kernel it replaces, the blur has a standard deviation of a third of its radius,
+ *  and it blurs the premultiplied channels, so that a transparent pixel does not bleed its
+ *  (meaningless) color into its neighbours. Beyond the edges of the image, the pixels at the
+ *  edges are assumed to repeat. <br>
+ *  <br>
+ *  Only the region which is actually going to be visible is blurred, which only
+ *  needs the pixels around it up to the combined reach of the three boxes (see {@link #reachOf(float)}).
+ *  The channels of the region are copied into scratch buffers kept by the calling thread and
+ *  reused by its next blur (unless they are very large, or much larger than the next blur needs),
+ *  and the four channels are blurred in parallel on the
+ *  {@link RasterizationPool} if the region is large enough to make that worthwhile.
+ *  The blurred region is either written back into the image, or into an image of the calling
+ *  thread (see {@link #blurredCopyOf(BufferedImage, float, Rectangle)}), which leaves the
+ *  blurred image untouched, so that the children of a parent can each blur it for themselves.
+ */
+final class BoxBlur
+{
+    private static final int PASSES                     = 3;
+    private static final float EXACT_BELOW_RADIUS       = 8;
+    private static final int WEIGHT_BITS                = 16;
+    private static final int MIN_PIXELS_FOR_PARALLELISM = 128 * 128;
+    private static final int[] CHANNEL_SHIFTS           = { 24, 16, 8, 0 }; // alpha, red, green, blue
+    private static final int MAX_RETAINED_PIXELS        = 1024 * 1024; // 4 MiB per buffer
+    private static final int SHRINK_FACTOR              = 4;
+    private static final int MIN_SHRINKABLE_PIXELS      = 64 * 64;
+
+    private static final ThreadLocal<Scratch> _SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private BoxBlur() {}
+
+    /**
+     *  The radii of the boxes which approximate a gaussian blur with a standard deviation of
+     *  a third of the supplied radius, following the widely used recipe of Ivan Kutskir
+     *  ("Fastest Gaussian Blur") and Peter Kovesi ("Fast Almost-Gaussian Filtering"):
+     *  the boxes are the two odd widths around the ideal width, in the proportion which
+     *  matches the variance of the gaussian best.
+     */
+    static int[] boxRadiiFor( final float radius ) {
+        final double sigma       = radius / 3.0;
+        final double variance12  = 12 * sigma * sigma;
+        final double idealWidth  = Math.sqrt(variance12 / PASSES + 1);
+        int lower = (int) Math.floor(idealWidth);
+        if ( lower % 2 == 0 )
+            lower--;
+        final int upper = lower + 2;
+        final double idealLowerCount = ( variance12 - PASSES * lower * lower - 4 * PASSES * lower - 3 * PASSES ) / ( -4.0 * lower - 4 );
+        final long lowerCount = Math.round(idealLowerCount);
+        final int[] radii = new int[PASSES];
+        for ( int i = 0; i < PASSES; i++ )
+            radii[i] = ( ( i < lowerCount ? lower : upper ) - 1 ) / 2;
+        return radii;
+    }
+
+    /**
+     *  The weights of the gaussian kernel the blur used to be a convolution with, as fixed point
+     *  numbers which add up to {@code 1 << 16}, for a radius below {@link #EXACT_BELOW_RADIUS}.
+     *  A small blur cannot be approximated well by boxes of whole pixels, but it is cheap to
+     *  compute exactly, so this is what it is blurred with instead.
+     *
+     * @return The weights of the kernel, or {@code null} if the radius is large enough for the boxes.
+     */
+    static int @Nullable [] exactWeightsFor( final float radius ) {
+        if ( radius >= EXACT_BELOW_RADIUS )
+            return null;
+        final int    reach   = (int) Math.ceil(radius);
+        final double sigma   = radius / 3.0;
+        final double[] gauss = new double[2 * reach + 1];
+        double total = 0;
+        for ( int offset = -reach; offset <= reach; offset++ ) {
+            final double distance = offset * offset;
+            gauss[offset + reach] = distance > radius * radius ? 0 : Math.exp(-distance / ( 2 * sigma * sigma ));
+            total += gauss[offset + reach];
+        }
+        final int[] weights = new int[gauss.length];
+        int sum = 0;
+        for ( int i = 0; i < weights.length; i++ ) {
+            weights[i] = (int) Math.round(gauss[i] / total * ( 1 << WEIGHT_BITS ));
+            sum += weights[i];
+        }
+        weights[reach] += ( 1 << WEIGHT_BITS ) - sum; // So that a flat area stays exactly as it is.
+        return weights;
+    }
+
+    /**
+     *  How far the blur of the supplied radius reaches out, which is to say that a blurred
+     *  pixel only depends on the pixels at most this many rows and columns away from it.
+     */
+    static int reachOf( final float radius ) {
+        if ( !( radius > 0 ) )
+            return 0;
+        final int @Nullable [] weights = exactWeightsFor(radius);
+        if ( weights != null )
+            return weights.length / 2;
+        int reach = 0;
+        for ( int r : boxRadiiFor(radius) )
+            reach += r;
+        return reach;
+    }
+
+    /**
+     *  Blurs the supplied region of the supplied image in place.
+     *
+     * @param image The image to blur, which may be of any type.
+     * @param radius The radius of the blur, which has a standard deviation of a third of it.
+     * @param region The region of the image to blur, the pixels outside of it are left as they are,
+     *               but the ones around it are blurred into it.
+     */
+    static void blur( final BufferedImage image, final float radius, final Rectangle region ) {
+        final Rectangle output = region.intersection(new Rectangle(0, 0, image.getWidth(), image.getHeight()));
+        if ( output.isEmpty() || reachOf(radius) == 0 )
+            return; // Nothing to blur.
+        _blur(image, radius, output, image, output.x, output.y);
+    }
+
+    /**
+     *  Blurs the supplied region of the supplied image into a separate image,
+     *  leaving the supplied one as it is.
+     *
+     * @param image The image to blur, which may be of any type.
+     * @param radius The radius of the blur, which has a standard deviation of a third of it.
+     * @param region The region of the image to blur, which must lie within the image.
+     * @return An image holding the blurred region in its top left corner, which may be larger than the region.
+     *         It belongs to the calling thread, which reuses it for its next blur.
+     */
+    static BufferedImage blurredCopyOf( final BufferedImage image, final float radius, final Rectangle region ) {
+        final BufferedImage target = _SCRATCH.get().image(region.width, region.height);
+        if ( reachOf(radius) == 0 ) {
+            final int[] pixels = _SCRATCH.get().pixels(region.width * region.height);
+            image.getRGB(region.x, region.y, region.width, region.height, pixels, 0, region.width);
+            target.setRGB(0, 0, region.width, region.height, pixels, 0, region.width);
+        }
+        else
+            _blur(image, radius, region, target, 0, 0);
+        return target;
+    }
+
+    private static void _blur(
+        final BufferedImage image,
+        final float         radius,
+        final Rectangle     output,
+        final BufferedImage target,
+        final int           targetX,
+        final int           targetY
+    ) {
+        final int @Nullable [] weights = exactWeightsFor(radius);
+        final int[] radii = boxRadiiFor(radius);
+        final int reach = reachOf(radius);
+        final Rectangle bounds = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+        /*
+            Every pass spreads the (clamped) edges of what it sees by its radius, so the
+            pixels of the output are exact if the input reaches out by all of them together:
+        */
+        final Rectangle input = new Rectangle(
+                                    output.x - reach, output.y - reach,
+                                    output.width + 2 * reach, output.height + 2 * reach
+                                ).intersection(bounds);
+
+        final int width  = input.width;
+        final int height = input.height;
+        final Scratch scratch = _SCRATCH.get();
+        final int[] pixels = scratch.pixels(width * height);
+        _readPremultiplied(image, input, pixels);
+
+        final int columnStart = output.x - input.x;
+        final int columnEnd   = columnStart + output.width;
+        final int[][] planes = new int[CHANNEL_SHIFTS.length][];
+        final int[][] lines  = new int[CHANNEL_SHIFTS.length][];
+        for ( int channel = 0; channel < CHANNEL_SHIFTS.length; channel++ ) {
+            planes[channel] = scratch.plane(channel, width * height);
+            lines[channel]  = scratch.line(channel, Math.max(width, height));
+        }
+
+        if ( RasterizationPool.isParallel() && width * height >= MIN_PIXELS_FOR_PARALLELISM ) {
+            final List<Callable<Void>> jobs = new ArrayList<>(CHANNEL_SHIFTS.length);
+            for ( int channel = 0; channel < CHANNEL_SHIFTS.length; channel++ ) {
+                final int c = channel;
+                jobs.add(() -> {
+                    _blurChannel(pixels, planes[c], lines[c], CHANNEL_SHIFTS[c], width, height, columnStart, columnEnd, weights, radii);
+                    return null;
+                });
+            }
+            RasterizationPool.computeAll(jobs);
+        } else {
+            for ( int channel = 0; channel < CHANNEL_SHIFTS.length; channel++ )
+                _blurChannel(pixels, planes[channel], lines[channel], CHANNEL_SHIFTS[channel], width, height, columnStart, columnEnd, weights, radii);
+        }
+
+        _writeUnpremultiplied(planes, input, output, scratch.row(output.width), target, targetX, targetY);
+    }
+
+    /**
+     *  Blurs one channel of the supplied pixels into the supplied plane: horizontally over
+     *  every row, and then vertically, but only over the columns which end up in the output.
+     */
+    private static void _blurChannel(
+        final int[] pixels,
+        final int[] plane,
+        final int[] line,
+        final int   shift,
+        final int   width,
+        final int   height,
+        final int   columnStart,
+        final int   columnEnd,
+        final int @Nullable [] weights,
+        final int[] radii
+    ) {
+        final int size = width * height;
+        for ( int i = 0; i < size; i++ )
+            plane[i] = ( pixels[i] >>> shift ) & 0xFF;
+        if ( weights != null ) {
+            for ( int row = 0; row < height; row++ )
+                _convolveLine(plane, row * width, 1, width, weights, line);
+            for ( int column = columnStart; column < columnEnd; column++ )
+                _convolveLine(plane, column, width, height, weights, line);
+            return;
+        }
+        for ( int row = 0; row < height; row++ )
+            for ( int radius : radii )
+                _boxLine(plane, row * width, 1, width, radius, line);
+        for ( int column = columnStart; column < columnEnd; column++ )
+            for ( int radius : radii )
+                _boxLine(plane, column, width, height, radius, line);
+    }
+
+    /** Convolves a row or column with the supplied fixed point kernel. */
+    private static void _convolveLine(
+        final int[] plane,
+        final int   offset,
+        final int   stride,
+        final int   length,
+        final int[] weights,
+        final int[] line
+    ) {
+        final int last  = length - 1;
+        final int reach = weights.length / 2;
+        for ( int i = 0, index = offset; i < length; i++, index += stride )
+            line[i] = plane[index];
+        for ( int i = 0, index = offset; i < length; i++, index += stride ) {
+            int sum = 0;
+            for ( int k = 0; k < weights.length; k++ )
+                sum += weights[k] * line[Math.max(0, Math.min(i + k - reach, last))];
+            plane[index] = ( sum + ( 1 << ( WEIGHT_BITS - 1 ) ) ) >>> WEIGHT_BITS;
+        }
+    }
+
+    /**
+     *  Replaces every value of a row or column by the average of the values within the supplied
+     *  radius around it, as a running sum, which is what makes this independent of the radius.
+     */
+    private static void _boxLine(
+        final int[] plane,
+        final int   offset,
+        final int   stride,
+        final int   length,
+        final int   radius,
+        final int[] line
+    ) {
+        if ( radius <= 0 )
+            return;
+        final int last = length - 1;
+        for ( int i = 0, index = offset; i < length; i++, index += stride )
+            line[i] = plane[index];
+
+        final int width = 2 * radius + 1;
+        final int half  = width / 2;
+        // The sum of the window around the position just before the first one:
+        int sum = line[0] * ( radius + 1 );
+        for ( int i = 0; i < radius; i++ )
+            sum += line[Math.min(i, last)];
+        for ( int i = 0, index = offset; i < length; i++, index += stride ) {
+            sum += line[Math.min(i + radius, last)] - line[Math.max(i - radius - 1, 0)];
+            plane[index] = ( sum + half ) / width;
+        }
+    }
+
+    private static void _readPremultiplied( final BufferedImage image, final Rectangle input, final int[] pixels ) {
+        final int @Nullable [] data = _directlyAccessibleArgbPixelsOf(image);
+        for ( int row = 0; row < input.height; row++ ) {
+            final int target = row * input.width;
+            if ( data != null )
+                System.arraycopy(data, ( input.y + row ) * image.getWidth() + input.x, pixels, target, input.width);
+            else
+                image.getRGB(input.x, input.y + row, input.width, 1, pixels, target, input.width);
+            for ( int i = target; i < target + input.width; i++ ) {
+                final int argb  = pixels[i];
+                final int alpha = argb >>> 24;
+                if ( alpha == 0xFF )
+                    continue;
+                pixels[i] = alpha << 24 |
+                            _premultiplied(( argb >> 16 ) & 0xFF, alpha) << 16 |
+                            _premultiplied(( argb >>  8 ) & 0xFF, alpha) <<  8 |
+                            _premultiplied(  argb         & 0xFF, alpha);
+            }
+        }
+    }
+
+    private static void _writeUnpremultiplied(
+        final int[][]       planes,
+        final Rectangle     input,
+        final Rectangle     output,
+        final int[]         row,
+        final BufferedImage target,
+        final int           targetX,
+        final int           targetY
+    ) {
+        final int @Nullable [] data = _directlyAccessibleArgbPixelsOf(target);
+        final int[] alphas = planes[0];
+        final int[] reds   = planes[1];
+        final int[] greens = planes[2];
+        final int[] blues  = planes[3];
+        for ( int y = output.y; y < output.y + output.height; y++ ) {
+            final int start = ( y - input.y ) * input.width + ( output.x - input.x );
+            for ( int i = 0; i < output.width; i++ ) {
+                final int index = start + i;
+                final int alpha = alphas[index];
+                if ( alpha == 0xFF )
+                    row[i] = 0xFF000000 | reds[index] << 16 | greens[index] << 8 | blues[index];
+                else if ( alpha == 0 )
+                    row[i] = 0;
+                else
+                    row[i] = alpha << 24 |
+                             _unpremultiplied(reds[index],   alpha) << 16 |
+                             _unpremultiplied(greens[index], alpha) <<  8 |
+                             _unpremultiplied(blues[index],  alpha);
+            }
+            final int targetRow = targetY + y - output.y;
+            if ( data != null )
+                System.arraycopy(row, 0, data, targetRow * target.getWidth() + targetX, output.width);
+            else
+                target.setRGB(targetX, targetRow, output.width, 1, row, 0, output.width);
+        }
+    }
+
+    /** The pixels of an image which stores exactly what {@link BufferedImage#getRGB} returns, packed row after row. */
+    private static int @Nullable [] _directlyAccessibleArgbPixelsOf( final BufferedImage image ) {
+        if ( image.getType() != BufferedImage.TYPE_INT_ARGB )
+            return null;
+        return ColorStopLookup.packedPixelsOf(image.getRaster());
+    }
+
+    private static int _premultiplied( final int channel, final int alpha ) {
+        return ( channel * alpha + 127 ) / 255;
+    }
+
+    private static int _unpremultiplied( final int channel, final int alpha ) {
+        return Math.min(255, ( channel * 255 + alpha / 2 ) / alpha);
+    }
+
+    /**
+     *  The buffers of a thread, which are reused by its next blur as long as they are large enough
+     *  and not much larger than needed. A buffer beyond {@link #MAX_RETAINED_PIXELS} is not kept at all,
+     *  so that a single large blur does not leave every thread which ever blurred with that much memory,
+     *  and a buffer more than {@link #SHRINK_FACTOR} times the size of a request is replaced by one
+     *  of the requested size, so that it shrinks again when the blurred regions do.
+     */
+    private static final class Scratch
+    {
+        private @Nullable BufferedImage _image = null;
+        private int[]         _pixels = new int[0];
+        private int[]         _row    = new int[0];
+        private final int[][] _planes = new int[CHANNEL_SHIFTS.length][0];
+        private final int[][] _lines  = new int[CHANNEL_SHIFTS.length][0];
+
+        BufferedImage image( int width, int height ) {
+            final BufferedImage image = _image;
+            if ( image != null && image.getWidth() >= width && image.getHeight() >= height && _isSnug((long) image.getWidth() * image.getHeight(), (long) width * height) )
+                return image;
+            final BufferedImage created = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            _image = (long) width * height <= MAX_RETAINED_PIXELS ? created : null;
+            return created;
+        }
+
+        int[] pixels( int size ) {
+            if ( _fits(_pixels, size) )
+                return _pixels;
+            final int[] pixels = new int[size];
+            _pixels = size <= MAX_RETAINED_PIXELS ? pixels : new int[0];
+            return pixels;
+        }
+
+        int[] row( int size ) {
+            if ( _fits(_row, size) )
+                return _row;
+            final int[] row = new int[size];
+            _row = size <= MAX_RETAINED_PIXELS ? row : new int[0];
+            return row;
+        }
+
+        int[] plane( int channel, int size ) {
+            if ( _fits(_planes[channel], size) )
+                return _planes[channel];
+            final int[] plane = new int[size];
+            _planes[channel] = size <= MAX_RETAINED_PIXELS ? plane : new int[0];
+            return plane;
+        }
+
+        int[] line( int channel, int size ) {
+            if ( _fits(_lines[channel], size) )
+                return _lines[channel];
+            final int[] line = new int[size];
+            _lines[channel] = size <= MAX_RETAINED_PIXELS ? line : new int[0];
+            return line;
+        }
+
+        private static boolean _fits( int[] buffer, int size ) {
+            return buffer.length >= size && _isSnug(buffer.length, size);
+        }
+
+        private static boolean _isSnug( long capacity, long size ) {
+            return capacity <= Math.max(size * SHRINK_FACTOR, MIN_SHRINKABLE_PIXELS);
+        }
+    }
+}
@@ -97,6 +97,8 @@ final class BoxModelConf
 
     private final LazyRef<Outline[]> _boundaryInsets;
 
+    private int _hashCode = 0; // Lazily computed, 0 means "not computed yet".
+
 
     @SuppressWarnings("EnumOrdinal") // Enum ordinals are used intentionally to index a fixed boundary lookup table.
     private BoxModelConf(
@@ -279,6 +281,9 @@ final class BoxModelConf
 
     @Override
     public int hashCode() {
+        int cached = _hashCode;
+        if ( cached != 0 )
+            return cached;
         int hash = 7;
         hash = 97 * hash + _topLeftArc.hashCode();
         hash = 97 * hash + _topRightArc.hashCode();
@@ -289,6 +294,7 @@ final class BoxModelConf
         hash = 97 * hash + _padding.hashCode();
         hash = 97 * hash + _baseOutline.hashCode();
         hash = 97 * hash + _size.hashCode();
+        _hashCode = hash;
         return hash;
     }
 
@@ -298,6 +304,8 @@ final class BoxModelConf
         if ( obj == this ) return true;
         if ( obj.getClass() != getClass() ) return false;
         BoxModelConf rhs = (BoxModelConf) obj;
+        if ( _hashCode != 0 && rhs._hashCode != 0 && _hashCode != rhs._hashCode )
+            return false; // Different cached hashes settle it without a deep comparison.
         return
             Objects.equals(_topLeftArc,     rhs._topLeftArc)     &&
             Objects.equals(_topRightArc,    rhs._topRightArc)    &&
@@ -5,6 +5,9 @@ import org.slf4j.LoggerFactory;
 import swingtree.SwingTree;
 import swingtree.SwingTreeInitConfig.CacheMode;
 
+import java.io.File;
+import java.util.Optional;
+
 /**
  *  The single source of truth for how much memory <i>all</i> of SwingTree's internal
  *  rendering caches may spend, derived from the configured {@link CacheMode} and the
@@ -55,19 +58,23 @@ import swingtree.SwingTreeInitConfig.CacheMode;
  *  </pre>
  *
  *  <h2>Reference: where the default ({@code BALANCED}) budget goes, per cache (MB)</h2>
- *  The total is partitioned across the four caches by the {@link Kind} weights below
- *  (style layers 45%, noise tiles 30%, text layouts 15%, shadows 10%):
+ *  The total is partitioned across the five caches by the {@link Kind} weights below
+ *  (style layers 45%, noise tiles 25%, text layouts 15%, shadows 10%, SVG rasters 5%):
  *  <pre>
- *    RAM      Total   Layers   Noise   Layouts   Shadows
- *    2 GiB      16      7.2      4.8      2.4       1.6
- *    4 GiB      20      9.2      6.1      3.1       2.0
- *    8 GiB      41     18.4     12.3      6.1       4.1
- *   16 GiB      82     36.9     24.6     12.3       8.2
- *  &gt;=32 GiB    128     57.6     38.4     19.2      12.8   (at cap)
+ *    RAM      Total   Layers   Noise   Layouts   Shadows   SVGs
+ *    2 GiB      16      7.2      4.0      2.4       1.6     0.8
+ *    4 GiB      20      9.2      5.1      3.1       2.0     1.0
+ *    8 GiB      41     18.4     10.2      6.1       4.1     2.0
+ *   16 GiB      82     36.9     20.5     12.3       8.2     4.1
+ *  &gt;=32 GiB    128     57.6     32.0     19.2      12.8     6.4   (at cap)
  *  </pre>
  *  These are <em>ceilings on retention</em>, not pre-allocations: a cache only ever holds
  *  what the painted components actually produce, up to its slice. A small app on a big
  *  machine therefore costs little even though its ceiling is high.
+ *  <p>The slices bound each cache by the entry counts their representative costs buy, so
+ *  their sum only approximates the total. The total itself is a hard ceiling though: the
+ *  {@link CacheLedger} is charged with the real size of every entry and evicts the coldest
+ *  entries across all caches as soon as they would exceed {@link #totalBudgetBytes()}.
  *
  *  <h2>Two complementary scalars</h2>
  *  <ul>
@@ -124,12 +131,17 @@ final class CacheBudget {
     /** The cache kinds the total byte budget is partitioned across, each with its weight
      *  (the fractions sum to 1) and a representative per-entry byte cost used to translate
      *  the kind's byte slice into a native entry/tile count. The per-entry costs are real
-     *  estimates (a 256² tile really is ~256 KiB), which is what makes the budget tangible. */
+     *  estimates (a 256² tile really is ~256 KiB), which is what makes the budget tangible.
+     *  The idle buffers of the {@link ParentBufferPool} have no slice of their own, they are
+     *  few and bounded by count, but they are charged to the {@link CacheLedger} like the
+     *  rest, which is what counts them towards the total. */
     enum Kind {
         STYLE_LAYER    (0.45, 64L  * 1024),        // representative style layer image (~128² ARGB)
-        NOISE_TILE     (0.30, 256L * 256 * 4),     // exact: one 256² ARGB noise tile (256 KiB)
+        NOISE_TILE     (0.25, 256L * 256 * 4),     // exact: one 256² ARGB noise tile (256 KiB)
         SHADOW_GRADIENT(0.10, 1L   * 1024),        // a blended gradient-stop array
-        TEXT_LAYOUT    (0.15, 2L   * 1024);        // a cached paragraph layout
+        TEXT_LAYOUT    (0.15, 2L   * 1024),        // a cached paragraph layout
+        SVG_RASTER     (0.05, 64L  * 64 * 4),      // a rasterized 64² ARGB icon (16 KiB)
+        PARENT_BUFFER  (0.00, 512L * 512 * 4);     // an idle full size parent buffer, no slice of its own
 
         final double weight;
         final long   bytesPerEntry;
@@ -196,11 +208,61 @@ final class CacheBudget {
         }
     }
 
+    /** Lazily resolved "store cached pixels off the heap" flag, see {@link #offHeapEnabled()}. */
+    private static volatile @org.jspecify.annotations.Nullable Boolean _offHeapEnabled = null;
+
+    /** Whether newly allocated style layer images keep their pixels in native memory
+     *  (see {@link SwingTree#setOffHeapCacheEnabled(boolean)} and {@link OffHeapPixels}).
+     *  Resolved lazily from the library configuration, like the byte budget. */
+    static boolean offHeapEnabled() {
+        Boolean enabled = _offHeapEnabled;
+        if ( enabled == null ) {
+            enabled = _resolveOffHeapEnabled();
+            _offHeapEnabled = enabled;
+        }
+        return enabled;
+    }
+
+    private static boolean _resolveOffHeapEnabled() {
+        try {
+            return SwingTree.get().isOffHeapCacheEnabled();
+        } catch ( Throwable t ) {
+            log.debug("Could not resolve the off-heap cache flag from the SwingTree context; assuming disabled.", t);
+            return false;
+        }
+    }
+
+    /** Lazily resolved exemplar persistence directory, see {@link #exemplarDirectory()}. */
+    private static volatile @org.jspecify.annotations.Nullable Optional<File> _exemplarDirectory = null;
+
+    /** The directory exemplar renderings are persisted in, if any
+     *  (see {@link SwingTree#setExemplarDiskCacheDirectory(File)} and {@link ExemplarDiskCache}).
+     *  Resolved lazily from the library configuration, like the byte budget. */
+    static Optional<File> exemplarDirectory() {
+        Optional<File> directory = _exemplarDirectory;
+        if ( directory == null ) {
+            directory = _resolveExemplarDirectory();
+            _exemplarDirectory = directory;
+        }
+        return directory;
+    }
+
+    private static Optional<File> _resolveExemplarDirectory() {
+        try {
+            return SwingTree.get().getExemplarDiskCacheDirectory();
+        } catch ( Throwable t ) {
+            log.debug("Could not resolve the exemplar disk cache directory from the SwingTree context; assuming none.", t);
+            return Optional.empty();
+        }
+    }
+
     /** Forces the next budget read to re-resolve the mode from the live library
      *  configuration. Called whenever the configuration may have changed. */
     static void markUnresolved() {
         _budgetBytes = UNRESOLVED;
         _tilingEnabled = null;
+        _offHeapEnabled = null;
+        _exemplarDirectory = null;
     }
 
     private static CacheMode _currentMode() {
@@ -0,0 +1,306 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swingtree.SwingTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *  The one place which knows how many bytes <i>all</i> of SwingTree's rendering caches
+ *  hold right now, and which enforces {@link CacheBudget#totalBudgetBytes()} as a hard
+ *  ceiling on that figure by evicting the coldest entries, no matter which cache they
+ *  belong to. <br>
+ *  <br>
+ *  The per cache limits derived from the {@link CacheBudget.Kind} slices still decide what
+ *  a cache admits in the first place, but they count entries (images, tiles, layouts)
+ *  of very different sizes, so together they only approximate the budget. The ledger
+ *  on the other hand is charged in bytes for every entry which holds memory worth
+ *  mentioning (see {@link Charge}), which makes the total a far better figure, but
+ *  not an exact one: images and noise tiles are charged with the size of their pixels,
+ *  whereas text layouts and shadow gradients are charged with estimates. <br>
+ *  <br>
+ *  Two caches are deliberately not charged at all: the paragraph data of the
+ *  {@link TextLayoutEngine} and the {@link ComponentAreas}. Both are weak caches whose
+ *  entries live exactly as long as the interned keys that components currently render
+ *  with, so the garbage collector already drops them with their last user, whereas
+ *  an eviction by the ledger could only make a component which is still alive
+ *  compute them again on its next paint.
+ *
+ *  <h2>Segmented LRU</h2>
+ *  Eviction follows a segmented least recently used order: a new entry starts out in the
+ *  <i>probationary</i> segment and is only promoted to the <i>protected</i> segment once it
+ *  is used again. The protected segment may hold at most {@link #PROTECTED_SHARE} of the
+ *  budget, its least recently used entries are demoted back to probation beyond that.
+ *  Entries are evicted from the cold end of the probationary segment first, so a burst
+ *  of entries which are painted once and never again (think of a resize or of a
+ *  scroll through a long list) cannot push out the entries every repaint relies on.
+ *
+ *  <h2>Threading and locking</h2>
+ *  The ledger is guarded by a single lock, which is held for nothing but relinking
+ *  a few list nodes. Cache hits are by far the most frequent event though, so a
+ *  {@link #touch(Charge)} does not take the lock: it is recorded in a small buffer
+ *  of the touching thread, which is applied as a whole once it is full, or when
+ *  that thread charges the ledger next. The recency order may therefore lag behind
+ *  by a few dozen hits of a thread, which is of no consequence for the eviction
+ *  of entries which went unused for far longer than that. {@link Charge#evict()} is never called while it is held, but
+ *  only after the charging thread has released it. Which is also why a cache must
+ *  never call into the ledger while holding a monitor which its own {@link Charge#evict()}
+ *  needs: the eviction of one cache's entry could then wait for another thread which
+ *  waits for the eviction of an entry of the first cache.
+ */
+final class CacheLedger
+{
+    private static final Logger log = LoggerFactory.getLogger(CacheLedger.class);
+
+    /** The share of the total budget the protected segment may hold at most. */
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private static final Object  _LOCK          = new Object();
+    private static final Segment _PROBATION     = new Segment();
+    private static final Segment _PROTECTED     = new Segment();
+    private static final long[]  _BYTES_BY_KIND = new long[CacheBudget.Kind.values().length];
+
+    /** The number of touches a thread buffers before it applies them to the ledger. */
+    private static final int TOUCH_BUFFER_SIZE = 32;
+
+    private static final ThreadLocal<TouchBuffer> _TOUCHES = ThreadLocal.withInitial(TouchBuffer::new);
+
+    private CacheLedger() {}
+
+    /**
+     *  Something a rendering cache holds in memory, which the ledger accounts for and which it
+     *  may ask to {@link #evict()} itself. The caches let their entries extend this directly
+     *  (like the style layer images) or charge a small object standing for a whole group of
+     *  entries (like the tiles of a single noise).
+     */
+    abstract static class Charge
+    {
+        private final CacheBudget.Kind  _kind;
+        private @Nullable Segment       _segment  = null; // null means "not charged"
+        private @Nullable Charge        _previous = null;
+        private @Nullable Charge        _next     = null;
+        private long                    _bytes    = 0;
+
+        Charge( CacheBudget.Kind kind ) {
+            _kind = kind;
+        }
+
+        /**
+         *  Drops the memory this charge stands for, after the ledger removed it. Implementations
+         *  may be called from any thread which charged the ledger, and they must leave their
+         *  cache in a state in which the entry is simply created again on its next use.
+         */
+        abstract void evict();
+    }
+
+    /**
+     *  Charges the ledger with the supplied number of bytes for the supplied entry, which
+     *  replaces the figure it was charged with before, if any. A new entry is put into the
+     *  probationary segment, one already charged counts as {@link #touch(Charge) used}.
+     *  If this takes the total beyond the budget, the coldest entries are evicted
+     *  (which may include this one, if it alone exceeds the budget).
+     */
+    static void charge( Charge charge, long bytes ) {
+        final long budget = CacheBudget.totalBudgetBytes();
+        final TouchBuffer touches = _TOUCHES.get();
+        final List<Charge> victims;
+        synchronized ( _LOCK ) {
+            touches.applyTo(budget);
+            final Segment segment = charge._segment;
+            if ( segment == null )
+                _PROBATION.addFirst(charge);
+            else
+                _touch(charge, budget);
+            _adjust(charge, Math.max(0, bytes));
+            victims = _overBudget(budget);
+        }
+        _evict(victims);
+    }
+
+    /**
+     *  Records a use of the supplied entry, which promotes it from the probationary to
+     *  the protected segment or moves it to the hot end of the latter. Does nothing for
+     *  an entry which is not charged. The use is buffered by the calling thread and
+     *  only applied together with the uses which follow it (see the class docs).
+     */
+    static void touch( Charge charge ) {
+        if ( charge._segment == null )
+            return; // A racy read, but only ever a shortcut: the check is repeated when applied.
+        final TouchBuffer touches = _TOUCHES.get();
+        if ( touches.add(charge) ) {
+            final long budget = CacheBudget.totalBudgetBytes();
+            synchronized ( _LOCK ) {
+                touches.applyTo(budget);
+            }
+        }
+    }
+
+    /** Removes an entry whose memory its cache dropped on its own, without evicting it. */
+    static void release( Charge charge ) {
+        synchronized ( _LOCK ) {
+            _unlink(charge);
+        }
+    }
+
+    /** Evicts every entry, which is what a change of the library configuration asks for. */
+    static void evictAll() {
+        final List<Charge> victims = new ArrayList<>();
+        synchronized ( _LOCK ) {
+            _drainInto(_PROBATION, victims);
+            _drainInto(_PROTECTED, victims);
+        }
+        _evict(victims);
+    }
+
+    /** The number of bytes all rendering caches are charged with right now. */
+    static long chargedBytes() {
+        synchronized ( _LOCK ) {
+            return _PROBATION._bytes + _PROTECTED._bytes;
+        }
+    }
+
+    /** The number of bytes the caches of the supplied kind are charged with right now. */
+    static long chargedBytes( CacheBudget.Kind kind ) {
+        synchronized ( _LOCK ) {
+            return _BYTES_BY_KIND[kind.ordinal()];
+        }
+    }
+
+    private static void _touch( Charge charge, long budget ) {
+        if ( charge._segment == _PROTECTED ) {
+            _PROTECTED.moveToFirst(charge);
+            return;
+        }
+        _PROBATION.remove(charge);
+        _PROTECTED.addFirst(charge);
+        final long protectedLimit = (long) (budget * PROTECTED_SHARE);
+        while ( _PROTECTED._bytes > protectedLimit && _PROTECTED._last != null && _PROTECTED._last != charge ) {
+            final Charge demoted = _PROTECTED._last;
+            _PROTECTED.remove(demoted);
+            _PROBATION.addFirst(demoted);
+        }
+    }
+
+    private static void _adjust( Charge charge, long bytes ) {
+        final long delta = bytes - charge._bytes;
+        charge._bytes = bytes;
+        _BYTES_BY_KIND[charge._kind.ordinal()] += delta;
+        final Segment segment = charge._segment;
+        if ( segment != null )
+            segment._bytes += delta;
+    }
+
+    private static void _unlink( Charge charge ) {
+        final Segment segment = charge._segment;
+        if ( segment == null )
+            return;
+        segment.remove(charge);
+        _BYTES_BY_KIND[charge._kind.ordinal()] -= charge._bytes;
+        charge._bytes = 0;
+    }
+
+    private static List<Charge> _overBudget( long budget ) {
+        List<Charge> victims = null;
+        while ( _PROBATION._bytes + _PROTECTED._bytes > budget ) {
+            Charge coldest = _PROBATION._last;
+            if ( coldest == null )
+                coldest = _PROTECTED._last;
+            if ( coldest == null )
+                break;
+            _unlink(coldest);
+            if ( victims == null )
+                victims = new ArrayList<>();
+            victims.add(coldest);
+        }
+        return victims == null ? Collections.emptyList() : victims;
+    }
+
+    private static void _drainInto( Segment segment, List<Charge> victims ) {
+        while ( segment._last != null ) {
+            final Charge charge = segment._last;
+            _unlink(charge);
+            victims.add(charge);
+        }
+    }
+
+    private static void _evict( List<Charge> victims ) {
+        for ( Charge victim : victims ) {
+            try {
+                victim.evict();
+            } catch ( Exception e ) {
+                log.error(SwingTree.get().logMarker(), "Failed to evict render cache entry '{}'.", victim, e);
+            }
+        }
+    }
+
+    /**
+     *  The touches a single thread recorded since it last applied them, in the order they happened.
+     *  Consecutive touches of the same entry are recorded once, since applying them again changes nothing.
+     */
+    private static final class TouchBuffer
+    {
+        private final Charge[] _charges = new Charge[TOUCH_BUFFER_SIZE];
+        private int            _size    = 0;
+
+        /** Records a touch and tells whether the buffer is full now. */
+        boolean add( Charge charge ) {
+            if ( _size > 0 && _charges[_size - 1] == charge )
+                return false;
+            _charges[_size++] = charge;
+            return _size == _charges.length;
+        }
+
+        /** Applies and forgets the recorded touches, which requires the lock of the ledger. */
+        void applyTo( long budget ) {
+            for ( int i = 0; i < _size; i++ ) {
+                final Charge charge = _charges[i];
+                _charges[i] = null; // An evicted entry must not be kept reachable by its last touch.
+                if ( charge._segment != null )
+                    _touch(charge, budget);
+            }
+            _size = 0;
+        }
+    }
+
+    /** An intrusive, doubly linked list of charges, from the most to the least recently used one. */
+    private static final class Segment
+    {
+        private @Nullable Charge _first = null;
+        private @Nullable Charge _last  = null;
+        private long             _bytes = 0;
+
+        void addFirst( Charge charge ) {
+            charge._segment  = this;
+            charge._previous = null;
+            charge._next     = _first;
+            if ( _first != null )
+                _first._previous = charge;
+            _first = charge;
+            if ( _last == null )
+                _last = charge;
+            _bytes += charge._bytes;
+        }
+
+        void remove( Charge charge ) {
+            final Charge previous = charge._previous;
+            final Charge next     = charge._next;
+            if ( previous != null ) previous._next = next; else _first = next;
+            if ( next     != null ) next._previous = previous; else _last = previous;
+            charge._segment  = null;
+            charge._previous = null;
+            charge._next     = null;
+            _bytes -= charge._bytes;
+        }
+
+        void moveToFirst( Charge charge ) {
+            if ( _first == charge )
+                return;
+            remove(charge);
+            addFirst(charge);
+        }
+    }
+}
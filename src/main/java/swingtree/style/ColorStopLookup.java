@@ -0,0 +1,170 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.awt.Color;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ *  A lookup table of packed ARGB colors, sampled densely along the color stops
+ *  of a gradient, so that the custom gradient paints ({@link NoiseGradientPaint}
+ *  and {@link ConicalGradientPaint}) can turn the position of a pixel on the
+ *  gradient into its color with a single array load, instead of searching the
+ *  stops and interpolating and rounding four channels for every single pixel. <br>
+ *  <br>
+ *  Every entry is computed exactly the way the paints used to compute the color
+ *  of a pixel, only at the position of the entry instead of the position of the pixel.
+ *  The table is therefore made dense enough for neighbouring entries to differ by no more
+ *  than about one level in any channel, which is what a gradient can resolve anyway.
+ *  A steep transition between two close stops needs more entries than a soft one,
+ *  so the size of the table is derived from the steepest segment of the gradient,
+ *  with at least {@link #MIN_SIZE} entries. A gradient which would need more than
+ *  {@link #MAX_SIZE} of them (a sharp transition between nearly coinciding stops)
+ *  gets no table at all, its colors are interpolated pixel by pixel like before.
+ */
+final class ColorStopLookup
+{
+    static final int MIN_SIZE = 256;
+    static final int MAX_SIZE = 4096;
+
+    private final float[] _stops;
+    private final Color[] _colors;
+    private final float[] _redSteps;
+    private final float[] _greenSteps;
+    private final float[] _blueSteps;
+    private final float[] _alphaSteps;
+    private final boolean _withAlpha;
+
+    /** The table, or an empty array if the gradient is too steep to be tabulated. */
+    private final int[]   _argb;
+    private final double  _entriesPerUnit;
+
+
+    /**
+     * @param stops The positions of the color stops, ascending, from {@code 0} up to {@code range}.
+     * @param range The position of the end of the gradient.
+     * @param colors The colors at the stops.
+     * @param redSteps The change of the red channel (in the range 0 to 1) per unit of position, for every segment.
+     * @param greenSteps The change of the green channel per unit of position, for every segment.
+     * @param blueSteps The change of the blue channel per unit of position, for every segment.
+     * @param alphaSteps The change of the alpha channel per unit of position, for every segment.
+     * @param withAlpha Whether the alpha channel is packed into the entries, it is left at zero otherwise,
+     *                  which is what a raster of an opaque color model expects.
+     */
+    ColorStopLookup(
+        final float[] stops,
+        final float   range,
+        final Color[] colors,
+        final float[] redSteps,
+        final float[] greenSteps,
+        final float[] blueSteps,
+        final float[] alphaSteps,
+        final boolean withAlpha
+    ) {
+        _stops      = stops;
+        _colors     = colors;
+        _redSteps   = redSteps;
+        _greenSteps = greenSteps;
+        _blueSteps  = blueSteps;
+        _alphaSteps = alphaSteps;
+        _withAlpha  = withAlpha;
+
+        final double size = _sizeFor(stops, range, colors);
+        if ( size > MAX_SIZE ) {
+            _argb           = new int[0];
+            _entriesPerUnit = 0;
+        } else {
+            _argb           = new int[(int) Math.ceil(size)];
+            _entriesPerUnit = ( _argb.length - 1 ) / (double) range;
+            for ( int entry = 0; entry < _argb.length; entry++ )
+                _argb[entry] = _interpolated( entry / _entriesPerUnit );
+        }
+    }
+
+    /** The color at the supplied position, computed from the stops. */
+    private int _interpolated( double position ) {
+        final float toUnit = 1f / 255f;
+        double red   = 0;
+        double green = 0;
+        double blue  = 0;
+        double alpha = 0;
+        for ( int i = _stops.length - 2; i >= 0; i-- ) {
+            if ( position >= _stops[i] ) {
+                final double distance = position - _stops[i];
+                red   = _colors[i].getRed()   * toUnit + distance * _redSteps[i];
+                green = _colors[i].getGreen() * toUnit + distance * _greenSteps[i];
+                blue  = _colors[i].getBlue()  * toUnit + distance * _blueSteps[i];
+                alpha = _colors[i].getAlpha() * toUnit + distance * _alphaSteps[i];
+                break;
+            }
+        }
+        return ( _withAlpha ? _channel(alpha) << 24 : 0 ) |
+               _channel(red)   << 16 |
+               _channel(green) <<  8 |
+               _channel(blue);
+    }
+
+    private static double _sizeFor( float[] stops, float range, Color[] colors ) {
+        double size = MIN_SIZE;
+        for ( int i = 0; i < stops.length - 1; i++ ) {
+            final double span = ( stops[i + 1] - stops[i] ) / range;
+            if ( !( span > 0 ) )
+                continue; // A hard edge, which no amount of entries can resolve any better.
+            final Color from = colors[i];
+            final Color to   = colors[i + 1];
+            final int levels = Math.max(
+                                    Math.max(Math.abs(to.getRed()  - from.getRed()),   Math.abs(to.getGreen() - from.getGreen())),
+                                    Math.max(Math.abs(to.getBlue() - from.getBlue()),  Math.abs(to.getAlpha() - from.getAlpha()))
+                                );
+            size = Math.max(size, levels / span + 1);
+        }
+        return size;
+    }
+
+    private static int _channel( double value ) {
+        final long rounded = Math.round(value * 255);
+        return (int) ( rounded < 0 ? 0 : Math.min(rounded, 255) );
+    }
+
+    /**
+     * @param position A position on the gradient, from {@code 0} up to the range of the gradient.
+     * @return The packed color of the gradient at the supplied position.
+     */
+    int argbAt( double position ) {
+        if ( _argb.length == 0 )
+            return _interpolated(position);
+        final int entry = (int) ( position * _entriesPerUnit + 0.5 );
+        return _argb[ entry < 0 ? 0 : Math.min(entry, _argb.length - 1) ];
+    }
+
+    /** The number of entries of this table, which is zero for a gradient too steep to be tabulated. */
+    int size() {
+        return _argb.length;
+    }
+
+    /**
+     *  The pixel array behind a raster of packed integer pixels, like the ones a
+     *  {@link java.awt.image.DirectColorModel} creates, which a paint context can write the
+     *  entries of this table straight into, row after row from index zero.
+     *
+     * @return The pixels of the raster, or {@code null} if it is not laid out that way,
+     *         in which case the pixels have to go through {@link WritableRaster#setDataElements}.
+     */
+    static int @Nullable [] packedPixelsOf( WritableRaster raster ) {
+        if ( !( raster.getDataBuffer() instanceof DataBufferInt ) )
+            return null;
+        if ( !( raster.getSampleModel() instanceof SinglePixelPackedSampleModel ) )
+            return null;
+        final DataBufferInt                buffer = (DataBufferInt) raster.getDataBuffer();
+        final SinglePixelPackedSampleModel model  = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        if ( buffer.getNumBanks() != 1 || buffer.getOffset() != 0 )
+            return null;
+        if ( model.getScanlineStride() != raster.getWidth() )
+            return null;
+        if ( raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0 )
+            return null;
+        return buffer.getData();
+    }
+}
@@ -11,8 +11,6 @@ import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  *  A wrapper object for transient reference based caching of the various areas of a component
@@ -24,7 +22,8 @@ import java.util.WeakHashMap;
  */
 final class ComponentAreas
 {
-    private static final Map<Pooled<BoxModelConf>, ComponentAreas> _CACHE = new WeakHashMap<>();
+    /** Weakly keyed, so it is left to the garbage collector rather than charged to the {@link CacheLedger}. */
+    private static final WeakCache<Pooled<BoxModelConf>, ComponentAreas> _CACHE = new WeakCache<>();
 
     private final BoxModelConf     _boxModel;
     private final LazyRef<Shape>   _borderArea;
@@ -16,9 +16,12 @@ import swingtree.layout.Position;
 import javax.swing.*;
 import javax.swing.text.JTextComponent;
 import java.awt.*;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -72,12 +75,18 @@ public final class ComponentExtension<C extends JComponent>
     private final List<Object>      _extraState = new ArrayList<>(0);
     private final List<String>      _styleGroups = new ArrayList<>(0);
     private final StyleInstaller<C> _styleInstaller = new StyleInstaller<>();
+    private final StyleGatherMemo   _gatherMemo = new StyleGatherMemo();
 
     private StyleEngine     _styleEngine = StyleEngine.create();
     private StyleSource<C>  _styleSource  = StyleSource.create();
+    private @Nullable StyleSource<C> _sourceInstalledForFrame = null;
     private @Nullable Shape _outerBaseClip = null;
     private PaintStep _lastPaintStep = PaintStep.UNDEFINED;
     private @Nullable BufferedImage _bufferedImage = null;
+    private @Nullable Boolean _hasChildWithParentFilterMemo = null;
+    private int _childParentFilterReach = 0;
+    private @Nullable CompositedLayer _compositedLayer = null;
+    private int _compositedLayerRenderCount = 0;
     private @Nullable Function<Position, DragAwayComponentConf<C>> _dragAwayConfigurator = null;
 
 
@@ -106,8 +115,22 @@ public final class ComponentExtension<C extends JComponent>
             UI.runLater(owner::revalidate);
         });
         if ( _styleSource.styleSheet() != StyleSheet.none() ) {
-            storeBoundObservable(_styleSource.styleSheet().observable().subscribe(this::gatherApplyAndInstallStyleConfig));
+            storeBoundObservable(_styleSource.styleSheet().observable().subscribe(this::_onStyleSheetChanged));
         }
+        owner.addContainerListener(new ContainerListener() {
+            @Override public void componentAdded( ContainerEvent e ) { _hasChildWithParentFilterMemo = null; }
+            @Override public void componentRemoved( ContainerEvent e ) { _hasChildWithParentFilterMemo = null; }
+        });
+        owner.addPropertyChangeListener("opaque", e -> _forgetWhetherParentHasChildWithParentFilter());
+    }
+
+    private void _onStyleSheetChanged() {
+        /*
+            A reconfigured style sheet is still the same style sheet instance,
+            so the style source does not change and the memo would not notice:
+        */
+        _gatherMemo.invalidate();
+        gatherApplyAndInstallStyleConfig();
     }
 
     private Font scale(Font font, float previousScale) {
@@ -319,6 +342,7 @@ public final class ComponentExtension<C extends JComponent>
             _styleGroups.clear();
 
         _styleGroups.addAll( java.util.Arrays.asList(groupTags) );
+        _gatherMemo.invalidate();
 
         if ( alreadyHasGroupTags )
             gatherApplyAndInstallStyle(false);
@@ -435,6 +459,13 @@ public final class ComponentExtension<C extends JComponent>
      */
     public Tuple<String> getStyleGroups() { return Tuple.of(String.class, _styleGroups); }
 
+    /**
+     *  The live list behind {@link #getStyleGroups()}, for style sheet lookups
+     *  which run on every style gathering and should not have to copy it.
+     *  It must not be modified, and it must be copied before it is stored.
+     */
+    List<String> styleGroupList() { return _styleGroups; }
+
     /**
      *  A style group is a tag which is used by the SwingTree style engine
      *  to apply styles to things with the same tags making it conceptually similar to CSS classes.
@@ -604,7 +635,32 @@ public final class ComponentExtension<C extends JComponent>
                 .put("style layers",     LayerPartitionCache.globalEntryCount())
                 .put("text layouts",     TextLayoutEngine.globalEntryCount())
                 .put("noise paints",     StyleRenderer.noisePaintCacheSize())
-                .put("shadow gradients", StyleRenderer.shadowGradientCacheSize());
+                .put("shadow gradients", StyleRenderer.shadowGradientCacheSize())
+                .put("shadow masks",     ShadowMaskCache.globalEntryCount())
+                .put("svg rasters",      SvgRasterCache.globalEntryCount());
+    }
+
+    /**
+     *  How many times an {@link SvgIcon} was served a rasterization from the global
+     *  cache of SVG rasters (whose size {@link #globalRenderCacheEntryCounts()} reports),
+     *  instead of having its document rendered again, since the application started.
+     *  Compare with {@link #globalSvgRasterCacheMissCount()} to see how well it works.
+     *
+     * @return The number of cache hits of the global SVG raster cache.
+     */
+    public static long globalSvgRasterCacheHitCount() {
+        return SvgRasterCache.globalHitCount();
+    }
+
+    /**
+     *  How many times an {@link SvgIcon} had to have its document rendered, because the
+     *  global cache of SVG rasters did not have the rasterization it needed, since the
+     *  application started. Compare with {@link #globalSvgRasterCacheHitCount()}.
+     *
+     * @return The number of cache misses of the global SVG raster cache.
+     */
+    public static long globalSvgRasterCacheMissCount() {
+        return SvgRasterCache.globalMissCount();
     }
 
     /**
@@ -656,6 +712,74 @@ public final class ComponentExtension<C extends JComponent>
         return CacheBudget.bytesFor(CacheBudget.Kind.STYLE_LAYER);
     }
 
+    /**
+     *  How much memory all of SwingTree's rendering caches hold right now, in bytes, as
+     *  accounted for by the one ledger which evicts their coldest entries, no matter which
+     *  cache they belong to, whenever this figure would exceed {@link #globalRenderCacheByteBudget()}. <br>
+     *  <br>
+     *  Unlike {@link #globalStyleLayerCacheBytesReserved()}, this only counts memory which is
+     *  actually allocated, and it includes the noise tiles, shadow gradients and text layouts.
+     *  The images are counted exactly, the other entries by an estimate of their heap footprint. <br>
+     *  <br>
+     *  The ledger is thread safe, so this may be called from any thread.
+     *
+     * @return Bytes currently held by all global rendering caches together.
+     */
+    public static long globalRenderCacheBytesCharged() {
+        return CacheLedger.chargedBytes();
+    }
+
+    /**
+     *  The hard ceiling {@link #globalRenderCacheBytesCharged()} is held under: the whole budget
+     *  of the current {@link swingtree.SwingTreeInitConfig.CacheMode}, which is shared by all
+     *  rendering caches.
+     *
+     * @return Bytes all global rendering caches together may retain at most, right now.
+     */
+    public static long globalRenderCacheByteBudget() {
+        return CacheBudget.totalBudgetBytes();
+    }
+
+    /**
+     *  Renders the cached style layer images of every SwingTree component in the supplied
+     *  component tree on background threads, ahead of their first paint, so that the first
+     *  frame of a new view merely copies finished images instead of rasterizing every heavily
+     *  styled component from scratch on the UI thread. Call this after the tree was laid out
+     *  (for example after {@link java.awt.Window#pack()}) but before it is shown, because the
+     *  cache entries are looked up for the current sizes of the components. <br>
+     *  <br>
+     *  Only the renderings the layer cache would keep anyway are prewarmed (stretch tiled layers
+     *  through their small, size independent exemplar), and only for as long as they fit into
+     *  the memory budget of the current {@link swingtree.SwingTreeInitConfig.CacheMode}
+     *  (see {@link #globalRenderCacheByteBudget()}) without evicting anything.
+     *  Layers with custom {@link swingtree.api.Painter}s or images are left to the first paint,
+     *  so that painters and icons are still only ever invoked on the UI thread. <br>
+     *  <br>
+     *  The styles of the components are installed on the UI thread before this returns
+     *  (it marshals onto that thread if called from anywhere else), the rendering happens
+     *  afterwards, in parallel on low priority daemon threads. A component painted before
+     *  its rendering is finished simply renders directly, like it would without prewarming.
+     *
+     * @param root The root of the component tree to prewarm the style caches of.
+     * @return A future which completes with the number of cache entries that were rendered
+     *         ahead of time. Cancelling it skips every entry which is not being rendered yet.
+     */
+    public static Future<Integer> prewarmStyleCaches( Component root ) {
+        Objects.requireNonNull(root);
+        return StyleCachePrewarmer.prewarm(root);
+    }
+
+    /**
+     *  Installs the current style of this component, just like its next paint would, and
+     *  adds the prewarming work for every style layer cache entry which is not rendered yet.
+     *  Must be called on the UI thread (see {@link StyleCachePrewarmer}).
+     */
+    void collectPrewarmings( List<LayerPartitionCache.Prewarming> prewarmings ) {
+        gatherApplyAndInstallStyleConfig();
+        for ( StyleLayerCache layerCache : _styleEngine.getLayerCaches() )
+            layerCache.collectPrewarmings(prewarmings);
+    }
+
     /**
      *  The single bridge through which the {@code swingtree} package tells the rendering
      *  caches in the {@code swingtree.style} package that the library configuration may have
@@ -664,9 +788,10 @@ public final class ComponentExtension<C extends JComponent>
      *  <ol>
      *      <li>marks the shared {@link CacheBudget} as needing to re-resolve the current
      *          {@link swingtree.SwingTreeInitConfig.CacheMode} (on the next paint), and</li>
-     *      <li>empties every global rendering cache — style layers, rasterised text, noise
-     *          tiles, shadow gradients and text layouts — so that memory is released
-     *          <em>immediately</em> rather than only as old entries are evicted.</li>
+     *      <li>evicts everything the {@link CacheLedger} accounts for and empties every global
+     *          rendering cache — style layers, rasterised text, noise tiles, shadow gradients
+     *          and text layouts — so that memory is released <em>immediately</em> rather than
+     *          only as old entries are evicted.</li>
      *  </ol>
      *  Each cache then repopulates lazily under the new budget. This is deliberately
      *  recursion-safe: it never reads {@link SwingTree#get()} itself (so it is safe to call
@@ -680,6 +805,8 @@ public final class ComponentExtension<C extends JComponent>
      */
     public static void updateAllCachesFromLibraryConfig() {
         CacheBudget.markUnresolved();
+        StyleGatherMemo.markUnresolved();
+        CacheLedger.evictAll();
         LayerPartitionCache.clearGlobalCache();
         StyleRenderer.clearGlobalRenderCaches();
         TextLayoutEngine.clearGlobalCaches();
@@ -736,6 +863,8 @@ public final class ComponentExtension<C extends JComponent>
      */
     public void clearAnimations() {
         _styleSource = _styleSource.withoutAnimationStylers();
+        if ( _compositedLayer != null )
+            _compositedLayer.deactivate();
     }
 
     /**
@@ -772,6 +901,72 @@ public final class ComponentExtension<C extends JComponent>
         _styleSource = _styleSource.withAnimationStyler(state.lifeSpan(), styler);
     }
 
+    /**
+     *  Use this to fade or slide the whole component in the current frame of an animation,
+     *  without restyling and re-rendering it on every frame. <br>
+     *  The component, including its children, is rendered once into a composited layer,
+     *  which is then painted as a single image with the supplied opacity and offset,
+     *  until the animation ends (see {@link #clearAnimations()}).
+     *  The component is only rendered again if its {@link StyleConf}, its view state
+     *  (see {@link #viewStateHashCode()}) or its size changes. <br>
+     *  Note that an opaque child which repaints itself during the animation is painted
+     *  on its own, without the opacity and offset of this component,
+     *  until this component is repainted again. <br>
+     *  Only a component which SwingTree paints entirely, which is every {@link StylableComponent}
+     *  (like the ones created by the {@link UI} factory methods), can be composited.
+     *  Any other component paints its children and its look and feel on its own,
+     *  which would end up on top of the layer, so it is simply painted as usual,
+     *  without the opacity and offset.
+     *
+     * @param status The current animation status, which is important so that the composition can be synchronized with the animation.
+     * @param opacity The opacity of the component, between 0 (invisible) and 1 (fully visible).
+     * @param offsetX The horizontal offset of the component from its actual location, in unscaled pixels.
+     *                The component is still clipped to its actual bounds.
+     * @param offsetY The vertical offset of the component from its actual location, in unscaled pixels.
+     *                The component is still clipped to its actual bounds.
+     */
+    public void addAnimatedComposition( AnimationStatus status, double opacity, double offsetX, double offsetY ) {
+        Objects.requireNonNull(status);
+        if ( !(_owner instanceof StylableComponent) )
+            return; // Its painting is not entirely covered by the paint steps, see above.
+        if ( _compositedLayer == null )
+            _compositedLayer = new CompositedLayer();
+        _compositedLayer.compose(opacity, offsetX, offsetY);
+        Container parent = _owner.getParent();
+        if ( parent != null )
+            parent.repaint(_owner.getX(), _owner.getY(), _owner.getWidth(), _owner.getHeight());
+            /*
+                What is behind a faded or shifted component has to be painted first,
+                even if the component is opaque, or else the frames would pile up.
+            */
+    }
+
+    private boolean _isPaintedByCompositedLayer() {
+        final CompositedLayer compositedLayer = _compositedLayer;
+        return compositedLayer != null && compositedLayer.isActive() && !compositedLayer.isRasterizing();
+    }
+
+    /**
+     *  Tells whether the component is currently painted from a composited layer,
+     *  because an animation fades or slides it (see {@link #addAnimatedComposition(AnimationStatus, double, double, double)}).
+     *
+     * @return {@code true} if the component is composited in the current animation frame.
+     */
+    public boolean isComposited() {
+        return _compositedLayer != null && _compositedLayer.isActive();
+    }
+
+    /**
+     *  The number of times this component was rendered into a composited layer,
+     *  which only happens when the composition starts, and afterwards
+     *  when the style, the view state or the size of the component changes.
+     *
+     * @return The number of composited layer renderings since this component was constructed.
+     */
+    public int compositedLayerRenderCount() {
+        return _compositedLayerRenderCount;
+    }
+
     /**
      *  SwingTree overrides the default Swing look and feel
      *  to enable custom styling and animation capabilities.
@@ -810,7 +1005,7 @@ public final class ComponentExtension<C extends JComponent>
      * @return A new immutable {@link StyleConf} configuration.
      */
     public StyleConf gatherStyle() {
-        return _styleSource.gatherStyleFor(_owner);
+        return _styleSource.gatherStyleFor(_owner, _gatherMemo, false);
     }
 
     /**
@@ -824,6 +1019,7 @@ public final class ComponentExtension<C extends JComponent>
      */
     public void gatherApplyAndInstallStyle( boolean force ) {
         _applyStyleToComponentState(gatherStyle(), force);
+        _gatherMemo.settle(_owner);
     }
 
     /**
@@ -839,13 +1035,95 @@ public final class ComponentExtension<C extends JComponent>
         _applyStyleToComponentState(styleConf, force);
     }
 
+    /**
+     *  The style (re)application of the painting path, which runs at the start of every paint
+     *  cycle. Unlike {@link #gatherApplyAndInstallStyle(boolean)}, this may skip running the
+     *  stylers if none of the inputs their last run depended on have changed since
+     *  (see {@link StyleGatherMemo} and {@link SwingTree#setStyleMemoizationEnabled(boolean)}),
+     *  or even skip the whole style installation if the component is clean, in which case
+     *  it simply paints with its previously installed {@link StyleEngine}.
+     */
     void gatherApplyAndInstallStyleConfig() {
-        _applyStyleToComponentState(gatherStyle(), false);
+        final @Nullable StyleSource<C> installedForFrame = _sourceInstalledForFrame;
+        _sourceInstalledForFrame = null;
+        if ( _engineMatchesBounds() && ( installedForFrame == _styleSource || _gatherMemo.isClean(_owner, _styleSource) ) )
+            return;
+        _applyStyleToComponentState(_styleSource.gatherStyleFor(_owner, _gatherMemo, true), false);
+        _gatherMemo.settle(_owner);
+    }
+
+    /**
+     *  Gathers and installs the style of this component for a new frame of its animations,
+     *  and tells the animation scheduler whether the component has to be revalidated or
+     *  whether a repaint suffices, because the animated stylers only changed how the component
+     *  is painted (colors, shadows, gradients...), but not its layout, margin, padding,
+     *  border widths, font or dimensionality. <br>
+     *  The paint which follows the frame does not gather the style again,
+     *  unless the stylers or the bounds of the component changed in the meantime.
+     *
+     * @return {@code true} if the new style lays out the component differently than the
+     *         previous one, which means that the component has to be revalidated.
+     */
+    public boolean gatherApplyAndInstallAnimatedStyle() {
+        final StyleConf oldStyle = _styleEngine.getComponentConf().style();
+        if ( _styleSource.hasNoAnimationStylers() )
+            gatherApplyAndInstallStyleConfig(); // No styler is animated (a composition for example), so the memo may skip the gathering.
+        else {
+            gatherApplyAndInstallStyle(false);
+            _sourceInstalledForFrame = _styleSource; // Animation stylers are never memoized, so we remember that the frame installed them.
+        }
+        return !oldStyle.hasEqualLayoutRelevantPartsAs(_styleEngine.getComponentConf().style());
+    }
+
+    private boolean _engineMatchesBounds() {
+        /*
+            Moves and resizes are posted to the event queue rather than delivered right away,
+            so the memo of a clean component may not have heard of them yet. The style engine
+            renders for the bounds it was last updated with, which is why it may only be
+            reused as is if those are still the bounds of the component.
+        */
+        return _styleEngine.getComponentConf()
+                           .currentBounds()
+                           .equals(_owner.getX(), _owner.getY(), _owner.getWidth(), _owner.getHeight());
+    }
+
+    StyleGatherMemo gatherMemo() {
+        return _gatherMemo;
+    }
+
+    /**
+     *  The number of times the style of this component was about to be gathered at the start
+     *  of a paint cycle, but did not have to be, either because nothing happened to the
+     *  component since its style was last installed, or because none of the inputs the
+     *  stylers read during their last run changed. This only ever increases if
+     *  {@link SwingTree#setStyleMemoizationEnabled(boolean)} is turned on.
+     *
+     * @return The number of skipped style gatherings since this component was constructed.
+     * @see #executedStyleGatherCount()
+     */
+    public int skippedStyleGatherCount() {
+        return _gatherMemo.skipCount();
+    }
+
+    /**
+     *  The number of times the stylers of this component actually ran
+     *  to gather its style, be it for painting it or because a style was
+     *  gathered explicitly through {@link #gatherStyle()} and friends.
+     *  Together with {@link #skippedStyleGatherCount()} this tells you how well
+     *  style memoization (see {@link SwingTree#setStyleMemoizationEnabled(boolean)})
+     *  works for this component.
+     *
+     * @return The number of executed style gatherings since this component was constructed.
+     */
+    public int executedStyleGatherCount() {
+        return _gatherMemo.gatherCount();
     }
 
     private void _applyStyleToComponentState( StyleConf newStyle, boolean force )
     {
         Objects.requireNonNull(newStyle);
+        final FontConf   oldFont   = _styleEngine.getComponentConf().style().font();
+        final FilterConf oldFilter = _styleEngine.getComponentConf().style().layers().filter();
         _styleEngine = _styleInstaller.applyStyleToComponentState(
                                     _owner,
                                     _styleEngine,
@@ -853,6 +1131,25 @@ public final class ComponentExtension<C extends JComponent>
                                     newStyle,
                                     force
                                 );
+        if ( !oldFilter.equals(_styleEngine.getComponentConf().style().layers().filter()) )
+            _forgetWhetherParentHasChildWithParentFilter();
+        if ( !oldFont.equals(_styleEngine.getComponentConf().style().font()) )
+            _markChildrenDirty();
+            /*
+                The children of this component inherit its font,
+                which is an input to their style gathering that
+                they cannot observe themselves.
+            */
+    }
+
+    private void _markChildrenDirty() {
+        for ( Component child : _owner.getComponents() ) {
+            if ( child instanceof JComponent ) {
+                Object extension = ((JComponent) child).getClientProperty(ComponentExtension.class);
+                if ( extension instanceof ComponentExtension )
+                    ((ComponentExtension<?>) extension)._gatherMemo.markDirty();
+            }
+        }
     }
 
     private void _doPaintStep(
@@ -872,14 +1169,34 @@ public final class ComponentExtension<C extends JComponent>
 
         _lastPaintStep = step;
 
+        final CompositedLayer compositedLayer = _compositedLayer;
+        if ( compositedLayer != null && !compositedLayer.isRasterizing() ) {
+            if ( compositedLayer.isActive() ) {
+                if ( isNewPaintCycle ) {
+                    try {
+                        StyleConf style = _styleEngine.getComponentConf().style();
+                        if ( compositedLayer.paint(_owner, style, (Graphics2D) graphics) )
+                            _compositedLayerRenderCount++;
+                    } catch ( Exception e ) {
+                        log.error(SwingTree.get().logMarker(), "Error while painting the composited layer of component '{}'!", _owner, e);
+                    }
+                    _lastPaintStep = step; // The rendering into the layer was a paint cycle of its own.
+                }
+                return; // The remaining steps of this paint cycle are part of the layer.
+            }
+            compositedLayer.release();
+            _compositedLayer = null;
+        }
+
         try {
             if ( isNewPaintCycle && step == PaintStep.BACKGROUND && _hasChildWithParentFilter() ) {
                 int w = _owner.getWidth();
                 int h = _owner.getHeight();
-                _bufferedImage = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-                _renderInto(_bufferedImage, step, graphics, superPaint);
+                Rectangle region = _regionToRenderForFilteringChildren(graphics, w, h);
+                _bufferedImage = ParentBufferPool.acquire(_bufferedImage, w, h, region);
+                _renderInto(_bufferedImage, step, graphics, region, superPaint);
             } else if ( _bufferedImage != null && step == PaintStep.BORDER ) {
-                _renderInto(_bufferedImage, step, graphics, superPaint);
+                _renderInto(_bufferedImage, step, graphics, graphics.getClip(), superPaint);
             } else {
                 superPaint.accept((Graphics2D) graphics);
             }
@@ -888,10 +1205,16 @@ public final class ComponentExtension<C extends JComponent>
         }
     }
 
-    private void _renderInto(BufferedImage buffer, PaintStep step, Graphics graphics, Consumer<Graphics2D> superPaint ) {
+    private void _renderInto(
+        BufferedImage        buffer,
+        PaintStep            step,
+        Graphics             graphics,
+        @Nullable Shape      bufferClip,
+        Consumer<Graphics2D> superPaint
+    ) {
         Graphics2D bufferGraphics = buffer.createGraphics();
         StyleUtil.transferConfigurations((Graphics2D) graphics, bufferGraphics);
-        bufferGraphics.setClip(graphics.getClip());
+        bufferGraphics.setClip(bufferClip);
         try {
             superPaint.accept(bufferGraphics);
         } catch ( Exception e ) {
@@ -900,20 +1223,63 @@ public final class ComponentExtension<C extends JComponent>
         graphics.drawImage(buffer, 0, 0, null);
     }
 
+    /**
+     *  Only the part of this component which is being repainted is visible through its
+     *  filtering children, but they filter it with the pixels around that part, as far as
+     *  their filters reach. So that is how much of this component is rendered for them,
+     *  which is what keeps a small repaint (like a blinking caret in a frosted glass panel)
+     *  from rendering and filtering the whole component, and which makes it look exactly like
+     *  a repaint of the whole component.
+     */
+    private Rectangle _regionToRenderForFilteringChildren( Graphics graphics, int width, int height ) {
+        Rectangle everything = new Rectangle(0, 0, width, height);
+        Rectangle clip = graphics.getClipBounds();
+        if ( clip == null || _childParentFilterReach < 0 )
+            return everything;
+        clip.grow(_childParentFilterReach, _childParentFilterReach);
+        return clip.intersection(everything);
+    }
+
     private boolean _hasChildWithParentFilter() {
-        for ( Component child : _owner.getComponents() ) {
-            if ( !child.isOpaque() && child instanceof JComponent ) {
-                if ( _hasParentFilter((JComponent) child) )
-                    return true;
+        /*
+            This is asked on every paint, so we remember the answer until a child is
+            added or removed, or until one of them changes its filter or opacity:
+        */
+        Boolean hasChildWithParentFilter = _hasChildWithParentFilterMemo;
+        if ( hasChildWithParentFilter == null ) {
+            hasChildWithParentFilter = false;
+            int reach = 0;
+            for ( Component child : _owner.getComponents() ) {
+                if ( !child.isOpaque() && child instanceof JComponent ) {
+                    FilterConf filter = _parentFilterOf((JComponent) child);
+                    if ( !filter.equals(FilterConf.none()) ) {
+                        hasChildWithParentFilter = true;
+                        int childReach = filter.reach();
+                        reach = ( reach < 0 || childReach < 0 ) ? -1 : Math.max(reach, childReach);
+                    }
+                }
             }
+            _hasChildWithParentFilterMemo = hasChildWithParentFilter;
+            _childParentFilterReach = reach;
+        }
+        if ( !hasChildWithParentFilter && _bufferedImage != null ) {
+            ParentBufferPool.release(_bufferedImage);
+            _bufferedImage = null;
+        }
+        return hasChildWithParentFilter;
+    }
+
+    private void _forgetWhetherParentHasChildWithParentFilter() {
+        Container parent = _owner.getParent();
+        if ( parent instanceof JComponent ) {
+            Object extension = ((JComponent) parent).getClientProperty(ComponentExtension.class);
+            if ( extension instanceof ComponentExtension )
+                ((ComponentExtension<?>) extension)._hasChildWithParentFilterMemo = null;
         }
-        _bufferedImage = null;
-        return false;
     }
 
-    private boolean _hasParentFilter( JComponent aComponent ) {
-        FilterConf otherFilter = from(aComponent).getConf().style().layers().filter();
-        return !otherFilter.equals(FilterConf.none());
+    private FilterConf _parentFilterOf( JComponent aComponent ) {
+        return from(aComponent).getConf().style().layers().filter();
     }
 
     /**
@@ -1104,6 +1470,8 @@ public final class ComponentExtension<C extends JComponent>
 
     void gatherStyleAndPaintInScope( Graphics g, Runnable painter ) {
         gatherApplyAndInstallStyleConfig();
+        if ( _isPaintedByCompositedLayer() )
+            return; // A look and feel painting outside the paint steps (the text of a text field, for example), which is part of the layer.
         Shape oldClip = g.getClip();
         try {
             painter.run();
@@ -33,16 +33,118 @@ public final class ComponentStyleDelegate<C extends JComponent>
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(ComponentStyleDelegate.class);
 
     private final C _component;
-    private final StyleConf _styleConf;
+    private final @Nullable TransientStyleConf _transient;
+    private final int _position;
+    private @Nullable StyleConf _styleConf; // Lazily frozen from the transient style, if there is one.
 
 
     ComponentStyleDelegate( C component, StyleConf styleConf) {
         _component = Objects.requireNonNull(component);
+        _transient = null;
+        _position  = 0;
         _styleConf = Objects.requireNonNull(styleConf);
     }
 
-    ComponentStyleDelegate<C> _withStyle( StyleConf styleConf) {
-        return new ComponentStyleDelegate<>(_component, styleConf);
+    private ComponentStyleDelegate( C component, TransientStyleConf transientStyle ) {
+        _component = component;
+        _transient = transientStyle;
+        _position  = transientStyle.position();
+        _styleConf = null;
+    }
+
+    /*
+        Rather than allocating a new StyleConf for every single call, the delegates of
+        a styling chain accumulate their edits in a shared TransientStyleConf, which is
+        frozen into a StyleConf once one is actually needed (see style()).
+        A delegate which is no longer at the tip of the chain freezes its own
+        style and starts a new transient style from there, which is what
+        keeps every delegate an immutable value from the outside.
+    */
+    private @Nullable TransientStyleConf _tip() {
+        TransientStyleConf transientStyle = _transient;
+        return transientStyle != null && transientStyle.position() == _position ? transientStyle : null;
+    }
+
+    private TransientStyleConf _editable() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip : new TransientStyleConf(style());
+    }
+
+    private ComponentStyleDelegate<C> _withLayoutConf( LayoutConf layout ) {
+        TransientStyleConf editable = _editable();
+        editable.layout(layout);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withBorderConf( BorderConf border ) {
+        TransientStyleConf editable = _editable();
+        editable.border(border);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withBaseConf( BaseConf base ) {
+        TransientStyleConf editable = _editable();
+        editable.base(base);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withFontConf( FontConf font ) {
+        TransientStyleConf editable = _editable();
+        editable.font(font);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withDimensionalityConf( DimensionalityConf dimensionality ) {
+        TransientStyleConf editable = _editable();
+        editable.dimensionality(dimensionality);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withLayersConf( StyleConfLayers layers ) {
+        TransientStyleConf editable = _editable();
+        editable.layers(layers);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private ComponentStyleDelegate<C> _withPropertiesConf( NamedConfigs<String> properties ) {
+        TransientStyleConf editable = _editable();
+        editable.properties(properties);
+        return new ComponentStyleDelegate<>(_component, editable);
+    }
+
+    private LayoutConf _layout() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.layout() : style().layout();
+    }
+
+    private BorderConf _border() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.border() : style().border();
+    }
+
+    private BaseConf _base() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.base() : style().base();
+    }
+
+    private FontConf _font() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.font() : style().font();
+    }
+
+    private DimensionalityConf _dimensionality() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.dimensionality() : style().dimensionality();
+    }
+
+    private StyleConfLayers _layers() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.layers() : style().layers();
+    }
+
+    private NamedConfigs<String> _properties() {
+        TransientStyleConf tip = _tip();
+        return tip != null ? tip.namedProperties() : style().namedProperties();
     }
 
     /**
@@ -75,7 +177,10 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *             </ul>
      */
     @Deprecated
-    public C component() { return _component; }
+    public C component() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.COMPONENT_STATE);
+        return _component;
+    }
 
     /**
      *  This method delegates to the {@link JComponent#getWidth()} property but also
@@ -91,6 +196,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return The width of the underlying {@link JComponent} in "developer pixel".
      */
     public int componentWidth() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.SIZE);
         return UI.unscale(_component.getWidth());
     }
 
@@ -108,6 +214,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return The height of the underlying {@link JComponent} in "developer pixel".
      */
     public int componentHeight() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.SIZE);
         return UI.unscale(_component.getHeight());
     }
 
@@ -131,6 +238,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return The preferred width of the underlying {@link JComponent} in "developer pixel".
      */
     public int componentPrefWidth() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.PREFERRED_SIZE);
         return UI.unscale(_component.getPreferredSize().width);
     }
 
@@ -154,6 +262,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return The preferred height of the underlying {@link JComponent} in "developer pixel".
      */
     public int componentPrefHeight() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.PREFERRED_SIZE);
         return UI.unscale(_component.getPreferredSize().height);
     }
 
@@ -179,7 +288,10 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *             </ul>
      */
     @Deprecated
-    public Optional<Container> parent() { return Optional.ofNullable(_component.getParent()); }
+    public Optional<Container> parent() {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.COMPONENT_STATE);
+        return Optional.ofNullable(_component.getParent());
+    }
 
     /**
      *  Use this to peek at the {@link JComponent} of this {@link ComponentStyleDelegate}
@@ -207,6 +319,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> peek( Peeker<C> peeker )
     {
         Objects.requireNonNull(peeker);
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.COMPONENT_STATE);
         try {
             peeker.accept(_component);
         } catch( Exception e ) {
@@ -271,7 +384,17 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * <p>
      * @return The {@link StyleConf} this {@link ComponentStyleDelegate} is for.
      */
-    StyleConf style() { return _styleConf; }
+    StyleConf style() {
+        StyleConf styleConf = _styleConf;
+        if ( styleConf != null )
+            return styleConf;
+        TransientStyleConf transientStyle = Objects.requireNonNull(_transient);
+        if ( transientStyle.position() == _position )
+            return transientStyle.freeze();
+        styleConf = transientStyle.freezeAt(_position);
+        _styleConf = styleConf; // The transient style has moved on, so this will not change anymore.
+        return styleConf;
+    }
 
     /**
      *  As a delegate to the underlying component, you can use this method to
@@ -288,6 +411,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return An optional value that contains the component area if it is present.
      */
     public Optional<Shape> shapeOf( UI.ComponentArea area ) {
+        StyleGatherMemo.recordRead(_component, StyleGatherMemo.SIZE);
         return ComponentExtension.from(_component).getComponentArea(area);
     }
 
@@ -304,7 +428,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distances.
      */
     public ComponentStyleDelegate<C> margin( double top, double right, double bottom, double left ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(Outline.of(top, right, bottom, left))));
+        return _withBorderConf(_border().withMargin(Outline.of(top, right, bottom, left)));
     }
 
     /**
@@ -317,7 +441,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> margin( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(Outline.of((float) margin))));
+        return _withBorderConf(_border().withMargin(Outline.of((float) margin)));
     }
 
     /**
@@ -330,7 +454,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginTop( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withTop((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withTop((float) margin)));
     }
 
     /**
@@ -343,7 +467,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginRight( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withRight((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withRight((float) margin)));
     }
 
     /**
@@ -356,7 +480,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginBottom( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withBottom((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withBottom((float) margin)));
     }
 
     /**
@@ -369,7 +493,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginLeft( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withLeft((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withLeft((float) margin)));
     }
 
     /**
@@ -382,7 +506,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginVertical( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withTop((float) margin).withBottom((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withTop((float) margin).withBottom((float) margin)));
     }
 
     /**
@@ -395,7 +519,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided margin distance.
      */
     public ComponentStyleDelegate<C> marginHorizontal( double margin ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withMargin(_styleConf.border().margin().withLeft((float) margin).withRight((float) margin))));
+        return _withBorderConf(_border().withMargin(_border().margin().withLeft((float) margin).withRight((float) margin)));
     }
 
     /**
@@ -411,7 +535,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distances.
      */
     public ComponentStyleDelegate<C> padding( double top, double right, double bottom, double left ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(Outline.of(top, right, bottom, left))));
+        return _withBorderConf(_border().withPadding(Outline.of(top, right, bottom, left)));
     }
 
     /**
@@ -424,7 +548,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> padding( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(Outline.of((float) padding))));
+        return _withBorderConf(_border().withPadding(Outline.of((float) padding)));
     }
 
     /**
@@ -437,7 +561,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingTop( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withTop((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withTop((float) padding)));
     }
 
     /**
@@ -451,7 +575,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingRight( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withRight((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withRight((float) padding)));
     }
 
     /**
@@ -464,7 +588,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingBottom( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withBottom((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withBottom((float) padding)));
     }
 
     /**
@@ -477,7 +601,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingLeft( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withLeft((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withLeft((float) padding)));
     }
 
     /**
@@ -490,7 +614,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingVertical( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withTop((float) padding).withBottom((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withTop((float) padding).withBottom((float) padding)));
     }
 
     /**
@@ -503,7 +627,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided padding distance.
      */
     public ComponentStyleDelegate<C> paddingHorizontal( double padding ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withPadding(_styleConf.border().padding().withLeft((float) padding).withRight((float) padding))));
+        return _withBorderConf(_border().withPadding(_border().padding().withLeft((float) padding).withRight((float) padding)));
     }
 
     /**
@@ -515,7 +639,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border width and border color.
      */
     public ComponentStyleDelegate<C> border( double width, Color color ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidth(width).withColor(color)));
+        return _withBorderConf(_border().withWidth(width).withColor(color));
     }
 
     /**
@@ -530,7 +654,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border width and border colors.
      */
     public ComponentStyleDelegate<C> border( double width, Color top, Color right, Color bottom, Color left ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidth(width).withColors(top, right, bottom, left)));
+        return _withBorderConf(_border().withWidth(width).withColors(top, right, bottom, left));
     }
 
     /**
@@ -545,7 +669,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border widths and border color.
      */
     public ComponentStyleDelegate<C> border( double top, double right, double bottom, double left, Color color ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidths(Outline.of(top, right, bottom, left)).withColor(color)));
+        return _withBorderConf(_border().withWidths(Outline.of(top, right, bottom, left)).withColor(color));
     }
 
     /**
@@ -567,7 +691,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidth(width).withColor(newColor)));
+        return _withBorderConf(_border().withWidth(width).withColor(newColor));
     }
 
     /**
@@ -587,7 +711,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
         Color rightColor = UI.color(right);
         Color bottomColor = UI.color(bottom);
         Color leftColor = UI.color(left);
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidth(width).withColors(topColor, rightColor, bottomColor, leftColor)));
+        return _withBorderConf(_border().withWidth(width).withColors(topColor, rightColor, bottomColor, leftColor));
     }
 
     /**
@@ -603,7 +727,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border width.
      */
     public ComponentStyleDelegate<C> borderWidth( double width ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidth(width)));
+        return _withBorderConf(_border().withWidth(width));
     }
 
     /**
@@ -622,7 +746,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border colors.
      */
     public ComponentStyleDelegate<C> borderColors( Color top, Color right, Color bottom, Color left ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withColors(top, right, bottom, left)));
+        return _withBorderConf(_border().withColors(top, right, bottom, left));
     }
 
     /**
@@ -642,7 +766,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
         Color rightColor = UI.color(right);
         Color bottomColor = UI.color(bottom);
         Color leftColor = UI.color(left);
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withColors(topColor, rightColor, bottomColor, leftColor)));
+        return _withBorderConf(_border().withColors(topColor, rightColor, bottomColor, leftColor));
     }
 
     /**
@@ -658,7 +782,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> borderWidthAt( UI.Edge edge, double width ) {
         Objects.requireNonNull(edge);
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidthAt(edge, (float) width)));
+        return _withBorderConf(_border().withWidthAt(edge, (float) width));
     }
 
     /**
@@ -674,7 +798,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> borderAt( UI.Edge edge, double width, Color color ) {
         Objects.requireNonNull(edge);
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidthAt(edge, (float) width).withColorAt(edge, color)));
+        return _withBorderConf(_border().withWidthAt(edge, (float) width).withColorAt(edge, color));
     }
 
     /**
@@ -700,7 +824,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidthAt(edge, (float) width).withColorAt(edge, newColor)));
+        return _withBorderConf(_border().withWidthAt(edge, (float) width).withColorAt(edge, newColor));
     }
 
     /**
@@ -726,7 +850,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @see #borderWidthAt(UI.Edge, double)
      */
     public ComponentStyleDelegate<C> borderWidths( double top, double right, double bottom, double left ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidths(Outline.of(top, right, bottom, left))));
+        return _withBorderConf(_border().withWidths(Outline.of(top, right, bottom, left)));
     }
 
     /**
@@ -748,7 +872,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @see #borderWidthAt(UI.Edge, double)
      */
     public ComponentStyleDelegate<C> borderWidths( double topBottom, double leftRight ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withWidths(Outline.of(topBottom, leftRight, topBottom, leftRight))));
+        return _withBorderConf(_border().withWidths(Outline.of(topBottom, leftRight, topBottom, leftRight)));
     }
 
     /**
@@ -759,7 +883,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border color.
      */
     public ComponentStyleDelegate<C> borderColor( Color color ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withColor(color)));
+        return _withBorderConf(_border().withColor(color));
     }
 
     /**
@@ -779,7 +903,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '{}'", colorString, e);
             return this;
         }
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withColor(newColor)));
+        return _withBorderConf(_border().withColor(newColor));
     }
 
     /**
@@ -792,7 +916,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border radius.
      */
     public ComponentStyleDelegate<C> borderRadius( double radius ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withArcWidth(radius).withArcHeight(radius)));
+        return _withBorderConf(_border().withArcWidth(radius).withArcHeight(radius));
     }
 
     /**
@@ -805,7 +929,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border arc width and arc height.
      */
     public ComponentStyleDelegate<C> borderRadius( double arcWidth, double arcHeight ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withArcWidth(arcWidth).withArcHeight(arcHeight)));
+        return _withBorderConf(_border().withArcWidth(arcWidth).withArcHeight(arcHeight));
     }
 
     /**
@@ -818,7 +942,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided border arc width and arc height for the specified corner.
      */
     public ComponentStyleDelegate<C> borderRadiusAt( UI.Corner corner, double arcWidth, double arcHeight ) {
-        return _withStyle(_styleConf._withBorder(_styleConf.border().withArcWidthAt(corner, arcWidth).withArcHeightAt(corner, arcHeight)));
+        return _withBorderConf(_border().withArcWidthAt(corner, arcWidth).withArcHeightAt(corner, arcHeight));
     }
 
     /**
@@ -845,7 +969,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided icon.
      */
     public ComponentStyleDelegate<C> icon( ImageIcon icon ) {
-        return _withStyle(_styleConf._withBase(_styleConf.base().icon(icon)));
+        return _withBaseConf(_base().icon(icon));
     }
 
     /**
@@ -861,7 +985,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided icon.
      */
     public ComponentStyleDelegate<C> icon( ImageIcon icon, UI.FitComponent fit ) {
-        return _withStyle(_styleConf._withBase(_styleConf.base().icon(icon).fit(fit)));
+        return _withBaseConf(_base().icon(icon).fit(fit));
     }
 
     /**
@@ -906,7 +1030,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> foundationColor( Color color ) {
         Objects.requireNonNull(color, "Use 'UI.Color.UNDEFINED' instead of 'null'.");
-        return _withStyle(_styleConf._withBase(_styleConf.base().foundationColor(color)));
+        return _withBaseConf(_base().foundationColor(color));
     }
 
     /**
@@ -929,7 +1053,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withBase(_styleConf.base().foundationColor(newColor)));
+        return _withBaseConf(_base().foundationColor(newColor));
     }
 
     /**
@@ -982,7 +1106,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> backgroundColor( Color color ) {
         Objects.requireNonNull(color, "Use 'UI.Color.UNDEFINED' instead of 'null'.");
-        return _withStyle(_styleConf._withBase(_styleConf.base().backgroundColor(color)));
+        return _withBaseConf(_base().backgroundColor(color));
     }
 
     /**
@@ -1045,7 +1169,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withBase(_styleConf.base().backgroundColor(newColor)));
+        return _withBaseConf(_base().backgroundColor(newColor));
     }
 
     /**
@@ -1082,7 +1206,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided background renderer.
      */
     public ComponentStyleDelegate<C> painter( UI.Layer layer, swingtree.api.Painter painter ) {
-        return _withStyle(_styleConf.painter(layer, UI.ComponentArea.INTERIOR, StyleUtil.DEFAULT_KEY, painter));
+        return _withLayersConf(_layers().painter(layer, UI.ComponentArea.INTERIOR, StyleUtil.DEFAULT_KEY, painter));
     }
 
     /**
@@ -1132,7 +1256,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
         UI.ComponentArea      clipArea,
         swingtree.api.Painter painter
     ) {
-        return _withStyle(_styleConf.painter(layer, clipArea, StyleUtil.DEFAULT_KEY, painter));
+        return _withLayersConf(_layers().painter(layer, clipArea, StyleUtil.DEFAULT_KEY, painter));
     }
 
 
@@ -1174,7 +1298,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided background renderer.
      */
     public ComponentStyleDelegate<C> painter( UI.Layer layer, String painterName, swingtree.api.Painter painter ) {
-        return _withStyle(_styleConf.painter(layer, UI.ComponentArea.INTERIOR, painterName, painter));
+        return _withLayersConf(_layers().painter(layer, UI.ComponentArea.INTERIOR, painterName, painter));
     }
 
     /**
@@ -1229,7 +1353,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
         String                painterName,
         swingtree.api.Painter painter
     ) {
-        return _withStyle(_styleConf.painter(layer, clipArea, painterName, painter));
+        return _withLayersConf(_layers().painter(layer, clipArea, painterName, painter));
     }
 
     /**
@@ -1240,7 +1364,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> foregroundColor( Color color ) {
         Objects.requireNonNull(color, "Use 'UI.Color.UNDEFINED' instead of 'null'.");
-        return _withStyle(_styleConf._withBase(_styleConf.base().foregroundColor(color)));
+        return _withBaseConf(_base().foregroundColor(color));
     }
 
     /**
@@ -1259,7 +1383,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withBase(_styleConf.base().foregroundColor(newColor)));
+        return _withBaseConf(_base().foregroundColor(newColor));
     }
 
     /**
@@ -1274,7 +1398,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided horizontal shadow offset.
      */
     public ComponentStyleDelegate<C> shadowHorizontalOffset( double offset ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.horizontalOffset((float) offset)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.horizontalOffset((float) offset)));
     }
 
     /**
@@ -1289,7 +1413,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided vertical shadow offset.
      */
     public ComponentStyleDelegate<C> shadowVerticalOffset( double offset ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.verticalOffset((float) offset)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.verticalOffset((float) offset)));
     }
 
     /**
@@ -1305,7 +1429,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow offset.
      */
     public ComponentStyleDelegate<C> shadowOffset( double horizontalOffset, double verticalOffset ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.horizontalOffset((float) horizontalOffset).verticalOffset((float) verticalOffset)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.horizontalOffset((float) horizontalOffset).verticalOffset((float) verticalOffset)));
     }
 
     /**
@@ -1320,7 +1444,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow offset.
      */
     public ComponentStyleDelegate<C> shadowOffset( double horizontalAndVerticalOffset ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.horizontalOffset((float) horizontalAndVerticalOffset).verticalOffset((float) horizontalAndVerticalOffset)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.horizontalOffset((float) horizontalAndVerticalOffset).verticalOffset((float) horizontalAndVerticalOffset)));
     }
 
     /**
@@ -1335,7 +1459,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow blur radius.
      */
     public ComponentStyleDelegate<C> shadowBlurRadius( double radius ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.blurRadius((float) radius)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.blurRadius((float) radius)));
     }
 
     /**
@@ -1350,7 +1474,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow spread radius.
      */
     public ComponentStyleDelegate<C> shadowSpreadRadius( double radius ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.spreadRadius((float) radius)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.spreadRadius((float) radius)));
     }
 
     /**
@@ -1369,7 +1493,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow color.
      */
     public ComponentStyleDelegate<C> shadowColor( Color color ) {
-        return _withStyle(_styleConf._withShadow(ShadowConf.DEFAULT_LAYER, shadow -> shadow.color(color)));
+        return _withLayersConf(_layers().shadows(ShadowConf.DEFAULT_LAYER, shadow -> shadow.color(color)));
     }
 
     /**
@@ -1397,7 +1521,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
             log.error(SwingTree.get().logMarker(), "Failed to parse color string: '"+colorString+"'", e);
             return this;
         }
-        return _withStyle(_styleConf._withShadow(ShadowConf.DEFAULT_LAYER, shadow -> shadow.color(newColor)));
+        return _withLayersConf(_layers().shadows(ShadowConf.DEFAULT_LAYER, shadow -> shadow.color(newColor)));
     }
 
     /**
@@ -1457,7 +1581,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow inset flag.
      */
     public ComponentStyleDelegate<C> shadowIsInset( boolean inwards ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.isInset(inwards)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.isInset(inwards)));
     }
 
     /**
@@ -1475,7 +1599,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided shadow type.
      */
     public ComponentStyleDelegate<C> shadowType( UI.ShadowType type ) {
-        return _withStyle(_styleConf._withShadow(shadow -> shadow.type(type)));
+        return _withLayersConf(_layers().shadows(shadow -> shadow.type(type)));
     }
 
     /**
@@ -1561,15 +1685,16 @@ public final class ComponentStyleDelegate<C extends JComponent>
     ) {
         Objects.requireNonNull(shadowName);
         Objects.requireNonNull(styler);
-        ShadowConf shadow = Optional.ofNullable(_styleConf.shadow(layer, shadowName)).orElse(ShadowConf.none());
+        NamedConfigs<ShadowConf> shadows = _layers().get(layer).shadows();
+        ShadowConf shadow = Optional.ofNullable(shadows.get(shadowName)).orElse(ShadowConf.none());
         try {
             shadow = styler.configure(shadow);
         } catch ( Exception e ) {
             log.error(SwingTree.get().logMarker(), "Failed to configure shadow '"+shadowName+"' for layer '"+layer+"' using styler: "+styler, e);
         }
         // We clone the shadow map:
-        NamedConfigs<ShadowConf> newShadows = _styleConf.shadowsMap(layer).withNamedStyle(shadowName, shadow);
-        return _withStyle(_styleConf._withShadow(layer, newShadows));
+        NamedConfigs<ShadowConf> newShadows = shadows.withNamedStyle(shadowName, shadow);
+        return _withLayersConf(_layers().shadows(layer, newShadows));
     }
 
     /**
@@ -1635,7 +1760,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     ) {
         Objects.requireNonNull(shadeName);
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.gradient(layer, shadeName, styler));
+        return _withLayersConf(_layers().gradient(layer, shadeName, styler));
     }
 
     /**
@@ -1683,7 +1808,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> gradient( UI.Layer layer, Configurator<GradientConf> styler ) {
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.gradient(layer, StyleUtil.DEFAULT_KEY, styler));
+        return _withLayersConf(_layers().gradient(layer, StyleUtil.DEFAULT_KEY, styler));
     }
 
     /**
@@ -1741,7 +1866,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> noise( UI.Layer layer, String noiseName, Configurator<NoiseConf> styler ) {
         Objects.requireNonNull(noiseName);
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.noise(layer, noiseName, styler));
+        return _withLayersConf(_layers().noise(layer, noiseName, styler));
     }
 
     /**
@@ -1835,7 +1960,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> image( UI.Layer layer, String imageName, Configurator<ImageConf> styler ) {
         Objects.requireNonNull(imageName);
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.images(layer, imageName, styler));
+        return _withLayersConf(_layers().images(layer, imageName, styler));
     }
 
     /**
@@ -1887,7 +2012,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> image( UI.Layer layer, Configurator<ImageConf> styler ) {
         Objects.requireNonNull(layer);
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.images(layer, StyleUtil.DEFAULT_KEY, styler));
+        return _withLayersConf(_layers().images(layer, StyleUtil.DEFAULT_KEY, styler));
     }
 
     /**
@@ -1944,7 +2069,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> text( UI.Layer layer, String textName, Configurator<TextConf> styler ) {
         Objects.requireNonNull(textName);
         Objects.requireNonNull(styler);
-        return _withStyle(_styleConf.text(layer, textName, styler));
+        return _withLayersConf(_layers().text(layer, textName, styler));
     }
 
     /**
@@ -1986,7 +2111,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> property( String key, String value ) {
         Objects.requireNonNull(key);
         Objects.requireNonNull(value);
-        return _withStyle(_styleConf.property(key, value));
+        return _withPropertiesConf(_properties().withNamedStyle(key, value));
     }
 
     /**
@@ -1996,21 +2121,22 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> parentFilter( Configurator<FilterConf> filterStyler ) {
         Objects.requireNonNull(filterStyler);
-        return _withStyle(_styleConf._withLayers(_styleConf.layers().filter(filterStyler)));
+        return _withLayersConf(_layers().filter(filterStyler));
     }
 
     private ComponentStyleDelegate<C> _withFont( Configurator<FontConf> fontStyler ) {
         Objects.requireNonNull(fontStyler);
-        FontConf fontConf = _styleConf.font();
+        FontConf fontConf = _font();
         try {
             fontConf = fontStyler.configure(fontConf);
         } catch ( Exception e ) {
             log.error(SwingTree.get().logMarker(), "Failed to configure font using styler: "+fontStyler, e);
         }
-        StyleConf updatedStyle = _styleConf._withFont(fontConf);
+        TransientStyleConf editable = _editable();
+        editable.font(fontConf);
         // We also update the text style, if it exists:
-        updatedStyle = updatedStyle.text( text -> text.font(fontStyler) );
-        return _withStyle(updatedStyle);
+        editable.layers(editable.layers().text( text -> text.font(fontStyler) ));
+        return new ComponentStyleDelegate<>(_component, editable);
     }
 
     /**
@@ -2030,14 +2156,13 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public final ComponentStyleDelegate<C> componentFont( Configurator<FontConf> fontStyler ) {
         Objects.requireNonNull(fontStyler);
-        FontConf fontConf = _styleConf.font();
+        FontConf fontConf = _font();
         try {
             fontConf = fontStyler.configure(fontConf);
         } catch ( Exception e ) {
             log.error(SwingTree.get().logMarker(), "Failed to configure font using styler: "+fontStyler, e);
         }
-        StyleConf updatedStyle = _styleConf._withFont(fontConf);
-        return _withStyle(updatedStyle);
+        return _withFontConf(fontConf);
     }
 
     /**
@@ -2339,7 +2464,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided font transform.
      */
     public ComponentStyleDelegate<C> fontTransform( @Nullable AffineTransform transform ) {
-        return _withStyle(_styleConf._withFont(_styleConf.font().transform(transform)));
+        return _withFontConf(_font().transform(transform));
     }
 
     /**
@@ -2458,7 +2583,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> minSize( double width, double height ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMinWidth(width)._withMinHeight(height)));
+        return _withDimensionalityConf(_dimensionality()._withMinWidth(width)._withMinHeight(height));
     }
 
     /**
@@ -2471,7 +2596,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> minSize( Size size ) {
         Objects.requireNonNull(size);
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMinSize(size)));
+        return _withDimensionalityConf(_dimensionality()._withMinSize(size));
     }
 
     /**
@@ -2483,7 +2608,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> minWidth( double minWidth ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMinWidth(minWidth)));
+        return _withDimensionalityConf(_dimensionality()._withMinWidth(minWidth));
     }
 
     /**
@@ -2495,7 +2620,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> minHeight( double minHeight ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMinHeight(minHeight)));
+        return _withDimensionalityConf(_dimensionality()._withMinHeight(minHeight));
     }
 
     /**
@@ -2509,7 +2634,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> maxSize( double width, double height ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMaxWidth(width)._withMaxHeight(height)));
+        return _withDimensionalityConf(_dimensionality()._withMaxWidth(width)._withMaxHeight(height));
     }
 
     /**
@@ -2523,7 +2648,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> maxSize( Size maxSize ) {
         Objects.requireNonNull(maxSize);
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMaxSize(maxSize)));
+        return _withDimensionalityConf(_dimensionality()._withMaxSize(maxSize));
     }
 
     /**
@@ -2536,7 +2661,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> maxWidth( double maxWidth ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMaxWidth(maxWidth)));
+        return _withDimensionalityConf(_dimensionality()._withMaxWidth(maxWidth));
     }
 
     /**
@@ -2549,7 +2674,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> maxHeight( double maxHeight ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withMaxHeight(maxHeight)));
+        return _withDimensionalityConf(_dimensionality()._withMaxHeight(maxHeight));
     }
 
     /**
@@ -2563,7 +2688,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> prefSize( Size preferredSize ) {
         Objects.requireNonNull(preferredSize);
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withPreferredSize(preferredSize)));
+        return _withDimensionalityConf(_dimensionality()._withPreferredSize(preferredSize));
     }
 
     /**
@@ -2577,7 +2702,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> prefSize( double width, double height ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withPreferredWidth(width)._withPreferredHeight(height)));
+        return _withDimensionalityConf(_dimensionality()._withPreferredWidth(width)._withPreferredHeight(height));
     }
 
     /**
@@ -2590,7 +2715,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> prefWidth( double preferredWidth ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withPreferredWidth(preferredWidth)));
+        return _withDimensionalityConf(_dimensionality()._withPreferredWidth(preferredWidth));
     }
 
     /**
@@ -2603,7 +2728,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      *          applied to the underlying component when the final {@link StyleConf} is applied.
      */
     public ComponentStyleDelegate<C> prefHeight( double preferredHeight ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withPreferredHeight(preferredHeight)));
+        return _withDimensionalityConf(_dimensionality()._withPreferredHeight(preferredHeight));
     }
 
     /**
@@ -2622,7 +2747,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> size( Size size ) {
         Objects.requireNonNull(size);
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withSize(size)));
+        return _withDimensionalityConf(_dimensionality()._withSize(size));
     }
 
     /**
@@ -2641,7 +2766,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @see #prefSize(double, double) the typical way to specify a preferred size to the layout manager
      */
     public ComponentStyleDelegate<C> size( double width, double height ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withWidth(width)._withHeight(height)));
+        return _withDimensionalityConf(_dimensionality()._withWidth(width)._withHeight(height));
     }
 
 
@@ -2657,7 +2782,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @see #prefWidth(double) the typical way to specify a preferred width to the layout manager
      */
     public ComponentStyleDelegate<C> width( double width ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withWidth(width)));
+        return _withDimensionalityConf(_dimensionality()._withWidth(width));
     }
 
     /**
@@ -2672,7 +2797,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @see #prefHeight(double) the typical way to specify a preferred height to the layout manager
      */
     public ComponentStyleDelegate<C> height( double height ) {
-        return _withStyle(_styleConf._withDimensionality(_styleConf.dimensionality()._withHeight(height)));
+        return _withDimensionalityConf(_dimensionality()._withHeight(height));
     }
 
     /**
@@ -2701,7 +2826,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> cursor( Cursor cursor ) {
         Objects.requireNonNull(cursor);
-        return _withStyle(_styleConf._withBase(_styleConf.base().cursor(cursor)));
+        return _withBaseConf(_base().cursor(cursor));
     }
 
     /**
@@ -2720,7 +2845,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> orientation( UI.ComponentOrientation orientation ) {
         Objects.requireNonNull(orientation);
-        return _withStyle(_styleConf._withBase(_styleConf.base().orientation(orientation)));
+        return _withBaseConf(_base().orientation(orientation));
     }
 
     /**
@@ -2734,7 +2859,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided {@link Layout} set to be later
      */
     public ComponentStyleDelegate<C> layout( Layout installer ) {
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(installer)));
+        return _withLayoutConf(_layout().layout(installer));
     }
 
     /**
@@ -2751,12 +2876,12 @@ public final class ComponentStyleDelegate<C extends JComponent>
      */
     public ComponentStyleDelegate<C> layout( String constraints ) {
         Objects.requireNonNull(constraints);
-        if ( _styleConf.layout().layout() instanceof Layout.ForMigLayout ) {
-            Layout.ForMigLayout migInstaller = (Layout.ForMigLayout) _styleConf.layout().layout();
+        if ( _layout().layout() instanceof Layout.ForMigLayout ) {
+            Layout.ForMigLayout migInstaller = (Layout.ForMigLayout) _layout().layout();
             migInstaller = migInstaller.withConstraint(constraints);
-            return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(migInstaller)));
+            return _withLayoutConf(_layout().layout(migInstaller));
         }
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(Layout.mig(constraints, "", ""))));
+        return _withLayoutConf(_layout().layout(Layout.mig(constraints, "", "")));
     }
 
     /**
@@ -2776,12 +2901,12 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public ComponentStyleDelegate<C> layout( String constraints, String columnConstraints ) {
         Objects.requireNonNull(constraints);
         Objects.requireNonNull(columnConstraints);
-        if ( _styleConf.layout().layout() instanceof Layout.ForMigLayout) {
-            Layout.ForMigLayout migInstaller = (Layout.ForMigLayout) _styleConf.layout().layout();
+        if ( _layout().layout() instanceof Layout.ForMigLayout) {
+            Layout.ForMigLayout migInstaller = (Layout.ForMigLayout) _layout().layout();
             migInstaller = migInstaller.withConstraint(constraints).withColumnConstraint(columnConstraints);
-            return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(migInstaller)));
+            return _withLayoutConf(_layout().layout(migInstaller));
         }
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(Layout.mig(constraints, columnConstraints, ""))));
+        return _withLayoutConf(_layout().layout(Layout.mig(constraints, columnConstraints, "")));
     }
 
     /**
@@ -2804,7 +2929,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
         Objects.requireNonNull(constraints);
         Objects.requireNonNull(columnConstraints);
         Objects.requireNonNull(rowConstraints);
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().layout(Layout.mig(constraints, columnConstraints, rowConstraints))));
+        return _withLayoutConf(_layout().layout(Layout.mig(constraints, columnConstraints, rowConstraints)));
     }
 
     /**
@@ -2820,7 +2945,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided component constraints set to be later
      */
     public ComponentStyleDelegate<C> addConstraint( Object constraints ) {
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().constraint(constraints)));
+        return _withLayoutConf(_layout().constraint(constraints));
     }
 
     /**
@@ -2850,7 +2975,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided alignment percentage alongside the X axis set to be later
      */
     public ComponentStyleDelegate<C> alignmentX( float percentage ) {
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().alignmentX(percentage)));
+        return _withLayoutConf(_layout().alignmentX(percentage));
     }
 
     /**
@@ -2862,7 +2987,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
      * @return A new {@link ComponentStyleDelegate} with the provided alignment percentage alongside the Y axis set to be later
      */
     public ComponentStyleDelegate<C> alignmentY( float percentage ) {
-        return _withStyle(_styleConf._withLayout(_styleConf.layout().alignmentY(percentage)));
+        return _withLayoutConf(_layout().alignmentY(percentage));
     }
 
     /**
@@ -2916,7 +3041,7 @@ public final class ComponentStyleDelegate<C extends JComponent>
     public String toString() {
         try {
             return this.getClass().getSimpleName() + "[" +
-                        "styleConf=" + _styleConf + ", " +
+                        "styleConf=" + style() + ", " +
                         "component=" + _component + ", " +
                     "]";
         } catch ( Exception e ) {
@@ -0,0 +1,162 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import swingtree.UI;
+
+import javax.swing.JComponent;
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ *  A rasterization of an entire component, including its style, its look and feel and its children,
+ *  which is painted in place of the component while an animation merely fades or slides it
+ *  (see {@link ComponentExtension#addAnimatedComposition(swingtree.animation.AnimationStatus, double, double, double)}). <br>
+ *  <br>
+ *  Fading a component through an animated style changes its colors on every frame,
+ *  so every frame misses the style caches and goes through the whole style pipeline
+ *  and the rasterization of every layer again, which costs as much as the style is complex.
+ *  A composited layer instead renders the component once, and then every frame is a single
+ *  blit of that rendering, with an {@link AlphaComposite} for the opacity and a translation
+ *  for the offset. It is only rendered again if the {@link StyleConf} of the component,
+ *  its view state (see {@link ComponentExtension#viewStateHashCode()}), its size or the
+ *  scale of the device it is painted on changes. <br>
+ *  What a look and feel paints outside of the paint steps of the {@link ComponentExtension}
+ *  (like the text of a text field) is part of the rendering as well,
+ *  so it is not painted again on top of it. <br>
+ *  <br>
+ *  The rendering has the exact size of the component in device pixels, so it is taken from
+ *  (and handed back to) the {@link ParentBufferPool}, where the buffers of the same size
+ *  which parents render into for their filtered children are kept.
+ *  Like painting itself, this is meant to be used on the Event Dispatch Thread.
+ */
+final class CompositedLayer
+{
+    private float   _opacity       = 1f;
+    private float   _offsetX       = 0f;
+    private float   _offsetY       = 0f;
+    private boolean _isActive      = true;
+    private boolean _isRasterizing = false;
+
+    private @Nullable BufferedImage _image     = null;
+    private @Nullable StyleConf     _style     = null;
+    private int                     _viewState = 0;
+    private double                  _scaleX    = 1;
+    private double                  _scaleY    = 1;
+
+
+    /**
+     *  Sets how the rendering of the component is composited in the current animation frame.
+     *
+     * @param opacity The opacity of the component, between 0 (invisible) and 1 (opaque).
+     * @param offsetX The horizontal offset of the component from its actual location, in unscaled pixels.
+     * @param offsetY The vertical offset of the component from its actual location, in unscaled pixels.
+     */
+    void compose( double opacity, double offsetX, double offsetY ) {
+        _opacity  = (float) Math.max(0, Math.min(1, opacity));
+        _offsetX  = (float) offsetX;
+        _offsetY  = (float) offsetY;
+        _isActive = true;
+    }
+
+    /**
+     *  Marks the composition as over, unless the next animation frame composes it again,
+     *  which is why the rendering is only released when the component is painted without it.
+     */
+    void deactivate() {
+        _isActive = false;
+    }
+
+    boolean isActive() {
+        return _isActive;
+    }
+
+    /** Whether the component is being rendered into this layer right now, which it has to do as usual. */
+    boolean isRasterizing() {
+        return _isRasterizing;
+    }
+
+    /**
+     *  Paints the rendering of the supplied component with the current opacity and offset,
+     *  after rendering the component into it if it is not up-to-date.
+     *  The view state of the component, which is hashed from its whole subtree,
+     *  is only compared if its size, scale and style did not already tell that it changed.
+     *
+     * @return {@code true} if the component had to be rendered, {@code false} if the previous rendering was reused.
+     */
+    boolean paint( JComponent owner, StyleConf style, Graphics2D graphics ) {
+        final int width  = owner.getWidth();
+        final int height = owner.getHeight();
+        if ( width <= 0 || height <= 0 )
+            return false;
+
+        final AffineTransform transform = graphics.getTransform();
+        final double scaleX = transform.getScaleX() > 0 ? transform.getScaleX() : 1;
+        final double scaleY = transform.getScaleY() > 0 ? transform.getScaleY() : 1;
+        final int pixelWidth  = (int) Math.ceil(width  * scaleX);
+        final int pixelHeight = (int) Math.ceil(height * scaleY);
+
+        BufferedImage image = _image;
+        boolean rendered = false;
+        final boolean isOutdated =
+                            image == null ||
+                            image.getWidth()  != pixelWidth  ||
+                            image.getHeight() != pixelHeight ||
+                            _scaleX           != scaleX      ||
+                            _scaleY           != scaleY      ||
+                            !style.equals(_style);
+        if ( isOutdated || _viewState != ComponentExtension.from(owner).viewStateHashCode() ) {
+            image = ParentBufferPool.acquire(image, pixelWidth, pixelHeight, new Rectangle(0, 0, pixelWidth, pixelHeight));
+            _rasterize(owner, graphics, image, scaleX, scaleY);
+            _image     = image;
+            _style     = style;
+            _viewState = ComponentExtension.from(owner).viewStateHashCode(); // What was rendered, including the changes the rendering made.
+            _scaleX    = scaleX;
+            _scaleY    = scaleY;
+            rendered   = true;
+        }
+        if ( _opacity <= 0 )
+            return rendered;
+
+        final Graphics2D g2d = (Graphics2D) graphics.create();
+        try {
+            float alpha = _opacity;
+            final Composite composite = g2d.getComposite();
+            if ( composite instanceof AlphaComposite )
+                alpha *= ((AlphaComposite) composite).getAlpha();
+            g2d.setComposite(AlphaComposite.SrcOver.derive(alpha));
+            g2d.translate(_offsetX * UI.scale(), _offsetY * UI.scale());
+            g2d.scale(1 / scaleX, 1 / scaleY);
+            g2d.drawImage(image, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        return rendered;
+    }
+
+    private void _rasterize( JComponent owner, Graphics2D graphics, BufferedImage image, double scaleX, double scaleY ) {
+        final Graphics2D imageGraphics = image.createGraphics();
+        StyleUtil.transferConfigurations(graphics, imageGraphics);
+        imageGraphics.setComposite(AlphaComposite.SrcOver); // The opacity is applied when the rendering is blitted.
+        imageGraphics.scale(scaleX, scaleY);
+        _isRasterizing = true;
+        try {
+            owner.paint(imageGraphics);
+        } finally {
+            _isRasterizing = false;
+            imageGraphics.dispose();
+        }
+    }
+
+    /** Hands the rendering back to the pool, after which this layer must no longer be used. */
+    void release() {
+        final BufferedImage image = _image;
+        if ( image != null )
+            ParentBufferPool.release(image);
+        _image = null;
+        _style = null;
+    }
+}
@@ -38,11 +38,16 @@ package swingtree.style;
  *
  *  Modifications 2014, by Daniel Nepp:
  *  - Deletion of the error-prone method "recalculate" and introduction of a new rotation offset field variable.
+ *
+ *  Modifications for SwingTree:
+ *  - Colors are looked up in a table of packed colors (see ColorStopLookup) and written straight into the raster.
+ *  - A fast mode (see UI.GradientQuality), which steps through a row incrementally and uses a polynomial arctangent.
  */
 
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import swingtree.SwingTree;
+import swingtree.UI;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
@@ -124,6 +129,9 @@ final class ConicalGradientPaint implements Paint {
     private final float[] _blueStepLookup;
     private final float[] _alphaStepLookup;
     private final Color[] _colors;
+    /** The colors of the gradient, looked up by the angle of a pixel, see {@link ColorStopLookup}. */
+    private final ColorStopLookup _colorLookup;
+    private final UI.GradientQuality _quality;
     private static final float INT_TO_FLOAT_CONST = 1f / 255f;
     private @Nullable CachedContext _cached;
 
@@ -158,6 +166,31 @@ final class ConicalGradientPaint implements Paint {
     )
     throws IllegalArgumentException
     {
+        this(usesDegrees, center, offset, fractions, colors, UI.GradientQuality.EXACT);
+    }
+
+    /**
+     * Enhanced constructor which also takes a quality hint, see {@link UI.GradientQuality}.
+     * @param usesDegrees true if fractions are in degrees, false if fractions are in 0.0 to 1.0
+     * @param center the center of the gradient
+     * @param offset the offset of the gradient in degrees
+     * @param fractions the fractions of the gradient in degrees or 0.0 to 1.0
+     * @param colors the colors of the gradient
+     * @param quality whether the angle of every pixel is computed exactly or quickly
+     * @throws IllegalArgumentException if fractions and colors are not of the same size
+     */
+    public ConicalGradientPaint(
+        final boolean            usesDegrees,
+        final Point2D            center,
+        final float              offset,
+        final float[]            fractions,
+        final Color[]            colors,
+        final UI.GradientQuality quality
+    )
+    throws IllegalArgumentException
+    {
+        _quality = java.util.Objects.requireNonNull(quality);
+
         // Check that fractions and colors are of the same size
         if (fractions.length != colors.length) {
             throw new IllegalArgumentException("Fractions and colors must be equal in size");
@@ -259,6 +292,12 @@ final class ConicalGradientPaint implements Paint {
             _blueStepLookup[i] = ((_colors[i + 1].getBlue() - _colors[i].getBlue()) * INT_TO_FLOAT_CONST) / (_fractionOffsets[i + 1] - _fractionOffsets[i]);
             _alphaStepLookup[i] = ((_colors[i + 1].getAlpha() - _colors[i].getAlpha()) * INT_TO_FLOAT_CONST) / (_fractionOffsets[i + 1] - _fractionOffsets[i]);
         }
+
+        _colorLookup = new ColorStopLookup(
+                            _fractionOffsets, 360f, _colors,
+                            _redStepLookup, _greenStepLookup, _blueStepLookup, _alphaStepLookup,
+                            true
+                        );
     }
 
     /**
@@ -351,6 +390,7 @@ final class ConicalGradientPaint implements Paint {
         hash = 97 * hash + java.util.Arrays.hashCode(_blueStepLookup);
         hash = 97 * hash + java.util.Arrays.hashCode(_alphaStepLookup);
         hash = 97 * hash + java.util.Arrays.hashCode(_colors);
+        hash = 97 * hash + _quality.hashCode();
         return hash;
     }
 
@@ -390,9 +430,55 @@ final class ConicalGradientPaint implements Paint {
         if (!java.util.Arrays.equals(_colors, OTHER._colors)) {
             return false;
         }
+        if (_quality != OTHER._quality) {
+            return false;
+        }
         return true;
     }
 
+    /*
+        The coefficients of the polynomial arctangent of Abramowitz and Stegun (formula 4.4.49),
+        which is off by at most about 1e-5 radians (0.0006 degrees) for arguments from 0 to 1.
+        Even the finest color lookup table (see ColorStopLookup) has entries 0.09 degrees apart,
+        and neighbouring entries differ by about one level, so for every tabulated gradient
+        this error is far below half a color level.
+        A gradient too steep to be tabulated (stops closer than the table could resolve)
+        is interpolated per pixel, where the error can be worth any number of levels right at
+        a sharp transition. But it only ever displaces the transition by 1e-5 radians,
+        which is less than half a pixel within 40 000 pixels of the center.
+    */
+    private static final double ATAN_A1 =  0.9998660;
+    private static final double ATAN_A3 = -0.3302995;
+    private static final double ATAN_A5 =  0.1801410;
+    private static final double ATAN_A7 = -0.0851330;
+    private static final double ATAN_A9 =  0.0208351;
+
+    /**
+     *  The angle of a vector in degrees from 0 up to 360, clockwise (on screen) from the top,
+     *  which is what the exact path computes through an arc cosine and some quadrant juggling,
+     *  computed with a polynomial approximation of the arctangent instead.
+     */
+    private static double _fastAngleFromTop( double dx, double dy ) {
+        final double x  = -dy; // Pointing up is zero,
+        final double y  =  dx; // pointing right is 90 degrees.
+        final double ax = Math.abs(x);
+        final double ay = Math.abs(y);
+        if ( ax == 0 && ay == 0 )
+            return 0; // The center, like on the exact path.
+        final boolean isSteep = ay > ax;
+        final double  ratio   = isSteep ? ax / ay : ay / ax;
+        final double  square  = ratio * ratio;
+        double radians = ((((ATAN_A9 * square + ATAN_A7) * square + ATAN_A5) * square + ATAN_A3) * square + ATAN_A1) * ratio;
+        if ( isSteep )
+            radians = Math.PI / 2 - radians;
+        if ( x < 0 )
+            radians = Math.PI - radians;
+        if ( y < 0 )
+            radians = -radians;
+        final double degrees = Math.toDegrees(radians);
+        return degrees < 0 ? degrees + 360.0 : degrees;
+    }
+
     private final class ConicalGradientPaintContext implements PaintContext
     {
         final private Point2D _center;
@@ -438,20 +524,22 @@ final class ConicalGradientPaint implements Paint {
                 Point2D rotationCenter = _transform.inverseTransform(new Point2D.Double(ROTATION_CENTER_X, ROTATION_CENTER_Y), null); //device to user
 
 
-                final int MAX = _fractionOffsets.length - 1;
-
                 // KK: use memory allocated by raster directly
-                // Create data array with place for red, green, blue and alpha values
-                final int[] data = new int[(TILE_WIDTH * TILE_HEIGHT * 4)];
-                //final int[] data = new int[4];
+                // Write the packed pixels straight into the raster if its layout allows it:
+                final int[] pixels = ColorStopLookup.packedPixelsOf(raster);
+                final int[] data   = pixels != null ? pixels : new int[TILE_WIDTH * TILE_HEIGHT];
+
+                if ( _quality == UI.GradientQuality.FAST ) {
+                    _fillFast(rotationCenter, data, TILE_WIDTH, TILE_HEIGHT);
+                    if ( pixels == null )
+                        raster.setDataElements(0, 0, TILE_WIDTH, TILE_HEIGHT, data);
+                    _cachedRasters.put(index, raster);
+                    return raster;
+                }
 
                 double dx;
                 double dy;
                 double angle;
-                double currentRed = 0;
-                double currentGreen = 0;
-                double currentBlue = 0;
-                double currentAlpha = 0;
 
                 for (int tileY = 0; tileY < TILE_HEIGHT; tileY++) {
                     for (int tileX = 0; tileX < TILE_WIDTH; tileX++) {
@@ -493,29 +581,13 @@ final class ConicalGradientPaint implements Paint {
                             angle += 360.0;
                         }
 
-                        // Check for each angle in fractionAngles array
-                        for (int i = 0; i < MAX; i++) {
-                            if ((angle >= _fractionOffsets[i])) {
-                                currentRed   = _colors[i].getRed() * INT_TO_FLOAT_CONST + (angle - _fractionOffsets[i]) * _redStepLookup[i];
-                                currentGreen = _colors[i].getGreen() * INT_TO_FLOAT_CONST + (angle - _fractionOffsets[i]) * _greenStepLookup[i];
-                                currentBlue  = _colors[i].getBlue() * INT_TO_FLOAT_CONST + (angle - _fractionOffsets[i]) * _blueStepLookup[i];
-                                currentAlpha = _colors[i].getAlpha() * INT_TO_FLOAT_CONST + (angle - _fractionOffsets[i]) * _alphaStepLookup[i];
-                            }
-                        }
-
-                        // Fill data array with calculated color values
-                        final int BASE = (tileY * TILE_WIDTH + tileX) * 4;
-
-                        data[BASE + 0] = (int) Math.round(currentRed   * 255);
-                        data[BASE + 1] = (int) Math.round(currentGreen * 255);
-                        data[BASE + 2] = (int) Math.round(currentBlue  * 255);
-                        data[BASE + 3] = (int) Math.round(currentAlpha * 255);
-                        //raster.setPixel(tileX, tileY, data);
+                        // Look up the color of the angle between the fraction angles:
+                        data[tileY * TILE_WIDTH + tileX] = _colorLookup.argbAt(angle);
                     }
                 }
 
-                // Fill the raster with the data
-                raster.setPixels(0, 0, TILE_WIDTH, TILE_HEIGHT, data);
+                if ( pixels == null )
+                    raster.setDataElements(0, 0, TILE_WIDTH, TILE_HEIGHT, data);
 
                 _cachedRasters.put(index, raster);
                 return raster;
@@ -526,6 +598,38 @@ final class ConicalGradientPaint implements Paint {
             }
         }
 
+        /**
+         *  The {@link UI.GradientQuality#FAST} counterpart of the pixel loop in {@link #getRaster}.
+         *  Since the transform is affine, a step of one pixel to the right in device space is
+         *  always the same step in user space, so only the first pixel of a row is transformed,
+         *  and the angle is taken by {@link #_fastAngleFromTop(double, double)}.
+         */
+        private void _fillFast( Point2D rotationCenter, int[] data, int width, int height )
+        throws NoninvertibleTransformException
+        {
+            final AffineTransform inverse = _transform.createInverse(); //device to user
+            final double stepX = inverse.getScaleX();
+            final double stepY = inverse.getShearY();
+            final Point2D.Double rowStart = new Point2D.Double();
+            for ( int tileY = 0; tileY < height; tileY++ ) {
+                rowStart.setLocation(0, tileY);
+                inverse.transform(rowStart, rowStart);
+                double dx = rowStart.getX() - rotationCenter.getX();
+                double dy = rowStart.getY() - rotationCenter.getY();
+                final int rowOffset = tileY * width;
+                for ( int tileX = 0; tileX < width; tileX++ ) {
+                    double angle = _fastAngleFromTop(dx, dy) + _angleOffset;
+                    if ( angle > 360.0 )
+                        angle -= 360.0;
+                    else if ( angle < 0.0 )
+                        angle += 360.0;
+                    data[rowOffset + tileX] = _colorLookup.argbAt(angle);
+                    dx += stepX;
+                    dy += stepY;
+                }
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,51 @@
+package swingtree.style;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *  Creates the small thread pools which SwingTree does its background work on,
+ *  like loading icons, prewarming the style caches or reading and writing the
+ *  exemplar disk cache. <br>
+ *  Their threads are daemons, because such work must never keep an application alive,
+ *  and they are started on demand and stopped again after {@link #IDLE_THREAD_MILLIS}
+ *  without work, so that an application which never needs them never has them running.
+ */
+final class DaemonThreadPools
+{
+    /** How long a pool thread may idle before it stops. */
+    static final long IDLE_THREAD_MILLIS = 2_000;
+
+    private DaemonThreadPools() {}
+
+    /**
+     *  Creates a pool of at most the supplied number of threads, which are further limited to
+     *  one less than the number of available processors (but at least one), so that the
+     *  UI thread always has a processor to itself.
+     *
+     * @param threadName The name of the threads, which is suffixed with a running number if there may be more than one.
+     * @param maxThreads The maximum number of threads of the pool.
+     * @param priority The priority of the threads, see {@link Thread#setPriority(int)}.
+     * @return A new pool whose threads only exist while it has work.
+     */
+    static ThreadPoolExecutor newPool( String threadName, int maxThreads, int priority ) {
+        final int threads = Math.max(1, Math.min(maxThreads, Runtime.getRuntime().availableProcessors() - 1));
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                                                threads, threads,
+                                                IDLE_THREAD_MILLIS, TimeUnit.MILLISECONDS,
+                                                new LinkedBlockingQueue<>(),
+                                                runnable -> {
+                                                    String name = maxThreads == 1 ? threadName : threadName + "-" + threadCount.incrementAndGet();
+                                                    Thread thread = new Thread(runnable, name);
+                                                    thread.setDaemon(true); // Must never keep an application alive.
+                                                    thread.setPriority(priority);
+                                                    return thread;
+                                                }
+                                            );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
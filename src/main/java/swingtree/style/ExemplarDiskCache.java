@@ -0,0 +1,355 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swingtree.UI;
+import swingtree.layout.Size;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ *  Persists the exemplar renderings of stretch tiled style layers (see {@link LayerPartitionCache})
+ *  in a directory, so that an application which is started again reads them back instead of
+ *  rendering them again, which is what {@link swingtree.SwingTree#setExemplarDiskCacheDirectory(File)}
+ *  switches on. <br>
+ *  <br>
+ *  Exemplars are the ideal candidates for this: they are few (one per distinct style, not
+ *  per component size), small (a few kilobytes each) and comparatively expensive to make, since
+ *  they are mostly antialiased rounded borders and blurred shadows. And they are needed
+ *  precisely when a fresh application shows its first frames.
+ *
+ *  <h2>Keys</h2>
+ *  An entry is stored in a file named after the hexadecimal SHA-256 digest of a binary
+ *  fingerprint of everything its pixels depend on: the layer, every property of the exemplar
+ *  {@link LayerRenderConf} which an exemplar can have (the box model, the base colors and the
+ *  shadows, see {@link #_writeFingerprint}), the rendering hints of the graphics context it is
+ *  rendered with (see {@link #renderingHintsOf(Graphics2D)}), the UI scale, the SwingTree build
+ *  and the Java version (whose rasterizer may differ). The hash codes of the configuration cannot be
+ *  used for this, because they are not stable across JVM runs (enum constants for example
+ *  hash by identity). A style or environment which changes therefore simply leads to a
+ *  different file name, so a stale entry can never be read. Stale files are not cleaned up
+ *  but are harmless, and the directory may be emptied whenever the application is not running.
+ *
+ *  <h2>Files</h2>
+ *  A file holds a header (a magic number, the format version, the dimensions, the UI scale
+ *  and the key digest once more) followed by the non-premultiplied ARGB pixels, which is what
+ *  {@link java.awt.image.BufferedImage#getRGB(int, int, int, int, int[], int, int)} reads from
+ *  any kind of image. A file is only read when its entry is first needed (nothing is read
+ *  at startup), and everything in it is verified before it is used, so a truncated, corrupt
+ *  or foreign file is treated like a missing one. Files are written into a temporary file which
+ *  is then moved into place, so a reader never sees half a file.
+ *
+ *  <h2>Threads</h2>
+ *  Nothing in here touches the disk on the calling thread, unless it is a thread which may block,
+ *  like the one of a {@link StyleCachePrewarmer} (see {@link #load}). The UI thread instead
+ *  goes through {@link #loadInBackground} and {@link #store}, which read and write the files,
+ *  and compute the digests naming them, on a single background thread. A paint which misses
+ *  an exemplar therefore renders the style directly, while its file is being read.
+ */
+final class ExemplarDiskCache
+{
+    private static final Logger log = LoggerFactory.getLogger(ExemplarDiskCache.class);
+
+    private static final int    MAGIC          = 0x53544558; // "STEX", SwingTree exemplar
+    private static final int    FORMAT_VERSION = 2;
+    private static final int    DIGEST_BYTES   = 32;
+    private static final int    HEADER_BYTES   = 5 * Integer.BYTES + DIGEST_BYTES;
+    private static final String FILE_SUFFIX    = ".exemplar";
+
+    private static final String BUILD = _build();
+
+    /**
+     *  The rendering hints which make a difference to the pixels of a rendering,
+     *  in the order in which they are written into the fingerprint of an entry.
+     */
+    private static final RenderingHints.Key[] RENDERING_HINTS = {
+            RenderingHints.KEY_ANTIALIASING,
+            RenderingHints.KEY_RENDERING,
+            RenderingHints.KEY_STROKE_CONTROL,
+            RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.KEY_ALPHA_INTERPOLATION,
+            RenderingHints.KEY_COLOR_RENDERING,
+            RenderingHints.KEY_DITHERING,
+            RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.KEY_FRACTIONALMETRICS
+        };
+
+    private static final ExecutorService _IO = DaemonThreadPools.newPool("SwingTree-Exemplar-IO", 1, Thread.NORM_PRIORITY);
+
+    private ExemplarDiskCache() {}
+
+    /**
+     *  Describes the rendering hints of the supplied graphics context which the pixels of
+     *  a rendering depend on, for the fingerprint of an entry rendered with them.
+     *  The values are described by their names, which are stable across runs,
+     *  unlike their hash codes.
+     */
+    static String renderingHintsOf( Graphics2D g ) {
+        final StringBuilder hints = new StringBuilder(256);
+        for ( RenderingHints.Key key : RENDERING_HINTS )
+            hints.append(g.getRenderingHint(key)).append(';');
+        return hints.toString();
+    }
+
+    /**
+     *  Reads the pixels of the supplied exemplar from the supplied directory, on a background
+     *  thread, and hands them to the supplied consumer on that same thread.
+     *  This is how a paint on the UI thread gets to persisted pixels without waiting for the disk.
+     *
+     * @param hints The rendering hints the exemplar would be rendered with, see {@link #renderingHintsOf(Graphics2D)}.
+     * @param whenLoaded Receives the ARGB pixels of the exemplar in row major order,
+     *                   or null if there is no valid entry for it.
+     */
+    static void loadInBackground(
+        File directory, UI.Layer layer, LayerRenderConf exemplar, String hints, int width, int height,
+        Consumer<int @Nullable []> whenLoaded
+    ) {
+        final float scale = UI.scale();
+        _IO.execute(() -> {
+            int[] pixels = null;
+            try {
+                pixels = _load(directory, layer, exemplar, scale, hints, width, height);
+            } catch ( Exception e ) {
+                log.debug("Failed to load an exemplar cache file from '{}'.", directory, e);
+            }
+            whenLoaded.accept(pixels);
+        });
+    }
+
+    /**
+     *  Reads the pixels of the supplied exemplar from the supplied directory, on the calling
+     *  thread, which is why this must not be called on the UI thread (see {@link #loadInBackground}).
+     *
+     * @param hints The rendering hints the exemplar would be rendered with, see {@link #renderingHintsOf(Graphics2D)}.
+     * @return The ARGB pixels of the exemplar in row major order,
+     *         or null if there is no valid entry for it.
+     */
+    static int @Nullable [] load( File directory, UI.Layer layer, LayerRenderConf exemplar, String hints, int width, int height ) {
+        return _load(directory, layer, exemplar, UI.scale(), hints, width, height);
+    }
+
+    private static int @Nullable [] _load(
+        File directory, UI.Layer layer, LayerRenderConf exemplar, float scale, String hints, int width, int height
+    ) {
+        final byte[] digest = _digestOf(layer, exemplar, scale, hints);
+        final File   file   = _fileFor(directory, digest);
+        if ( !file.isFile() )
+            return null;
+        try {
+            final byte[] bytes = Files.readAllBytes(file.toPath());
+            final int[] pixels = _decode(bytes, digest, scale, width, height);
+            if ( pixels == null )
+                log.debug("Ignoring the invalid exemplar cache file '{}'.", file);
+            return pixels;
+        } catch ( IOException e ) {
+            log.debug("Failed to read the exemplar cache file '{}'.", file, e);
+            return null;
+        }
+    }
+
+    /**
+     *  Writes the pixels of the supplied exemplar into the supplied directory, on a background thread.
+     *  The pixel array is handed over, the caller must not modify it afterwards.
+     *
+     * @param hints The rendering hints the exemplar was rendered with, see {@link #renderingHintsOf(Graphics2D)}.
+     */
+    static void store( File directory, UI.Layer layer, LayerRenderConf exemplar, String hints, int width, int height, int[] argb ) {
+        if ( argb.length != width * height )
+            return;
+        final float scale = UI.scale();
+        _IO.execute(() -> {
+            try {
+                _write(directory, _digestOf(layer, exemplar, scale, hints), scale, width, height, argb);
+            } catch ( Exception e ) {
+                log.debug("Failed to write an exemplar cache file into '{}'.", directory, e);
+            }
+        });
+    }
+
+    private static void _write( File directory, byte[] digest, float scale, int width, int height, int[] argb ) throws IOException {
+        final File file = _fileFor(directory, digest); // Only stored after a load failed, so whatever is there is replaced.
+        Files.createDirectories(directory.toPath());
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + argb.length * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putInt(Float.floatToIntBits(scale));
+        buffer.put(digest);
+        buffer.asIntBuffer().put(argb);
+        final Path temporary = Files.createTempFile(directory.toPath(), "swingtree-", ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            try {
+                Files.move(temporary, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch ( AtomicMoveNotSupportedException e ) {
+                Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static int @Nullable [] _decode( byte[] bytes, byte[] digest, float scale, int width, int height ) {
+        if ( bytes.length != HEADER_BYTES + (long) width * height * Integer.BYTES )
+            return null;
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN);
+        if ( buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION )
+            return null;
+        if ( buffer.getInt() != width || buffer.getInt() != height )
+            return null;
+        if ( buffer.getInt() != Float.floatToIntBits(scale) )
+            return null;
+        final byte[] storedDigest = new byte[DIGEST_BYTES];
+        buffer.get(storedDigest);
+        if ( !Arrays.equals(storedDigest, digest) )
+            return null; // A file which was renamed or copied over, it is not ours to trust.
+        final int[] pixels = new int[width * height];
+        buffer.asIntBuffer().get(pixels);
+        return pixels;
+    }
+
+    private static File _fileFor( File directory, byte[] digest ) {
+        final StringBuilder name = new StringBuilder(digest.length * 2 + FILE_SUFFIX.length());
+        for ( byte b : digest )
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return new File(directory, name.append(FILE_SUFFIX).toString());
+    }
+
+    private static byte[] _digestOf( UI.Layer layer, LayerRenderConf exemplar, float scale, String hints ) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try ( DataOutputStream out = new DataOutputStream(bytes) ) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(BUILD);
+            out.writeUTF(System.getProperty("java.version", "?"));
+            out.writeFloat(scale);
+            out.writeUTF(hints);
+            out.writeUTF(layer.name());
+            _writeFingerprint(exemplar, out);
+        } catch ( IOException e ) {
+            throw new IllegalStateException("Writing to memory cannot fail.", e);
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException("Every Java platform is required to support SHA-256.", e);
+        }
+    }
+
+    /**
+     *  Writes every property an exemplar rendering depends on. An exemplar only ever consists
+     *  of a box model, base colors and shadows, because every other kind of layer content
+     *  makes a configuration ineligible for stretch tiling in the first place
+     *  (see {@link LayerPartitionCache}). So when a new property is added to any of these,
+     *  it has to be added here as well, and the {@link #FORMAT_VERSION} increased.
+     */
+    private static void _writeFingerprint( LayerRenderConf conf, DataOutputStream out ) throws IOException {
+        final BoxModelConf boxModel = conf.boxModel();
+        _writeArc(boxModel.topLeftArc(), out);
+        _writeArc(boxModel.topRightArc(), out);
+        _writeArc(boxModel.bottomLeftArc(), out);
+        _writeArc(boxModel.bottomRightArc(), out);
+        _writeOutline(boxModel.widths(), out);
+        _writeOutline(boxModel.margin(), out);
+        _writeOutline(boxModel.padding(), out);
+        _writeOutline(boxModel.baseOutline(), out);
+        final Size size = boxModel.size();
+        out.writeFloat(size.widthOrElse(-1f));
+        out.writeFloat(size.heightOrElse(-1f));
+
+        final BaseColorConf baseColors = conf.baseColors();
+        _writeColor(baseColors.foundationColor(), out);
+        _writeColor(baseColors.backgroundColor(), out);
+        final BorderColorsConf borderColors = baseColors.borderColor();
+        _writeColor(borderColors.top(), out);
+        _writeColor(borderColors.right(), out);
+        _writeColor(borderColors.bottom(), out);
+        _writeColor(borderColors.left(), out);
+
+        final List<ShadowConf> shadows = conf.layer().shadows().sortedByNames();
+        out.writeInt(shadows.size());
+        for ( ShadowConf shadow : shadows ) {
+            out.writeFloat(shadow.horizontalOffset());
+            out.writeFloat(shadow.verticalOffset());
+            out.writeFloat(shadow.blurRadius());
+            out.writeFloat(shadow.spreadRadius());
+            _writeColor(shadow.color(), out);
+            out.writeBoolean(shadow.isOutset());
+            out.writeUTF(shadow.type().name());
+        }
+    }
+
+    private static void _writeArc( Optional<Arc> arc, DataOutputStream out ) throws IOException {
+        out.writeBoolean(arc.isPresent());
+        if ( arc.isPresent() ) {
+            out.writeFloat(arc.get().width());
+            out.writeFloat(arc.get().height());
+        }
+    }
+
+    private static void _writeOutline( Outline outline, DataOutputStream out ) throws IOException {
+        _writeFloat(outline.top(), out);
+        _writeFloat(outline.right(), out);
+        _writeFloat(outline.bottom(), out);
+        _writeFloat(outline.left(), out);
+    }
+
+    private static void _writeFloat( Optional<Float> value, DataOutputStream out ) throws IOException {
+        out.writeBoolean(value.isPresent());
+        if ( value.isPresent() )
+            out.writeFloat(value.get());
+    }
+
+    private static void _writeColor( Optional<Color> color, DataOutputStream out ) throws IOException {
+        out.writeBoolean(color.isPresent());
+        if ( color.isPresent() )
+            out.writeInt(color.get().getRGB());
+    }
+
+    /**
+     *  Identifies the SwingTree build, through the {@code version.txt} the build puts next to
+     *  the classes, which holds the version and the time of the build. So even entries written
+     *  by a development build are never read by a different one.
+     */
+    private static String _build() {
+        try ( InputStream in = ExemplarDiskCache.class.getResourceAsStream("/version.txt") ) {
+            if ( in != null ) {
+                final StringBuilder text = new StringBuilder();
+                try ( BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)) ) {
+                    String line;
+                    while ( (line = reader.readLine()) != null )
+                        text.append(line).append('\n');
+                }
+                if ( text.indexOf("Name: swing-tree\n") >= 0 ) // It may be another library's version file!
+                    return text.toString();
+            }
+        } catch ( Exception e ) {
+            log.debug("Failed to read the SwingTree version, exemplar cache entries are keyed without it.", e);
+        }
+        return "unknown";
+    }
+}
@@ -48,7 +48,8 @@ import java.util.Objects;
  *      </li><li><b>Blur</b>
  *      <p>
  *          The blur radius, which is used to apply a gaussian blur
- *          to the parent layer using the {@link java.awt.image.ConvolveOp} class.
+ *          to the parent layer, approximated by three successive box blurs,
+ *          which cost the same no matter how large the radius.
  *          Default value is {@code 0.0}, which means no blur is applied.
  *      </p>
  *      </li>
@@ -130,6 +131,21 @@ public final class FilterConf
         return _blur;
     }
 
+    /**
+     *  How far this filter reaches out for the pixels of the parent it reads, which is to
+     *  say that a filtered pixel only depends on the pixels of the parent at most this many
+     *  rows and columns away from it, or {@code -1} if it may depend on any pixel of the parent,
+     *  which is the case for a scaled parent.
+     */
+    int reach() {
+        if ( !_scale.equals(Scale.none()) )
+            return -1;
+        int reach = (int) Math.ceil(Math.max(Math.abs(_offset.x()), Math.abs(_offset.y())));
+        if ( !_kernel.equals(KernelConf.none()) )
+            reach += Math.max(_kernel.width(), _kernel.height());
+        return reach + BoxBlur.reachOf(_blur);
+    }
+
     /**
      *  Use this to configure a custom convolution kernel
      *  based on a row major matrix represented by a width, height
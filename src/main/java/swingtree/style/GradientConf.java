@@ -125,6 +125,11 @@ import java.util.concurrent.atomic.AtomicReference;
  *          of the {@link java.awt.LinearGradientPaint} or {@link java.awt.RadialGradientPaint} that is used
  *          to render the gradient inside the SwingTree style engine.
  *      </li>
+ *      <li><b>Quality</b>
+ *          A hint for how precisely the gradient is rasterized, which is either
+ *          {@link UI.GradientQuality#EXACT} (the default) or {@link UI.GradientQuality#FAST}.
+ *          This is currently only relevant for a conic gradient.
+ *      </li>
  *  </ul>
  *  <p>
  *  You can also use the {@link #none()} method to specify that no gradient should be used,
@@ -149,7 +154,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
                                                         Offset.none(),
                                                         0f,
                                                         new float[0],
-                                                        UI.Cycle.NONE
+                                                        UI.Cycle.NONE,
+                                                        UI.GradientQuality.EXACT
                                                     );
 
     /**
@@ -171,7 +177,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
         Offset               focus,
         float                rotation,
         float[]              fractions,
-        UI.Cycle             cycle
+        UI.Cycle             cycle,
+        UI.GradientQuality   quality
     ) {
         // The rotation may be any number
         // which always has to be normalized to a value between -180 and 180
@@ -188,11 +195,12 @@ public final class GradientConf implements Simplifiable<GradientConf>
              Objects.equals(focus, none._focus) &&
              rotation   == none._rotation   &&
              Arrays.equals(fractions, none._fractions) &&
-             cycle      == none._cycle
+             cycle      == none._cycle      &&
+             quality    == none._quality
         )
             return none;
 
-        return new GradientConf(span, type, colors, offset, size, area, boundary, focus, rotation, fractions, cycle);
+        return new GradientConf(span, type, colors, offset, size, area, boundary, focus, rotation, fractions, cycle, quality);
     }
 
 
@@ -207,6 +215,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
     private final float                _rotation;
     private final float[]              _fractions;
     private final UI.Cycle             _cycle;
+    private final UI.GradientQuality   _quality;
 
     /** Memoized {@link #hashCode()}; this is deeply immutable value data used pervasively
      *  as a cache key, so its (array-deep) hash is computed once and reused. */
@@ -224,7 +233,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
         Offset               focus,
         float                rotation,
         float[]              fractions,
-        UI.Cycle             cycle
+        UI.Cycle             cycle,
+        UI.GradientQuality   quality
     ) {
         _span = Objects.requireNonNull(span);
         _type       = Objects.requireNonNull(type);
@@ -237,6 +247,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
         _rotation   = rotation;
         _fractions  = Objects.requireNonNull(fractions);
         _cycle      = Objects.requireNonNull(cycle);
+        _quality    = Objects.requireNonNull(quality);
     }
 
     UI.Span span() { return _span; }
@@ -261,6 +272,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
 
     UI.Cycle cycle() { return _cycle; }
 
+    UI.GradientQuality quality() { return _quality; }
+
     boolean isOpaque() {
         if ( _colors.length == 0 )
             return false;
@@ -288,7 +301,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
                         _focus.scale(scale),
                         _rotation,
                         _fractions,
-                        _cycle
+                        _cycle,
+                        _quality
                     );
         else
             return this;
@@ -308,7 +322,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
         Objects.requireNonNull(colors);
         for ( Color color : colors )
             Objects.requireNonNull(color, "Use UI.Color.UNDEFINED instead of null to represent the absence of a color.");
-        return of(_span, _type, colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, _type, colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -328,7 +342,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
             for ( int i = 0; i < colors.length; i++ )
                 actualColors[i] = UI.color(colors[i]);
 
-            return of(_span, _type, actualColors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+            return of(_span, _type, actualColors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
         } catch ( Exception e ) {
             log.error(SwingTree.get().logMarker(), "Failed to parse color strings: " + Arrays.toString(colors), e);
             return this; // We want to avoid side effects other than a wrong color
@@ -355,7 +369,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      */
     public GradientConf span( UI.Span span ) {
         Objects.requireNonNull(span);
-        return of(span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -372,7 +386,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      */
     public GradientConf type( UI.GradientType type ) {
         Objects.requireNonNull(type);
-        return of(_span, type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -385,7 +399,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      * @return A new gradient style with the specified offset.
      */
     public GradientConf offset( double x, double y ) {
-        return of(_span, _type, _colors, Offset.of(x,y), _size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, Offset.of(x,y), _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -400,7 +414,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      * @return A new gradient style with the specified size.
      */
     public GradientConf size( double size ) {
-        return of(_span, _type, _colors, _offset, (float) size, _area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, _offset, (float) size, _area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -412,7 +426,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      * @return A new gradient style with the specified area.
      */
     public GradientConf clipTo( UI.ComponentArea area ) {
-        return of(_span, _type, _colors, _offset, _size, area, _boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, _offset, _size, area, _boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -465,7 +479,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      * @return A new gradient style with the specified boundary.
      */
     public GradientConf boundary( UI.ComponentBoundary boundary ) {
-        return of(_span, _type, _colors, _offset, _size, _area, boundary, _focus, _rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, _offset, _size, _area, boundary, _focus, _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -480,7 +494,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      * @return An updated gradient configuration with the specified focus offset.
      */
     public GradientConf focus( double x, double y ) {
-        return of(_span, _type, _colors, _offset, _size, _area, _boundary, Offset.of(x,y), _rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, _offset, _size, _area, _boundary, Offset.of(x,y), _rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -490,7 +504,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
      *  @return An updated gradient configuration with the specified rotation.
      */
     public GradientConf rotation( float rotation ) {
-        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, rotation, _fractions, _cycle);
+        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, rotation, _fractions, _cycle, _quality);
     }
 
     /**
@@ -509,7 +523,7 @@ public final class GradientConf implements Simplifiable<GradientConf>
         for ( int i = 0; i < fractions.length; i++ )
             actualFractions[i] = (float) fractions[i];
 
-        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, actualFractions, _cycle);
+        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, actualFractions, _cycle, _quality);
     }
 
     /**
@@ -543,7 +557,34 @@ public final class GradientConf implements Simplifiable<GradientConf>
      */
     public GradientConf cycle(UI.Cycle cycle ) {
         Objects.requireNonNull(cycle);
-        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, cycle);
+        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, cycle, _quality);
+    }
+
+    /**
+     *  Define how this gradient trades precision for speed when it is rasterized,
+     *  which is one of the following:
+     *  <ul>
+     *      <li>{@link UI.GradientQuality#EXACT} -
+     *          Every pixel is computed as precisely as possible.
+     *          This is the default quality.
+     *      </li>
+     *      <li>{@link UI.GradientQuality#FAST} -
+     *          Pixels are computed incrementally and with approximations
+     *          too small to change a single color level, but several times faster.
+     *          Consider this for large gradients which are rendered anew very often,
+     *          like the background of a whole window while its colors are animated.
+     *      </li>
+     *  </ul>
+     *  Note that this is a hint which currently only affects {@link UI.GradientType#CONIC} gradients,
+     *  the linear and radial ones are always rendered by the Java 2D gradient paints.
+     *
+     * @param quality The rendering quality of the gradient.
+     * @return A new gradient style with the specified quality.
+     * @throws NullPointerException if the quality is {@code null}.
+     */
+    public GradientConf quality( UI.GradientQuality quality ) {
+        Objects.requireNonNull(quality);
+        return of(_span, _type, _colors, _offset, _size, _area, _boundary, _focus, _rotation, _fractions, _cycle, quality);
     }
 
 
@@ -562,7 +603,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
                     "focus="      + _focus + ", " +
                     "rotation="   + _rotation + ", " +
                     "fractions="  + Arrays.toString(_fractions) + ", " +
-                    "cycle="      + _cycle +
+                    "cycle="      + _cycle + ", " +
+                    "quality="    + _quality +
                 "]";
     }
 
@@ -581,7 +623,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
                Objects.equals(_focus, that._focus)   &&
                _rotation   == that._rotation         &&
                Arrays.equals(_fractions, that._fractions) &&
-               _cycle      == that._cycle;
+               _cycle      == that._cycle            &&
+               _quality    == that._quality;
     }
 
     @Override
@@ -600,7 +643,8 @@ public final class GradientConf implements Simplifiable<GradientConf>
                 _focus,
                 _rotation,
                 Arrays.hashCode(_fractions),
-                _cycle
+                _cycle,
+                _quality
             );
         _hashCodeCache.set(hashCode);
         return hashCode;
@@ -623,8 +667,12 @@ public final class GradientConf implements Simplifiable<GradientConf>
         if ( numberOfRealColors == 0 )
             return _NONE;
 
-        Offset focus = _focus;
-        float  rotation = _rotation;
+        Offset             focus    = _focus;
+        float              rotation = _rotation;
+        UI.GradientQuality quality  = _quality;
+
+        if ( _type != UI.GradientType.CONIC )
+            quality = UI.GradientQuality.EXACT; // Only a conic gradient is rendered differently
 
         if ( _type != UI.GradientType.RADIAL )
             focus = Offset.none();
@@ -640,12 +688,12 @@ public final class GradientConf implements Simplifiable<GradientConf>
                     realColors[index++] = color;
 
             _avoidTransparentBlackLeakage(realColors);
-            return of(_span, _type, realColors, _offset, _size, _area, _boundary, focus, rotation, _fractions, _cycle);
+            return of(_span, _type, realColors, _offset, _size, _area, _boundary, focus, rotation, _fractions, _cycle, quality);
         }
 
-        if ( !focus.equals(_focus) ) {
+        if ( !focus.equals(_focus) || quality != _quality ) {
             _avoidTransparentBlackLeakage(_colors);
-            return of(_span, _type, _colors, _offset, _size, _area, _boundary, focus, rotation, _fractions, _cycle);
+            return of(_span, _type, _colors, _offset, _size, _area, _boundary, focus, rotation, _fractions, _cycle, quality);
         }
 
         _avoidTransparentBlackLeakage(_colors);
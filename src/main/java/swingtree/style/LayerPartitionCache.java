@@ -15,11 +15,11 @@ import java.awt.image.ColorModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.DirectColorModel;
 import java.awt.image.Raster;
-import java.util.Map;
+import java.io.File;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.WeakHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  *  A {@link BufferedImage} based cache for the rendering of one {@link LayerRenderConfPartition} of a
@@ -77,7 +77,7 @@ final class LayerPartitionCache
         RENDERED_FROM_STYLE
     }
 
-    private static final Map<Pooled<LayerRenderConf>, CachedImage> _CACHE = new WeakHashMap<>();
+    private static final WeakCache<Pooled<LayerRenderConf>, CachedImage> _CACHE = new WeakCache<>(CacheLedger::release);
 
     private static final int    MAX_CACHE_ENTRIES                 = 1024; // There can never be more entries!
     private static final int    PIXELS_PER_UNIT_OF_AGGRESSIVENESS = 256 * 256; // Determines how many pixels a single unit of cache aggressiveness can cache
@@ -136,8 +136,26 @@ final class LayerPartitionCache
     public @Nullable BufferedImage renderedImage() {
         if ( !(_state instanceof CacheState.Cached) )
             return null;
-        final CachedImage image = ((CacheState.Cached) _state)._image;
-        return image.isRendered() ? image.getImage() : null;
+        return ((CacheState.Cached) _state)._image.snapshot();
+    }
+
+    /**
+     *  The work of rendering the entry this part is associated with ahead of its first paint
+     *  (see {@link StyleCachePrewarmer}), or null if there is no such entry, if it is rendered
+     *  already, or if it has painters or images, which are left to the UI thread.
+     *  Must be called on the thread which paints this part, the returned
+     *  {@link Prewarming} may then be run on any thread.
+     */
+    @Nullable Prewarming prewarming() {
+        if ( !(_state instanceof CacheState.Cached) )
+            return null;
+        final CacheState.Cached cached = (CacheState.Cached) _state;
+        if ( cached._image.isRendered() )
+            return null;
+        if ( cached._key.get().layer().hasPaintersOrImages() )
+            return null; // User painters and icons were never promised to be painted off the UI thread.
+        final boolean isExemplar = !cached._key.get().boxModel().size().equals(_renderInput.boxModel().size());
+        return new Prewarming(_layer, cached._key, cached._image, isExemplar);
     }
 
     public void validate( ComponentConf newConf, boolean isResizing )
@@ -167,11 +185,7 @@ final class LayerPartitionCache
         } else {
             final Pooled<LayerRenderConf> key = new Pooled<>(keyConf).intern();
 
-            CachedImage image = _CACHE.get(key);
-            if (image == null) {
-                image = new CachedImage(keyConf.boxModel().size(), hitsUntilAllocation);
-                _CACHE.put(key, image);
-            }
+            final CachedImage image = _CACHE.computeIfAbsent(key, k -> new CachedImage(keyConf.boxModel().size(), hitsUntilAllocation));
             _state = new CacheState.Cached(key, image);
         }
     }
@@ -207,46 +221,78 @@ final class LayerPartitionCache
             return PaintOutcome.RENDERED_FROM_STYLE;
         }
 
-        final PaintOutcome outcome;
+        PaintOutcome outcome = PaintOutcome.RENDERED_FROM_CACHE;
         if ( !image.isRendered() ) {
-            Graphics2D g2 = image.createGraphics(g.getDeviceConfiguration());
-            if ( g2 == null ) {
+            if ( isTiled && image.loadFromDiskInBackground(_layer, cacheKey, g) ) {
                 /*
-                    The cache is not yet ready to render into!
-                    It will need a few more hits to be ready...
-                    So we just do normal rendering instead:
+                    An exemplar which an earlier run of the application may have
+                    persisted is being read on a background thread (see ExemplarDiskCache),
+                    because we do not wait for the disk while painting.
+                    Until it is there (or known not to be), we render directly:
                 */
                 renderer.accept(_renderInput, g);
                 return PaintOutcome.RENDERED_FROM_STYLE;
             }
-            try {
-                StyleUtil.transferConfigurations(g, g2);
-            }
-            catch ( Exception ignored ) {
-                log.debug(SwingTree.get().logMarker(), "Error while transferring configurations to the cached image graphics context.");
+            /*
+                The entry may have been finished by another thread since we checked it
+                (a prewarming, a disk read or a paint on a worker thread), which is why
+                the claim is made under the monitor of the entry, and why we then
+                simply paint the finished rendering further below.
+            */
+            final Graphics2D g2 = image.createGraphics(g.getDeviceConfiguration());
+            if ( g2 != null ) {
+                try {
+                    StyleUtil.transferConfigurations(g, g2);
+                }
+                catch ( Exception ignored ) {
+                    log.debug(SwingTree.get().logMarker(), "Error while transferring configurations to the cached image graphics context.");
+                }
+                finally {
+                    /*
+                        Note the deliberate asymmetry: the shared image is filled by rendering
+                        the *cache key* configuration (possibly the small exemplar), whereas
+                        the direct-render fallbacks above render the full sized render input.
+                    */
+                    try {
+                        renderer.accept(cacheKey, g2);
+                    } finally {
+                        g2.dispose();
+                        image.finishRendering();
+                    }
+                }
+                if ( isTiled )
+                    image.persistToDisk(_layer, cacheKey, ExemplarDiskCache.renderingHintsOf(g)); // Which `g2` was configured with.
+                outcome = PaintOutcome.RENDERED_FROM_STYLE;
             }
-            finally {
+            else if ( !image.isRendered() ) {
                 /*
-                    Note the deliberate asymmetry: the shared image is filled by rendering
-                    the *cache key* configuration (possibly the small exemplar), whereas
-                    the direct-render fallbacks above render the full sized render input.
+                    The cache is not yet ready to render into!
+                    It will need a few more hits to be ready...
+                    So we just do normal rendering instead:
                 */
-                renderer.accept(cacheKey, g2);
-                g2.dispose();
+                renderer.accept(_renderInput, g);
+                return PaintOutcome.RENDERED_FROM_STYLE;
             }
-            outcome = PaintOutcome.RENDERED_FROM_STYLE;
-        } else {
-            outcome = PaintOutcome.RENDERED_FROM_CACHE;
         }
 
-        final BufferedImage cachedImage = image.getImage();
-        if ( cachedImage == null )
-            return outcome; // Cannot happen (the count-down path returned above), but let's be defensive.
-
-        if ( isTiled )
-            image.paintStretched(g, cacheKey, size);
+        if ( !image.paintRendering(g, cacheKey, size, isTiled) ) {
+            /*
+                The entry was evicted by the cache ledger (possibly from another thread)
+                after we checked it, so we render directly this one time.
+            */
+            renderer.accept(_renderInput, g);
+            return PaintOutcome.RENDERED_FROM_STYLE;
+        }
+        /*
+            We account for the memory of the entry only now, that is after the image (and
+            its stretch tiles) were allocated and after we no longer hold any of its monitors,
+            because charging may evict entries (including this one) right away.
+        */
+        final long bytesToCharge = image.bytesToCharge();
+        if ( bytesToCharge > 0 )
+            CacheLedger.charge(image, bytesToCharge);
         else
-            g.drawImage(cachedImage, 0, 0, null);
+            CacheLedger.touch(image);
 
         return outcome;
     }
@@ -381,6 +427,68 @@ final class LayerPartitionCache
             // Here we return the number of cache hits until allocation and rendering should happen.
     }
 
+    /**
+     *  Renders one cache entry ahead of its first paint, which skips the warm-up of cache hits
+     *  an entry would otherwise need before it is allocated. The entry is claimed exactly like
+     *  a painting thread would claim it, so a paint which gets to it first simply wins, and
+     *  the prewarming does nothing. <br>
+     *  Holding on to an instance of this keeps the entry in the cache,
+     *  because it references the key of the entry strongly.
+     */
+    static final class Prewarming
+    {
+        private final UI.Layer                _layer;
+        private final Pooled<LayerRenderConf> _key;
+        private final CachedImage             _image;
+        private final boolean                 _isExemplar;
+
+        private Prewarming( UI.Layer layer, Pooled<LayerRenderConf> key, CachedImage image, boolean isExemplar ) {
+            _layer      = layer;
+            _key        = key;
+            _image      = image;
+            _isExemplar = isExemplar;
+        }
+
+        /** The number of bytes the entry will hold once it is rendered. */
+        long bytes() {
+            return _image.reservedBytes();
+        }
+
+        /**
+         *  Renders the entry unless someone else already did (or is doing so), and charges
+         *  the {@link CacheLedger} with its memory. May be called from any thread.
+         *
+         * @param gc The graphics configuration to allocate a compatible image for, if any.
+         * @param setup Configures the graphics context of the image like a paint would
+         *              have configured the one it transfers to it.
+         * @return True if the entry was rendered by this call.
+         */
+        boolean render( @Nullable GraphicsConfiguration gc, Consumer<Graphics2D> setup ) {
+            final Graphics2D g2 = _image.createGraphicsAheadOfUse(gc);
+            if ( g2 == null )
+                return false;
+            String  hints      = "";
+            boolean isRestored = false;
+            try {
+                setup.accept(g2);
+                hints = ExemplarDiskCache.renderingHintsOf(g2);
+                // This is not the UI thread, so we may wait for the disk here:
+                isRestored = _isExemplar && _image.restoreFromDisk(_layer, _key.get(), hints);
+                if ( !isRestored )
+                    StyleRenderer.renderStyleOn(_layer, _key.get(), g2);
+            } finally {
+                g2.dispose();
+                _image.finishRendering();
+            }
+            if ( _isExemplar && !isRestored )
+                _image.persistToDisk(_layer, _key.get(), hints);
+            final long bytesToCharge = _image.bytesToCharge();
+            if ( bytesToCharge > 0 )
+                CacheLedger.charge(_image, bytesToCharge);
+            return _image.isRendered();
+        }
+    }
+
     /*  ------------------------------------------------------------------------------------
         Stretch tiling geometry - pure functions deriving the size independent cache key
         and the slice cut lines from a render configuration (see class javadoc).
@@ -606,10 +714,19 @@ final class LayerPartitionCache
      *  data for short-lived paint jobs (like animations for example). <br>
      *  <br>
      *  When the image is an exemplar rendering, this class also owns its reconstruction:
-     *  {@link #paintStretched} reassembles any actual component size from the image
-     *  through nine tile blits.
+     *  {@link #_paintStretched} reassembles any actual component size from the image
+     *  through nine tile blits. <br>
+     *  <br>
+     *  Its allocated memory is accounted for by the {@link CacheLedger}, which may
+     *  {@link #evict()} it at any time and from any painting thread, after which the
+     *  entry is warmed up and rendered again like a new one. <br>
+     *  <br>
+     *  Its images may keep their pixels in native memory (see {@link OffHeapPixels}), which
+     *  is freed on eviction. This is why the finished rendering is only ever read while
+     *  holding the monitor of this entry, through {@link #paintRendering} and {@link #snapshot()},
+     *  rather than handed out to be read whenever the caller gets to it.
      */
-    private static final class CachedImage
+    static final class CachedImage extends CacheLedger.Charge
     {
         /** Indices into the {@link #_stretchTiles} array. */
         private static final int TOP = 0, LEFT = 1, CENTER = 2, RIGHT = 3, BOTTOM = 4;
@@ -629,23 +746,34 @@ final class LayerPartitionCache
 
         private final int                      _width;
         private final int                      _height;
-        private @Nullable BufferedImage        _image;
-        private StretchTile @Nullable []       _stretchTiles;
-        private boolean                        _isRendered;
-        private int                            _numberOfHitsUntilAllocation;
+        private volatile @Nullable BufferedImage  _image;
+        private volatile StretchTile @Nullable [] _stretchTiles;
+        private boolean                           _isClaimed;
+        private volatile boolean                  _isRendered;
+        private boolean                           _isEvictedWhileRendering;
+        private boolean                           _isLoadingFromDisk;
+        private boolean                           _wasLookedForOnDisk;
+        private int                               _numberOfHitsUntilAllocation;
+        private long                              _chargedBytes;
 
 
         CachedImage( Size size, int numberOfHitsUntilAllocation ) {
+            super(CacheBudget.Kind.STYLE_LAYER);
+            _isClaimed                   = false;
+            _isEvictedWhileRendering     = false;
+            _isLoadingFromDisk           = false;
+            _wasLookedForOnDisk          = false;
             _isRendered                  = false;
             _width                       = Math.max(1, size.width().map(Number::intValue).orElse(1));
             _height                      = Math.max(1, size.height().map(Number::intValue).orElse(1));
             _image                       = null;
             _numberOfHitsUntilAllocation = numberOfHitsUntilAllocation;
+            _chargedBytes                = 0;
         }
 
         /** The memory this entry has claimed: its image - counted from the moment the entry
          *  exists, not from the moment the buffer is actually allocated.  */
-        long reservedBytes() {
+        synchronized long reservedBytes() {
             long total = (long) _width * _height * BYTES_PER_PIXEL;
             if ( _stretchTiles != null )
                 for ( StretchTile tile : _stretchTiles )
@@ -654,11 +782,63 @@ final class LayerPartitionCache
             return total;
         }
 
+        /**
+         *  The memory this entry has actually allocated, if it differs from what it last charged the
+         *  {@link CacheLedger} with, which means that it has to charge the ledger again. Otherwise,
+         *  as well as when it holds no memory at all, this returns zero.
+         */
+        synchronized long bytesToCharge() {
+            final long allocatedBytes = _image == null ? 0 : reservedBytes();
+            if ( allocatedBytes == _chargedBytes )
+                return 0;
+            _chargedBytes = allocatedBytes;
+            return allocatedBytes;
+        }
+
+        /**
+         *  Drops the image and its stretch tiles. An image which is still being rendered
+         *  into is dropped by {@link #finishRendering()} instead, because the thread
+         *  rendering it cannot be stopped from here.
+         */
+        @Override
+        synchronized void evict() {
+            _freeStretchTiles();
+            _numberOfHitsUntilAllocation = MAX_CACHE_HIT_COUNT;
+            _chargedBytes                = 0;
+            _isLoadingFromDisk           = false; // A pending load finds this and drops what it read.
+            _wasLookedForOnDisk          = false;
+            if ( _isClaimed && !_isRendered ) {
+                _isEvictedWhileRendering = true;
+                return;
+            }
+            _freeImage();
+            _isClaimed  = false;
+            _isRendered = false;
+        }
+
+        private void _freeImage() {
+            final BufferedImage image = _image;
+            _image = null;
+            if ( image != null )
+                OffHeapPixels.free(image);
+        }
+
+        private void _freeStretchTiles() {
+            final StretchTile[] tiles = _stretchTiles;
+            _stretchTiles = null;
+            if ( tiles != null )
+                for ( StretchTile tile : tiles )
+                    if ( tile instanceof StretchTile.Image )
+                        OffHeapPixels.free(((StretchTile.Image) tile)._image);
+        }
+
         private static long _bytesOf( BufferedImage image ) {
             return (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
         }
 
         private static BufferedImage _allocate( @Nullable GraphicsConfiguration gc, int width, int height ) {
+            if ( CacheBudget.offHeapEnabled() )
+                return OffHeapPixels.allocate(width, height); // Never accelerated, see OffHeapPixels.
             BufferedImage img = ( gc != null )
                     ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT) // potentially accelerated
                     : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB); // probably headless
@@ -666,32 +846,214 @@ final class LayerPartitionCache
             return img;
         }
 
-        public @Nullable BufferedImage getImage() {
-            return _image;
+        /**
+         *  The finished rendering of this entry, or null if there is none. An image whose pixels
+         *  live in native memory is copied onto the heap first, because it could be freed by an
+         *  eviction at any time after this returns.
+         */
+        synchronized @Nullable BufferedImage snapshot() {
+            final BufferedImage image = _image;
+            if ( image == null || !_isRendered )
+                return null;
+            if ( !OffHeapPixels.isOffHeap(image) )
+                return image;
+            final BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = copy.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(image, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+            return copy;
+        }
+
+        /**
+         *  Fills the image claimed through {@link #createGraphicsAheadOfUse(GraphicsConfiguration)} with
+         *  the pixels of the supplied exemplar persisted by an earlier run of the application,
+         *  if there are any (see {@link ExemplarDiskCache}). Only the thread which claimed the
+         *  image may call this, before it calls {@link #finishRendering()}, and since this reads
+         *  the file right away, that must not be the UI thread (see {@link #loadFromDiskInBackground}).
+         *
+         * @param hints The rendering hints of the image, see {@link ExemplarDiskCache#renderingHintsOf(Graphics2D)}.
+         * @return True if the image was filled, and therefore does not have to be rendered.
+         */
+        boolean restoreFromDisk( UI.Layer layer, LayerRenderConf exemplar, String hints ) {
+            final Optional<File> directory = CacheBudget.exemplarDirectory();
+            final BufferedImage image = _image;
+            if ( !directory.isPresent() || image == null )
+                return false;
+            final int[] argb = ExemplarDiskCache.load(directory.get(), layer, exemplar, hints, _width, _height);
+            if ( argb == null )
+                return false;
+            image.setRGB(0, 0, _width, _height, argb, 0, _width);
+            return true;
+        }
+
+        /**
+         *  Starts reading the pixels of the supplied exemplar persisted by an earlier run of the
+         *  application on a background thread (see {@link ExemplarDiskCache#loadInBackground}),
+         *  if the entry is due to be rendered and was not looked for on disk yet. The entry is
+         *  finished with the pixels once they are read, and if there are none,
+         *  the next paint claims it through {@link #createGraphics(GraphicsConfiguration)}
+         *  and renders it as usual.
+         *
+         * @param layer The layer of the exemplar.
+         * @param exemplar The exemplar configuration, which is the key of this entry.
+         * @param g The graphics context of the paint, whose configuration a rendering would be made with.
+         * @return True while the pixels are being read, in which case the caller has to render
+         *         directly rather than claiming the image.
+         */
+        boolean loadFromDiskInBackground( UI.Layer layer, LayerRenderConf exemplar, Graphics2D g ) {
+            final Optional<File> directory = CacheBudget.exemplarDirectory();
+            if ( !directory.isPresent() )
+                return false;
+            synchronized ( this ) {
+                if ( _isLoadingFromDisk )
+                    return true;
+                if ( _wasLookedForOnDisk || _isRendered || _isClaimed || _numberOfHitsUntilAllocation > 0 )
+                    return false;
+                _isLoadingFromDisk = true;
+            }
+            final GraphicsConfiguration gc = g.getDeviceConfiguration();
+            ExemplarDiskCache.loadInBackground(
+                directory.get(), layer, exemplar, ExemplarDiskCache.renderingHintsOf(g), _width, _height,
+                argb -> _finishLoadingFromDisk(gc, argb)
+            );
+            return true;
+        }
+
+        private void _finishLoadingFromDisk( @Nullable GraphicsConfiguration gc, int @Nullable [] argb ) {
+            synchronized ( this ) {
+                if ( !_isLoadingFromDisk )
+                    return; // Evicted in the meantime.
+                _isLoadingFromDisk  = false;
+                _wasLookedForOnDisk = true;
+                if ( argb == null || _isRendered || _isClaimed )
+                    return;
+                BufferedImage image = _image;
+                if ( image == null ) {
+                    image = _allocate(gc, _width, _height);
+                    _image = image;
+                }
+                image.setRGB(0, 0, _width, _height, argb, 0, _width);
+                _isRendered = true;
+            }
+            final long bytesToCharge = bytesToCharge();
+            if ( bytesToCharge > 0 )
+                CacheLedger.charge(this, bytesToCharge);
+        }
+
+        /**
+         *  Hands the finished rendering of the supplied exemplar to the {@link ExemplarDiskCache},
+         *  if it is switched on, so that later runs of the application do not have to render it.
+         *
+         * @param hints The rendering hints the exemplar was rendered with, see {@link ExemplarDiskCache#renderingHintsOf(Graphics2D)}.
+         */
+        void persistToDisk( UI.Layer layer, LayerRenderConf exemplar, String hints ) {
+            final Optional<File> directory = CacheBudget.exemplarDirectory();
+            if ( !directory.isPresent() )
+                return;
+            final int[] argb;
+            synchronized ( this ) {
+                final BufferedImage image = _image;
+                if ( image == null || !_isRendered )
+                    return; // Evicted in the meantime.
+                argb = image.getRGB(0, 0, _width, _height, null, 0, _width);
+            }
+            ExemplarDiskCache.store(directory.get(), layer, exemplar, hints, _width, _height, argb);
         }
 
         /**
          *  Creates a {@link Graphics2D} for rendering into the cached image, or returns
          *  null while the hits-until-allocation count-down (which this call decrements)
          *  has not reached zero yet. The image is allocated on the first call after that.
+         *  The caller has to call {@link #finishRendering()} once it rendered into the image,
+         *  until which every other caller (which may be on another thread, see
+         *  {@link WeakCache}) gets null as well, and renders directly instead.
+         *  Null is also returned if the image was rendered already, possibly by another thread
+         *  since the caller checked {@link #isRendered()}, in which case it can simply be painted.
          */
-        public @Nullable Graphics2D createGraphics( @Nullable GraphicsConfiguration gc ) {
-            if ( _isRendered )
-                throw new IllegalStateException("This image has already been rendered into!");
+        public synchronized @Nullable Graphics2D createGraphics( @Nullable GraphicsConfiguration gc ) {
+            if ( _isRendered || _isClaimed )
+                return null;
             if ( _numberOfHitsUntilAllocation > 0 ) {
                 _numberOfHitsUntilAllocation--;
                 return null;
             }
-            if ( _image == null )
-                _image = _allocate(gc, _width, _height);
+            return _claim(gc);
+        }
+
+        /**
+         *  Like {@link #createGraphics(GraphicsConfiguration)}, but without waiting for any
+         *  cache hits, which is what {@link Prewarming} renders the entry through. Returns null
+         *  if the entry is rendered or being rendered already.
+         */
+        synchronized @Nullable Graphics2D createGraphicsAheadOfUse( @Nullable GraphicsConfiguration gc ) {
+            if ( _isRendered || _isClaimed )
+                return null;
+            _numberOfHitsUntilAllocation = 0;
+            return _claim(gc);
+        }
+
+        private Graphics2D _claim( @Nullable GraphicsConfiguration gc ) {
+            BufferedImage image = _image;
+            if ( image == null ) {
+                image = _allocate(gc, _width, _height);
+                _image = image;
+            }
+            _isClaimed = true;
+            return image.createGraphics();
+        }
+
+        /**
+         *  Publishes the image filled through {@link #createGraphics(GraphicsConfiguration)},
+         *  which is the point from which on it is served to every painter of this entry.
+         */
+        public synchronized void finishRendering() {
+            if ( _isEvictedWhileRendering ) {
+                _isEvictedWhileRendering = false;
+                _freeImage();
+                _isClaimed = false;
+                return;
+            }
             _isRendered = true;
-            return _image.createGraphics();
         }
 
         public boolean isRendered() {
             return _isRendered;
         }
 
+        /**
+         *  Draws the finished rendering of this entry, either as it is or reconstructed at the
+         *  actual component size through {@link #_paintStretched}, while holding the monitor
+         *  which an eviction needs to free the image.
+         *
+         * @return False if there is no finished rendering to draw, because the entry
+         *         was evicted, in which case the caller has to render directly.
+         */
+        synchronized boolean paintRendering( Graphics2D g, LayerRenderConf cacheKey, Size actualSize, boolean isTiled ) {
+            final BufferedImage image = _image;
+            if ( image == null || !_isRendered )
+                return false;
+            if ( isTiled )
+                _paintStretched(g, image, cacheKey, actualSize);
+            else
+                g.drawImage(image, 0, 0, null);
+            return true;
+        }
+
+        private StretchTile[] _stretchTilesFor(
+            @Nullable GraphicsConfiguration gc, BufferedImage image, int insetTop, int insetRight, int insetBottom, int insetLeft
+        ) {
+            StretchTile[] tiles = _stretchTiles;
+            if ( tiles == null ) {
+                tiles = _extractStretchTiles(gc, image, insetTop, insetRight, insetBottom, insetLeft);
+                _stretchTiles = tiles;
+            }
+            return tiles;
+        }
+
         /**
          *  Reconstructs the rendering of this (exemplar) image at the supplied actual
          *  component size by drawing nine tiles: the four corners 1:1 straight from the
@@ -709,25 +1071,18 @@ final class LayerPartitionCache
          * @param g The destination graphics to draw the tiles into.
          * @param canonicalConf The exemplar configuration this image was rendered from,
          *                      used to recompute the slice insets.
+         * @param image The rendered image of this entry.
          * @param actualSize The actual component size to reconstruct.
          */
-        public void paintStretched( Graphics2D g, LayerRenderConf canonicalConf, Size actualSize )
+        private void _paintStretched( Graphics2D g, BufferedImage image, LayerRenderConf canonicalConf, Size actualSize )
         {
-            final BufferedImage image = _image;
-            if ( image == null )
-                return; // Cannot happen (callers check `isRendered()` first), but let's be defensive.
-
             final Outline insets = _sliceInsets(canonicalConf);
             final int insetTop    = (int) _positive(insets.top());
             final int insetRight  = (int) _positive(insets.right());
             final int insetBottom = (int) _positive(insets.bottom());
             final int insetLeft   = (int) _positive(insets.left());
 
-            StretchTile[] tiles = _stretchTiles;
-            if ( tiles == null ) {
-                tiles = _extractStretchTiles(g.getDeviceConfiguration(), image, insetTop, insetRight, insetBottom, insetLeft);
-                _stretchTiles = tiles;
-            }
+            final StretchTile[] tiles = _stretchTilesFor(g.getDeviceConfiguration(), image, insetTop, insetRight, insetBottom, insetLeft);
 
             final float actualWidth  = actualSize.widthOrElse(0f);
             final float actualHeight = actualSize.heightOrElse(0f);
@@ -40,6 +40,8 @@ final class LayerRenderConf
     private final BaseColorConf _baseColor;
     private final StyleConfLayer _layer;
 
+    private int _hashCode = 0; // Lazily computed, 0 means "not computed yet".
+
     private LayerRenderConf(
         BoxModelConf   boxModelConf,
         BaseColorConf  base,
@@ -133,7 +135,10 @@ final class LayerRenderConf
 
     @Override
     public int hashCode() {
-        return Objects.hash(_boxModelConf, _baseColor, _layer);
+        int hash = _hashCode;
+        if ( hash == 0 )
+            _hashCode = hash = Objects.hash(_boxModelConf, _baseColor, _layer);
+        return hash;
     }
 
     @Override
@@ -142,6 +147,8 @@ final class LayerRenderConf
         if ( o == null ) return false;
         if ( o.getClass() != this.getClass() ) return false;
         LayerRenderConf other = (LayerRenderConf) o;
+        if ( _hashCode != 0 && other._hashCode != 0 && _hashCode != other._hashCode )
+            return false; // Different cached hashes settle it without a deep comparison.
         return Objects.equals(_boxModelConf, other._boxModelConf) &&
                Objects.equals(_baseColor, other._baseColor) &&
                Objects.equals(_layer, other._layer);
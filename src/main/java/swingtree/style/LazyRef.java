@@ -12,7 +12,7 @@ final class LazyRef<T>
 {
     private final Object _source;
     private final Function<Object, T> _producer;
-    private @Nullable T _value;
+    private volatile @Nullable T _value; // Volatile, because the component areas holding these are shared between threads (see WeakCache).
 
     @SuppressWarnings("unchecked")
     <S> LazyRef(S source, Function<S, T> producer) {
@@ -22,9 +22,12 @@ final class LazyRef<T>
     }
 
     final T get() {
-        if ( _value == null )
-            _value = _producer.apply(_source);
-        return _value;
+        T value = _value;
+        if ( value == null ) {
+            value = _producer.apply(_source);
+            _value = value;
+        }
+        return value;
     }
 
     final boolean exists() {
@@ -55,6 +55,16 @@ public final class LibraryInternalCrossPackageStyleUtil {
         return false;
     }
 
+    @DoNotCall @Deprecated
+    public static java.util.concurrent.ThreadPoolExecutor _newDaemonThreadPool( String threadName, int maxThreads, int priority ) {
+        return DaemonThreadPools.newPool(threadName, maxThreads, priority);
+    }
+
+    @DoNotCall @Deprecated
+    public static void _prerasterize( SvgIcon icon ) {
+        icon.prerasterize();
+    }
+
     @DoNotCall @Deprecated
     public static void applyFontConfAlignmentsToComponent(FontConf fontConf, JComponent owner) {
         fontConf.horizontalAlignment().forSwing().ifPresent( forSwing -> {
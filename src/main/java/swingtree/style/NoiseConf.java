@@ -202,6 +202,8 @@ public final class NoiseConf implements Simplifiable<NoiseConf>
      *  Accepts the {@link NoiseFunction}, which takes a coordinate and returns a value
      *  between 0 and 1. <br>
      *  The noise function is used to define the noise gradient.
+     *  Note that it is called concurrently and off the UI thread,
+     *  so it has to be thread safe (see {@link NoiseFunction}).
      *  <p>
      *  <b>Take a look at {@link UI.NoiseType} for a rich set of predefined noise functions.</b>
      *
@@ -186,6 +186,381 @@ public final class NoiseFunctions
         return sum;
     }
 
+    /*
+        Below are the row versions of some of the functions above, see NoiseFunction.fillRow.
+        They compute exactly the same values, with exactly the same arithmetic, but the
+        pseudo random lattice which the kernels of a row sample from is hashed only once
+        per row, instead of once per coordinate and kernel cell (which is up to 64 times
+        for every single coordinate). The fractal ones (marble, fractal and turbulence)
+        instead remember the value noise cell they sampled last, which the adjacent
+        coordinates of a row share most of the time.
+    */
+
+    /** The row version of {@link #stochastic(float, float)}. */
+    public static void stochastic( float[] xs, float yIn, float[] out, int count ) {
+        final int kernelSize = 8;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] sums = scratch.sums;
+        _coordinatesToGradValues(kernelSize, xs, yIn, sums, count, scratch);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) ((Math.sin(sums[i] * (12.0/kernelSize)) + 1)/2);
+    }
+
+    /** The row version of {@link #smoothTopology(float, float)}. */
+    public static void smoothTopology( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 6;
+        stochastic(_scaled(xs, scale, count), yIn/scale, out, count);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) ((Math.sin(out[i] * 6 * Math.PI) + 1)/2);
+    }
+
+    /** The row version of {@link #hardTopology(float, float)}. */
+    public static void hardTopology( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 6;
+        stochastic(_scaled(xs, scale, count), yIn/scale, out, count);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (out[i]*6)%1;
+    }
+
+    /** The row version of {@link #hardSpots(float, float)}. */
+    public static void hardSpots( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 4;
+        stochastic(_scaled(xs, scale, count), yIn/scale, out, count);
+        for ( int i = 0; i < count; i++ )
+            out[i] = Math.round(out[i]);
+    }
+
+    /** The row version of {@link #smoothSpots(float, float)}. */
+    public static void smoothSpots( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 6;
+        int kernelSize = 6;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] sums = scratch.sums;
+        _coordinatesToGradValues(kernelSize, _scaled(xs, scale, count), yIn/scale, sums, count, scratch);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) _sigmoid(sums[i] * 64 / kernelSize);
+    }
+
+    /** The row version of {@link #grainy(float, float)}. */
+    public static void grainy( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 2;
+        int kernelSize = 4;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] sums = scratch.sums;
+        _coordinatesToGradValues(kernelSize, _scaled(xs, scale, count), yIn/scale, sums, count, scratch);
+        for ( int i = 0; i < count; i++ ) {
+            double stochastic = (Math.sin(sums[i] * (12.0/kernelSize)) + 1)/2;
+            out[i] = (float) Math.abs((stochastic-0.5)*2);
+        }
+    }
+
+    /** The row version of {@link #fabric(float, float)}. */
+    public static void fabric( float[] xs, float yIn, float[] out, int count ) {
+        float scale = 5;
+        int kernelSize = 4;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] sums = scratch.sums;
+        _coordinatesToFiberValues(kernelSize, _scaled(xs, scale, count), yIn/scale, sums, count, scratch);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) ((Math.sin(sums[i] * (12.0/kernelSize)) + 1)/2);
+    }
+
+    /** The row version of {@link #marble(float, float)}. */
+    public static void marble( float[] xs, float yIn, float[] out, int count ) {
+        final float scale = 28;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] x = scratch.pxs;
+        for ( int i = 0; i < count; i++ )
+            x[i] = xs[i] / scale;
+        final double y = yIn / scale;
+        final double[] sums = scratch.sums;
+        _fractalNoises(x, y, 5, sums, count, scratch);
+        for ( int i = 0; i < count; i++ ) {
+            final double turbulence = ( sums[i] - 0.5 ) * 2;
+            final double pattern = Math.sin( ( x[i] + y ) * Math.PI + turbulence * 5 );
+            out[i] = (float) Math.pow( Math.abs( pattern ), 0.35 );
+        }
+    }
+
+    /** The row version of {@link #fractal(float, float)}. */
+    public static void fractal( float[] xs, float yIn, float[] out, int count ) {
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] x = scratch.pxs;
+        for ( int i = 0; i < count; i++ )
+            x[i] = xs[i] / 46.0;
+        final double[] sums = scratch.sums;
+        _fractalNoises(x, yIn / 46.0, 6, sums, count, scratch);
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) _clamp01( 0.5 + ( sums[i] - 0.5 ) * 1.9 );
+    }
+
+    /** The row version of {@link #turbulence(float, float)}, see {@link #_turbulentNoise(double, double, int)}. */
+    public static void turbulence( float[] xs, float yIn, float[] out, int count ) {
+        final int octaves = 6;
+        final RowScratch scratch = RowScratch.get(count);
+        final double[] px   = scratch.pxs;
+        final double[] py   = scratch.pys;
+        final double[] sums = scratch.sums;
+        for ( int i = 0; i < count; i++ ) {
+            px[i]   = xs[i] / 62.0;
+            py[i]   = yIn / 62.0;
+            sums[i] = 0;
+        }
+        double amplitude = 1;
+        double totalAmplitude = 0;
+        for ( int octave = 0; octave < octaves; octave++ ) {
+            for ( int i = 0; i < count; i++ ) {
+                final double x = px[i];
+                final double y = py[i];
+                sums[i] += Math.abs( scratch.valueNoise( x, y ) * 2 - 1 ) * amplitude;
+                px[i] = ( x * OCTAVE_TURN_COS - y * OCTAVE_TURN_SIN ) * 2 + 37.13;
+                py[i] = ( x * OCTAVE_TURN_SIN + y * OCTAVE_TURN_COS ) * 2 - 19.71;
+            }
+            totalAmplitude += amplitude;
+            amplitude *= 0.5;
+        }
+        for ( int i = 0; i < count; i++ )
+            out[i] = (float) _clamp01( sums[i] / totalAmplitude * 1.32 );
+    }
+
+    /**
+     *  {@link #_fractalNoise(double, double, int)} for every coordinate of a row. The octaves
+     *  are summed in the same order for every coordinate, so the sums are exactly the same.
+     */
+    private static void _fractalNoises(
+        double[] xs, double y, int octaves, double[] sums, int count, RowScratch scratch
+    ) {
+        for ( int i = 0; i < count; i++ )
+            sums[i] = 0;
+        double amplitude = 1;
+        double frequency = 1;
+        double totalAmplitude = 0;
+        for ( int octave = 0; octave < octaves; octave++ ) {
+            final double octaveY = y * frequency;
+            for ( int i = 0; i < count; i++ )
+                sums[i] += scratch.valueNoise( xs[i] * frequency, octaveY ) * amplitude;
+            totalAmplitude += amplitude;
+            amplitude *= 0.5;
+            frequency *= 2;
+        }
+        for ( int i = 0; i < count; i++ )
+            sums[i] /= totalAmplitude;
+    }
+
+    private static float[] _scaled( float[] xs, float scale, int count ) {
+        final float[] scaled = RowScratch.get(count).scaledXs;
+        for ( int i = 0; i < count; i++ )
+            scaled[i] = xs[i]/scale;
+        return scaled;
+    }
+
+    /** {@link #_coordinateToGradValue(int, float, float)} for every coordinate of a row. */
+    private static void _coordinatesToGradValues(
+        int kernelSize, float[] xs, float yIn, double[] sums, int count, RowScratch scratch
+    ) {
+        final int    maxDistance        = kernelSize / 2;
+        final int    baseY              = Math.round( yIn );
+        final double maxDistanceSquared = (double) maxDistance * maxDistance;
+        final int[]  rows               = scratch.rows(kernelSize);
+        for ( int y = 0; y < kernelSize; y++ )
+            rows[y] = ( y - maxDistance ) + baseY;
+
+        if ( !scratch.hashLattice(rows, kernelSize, xs, count, maxDistance) ) {
+            for ( int i = 0; i < count; i++ )
+                sums[i] = _coordinateToGradValue(kernelSize, xs[i], yIn);
+            return;
+        }
+        final byte[]   seeds   = scratch.seeds;
+        final double[] doubles = scratch.doubles;
+        final int      width   = scratch.latticeWidth;
+        final int      firstRx = scratch.latticeFirstX;
+        for ( int i = 0; i < count; i++ ) {
+            final float xIn   = xs[i];
+            final int   baseX = Math.round( xIn );
+            double sum = 0;
+            for ( int y = 0; y < kernelSize; y++ ) {
+                final int    ry  = rows[y];
+                final double vy  = ry - yIn;
+                final double vy2 = vy * vy;
+                if ( vy2 >= maxDistanceSquared )
+                    continue; // No cell in this row can be near enough to matter.
+                final int rowOffset = y * width - firstRx;
+                for ( int x = 0; x < kernelSize; x++ ) {
+                    final int rx = ( x - maxDistance ) + baseX;
+                    if ( seeds[rowOffset + rx] < 0 )
+                        continue; // This cell holds no grain.
+                    final double vx              = rx - xIn;
+                    final double distanceSquared = vx * vx + vy2;
+                    if ( distanceSquared >= maxDistanceSquared )
+                        continue; // Relevance would clamp to zero.
+                    final double relevance = 1.0 - Math.sqrt( distanceSquared ) / maxDistance;
+                    final double frac      = doubles[rowOffset + rx] - 0.5;
+                    sum += ( frac * (relevance*relevance) );
+                }
+            }
+            sums[i] = sum;
+        }
+    }
+
+    /** {@link #_coordinateToFiberValue(int, float, float)} for every coordinate of a row. */
+    private static void _coordinatesToFiberValues(
+        int kernelSize, float[] xs, float yIn, double[] sums, int count, RowScratch scratch
+    ) {
+        final int    maxDistance = kernelSize / 2;
+        final double sampleRate  = 0.5;
+        final int[]  rows        = scratch.rows(kernelSize);
+        for ( int y = 0; y < kernelSize; y++ )
+            rows[y] = Math.round( ( y - maxDistance ) + yIn );
+
+        if ( !scratch.hashLattice(rows, kernelSize, xs, count, maxDistance) ) {
+            for ( int i = 0; i < count; i++ )
+                sums[i] = _coordinateToFiberValue(kernelSize, xs[i], yIn);
+            return;
+        }
+        final byte[]   seeds   = scratch.seeds;
+        final double[] doubles = scratch.doubles;
+        final int      width   = scratch.latticeWidth;
+        final int      firstRx = scratch.latticeFirstX;
+        for ( int i = 0; i < count; i++ ) {
+            final float xIn = xs[i];
+            double sum = 0;
+            for ( int y = 0; y < kernelSize; y++ ) {
+                final int    ry        = rows[y];
+                final double vy        = ry - yIn;
+                final double wrappedVy = _wrapAround(vy*vy, 2);
+                final int    rowOffset = y * width - firstRx;
+                for ( int x = 0; x < kernelSize; x++ ) {
+                    final float xi = ( x - maxDistance ) + xIn;
+                    final int rx = Math.round( xi );
+                    final byte score = seeds[rowOffset + rx];
+                    final boolean takeSample = (255 * sampleRate - 128) < score;
+                    if ( takeSample ) {
+                        final double vx = rx - xIn;
+                        final double distance = Math.sqrt( _wrapAround(vx*vx, 2) + wrappedVy );
+                        double relevance = Math.max(0, 1.0 - distance / maxDistance);
+                        final double frac = doubles[rowOffset + rx] - 0.5;
+                        relevance = Math.min(1, (relevance * relevance) * 1.5);
+                        sum += ( frac * relevance );
+                    }
+                }
+            }
+            sums[i] = sum;
+        }
+    }
+
+    /**
+     *  The per thread working memory of the row functions, which noise tiles
+     *  are rendered in parallel with (so it cannot simply be shared).
+     */
+    private static final class RowScratch
+    {
+        /** A lattice wider than this many cells per coordinate is not worth hashing ahead. */
+        private static final int MAX_LATTICE_CELLS_PER_COORDINATE = 4;
+
+        private static final ThreadLocal<RowScratch> _SCRATCH = ThreadLocal.withInitial(RowScratch::new);
+
+        static RowScratch get( int count ) {
+            RowScratch scratch = _SCRATCH.get();
+            if ( scratch.sums.length < count ) {
+                scratch.sums     = new double[count];
+                scratch.scaledXs = new float[count];
+                scratch.pxs      = new double[count];
+                scratch.pys      = new double[count];
+            }
+            return scratch;
+        }
+
+        double[] sums     = new double[0];
+        float[]  scaledXs = new float[0];
+        double[] pxs      = new double[0];
+        double[] pys      = new double[0];
+        byte[]   seeds    = new byte[0];
+        double[] doubles  = new double[0];
+        int[]    kernelRows = new int[0];
+        int      latticeFirstX;
+        int      latticeWidth;
+
+        /* The lattice cell which valueNoise sampled last, and its four corner values. */
+        private boolean _hasCell = false;
+        private int     _cellX, _cellY;
+        private double  _v00, _v10, _v01, _v11;
+
+        /**
+         *  {@link #_valueNoise(double, double)}, which hashes the corners of a lattice cell only
+         *  when it differs from the one sampled last. Adjacent coordinates of a row share their
+         *  cell most of the time, at least at the coarser octaves of a fractal noise.
+         */
+        double valueNoise( double x, double y ) {
+            final int x0 = (int) Math.floor(x);
+            final int y0 = (int) Math.floor(y);
+            if ( !_hasCell || x0 != _cellX || y0 != _cellY ) {
+                _v00 = _fastPseudoRandomDoubleFrom( x0,     y0     );
+                _v10 = _fastPseudoRandomDoubleFrom( x0 + 1, y0     );
+                _v01 = _fastPseudoRandomDoubleFrom( x0,     y0 + 1 );
+                _v11 = _fastPseudoRandomDoubleFrom( x0 + 1, y0 + 1 );
+                _cellX   = x0;
+                _cellY   = y0;
+                _hasCell = true;
+            }
+            final double fx = _smoothStep( x - x0 );
+            final double fy = _smoothStep( y - y0 );
+            final double top    = _v00 + ( _v10 - _v00 ) * fx;
+            final double bottom = _v01 + ( _v11 - _v01 ) * fx;
+            return top + ( bottom - top ) * fy;
+        }
+
+        int[] rows( int kernelSize ) {
+            if ( kernelRows.length < kernelSize )
+                kernelRows = new int[kernelSize];
+            return kernelRows;
+        }
+
+        /**
+         *  Hashes the seeds and unit doubles of the lattice cells in the supplied rows,
+         *  for every column the kernels of the supplied coordinates can reach.
+         *
+         * @return {@code false} if the coordinates are spread too far apart
+         *         (or are not finite) for that to be worth it.
+         */
+        boolean hashLattice( int[] rows, int kernelSize, float[] xs, int count, int maxDistance ) {
+            if ( count <= 0 )
+                return false;
+            float minX = xs[0];
+            float maxX = xs[0];
+            for ( int i = 1; i < count; i++ ) {
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+            }
+            if ( !( minX > -1e9f && maxX < 1e9f ) )
+                return false; // Also false for NaN.
+            // One more cell on each side covers rounding the offset coordinates instead of the coordinate:
+            final long firstX = (long) Math.round(minX) - maxDistance - 1;
+            final long lastX  = (long) Math.round(maxX) + maxDistance + 1;
+            final long width  = lastX - firstX + 1;
+            if ( width > (long) count * MAX_LATTICE_CELLS_PER_COORDINATE + kernelSize * 2L )
+                return false;
+            latticeFirstX = (int) firstX;
+            latticeWidth  = (int) width;
+            final int cells = latticeWidth * kernelSize;
+            if ( seeds.length < cells ) {
+                seeds   = new byte[cells];
+                doubles = new double[cells];
+            }
+            for ( int y = 0; y < kernelSize; y++ ) {
+                final int ry = rows[y];
+                final int offset = y * latticeWidth;
+                for ( int c = 0; c < latticeWidth; c++ ) {
+                    final int rx = latticeFirstX + c;
+                    final byte seed = _fastPseudoRandomByteSeedFrom( ry, rx );
+                    seeds[offset + c] = seed;
+                    // Only cells with a non-negative seed are ever sampled:
+                    doubles[offset + c] = seed < 0 ? 0 : _fastPseudoRandomDoubleFrom(rx, ry);
+                }
+            }
+            return true;
+        }
+    }
+
     public static float retro( float xIn, float yIn ) {
         float scale = 4;
         int kernelSize = 4;
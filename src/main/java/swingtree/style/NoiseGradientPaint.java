@@ -65,6 +65,8 @@ final class NoiseGradientPaint implements Paint
     private final Color[] colors;
     /** Whether every pixel this paint produces is fully opaque, see {@link #getTransparency()}. */
     private final boolean isOpaque;
+    /** The colors of the gradient, looked up by the noise value of a pixel, see {@link ColorStopLookup}. */
+    private final ColorStopLookup colorLookup;
     private static final float INT_TO_FLOAT_CONST = 1f / 255f;
     /** The alpha-less counterpart of {@link ColorModel#getRGBdefault()}, used by an opaque paint. */
     private static final ColorModel OPAQUE_COLOR_MODEL = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
@@ -160,6 +162,12 @@ final class NoiseGradientPaint implements Paint
                 break;
             }
         this.isOpaque = allColorsOpaque;
+
+        this.colorLookup = new ColorStopLookup(
+                                localFractions, 1f, this.colors,
+                                redStepLookup, greenStepLookup, blueStepLookup, alphaStepLookup,
+                                !isOpaque // An opaque raster has no alpha channel to pack.
+                            );
     }
 
     public Point2D getCenter() {
@@ -292,14 +300,23 @@ final class NoiseGradientPaint implements Paint
         final private Point2D center;
         private final HashMap<Long, WritableRaster> cachedRasters;
         /**
-         *  Reusable scratch buffer for the per-pixel sample data handed to
-         *  {@link WritableRaster#setPixels(int, int, int, int, int[])}. Reused (grow-only)
-         *  across {@link #getRaster} calls to avoid allocating a fresh array per tile.
+         *  Reusable scratch buffer for the packed pixels handed to
+         *  {@link WritableRaster#setDataElements(int, int, int, int, Object)}, for the rare raster
+         *  whose pixels cannot be written directly (see {@link ColorStopLookup#packedPixelsOf}).
+         *  Reused (grow-only) across {@link #getRaster} calls to avoid allocating a fresh array per tile.
          *  Safe to share because access to this context is single-threaded, just like the
          *  unsynchronized {@link #cachedRasters} mutation below.
          */
         private int[] scratchData = new int[0];
 
+        /**
+         *  The x coordinates and noise values of a tile row, so that an unrotated noise can be
+         *  sampled row by row through {@link NoiseFunction#fillRow(float[], float, float[], int)}.
+         *  Reused like the {@link #scratchData} above.
+         */
+        private float[] scratchRowXs        = new float[0];
+        private float[] scratchRowFractions = new float[0];
+
         public NoiseGradientPaintContext(final Point2D center, AffineTransform transform) {
             this.cachedRasters = new HashMap<>();
             try {
@@ -334,66 +351,59 @@ final class NoiseGradientPaint implements Paint
                 else
                     return raster;
 
-                final int MAX = localFractions.length - 1;
-
-                // Create or reuse data array with place for red, green, blue and alpha values
-                final int bands      = isOpaque ? 3 : 4; // The channels
-                final int dataLength = TILE_WIDTH * TILE_HEIGHT * bands;
-                if ( scratchData.length < dataLength )
-                    scratchData = new int[dataLength];
-                final int[] data = scratchData;
+                // Write the packed pixels straight into the raster, or else into a reused array:
+                final int[] pixels = ColorStopLookup.packedPixelsOf(raster);
+                final int[] data;
+                if ( pixels != null )
+                    data = pixels;
+                else {
+                    if ( scratchData.length < TILE_WIDTH * TILE_HEIGHT )
+                        scratchData = new int[TILE_WIDTH * TILE_HEIGHT];
+                    data = scratchData;
+                }
 
                 final boolean isRotated = ( rotation != 0f && rotation % 360f != 0f );
                 final double  rotSin    = isRotated ? Math.sin(Math.toRadians(rotation)) : 0;
                 final double  rotCos    = isRotated ? Math.cos(Math.toRadians(rotation)) : 1;
 
+                if ( scratchRowXs.length < TILE_WIDTH ) {
+                    scratchRowXs        = new float[TILE_WIDTH];
+                    scratchRowFractions = new float[TILE_WIDTH];
+                }
+                final float[] rowXs        = scratchRowXs;
+                final float[] rowFractions = scratchRowFractions;
+                if ( !isRotated )
+                    for ( int tileX = 0; tileX < TILE_WIDTH; tileX++ )
+                        rowXs[tileX] = (float) ( ( X + tileX - center.getX() ) / scaleX );
+
                 int base = 0;
                 for ( int tileY = 0; tileY < TILE_HEIGHT; tileY++ ) {
                     final double rowY = ( Y + tileY - center.getY() ) / scaleY;
-                    for ( int tileX = 0; tileX < TILE_WIDTH; tileX++, base += bands ) {
-                        double currentRed   = 0;
-                        double currentGreen = 0;
-                        double currentBlue  = 0;
-                        double currentAlpha = 0;
-
-                        double localX = ( X + tileX - center.getX() ) / scaleX;
-                        double localY = rowY;
+                    if ( !isRotated ) // The whole row shares its y coordinate:
+                        noiseFunction.fillRow( rowXs, (float) rowY, rowFractions, TILE_WIDTH );
+                    for ( int tileX = 0; tileX < TILE_WIDTH; tileX++, base++ ) {
+                        float onGradientRange;
                         if ( isRotated ) {
-                            final double newX = localX * rotCos - localY * rotSin;
-                            final double newY = localX * rotSin + localY * rotCos;
-                            localX = newX;
-                            localY = newY;
+                            final double localX = ( X + tileX - center.getX() ) / scaleX;
+                            final double localY = rowY;
+                            final float x = (float) ( localX * rotCos - localY * rotSin );
+                            final float y = (float) ( localX * rotSin + localY * rotCos );
+                            onGradientRange = noiseFunction.getFractionAt( x, y );
                         }
-                        final float x = (float) localX;
-                        final float y = (float) localY;
+                        else
+                            onGradientRange = rowFractions[tileX];
 
-                        float onGradientRange = noiseFunction.getFractionAt( x, y );
                         if ( !(onGradientRange > 0f) )
                             onGradientRange = 0f;
                         else if ( onGradientRange > 1f )
                             onGradientRange = 1f;
 
-                        for ( int i = MAX - 1; i >= 0; i-- ) {
-                            if ( onGradientRange >= localFractions[i] ) {
-                                final float distance = onGradientRange - localFractions[i];
-                                currentRed   = colors[i].getRed()   * INT_TO_FLOAT_CONST + distance * redStepLookup[i];
-                                currentGreen = colors[i].getGreen() * INT_TO_FLOAT_CONST + distance * greenStepLookup[i];
-                                currentBlue  = colors[i].getBlue()  * INT_TO_FLOAT_CONST + distance * blueStepLookup[i];
-                                currentAlpha = colors[i].getAlpha() * INT_TO_FLOAT_CONST + distance * alphaStepLookup[i];
-                                break;
-                            }
-                        }
-
-                        data[base    ] = (int) Math.round(currentRed   * 255);
-                        data[base + 1] = (int) Math.round(currentGreen * 255);
-                        data[base + 2] = (int) Math.round(currentBlue  * 255);
-                        if ( bands == 4 )
-                            data[base + 3] = (int) Math.round(currentAlpha * 255);
+                        data[base] = colorLookup.argbAt( onGradientRange );
                     }
                 }
 
-                // Fill the raster with the data
-                raster.setPixels(0, 0, TILE_WIDTH, TILE_HEIGHT, data);
+                if ( pixels == null )
+                    raster.setDataElements(0, 0, TILE_WIDTH, TILE_HEIGHT, data);
 
                 cachedRasters.put(index, raster);
                 return raster;
@@ -1,32 +1,40 @@
 package swingtree.style;
 
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  *  The process-wide weak interner backing {@link Pooled#intern()} — conceptually
  *  {@link String#intern()} for SwingTree's large immutable configuration objects.
  *  It collapses every {@link Pooled} that is {@code equal} to one already seen onto a
  *  single <em>canonical</em> instance, so equal config values can be compared by
- *  reference and, crucially, share a single entry in the various {@link WeakHashMap}-based
+ *  reference and, crucially, share a single entry in the various {@link WeakCache}-based
  *  rendering caches (style layers, noise, shadows, text images, layouts, component areas).
  *
- *  <h2>Why both the keys and the values are weak</h2>
- *  The backing map holds its keys weakly (it is a {@link WeakHashMap}) <em>and</em> wraps
- *  each canonical value in a {@link WeakReference}. A canonical {@link Pooled} therefore
- *  stays interned only while something <em>outside</em> the pool still references it
- *  strongly; once the last such reference is dropped it is reclaimed and falls out of the
- *  pool on its own. This is the linchpin of SwingTree's self-clearing cache design: a
+ *  <h2>Why the canonical instances are weak</h2>
+ *  The backing map holds its keys weakly (it is a {@link WeakCache}), and the canonical
+ *  instance is nothing but the key stored in it (see {@link WeakCache#internKey}).
+ *  A canonical {@link Pooled} therefore stays interned only while something <em>outside</em>
+ *  the pool still references it strongly; once the last such reference is dropped it is
+ *  reclaimed and falls out of the pool on its own. This is the linchpin of SwingTree's self-clearing cache design: a
  *  rendering cache keyed by these canonical instances keeps an entry alive for exactly as
  *  long as a live component or style configuration still holds the corresponding key, and
  *  not a moment longer. The pool itself pins nothing.
  *
  *  <h2>Threading</h2>
- *  Interning happens on the Event Dispatch Thread, like all of SwingTree's painting and
- *  layout work — it is, after all, built on single-threaded Swing. The pool is therefore a
- *  plain, unsynchronized {@link WeakHashMap}, consistent with every cache that funnels its
- *  keys through it.
+ *  Interning mostly happens on the Event Dispatch Thread, like almost all of SwingTree's
+ *  painting and layout work, but offscreen rendering on worker threads interns the very same
+ *  configurations, so that it can share the entries of the rendering caches with it. The pool
+ *  is therefore a (lock striped) {@link WeakCache}, like every cache that funnels its keys
+ *  through it.
+ *
+ *  <h2>Interning values directly</h2>
+ *  A {@link Pooled} wrapper is only as long-lived as whoever holds it, which suits cache
+ *  keys but not a value which is passed around on its own, like the {@link StyleConf} of a
+ *  component. Such a value is interned through {@link #internValue(Object)} instead, where
+ *  it is its own weakly held key: it stays canonical for exactly as long as some component
+ *  still holds it. This is reserved for values which cache their own hash code, because
+ *  every lookup hashes the value, and for values which are compared far more often than
+ *  they are created, because every lookup which finds a canonical instance pays for one
+ *  deep comparison in exchange for all later ones becoming a reference check.
  */
 final class ObjectPool {
     private static final ObjectPool INSTANCE = new ObjectPool();
@@ -35,20 +43,25 @@ final class ObjectPool {
         return INSTANCE;
     }
 
-    private final Map<Pooled<?>, WeakReference<Pooled<?>>> pool = new WeakHashMap<>();
+    private final WeakCache<Pooled<?>, Boolean> pool = new WeakCache<>();
+    private final WeakCache<Object, Boolean> values = new WeakCache<>();
 
     private ObjectPool(){}
 
     public <T> Pooled<T> intern(Pooled<T> value ) {
-        WeakReference<Pooled<T>> ref = (WeakReference) pool.get(value);
+        @SuppressWarnings("unchecked")
+        Pooled<T> canonical = (Pooled<T>) pool.internKey(value, Boolean.TRUE);
+        return canonical;
+    }
 
-        if (ref != null) {
-            Pooled<T> canonical = ref.get();
-            if (canonical != null) {
-                return canonical;
-            }
-        }
-        pool.put(value, new WeakReference<>(value));
-        return value;
+    /**
+     *  Returns the canonical instance equal to the supplied value, which is the supplied
+     *  value itself if no equal one is currently alive.
+     *  See the class documentation for what kind of values this is meant for.
+     */
+    public <T> T internValue( T value ) {
+        @SuppressWarnings("unchecked")
+        T canonical = (T) values.internKey(value, Boolean.TRUE);
+        return canonical;
     }
 }
@@ -0,0 +1,194 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Allocates ARGB images whose pixels live in native memory rather than in a Java {@code int[]},
+ *  which is what the style layer cache uses when {@link swingtree.SwingTree#setOffHeapCacheEnabled(boolean)}
+ *  is switched on. <br>
+ *  <br>
+ *  A cached rendering is the textbook example of an object the garbage collector handles
+ *  badly: large, long lived, never containing a reference, and dropped at moments which the
+ *  {@link CacheLedger} decides, not the collector. Kept on the heap, a cache at its budget is
+ *  tens of megabytes the collector keeps copying or marking for nothing, and every evicted
+ *  image is garbage which a later (possibly full) collection has to find. Kept here instead,
+ *  the heap holds nothing but a few small wrapper objects per image, and the pixels of an
+ *  evicted entry are handed back to the operating system the moment it is evicted,
+ *  through {@link #free(BufferedImage)}. <br>
+ *  <br>
+ *  <b>The trade-off:</b> Java2D has no specialized loops for a raster it does not know, so
+ *  blitting from (and rendering into) one of these images goes through its generic, per pixel
+ *  paths, and such an image is never copied to an accelerated surface either. This is why
+ *  the mode is off by default: it is for applications whose pauses or heap size matter more
+ *  than the cost of a cache hit, which is best decided by measuring both
+ *  (see {@code benchmarks.OffHeapCacheBenchmark}).
+ *
+ *  <h2>Freeing</h2>
+ *  A direct {@link ByteBuffer} is normally only freed when the collector gets to it, which
+ *  would defeat the point. So {@link #free(BufferedImage)} invokes its cleaner right away,
+ *  through {@code sun.misc.Unsafe.invokeCleaner} on Java 9 and later, and through the buffer's
+ *  own cleaner on Java 8. Where neither can be reached, the memory is simply left to the
+ *  collector, which is still correct, only later. <br>
+ *  The pixels of a freed image must never be read again, which is up to the caller: the
+ *  style layer cache only ever frees and blits its images while holding the monitor of the
+ *  entry they belong to. As a last line of defense, a freed buffer forgets its native memory,
+ *  so a stray access fails with an exception instead of reading memory which was handed back.
+ */
+final class OffHeapPixels
+{
+    private static final Logger log = LoggerFactory.getLogger(OffHeapPixels.class);
+
+    private static final int[] ARGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 };
+
+    private static final IntBuffer FREED = IntBuffer.allocate(0);
+
+    private static final AtomicLong _allocatedBytes = new AtomicLong(0);
+
+    private OffHeapPixels() {}
+
+    /**
+     *  Allocates a transparent {@code width} by {@code height} image with the same pixel layout
+     *  as a {@link BufferedImage#TYPE_INT_ARGB} one, whose pixels live in native memory.
+     */
+    static BufferedImage allocate( int width, int height ) {
+        final int w = Math.max(1, width);
+        final int h = Math.max(1, height);
+        final DirectIntBuffer buffer = new DirectIntBuffer(w * h);
+        final SinglePixelPackedSampleModel sampleModel = new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, w, h, ARGB_MASKS);
+        // The anonymous subclass is what gets us a plain raster around a buffer Java2D does not know.
+        final WritableRaster raster = new WritableRaster(sampleModel, buffer, new Point(0, 0)) {};
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    /** Whether the pixels of the supplied image live in native memory allocated by {@link #allocate(int, int)}. */
+    static boolean isOffHeap( BufferedImage image ) {
+        return image.getRaster().getDataBuffer() instanceof DirectIntBuffer;
+    }
+
+    /**
+     *  Hands the native memory of an image from {@link #allocate(int, int)} back to the operating
+     *  system right away, after which the image must no longer be used. Does nothing for any
+     *  other image, or for one which was freed already.
+     */
+    static void free( BufferedImage image ) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        if ( buffer instanceof DirectIntBuffer )
+            ((DirectIntBuffer) buffer).free();
+    }
+
+    /** The number of bytes of native memory all images from {@link #allocate(int, int)} hold right now. */
+    static long allocatedBytes() {
+        return _allocatedBytes.get();
+    }
+
+    /** A single bank of ints in a direct buffer, laid out like the {@code int[]} of a {@link java.awt.image.DataBufferInt}. */
+    private static final class DirectIntBuffer extends DataBuffer
+    {
+        private final    long                 _bytes;
+        private @Nullable ByteBuffer          _memory;
+        private volatile IntBuffer            _pixels;
+
+        DirectIntBuffer( int size ) {
+            super(DataBuffer.TYPE_INT, size);
+            _bytes  = (long) size * Integer.BYTES;
+            _memory = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder());
+            _pixels = _memory.asIntBuffer();
+            _allocatedBytes.addAndGet(_bytes);
+        }
+
+        @Override
+        public int getElem( int bank, int i ) {
+            return _pixels.get(i);
+        }
+
+        @Override
+        public void setElem( int bank, int i, int val ) {
+            _pixels.put(i, val);
+        }
+
+        synchronized void free() {
+            final ByteBuffer memory = _memory;
+            if ( memory == null )
+                return;
+            _memory = null;
+            _pixels = FREED;
+            _allocatedBytes.addAndGet(-_bytes);
+            Cleaner.clean(memory);
+        }
+    }
+
+    /** Reaches the cleaner of a direct buffer through whichever internal API this JVM offers. */
+    private static final class Cleaner
+    {
+        private static final @Nullable Object _UNSAFE;
+        private static final @Nullable Method _INVOKE_CLEANER; // Java 9+: Unsafe.invokeCleaner(ByteBuffer)
+        private static final @Nullable Method _CLEANER;        // Java 8:  DirectBuffer.cleaner()
+        private static final @Nullable Method _CLEAN;          // Java 8:  Cleaner.clean()
+
+        static {
+            Object unsafe        = null;
+            Method invokeCleaner = null;
+            Method cleaner       = null;
+            Method clean         = null;
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+            } catch ( Throwable java9Missing ) {
+                invokeCleaner = null;
+                try {
+                    final ByteBuffer probe = ByteBuffer.allocateDirect(1);
+                    cleaner = probe.getClass().getMethod("cleaner");
+                    cleaner.setAccessible(true);
+                    final Object probeCleaner = cleaner.invoke(probe);
+                    clean = probeCleaner.getClass().getMethod("clean");
+                    clean.setAccessible(true);
+                    clean.invoke(probeCleaner);
+                } catch ( Throwable java8Missing ) {
+                    cleaner = null;
+                    clean   = null;
+                    log.debug(
+                        "Cannot free direct buffers explicitly on this JVM, " +
+                        "the native memory of off-heap cache images is left to the garbage collector.",
+                        java8Missing
+                    );
+                }
+            }
+            _UNSAFE         = unsafe;
+            _INVOKE_CLEANER = invokeCleaner;
+            _CLEANER        = cleaner;
+            _CLEAN          = clean;
+        }
+
+        static void clean( ByteBuffer buffer ) {
+            try {
+                if ( _INVOKE_CLEANER != null )
+                    _INVOKE_CLEANER.invoke(_UNSAFE, buffer);
+                else if ( _CLEANER != null && _CLEAN != null ) {
+                    final Object cleaner = _CLEANER.invoke(buffer);
+                    if ( cleaner != null )
+                        _CLEAN.invoke(cleaner);
+                }
+            } catch ( Throwable t ) {
+                log.debug("Failed to free a direct buffer explicitly, it is left to the garbage collector.", t);
+            }
+        }
+    }
+}
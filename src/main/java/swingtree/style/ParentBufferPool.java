@@ -0,0 +1,166 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ *  Hands out the buffers a parent is rendered into so that its children can filter
+ *  what is behind them (see {@link FilterConf}), and takes back the ones which are no
+ *  longer needed. <br>
+ *  <br>
+ *  Such a buffer has to be as large as the parent and is needed on every single paint of it,
+ *  which for an animated frosted glass panel means on every frame. A parent therefore keeps
+ *  its buffer for as long as its size does not change and only clears the region of it
+ *  which it is about to render into again.
+ *  This pool is for what happens around that: a parent which is resized, or which no
+ *  longer has a filtered child, returns its buffer here, where a parent of that exact size
+ *  (for example itself, when a resize animation plays back) picks it up again instead of
+ *  allocating a new one. <br>
+ *  <br>
+ *  The buffers are always of the exact size of the parent, because the filters
+ *  treat the bounds of the buffer as the bounds of the parent, which is where a blur
+ *  clamps its edges. And they are plain {@link BufferedImage}s rather than
+ *  {@link java.awt.image.VolatileImage}s, because the filters read their pixels,
+ *  which a volatile image would first have to copy into a {@link BufferedImage} anyway. <br>
+ *  <br>
+ *  The renderings of a {@link CompositedLayer}, which are of the exact size of their
+ *  component as well, are taken from and returned to this pool in the same way. <br>
+ *  <br>
+ *  Only a few buffers are kept, the least recently returned ones are dropped first.
+ *  Every idle buffer is charged to the {@link CacheLedger} (as a {@link CacheBudget.Kind#PARENT_BUFFER}),
+ *  so that the full size buffers kept here count towards the total cache budget like every
+ *  other cache, and the ledger may evict them to make room. A buffer in use by a parent is
+ *  not charged, it is part of what is being painted rather than a cache.
+ *  Like painting itself, this is meant to be used on the Event Dispatch Thread.
+ */
+final class ParentBufferPool
+{
+    private static final int MAX_IDLE_BUFFERS = 4;
+    private static final int BYTES_PER_PIXEL  = 4;
+
+    private static final ArrayDeque<IdleBuffer> _IDLE = new ArrayDeque<>(MAX_IDLE_BUFFERS);
+
+    private ParentBufferPool() {}
+
+    /**
+     *  Returns a buffer of the given size for rendering a parent into,
+     *  which is either the supplied previous buffer of that parent, a buffer of
+     *  that size which was returned to this pool, or a new one.
+     *
+     * @param previous The buffer the parent was rendered into the last time, or {@code null}.
+     *                 If it does not have the requested size, it is returned to the pool.
+     * @param width The width of the parent.
+     * @param height The height of the parent.
+     * @param region The region the parent is about to render into, which is cleared.
+     *               Whatever is outside of it is left from before, and must not be used.
+     * @return A buffer of exactly the requested size, which is transparent within the region.
+     */
+    static BufferedImage acquire( @Nullable BufferedImage previous, int width, int height, Rectangle region ) {
+        if ( previous != null ) {
+            if ( previous.getWidth() == width && previous.getHeight() == height ) {
+                _clear(previous, region);
+                return previous;
+            }
+            release(previous);
+        }
+        IdleBuffer reused = null;
+        synchronized ( _IDLE ) {
+            final Iterator<IdleBuffer> idle = _IDLE.iterator();
+            while ( idle.hasNext() ) {
+                final IdleBuffer candidate = idle.next();
+                if ( candidate._buffer.getWidth() == width && candidate._buffer.getHeight() == height ) {
+                    idle.remove();
+                    reused = candidate;
+                    break;
+                }
+            }
+        }
+        if ( reused == null )
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        CacheLedger.release(reused); // Not while holding the monitor its eviction needs, see CacheLedger.
+        _clear(reused._buffer, region);
+        return reused._buffer;
+    }
+
+    /**
+     *  Takes back a buffer which its parent no longer needs.
+     *  The caller must not use the buffer afterwards.
+     *
+     * @param buffer The buffer which is no longer needed.
+     */
+    static void release( BufferedImage buffer ) {
+        final IdleBuffer idle = new IdleBuffer(buffer);
+        final IdleBuffer dropped;
+        synchronized ( _IDLE ) {
+            dropped = _IDLE.size() >= MAX_IDLE_BUFFERS ? _IDLE.pollLast() : null;
+            _IDLE.addFirst(idle);
+        }
+        if ( dropped != null )
+            CacheLedger.release(dropped);
+        CacheLedger.charge(idle, (long) buffer.getWidth() * buffer.getHeight() * BYTES_PER_PIXEL);
+    }
+
+    /** The number of buffers currently waiting to be reused, exposed for testing. */
+    static int idleCount() {
+        synchronized ( _IDLE ) {
+            return _IDLE.size();
+        }
+    }
+
+    /** Drops all idle buffers, and their charges. */
+    static void clear() {
+        final IdleBuffer[] dropped;
+        synchronized ( _IDLE ) {
+            dropped = _IDLE.toArray(new IdleBuffer[0]);
+            _IDLE.clear();
+        }
+        for ( IdleBuffer idle : dropped )
+            CacheLedger.release(idle);
+    }
+
+    /** An idle buffer, as charged to the {@link CacheLedger}, which evicts it by dropping it from the pool. */
+    private static final class IdleBuffer extends CacheLedger.Charge
+    {
+        private final BufferedImage _buffer;
+
+        IdleBuffer( BufferedImage buffer ) {
+            super(CacheBudget.Kind.PARENT_BUFFER);
+            _buffer = buffer;
+        }
+
+        @Override
+        void evict() {
+            synchronized ( _IDLE ) {
+                _IDLE.remove(this);
+            }
+        }
+    }
+
+    private static void _clear( BufferedImage buffer, Rectangle region ) {
+        final Rectangle area = region.intersection(new Rectangle(0, 0, buffer.getWidth(), buffer.getHeight()));
+        if ( area.isEmpty() )
+            return;
+        final int @Nullable [] pixels = ColorStopLookup.packedPixelsOf(buffer.getRaster());
+        if ( pixels != null ) {
+            for ( int y = area.y; y < area.y + area.height; y++ ) {
+                final int start = y * buffer.getWidth() + area.x;
+                Arrays.fill(pixels, start, start + area.width, 0);
+            }
+            return;
+        }
+        final Graphics2D g = buffer.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(area.x, area.y, area.width, area.height);
+        } finally {
+            g.dispose();
+        }
+    }
+}
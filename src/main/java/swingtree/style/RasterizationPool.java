@@ -0,0 +1,86 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+/**
+ *  A small pool of threads for rasterizing independent pieces of a single paint in parallel,
+ *  like the large tiles of a noise which {@link StyleRenderer} is about to blit. <br>
+ *  <br>
+ *  The thread asking for the work (usually the Event Dispatch Thread) waits for all of it
+ *  and gets the results in the order it asked for them, so the outcome of a paint is exactly
+ *  the same as if every piece had been rasterized one after the other on that thread, only
+ *  sooner. This is the only kind of parallelism this is meant for: pieces which are pure
+ *  functions of their inputs, have no side effects on shared state, and are all needed
+ *  before the paint can continue. <br>
+ *  <br>
+ *  The pool is a dedicated {@link ForkJoinPool} rather than the common one, because a paint
+ *  waiting for the common pool would also wait for whatever else the application happens
+ *  to run there. Its threads are daemon threads and only started once there is work.
+ *  On a machine with a single core there is no pool at all, and the work is done right away
+ *  on the calling thread.
+ */
+final class RasterizationPool
+{
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final @Nullable ForkJoinPool _POOL = PARALLELISM > 1 ? _createPool() : null;
+
+    private RasterizationPool() {}
+
+    private static ForkJoinPool _createPool() {
+        return new ForkJoinPool(
+                    PARALLELISM,
+                    pool -> {
+                        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("SwingTree-Rasterizer-" + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    null,
+                    false
+                );
+    }
+
+    /** Whether {@link #computeAll(List)} actually runs work in parallel on this machine. */
+    static boolean isParallel() {
+        return _POOL != null;
+    }
+
+    /**
+     *  Runs the supplied jobs, in parallel if there is more than one of them and this machine
+     *  has more than one core, and waits for all of them.
+     *
+     * @return The results of the jobs, in the order of the jobs.
+     * @throws IllegalStateException wrapping the first exception a job threw,
+     *                               after every job has finished.
+     */
+    static <T> List<T> computeAll( List<? extends Callable<T>> jobs ) {
+        final List<T> results = new ArrayList<>(jobs.size());
+        final ForkJoinPool pool = _POOL;
+        try {
+            if ( pool == null || jobs.size() < 2 ) {
+                for ( Callable<T> job : jobs )
+                    results.add(job.call());
+            } else {
+                for ( Future<T> future : pool.invokeAll(jobs) )
+                    results.add(future.get());
+            }
+        } catch ( ExecutionException e ) {
+            throw new IllegalStateException("Failed to rasterize in parallel.", e.getCause());
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rasterizing in parallel.", e);
+        } catch ( Exception e ) {
+            throw new IllegalStateException("Failed to rasterize.", e);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,436 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import swingtree.layout.Size;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ *  A global cache of rendered shadows, which lets the {@link StyleRenderer} paint a
+ *  shadow of any size with nine image blits instead of rebuilding its radial corner
+ *  gradients, its linear edge gradients and the {@link java.awt.geom.Area}s clipping
+ *  them, every time the shadow is rendered from scratch. <br>
+ *  <br>
+ *  A shadow only varies perpendicular to the edges of the component casting it, and in
+ *  its corners. So, much like the stretch tiling of the {@link LayerPartitionCache}, every
+ *  distinct shadow (its {@link ShadowConf} together with the corner arcs, border widths
+ *  and margins of the box model it is cast by) is rendered exactly once, into a small
+ *  <b>exemplar</b> mask: the same shadow cast by a component which is just large enough
+ *  for every corner and edge pixel to exist. Any larger size is then reassembled from it:
+ *  the four corners are copied 1:1, and the four edges and the center are stretched out of
+ *  single pixel wide slices of the exemplar (a "nine slice"). <br>
+ *  <br>
+ *  Unlike the stretch tiling of a whole layer, this also works for the layers which cannot
+ *  be cached independently of their size (because they also have a gradient or an image,
+ *  for example), and while a component is being resized, which is exactly when a large
+ *  drop shadow used to be rendered from its gradients on every single frame. <br>
+ *  <br>
+ *  A mask is only used where the nine slices fall onto whole device pixels, so that no
+ *  tile is ever resampled, which is for whole numbered component sizes painted through
+ *  a transform which scales by a whole number and translates by whole pixels. The outcome
+ *  is then practically indistinguishable from a shadow rendered from its gradients,
+ *  though not bit for bit identical, because the antialiasing of the gradients and of
+ *  the areas clipping them is rasterized at the exemplar size and not at the actual one.
+ *  The exemplar is rendered in device space under that
+ *  very scale, so the scale is part of the key. Anything else, like a fractional HiDPI
+ *  scale, is rendered directly like before. Because the shadow color is part of the key
+ *  anyway, the mask carries the color of the shadow, which makes compositing it nothing
+ *  more than a source over blit. <br>
+ *  <br>
+ *  The cache is an access ordered {@link LinkedHashMap} guarded by its own monitor (like the
+ *  text layout cache of the {@link TextLayoutEngine}), bounded by the slice of the byte budget
+ *  dedicated to shadows, and every mask is charged to the {@link CacheLedger}.
+ *  Like the stretch tiling of layers, it can be switched off through
+ *  {@link swingtree.SwingTree#setCacheTilingEnabled(boolean)}.
+ */
+final class ShadowMaskCache
+{
+    /** Absolute ceiling on cached masks. The live cap (see {@link #_maxMasks()}) only
+     *  drops below this on a constrained byte budget, and is {@code 0} when caching is disabled. */
+    private static final int MAX_MASKS      = 64;
+    private static final int STRETCH_BAND   = 2; // Freely stretchable band between the slice insets of the exemplar.
+    private static final int SAFETY_MARGIN  = 2; // Added to every slice inset to absorb antialiasing bleed and artifact adjustments in the renderer.
+    private static final int BYTES_PER_PIXEL = 4;
+
+    @SuppressWarnings("serial")
+    private static final Map<MaskKey, Mask> _CACHE =
+            new LinkedHashMap<MaskKey, Mask>(16, 0.75f, true /* access-order */) {
+                @Override
+                protected boolean removeEldestEntry( Map.Entry<MaskKey, Mask> eldest ) {
+                    if ( size() <= _maxMasks() )
+                        return false;
+                    CacheLedger.release(eldest.getValue()); // Never evicts, so it is fine under the cache monitor.
+                    return true;
+                }
+            };
+
+    private ShadowMaskCache() {}
+
+    private static int _maxMasks() {
+        return Math.min(MAX_MASKS, CacheBudget.maxEntriesFor(CacheBudget.Kind.SHADOW_GRADIENT));
+    }
+
+    /** Live number of cached shadow masks (for monitoring/tests). */
+    static int globalEntryCount() {
+        synchronized ( _CACHE ) {
+            return _CACHE.size();
+        }
+    }
+
+    /** Drops every cached shadow mask. Called when the library cache configuration changes
+     *  (see {@link StyleRenderer#clearGlobalRenderCaches()}). */
+    static void clear() {
+        synchronized ( _CACHE ) {
+            for ( Mask mask : _CACHE.values() )
+                CacheLedger.release(mask);
+            _CACHE.clear();
+        }
+    }
+
+    /**
+     *  Paints the supplied shadow of the supplied component by reassembling it from its
+     *  cached exemplar mask, which is rendered first if there is none yet.
+     *
+     * @param conf The render configuration of the layer the shadow belongs to, at the actual size of the component.
+     * @param shadow The shadow to paint.
+     * @param g2d The graphics to paint the shadow onto.
+     * @return {@code true} if the shadow was painted, {@code false} if it could not be reassembled from whole pixel slices
+     *         (see class documentation), in which case nothing was painted and it has to be rendered directly.
+     */
+    static boolean paint( LayerRenderConf conf, ShadowConf shadow, Graphics2D g2d ) {
+        if ( !CacheBudget.tilingEnabled() || _maxMasks() <= 0 )
+            return false;
+
+        final AffineTransform transform = g2d.getTransform();
+        if ( !_isPixelAligned(transform) || !_isSourceOver(g2d.getComposite()) )
+            return false;
+
+        final BoxModelConf boxModel = conf.boxModel();
+        final float width  = boxModel.size().widthOrElse(0f);
+        final float height = boxModel.size().heightOrElse(0f);
+        if ( width != Math.rint(width) || height != Math.rint(height) )
+            return false;
+
+        final Outline insets   = _sliceInsets(boxModel, shadow);
+        final Size    exemplar = _exemplarSize(insets);
+        if ( width <= exemplar.widthOrElse(0f) || height <= exemplar.heightOrElse(0f) )
+            return false; // Too small to gain anything from being reassembled.
+
+        final int scaleX = (int) transform.getScaleX();
+        final int scaleY = (int) transform.getScaleY();
+        final boolean isAntialiased = RenderingHints.VALUE_ANTIALIAS_ON.equals(g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING));
+        final MaskKey key = new MaskKey(boxModel.withSize(exemplar), shadow, scaleX, scaleY, isAntialiased);
+
+        Mask mask;
+        synchronized ( _CACHE ) {
+            mask = _CACHE.get(key);
+        }
+        if ( mask != null )
+            CacheLedger.touch(mask);
+        else {
+            mask = Mask.render(conf.withBoxModel(key._boxModel), shadow, insets, key, g2d);
+            final @Nullable Mask replaced;
+            synchronized ( _CACHE ) {
+                replaced = _CACHE.put(key, mask);
+            }
+            if ( replaced != null )
+                CacheLedger.release(replaced);
+            CacheLedger.charge(mask, mask.bytes()); // Outside the cache monitor, because this may evict.
+        }
+        mask.paint(
+            g2d,
+            (int) transform.getTranslateX(),
+            (int) transform.getTranslateY(),
+            (int) width  * scaleX,
+            (int) height * scaleY
+        );
+        return true;
+    }
+
+    /** Whether the transform maps whole pixels onto whole pixels, by a whole numbered scale and translation. */
+    private static boolean _isPixelAligned( AffineTransform transform ) {
+        return transform.getShearX() == 0 &&
+               transform.getShearY() == 0 &&
+               transform.getScaleX() >= 1 && transform.getScaleX() == Math.rint(transform.getScaleX()) &&
+               transform.getScaleY() >= 1 && transform.getScaleY() == Math.rint(transform.getScaleY()) &&
+               transform.getTranslateX() == Math.rint(transform.getTranslateX()) &&
+               transform.getTranslateY() == Math.rint(transform.getTranslateY());
+    }
+
+    /** Blitting a mask composites it in one go, which is only the same as rendering the shadow for source over. */
+    private static boolean _isSourceOver( Composite composite ) {
+        return composite instanceof AlphaComposite &&
+               ((AlphaComposite) composite).getRule() == AlphaComposite.SRC_OVER;
+    }
+
+    /**
+     *  How far the pixels of the shadow which vary along an edge reach into the component
+     *  from each side: margin + base outline + border width + the adjacent corner arc extents
+     *  + the reach of the shadow (its blur, spread, gradient start offset and offset),
+     *  plus a safety margin, ceiled to whole numbers. This is the same reach the
+     *  {@link LayerPartitionCache} gives a shadow when it stretch tiles a whole layer.
+     */
+    private static Outline _sliceInsets( BoxModelConf box, ShadowConf shadow ) {
+        final float blur   = Math.max(0, shadow.blurRadius());
+        final float spread = Math.abs(shadow.spreadRadius());
+        final float fade   = StyleRenderer.shadowGradientStartOffset(box, shadow);
+        final float reachH = blur + spread + fade + Math.abs(shadow.horizontalOffset());
+        final float reachV = blur + spread + fade + Math.abs(shadow.verticalOffset());
+
+        final float arcTop    = Math.max(_arcHeight(box.topLeftArc()),    _arcHeight(box.topRightArc())   );
+        final float arcRight  = Math.max(_arcWidth(box.topRightArc()),    _arcWidth(box.bottomRightArc()) );
+        final float arcBottom = Math.max(_arcHeight(box.bottomLeftArc()), _arcHeight(box.bottomRightArc()));
+        final float arcLeft   = Math.max(_arcWidth(box.topLeftArc()),     _arcWidth(box.bottomLeftArc())  );
+
+        final float top    = _positive(box.margin().top())    + _positive(box.baseOutline().top())    + _positive(box.widths().top())    + arcTop    + reachV + SAFETY_MARGIN;
+        final float right  = _positive(box.margin().right())  + _positive(box.baseOutline().right())  + _positive(box.widths().right())  + arcRight  + reachH + SAFETY_MARGIN;
+        final float bottom = _positive(box.margin().bottom()) + _positive(box.baseOutline().bottom()) + _positive(box.widths().bottom()) + arcBottom + reachV + SAFETY_MARGIN;
+        final float left   = _positive(box.margin().left())   + _positive(box.baseOutline().left())   + _positive(box.widths().left())   + arcLeft   + reachH + SAFETY_MARGIN;
+
+        return Outline.of(
+                    (float) Math.ceil(top),
+                    (float) Math.ceil(right),
+                    (float) Math.ceil(bottom),
+                    (float) Math.ceil(left)
+                );
+    }
+
+    /**
+     *  The size of the exemplar for the supplied slice insets, which is symmetric for the same
+     *  reason the exemplars of the {@link LayerPartitionCache} are: the corner gradients of a
+     *  shadow are clipped at the center of the shadow, which has to fall into the stretch band.
+     */
+    private static Size _exemplarSize( Outline insets ) {
+        final float maxHorizontal = Math.max(insets.left().orElse(0f), insets.right().orElse(0f));
+        final float maxVertical   = Math.max(insets.top().orElse(0f),  insets.bottom().orElse(0f));
+        return Size.of(
+                    2 * maxHorizontal + STRETCH_BAND,
+                    2 * maxVertical   + STRETCH_BAND
+                );
+    }
+
+    private static float _positive( Optional<Float> value ) {
+        return Math.max(0f, value.orElse(0f));
+    }
+
+    private static float _arcWidth( Optional<Arc> arc ) {
+        return arc.map( a -> Math.max(0f, a.width()) ).orElse(0f);
+    }
+
+    private static float _arcHeight( Optional<Arc> arc ) {
+        return arc.map( a -> Math.max(0f, a.height()) ).orElse(0f);
+    }
+
+    /**
+     *  Identifies a mask by everything its pixels depend on: the shadow, the box model
+     *  it is cast by (at the size of the exemplar), the device scale it is rendered at
+     *  and whether it is antialiased.
+     */
+    private static final class MaskKey
+    {
+        private final BoxModelConf _boxModel;
+        private final ShadowConf   _shadow;
+        private final int          _scaleX;
+        private final int          _scaleY;
+        private final boolean      _isAntialiased;
+
+        MaskKey( BoxModelConf boxModel, ShadowConf shadow, int scaleX, int scaleY, boolean isAntialiased ) {
+            _boxModel      = boxModel;
+            _shadow        = shadow;
+            _scaleX        = scaleX;
+            _scaleY        = scaleY;
+            _isAntialiased = isAntialiased;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !(o instanceof MaskKey) ) return false;
+            final MaskKey other = (MaskKey) o;
+            return _scaleX        == other._scaleX        &&
+                   _scaleY        == other._scaleY        &&
+                   _isAntialiased == other._isAntialiased &&
+                   _shadow.equals(other._shadow)          &&
+                   _boxModel.equals(other._boxModel);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_boxModel, _shadow, _scaleX, _scaleY, _isAntialiased);
+        }
+    }
+
+    /**
+     *  The exemplar rendering of a shadow, sliced into its four corners, which are blitted
+     *  straight out of the exemplar, and its four edges and its center, each of which is
+     *  a single pixel wide slice of the exemplar in a dedicated image. Like the stretch tiles
+     *  of the {@link LayerPartitionCache}, the stretched slices are whole images, because a
+     *  scaled blit out of a sub-rectangle of a larger image is not reliable on every pipeline.
+     */
+    private static final class Mask extends CacheLedger.Charge
+    {
+        private final MaskKey                 _key;
+        private final BufferedImage           _exemplar;
+        private final BufferedImage           _top;
+        private final BufferedImage           _right;
+        private final BufferedImage           _bottom;
+        private final BufferedImage           _left;
+        private final @Nullable BufferedImage _center; // null if the center is fully transparent
+        private final int                     _insetTop;
+        private final int                     _insetRight;
+        private final int                     _insetBottom;
+        private final int                     _insetLeft;
+
+        /**
+         *  Renders the shadow cast by the exemplar through the {@link StyleRenderer}, under the device
+         *  scale of the key, and slices it up.
+         *
+         * @param exemplarConf The render configuration of the layer, at the size of the exemplar.
+         */
+        static Mask render(
+            final LayerRenderConf exemplarConf,
+            final ShadowConf      shadow,
+            final Outline         insets,
+            final MaskKey         key,
+            final Graphics2D      destination
+        ) {
+            final int width  = (int) exemplarConf.boxModel().size().widthOrElse(0f)  * key._scaleX;
+            final int height = (int) exemplarConf.boxModel().size().heightOrElse(0f) * key._scaleY;
+            final GraphicsConfiguration gc = destination.getDeviceConfiguration();
+            final BufferedImage exemplar = _allocate(gc, width, height);
+            final Graphics2D g = exemplar.createGraphics();
+            try {
+                g.setRenderingHints(destination.getRenderingHints());
+                g.scale(key._scaleX, key._scaleY);
+                StyleRenderer.renderShadowExactly(exemplarConf, shadow, g);
+            } finally {
+                g.dispose();
+            }
+            return new Mask(
+                        gc, key, exemplar,
+                        (int) _positive(insets.top())    * key._scaleY,
+                        (int) _positive(insets.right())  * key._scaleX,
+                        (int) _positive(insets.bottom()) * key._scaleY,
+                        (int) _positive(insets.left())   * key._scaleX
+                    );
+        }
+
+        private Mask(
+            final @Nullable GraphicsConfiguration gc,
+            final MaskKey       key,
+            final BufferedImage exemplar,
+            final int insetTop, final int insetRight, final int insetBottom, final int insetLeft
+        ) {
+            super(CacheBudget.Kind.SHADOW_GRADIENT);
+            final int width  = exemplar.getWidth();
+            final int height = exemplar.getHeight();
+            _key         = key;
+            _exemplar    = exemplar;
+            _insetTop    = insetTop;
+            _insetRight  = insetRight;
+            _insetBottom = insetBottom;
+            _insetLeft   = insetLeft;
+            // Everything between the insets is homogeneous along the stretched axis, so one pixel of it will do:
+            _top    = _slice(gc, exemplar, insetLeft,          0,                    1,          insetTop   );
+            _right  = _slice(gc, exemplar, width - insetRight, insetTop,             insetRight, 1          );
+            _bottom = _slice(gc, exemplar, insetLeft,          height - insetBottom, 1,          insetBottom);
+            _left   = _slice(gc, exemplar, 0,                  insetTop,             insetLeft,  1          );
+            _center = ( exemplar.getRGB(insetLeft, insetTop) >>> 24 ) == 0
+                        ? null
+                        : _slice(gc, exemplar, insetLeft, insetTop, 1, 1);
+        }
+
+        private static BufferedImage _allocate( @Nullable GraphicsConfiguration gc, int width, int height ) {
+            return ( gc != null )
+                    ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        private static BufferedImage _slice(
+            final @Nullable GraphicsConfiguration gc,
+            final BufferedImage source,
+            final int x, final int y, final int width, final int height
+        ) {
+            final BufferedImage slice = _allocate(gc, Math.max(1, width), Math.max(1, height));
+            final Graphics2D g = slice.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Src); // exact pixel copy, including alpha
+                g.drawImage(source, 0, 0, width, height, x, y, x + width, y + height, null);
+            } finally {
+                g.dispose();
+            }
+            return slice;
+        }
+
+        long bytes() {
+            long pixels = (long) _exemplar.getWidth() * _exemplar.getHeight()
+                        + _top.getHeight() + _bottom.getHeight() + _left.getWidth() + _right.getWidth()
+                        + ( _center != null ? 1 : 0 );
+            return pixels * BYTES_PER_PIXEL;
+        }
+
+        @Override
+        void evict() {
+            synchronized ( _CACHE ) {
+                if ( _CACHE.get(_key) == this )
+                    _CACHE.remove(_key);
+            }
+        }
+
+        /**
+         *  Reassembles the shadow in device space.
+         *
+         * @param g The graphics to draw into, whose transform is pixel aligned.
+         * @param x The device space x coordinate of the component.
+         * @param y The device space y coordinate of the component.
+         * @param width The device space width of the component.
+         * @param height The device space height of the component.
+         */
+        void paint( Graphics2D g, int x, int y, int width, int height ) {
+            // The cut lines in device space and in the exemplar:
+            final int[] dx = { x, x + _insetLeft, x + width  - _insetRight,  x + width  };
+            final int[] dy = { y, y + _insetTop,  y + height - _insetBottom, y + height };
+            final int[] sx = { 0, _insetLeft, _exemplar.getWidth()  - _insetRight,  _exemplar.getWidth()  };
+            final int[] sy = { 0, _insetTop,  _exemplar.getHeight() - _insetBottom, _exemplar.getHeight() };
+
+            final Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setTransform(new AffineTransform()); // We draw in device space.
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                // The four corners, 1:1 sub-rectangle copies from the exemplar:
+                g2.drawImage(_exemplar, dx[0], dy[0], dx[1], dy[1], sx[0], sy[0], sx[1], sy[1], null); // top-left
+                g2.drawImage(_exemplar, dx[2], dy[0], dx[3], dy[1], sx[2], sy[0], sx[3], sy[1], null); // top-right
+                g2.drawImage(_exemplar, dx[0], dy[2], dx[1], dy[3], sx[0], sy[2], sx[1], sy[3], null); // bottom-left
+                g2.drawImage(_exemplar, dx[2], dy[2], dx[3], dy[3], sx[2], sy[2], sx[3], sy[3], null); // bottom-right
+                // The stretched edges and center:
+                _drawStretched(g2, _top,    dx[1], dy[0], dx[2], dy[1]);
+                _drawStretched(g2, _left,   dx[0], dy[1], dx[1], dy[2]);
+                _drawStretched(g2, _center, dx[1], dy[1], dx[2], dy[2]);
+                _drawStretched(g2, _right,  dx[2], dy[1], dx[3], dy[2]);
+                _drawStretched(g2, _bottom, dx[1], dy[2], dx[2], dy[3]);
+            } finally {
+                g2.dispose();
+            }
+        }
+
+        private static void _drawStretched(
+            final Graphics2D g2, final @Nullable BufferedImage slice,
+            final int dx1, final int dy1, final int dx2, final int dy2
+        ) {
+            if ( slice == null || dx2 <= dx1 || dy2 <= dy1 )
+                return; // Nothing to draw (a negative span would mirror the image!).
+            g2.drawImage(slice, dx1, dy1, dx2, dy2, 0, 0, slice.getWidth(), slice.getHeight(), null);
+        }
+    }
+}
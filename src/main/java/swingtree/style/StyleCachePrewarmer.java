@@ -0,0 +1,207 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swingtree.SwingTree;
+import swingtree.UI;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ *  Renders the style layer cache entries of a whole component tree on background threads
+ *  before the tree is first painted, which is what
+ *  {@link ComponentExtension#prewarmStyleCaches(Component)} does. <br>
+ *  <br>
+ *  Without this, the first paint of a large view misses the cache for every one of its heavily
+ *  styled components, and since a large entry is only allocated after a warm-up of cache hits,
+ *  the first few frames rasterize all of them from scratch on the Event Dispatch Thread.
+ *  Prewarming does the very same rasterization ahead of time and in parallel, so that the
+ *  first frame merely blits finished images.
+ *
+ *  <h2>What is rendered</h2>
+ *  The walk installs the style of every component (exactly like its first paint would)
+ *  on the calling thread, which is the UI thread, because that means running the stylers,
+ *  which read component state. This validates the layer caches of the components against
+ *  their current bounds, which is why the tree has to be laid out (packed) already: the
+ *  entries found that way are precisely the ones the first paint is going to ask for, with
+ *  the size independent exemplar of a stretch tiled layer standing in for its actual size
+ *  (see {@link LayerPartitionCache}). Only entries the cache admits are rendered,
+ *  and nothing which is not worth caching is forced into it. <br>
+ *  Layers with custom {@link swingtree.api.Painter}s or images are never prewarmed, because
+ *  painters and icons are user code which is only ever expected to run on the UI thread.
+ *  They are rendered by the first paints, as usual.
+ *
+ *  <h2>Budget</h2>
+ *  An entry is only rendered if the {@link CacheLedger} can take its bytes without going beyond
+ *  {@link CacheBudget#totalBudgetBytes()}, counting the entries other prewarming threads are
+ *  rendering at the same time. So prewarming does not evict anything to make room for
+ *  entries which are, after all, only expected to be used. Entries are rendered in the order
+ *  of the walk (parents before their children), and as soon as the budget is exhausted, the
+ *  rest is left to the regular warm-up.
+ *
+ *  <h2>Cancellation</h2>
+ *  The returned {@link Future} completes with the number of entries which were rendered.
+ *  Cancelling it stops every entry which has not started rendering yet, the ones already
+ *  being rendered are finished (a rasterization cannot be interrupted halfway).
+ *  An entry which a paint claims first is simply skipped, so prewarming and painting
+ *  never render the same entry twice.
+ */
+final class StyleCachePrewarmer
+{
+    private static final Logger log = LoggerFactory.getLogger(StyleCachePrewarmer.class);
+
+    private static final int MAX_THREADS = 4;
+
+    private static final ThreadPoolExecutor _EXECUTOR = DaemonThreadPools.newPool(
+                                                            "SwingTree-Cache-Prewarmer", MAX_THREADS, Thread.NORM_PRIORITY - 1
+                                                        );
+
+    /** The bytes of the entries being prewarmed right now, which the ledger does not know of yet. */
+    private static long _reservedBytes = 0; // Guarded by the class monitor.
+
+    private StyleCachePrewarmer() {}
+
+    /**
+     *  Walks the supplied component tree on the UI thread and renders the cache entries
+     *  it finds on background threads, see the class documentation.
+     */
+    static Future<Integer> prewarm( Component root ) {
+        Objects.requireNonNull(root);
+        final List<Job> jobs = UI.thisIsUIThread() ? _collectJobs(root) : UI.runAndGet(() -> _collectJobs(root));
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        if ( jobs.isEmpty() ) {
+            result.complete(0);
+            return result;
+        }
+        final AtomicInteger remaining = new AtomicInteger(jobs.size());
+        final AtomicInteger rendered  = new AtomicInteger(0);
+        for ( Job job : jobs ) {
+            _EXECUTOR.execute(() -> {
+                try {
+                    if ( !result.isDone() && job.run() )
+                        rendered.incrementAndGet();
+                } catch ( Exception e ) {
+                    log.error(SwingTree.get().logMarker(), "Failed to prewarm a style layer cache entry.", e);
+                } finally {
+                    if ( remaining.decrementAndGet() == 0 )
+                        result.complete(rendered.get());
+                }
+            });
+        }
+        return result;
+    }
+
+    private static List<Job> _collectJobs( Component root ) {
+        final List<Job> jobs = new ArrayList<>();
+        final List<LayerPartitionCache.Prewarming> prewarmings = new ArrayList<>();
+        _collectJobs(root, prewarmings, jobs);
+        return jobs;
+    }
+
+    private static void _collectJobs(
+        Component                            component,
+        List<LayerPartitionCache.Prewarming> prewarmings,
+        List<Job>                            jobs
+    ) {
+        if ( component instanceof JComponent ) {
+            final JComponent jComponent = (JComponent) component;
+            final Object extension = jComponent.getClientProperty(ComponentExtension.class);
+            if ( extension instanceof ComponentExtension && jComponent.getWidth() > 0 && jComponent.getHeight() > 0 ) {
+                prewarmings.clear();
+                ((ComponentExtension<?>) extension).collectPrewarmings(prewarmings);
+                if ( !prewarmings.isEmpty() ) {
+                    final GraphicsSetup setup = new GraphicsSetup(jComponent);
+                    for ( LayerPartitionCache.Prewarming prewarming : prewarmings )
+                        jobs.add(new Job(prewarming, jComponent.getGraphicsConfiguration(), setup));
+                }
+            }
+        }
+        if ( component instanceof Container )
+            for ( Component child : ((Container) component).getComponents() )
+                _collectJobs(child, prewarmings, jobs);
+    }
+
+    private static final class Job
+    {
+        private final LayerPartitionCache.Prewarming  _prewarming;
+        private final @Nullable GraphicsConfiguration _gc;
+        private final GraphicsSetup                   _setup;
+
+        Job( LayerPartitionCache.Prewarming prewarming, @Nullable GraphicsConfiguration gc, GraphicsSetup setup ) {
+            _prewarming = prewarming;
+            _gc         = gc;
+            _setup      = setup;
+        }
+
+        boolean run() {
+            final long bytes = _prewarming.bytes();
+            if ( !_tryReserve(bytes) )
+                return false; // Making room would mean evicting what is actually in use.
+            try {
+                return _prewarming.render(_gc, _setup);
+            } finally {
+                _release(bytes);
+            }
+        }
+    }
+
+    private static synchronized boolean _tryReserve( long bytes ) {
+        if ( CacheLedger.chargedBytes() + _reservedBytes + bytes > CacheBudget.totalBudgetBytes() )
+            return false;
+        _reservedBytes += bytes;
+        return true;
+    }
+
+    private static synchronized void _release( long bytes ) {
+        _reservedBytes -= bytes;
+    }
+
+    /**
+     *  What a paint would have transferred to the graphics context of a cache image from the
+     *  graphics context Swing hands to the component (see {@link StyleUtil#transferConfigurations}),
+     *  captured on the UI thread: the font and colors of the component, and the antialiasing
+     *  the style engine switches on for every layer.
+     */
+    private static final class GraphicsSetup implements Consumer<Graphics2D>
+    {
+        private final @Nullable Font  _font;
+        private final @Nullable Color _foreground;
+        private final @Nullable Color _background;
+        private final boolean         _antialiasing;
+
+        GraphicsSetup( JComponent component ) {
+            _font         = component.getFont();
+            _foreground   = component.getForeground();
+            _background   = component.getBackground();
+            _antialiasing = StyleEngine.IS_ANTIALIASING_ENABLED();
+        }
+
+        @Override
+        public void accept( Graphics2D g ) {
+            if ( _font != null )
+                g.setFont(_font);
+            if ( _foreground != null )
+                g.setColor(_foreground);
+            if ( _background != null )
+                g.setBackground(_background);
+            if ( _antialiasing )
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+    }
+}
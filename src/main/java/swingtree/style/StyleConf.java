@@ -152,6 +152,8 @@ public final class StyleConf
 
     StyleConfLayers layers() { return _layers; }
 
+    NamedConfigs<String> namedProperties() { return _properties; }
+
     StyleConfLayer layer(UI.Layer layer ) { return _layers.get(layer); }
 
     /**
@@ -225,16 +227,7 @@ public final class StyleConf
     }
 
     StyleConf painter(UI.Layer layer, UI.ComponentArea area, String painterName, Painter painter ) {
-        Objects.requireNonNull(painterName);
-        Objects.requireNonNull(painter);
-        // We clone the painter map:
-        NamedConfigs<PainterConf> newPainters = _layers.get(layer)
-                                                    .painters()
-                                                    .withNamedStyle(
-                                                        painterName, // Existing painters are overwritten if they have the same name.
-                                                        PainterConf.of(painter, area)
-                                                    ); 
-        return _withPainters(layer, newPainters);
+        return _withLayers(_layers.painter(layer, area, painterName, painter));
     }
 
     boolean hasPaintersOnLayer( UI.Layer layer ) {
@@ -344,7 +337,7 @@ public final class StyleConf
     }
 
     StyleConf _withShadow( UI.Layer layer, NamedConfigs<ShadowConf> shadows ) {
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withShadows(shadows)), _properties);
+        return _withLayers(_layers.shadows(layer, shadows));
     }
 
     StyleConf _withProperties( NamedConfigs<String> properties ) {
@@ -355,31 +348,11 @@ public final class StyleConf
     }
 
     StyleConf _withShadow( UI.Layer layer, Configurator<ShadowConf> styler ) {
-        // A new map is created where all the styler is applied to all the values:
-        NamedConfigs<ShadowConf> styledShadows = _layers.get(layer).shadows().mapStyles(styler);
-        return _withShadow(layer, styledShadows);
+        return _withLayers(_layers.shadows(layer, styler));
     }
 
     StyleConf _withShadow( Configurator<ShadowConf> styler ) {
-        return _withLayers(_layers.map( layer -> layer.withShadows(layer.shadows().mapStyles(styler)) ));
-    }
-
-    StyleConf _withGradients( UI.Layer layer, NamedConfigs<GradientConf> shades ) {
-        Objects.requireNonNull(shades);
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withGradients(shades)), _properties);
-    }
-
-    StyleConf _withNoises( UI.Layer layer, NamedConfigs<Pooled<NoiseConf>> noises ) {
-        Objects.requireNonNull(noises);
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withNoises(noises)), _properties);
-    }
-
-    StyleConf _withImages( UI.Layer layer, NamedConfigs<ImageConf> images ) {
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withImages(images)), _properties);
-    }
-
-    StyleConf _withTexts( UI.Layer layer, NamedConfigs<TextConf> texts ) {
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withTexts(texts)), _properties);
+        return _withLayers(_layers.shadows(styler));
     }
 
     StyleConf _withLayers( StyleConfLayers layers ) {
@@ -389,11 +362,6 @@ public final class StyleConf
         return StyleConf.of(_layout, _border, _base, _font, _dimensionality, layers, _properties);
     }
 
-    StyleConf _withPainters( UI.Layer layer, NamedConfigs<PainterConf> painters ) {
-        Objects.requireNonNull(painters);
-        return StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers.with(layer, _layers.get(layer).withPainters(painters)), _properties);
-    }
-
     StyleConf property( String key, String value ) {
         Objects.requireNonNull(key);
         Objects.requireNonNull(value);
@@ -407,17 +375,7 @@ public final class StyleConf
     }
 
     StyleConf gradient( UI.Layer layer, String shadeName, Configurator<GradientConf> styler ) {
-        Objects.requireNonNull(shadeName);
-        Objects.requireNonNull(styler);
-        GradientConf gradConf = _layers.get(layer).gradients().find(shadeName).orElse(GradientConf.none());
-        // We clone the shadow map:
-        try {
-            gradConf = styler.configure(gradConf);
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "Failed to configure gradient '{}' for layer '{}'", shadeName, layer, e);
-        }
-        NamedConfigs<GradientConf> newShadows = _layers.get(layer).gradients().withNamedStyle(shadeName, gradConf);
-        return _withGradients(layer, newShadows);
+        return _withLayers(_layers.gradient(layer, shadeName, styler));
     }
 
     GradientConf gradient( UI.Layer layer, String gradName ) {
@@ -429,31 +387,11 @@ public final class StyleConf
     }
 
     StyleConf noise( UI.Layer layer, String noiseName, Configurator<NoiseConf> styler ) {
-        Objects.requireNonNull(noiseName);
-        Objects.requireNonNull(styler);
-        NoiseConf noise = _layers.get(layer).noises().find(noiseName).map(Pooled::get).orElse(NoiseConf.none());
-        try {
-            noise = styler.configure(noise);
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "Failed to configure noise '{}' for layer '{}'", noiseName, layer, e);
-        }
-        // We clone the noise map:
-        NamedConfigs<Pooled<NoiseConf>> newNoises = _layers.get(layer).noises().withNamedStyle(noiseName, new Pooled<>(noise));
-        return _withNoises(layer, newNoises);
+        return _withLayers(_layers.noise(layer, noiseName, styler));
     }
 
     StyleConf images(UI.Layer layer, String imageName, Configurator<ImageConf> styler ) {
-        Objects.requireNonNull(imageName);
-        Objects.requireNonNull(styler);
-        ImageConf ground = _layers.get(layer).images().find(imageName).orElse(ImageConf.none());
-        try {
-            ground = styler.configure(ground);
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "Failed to configure image '{}' for layer '{}'", imageName, layer, e);
-        }
-        // We clone the ground map:
-        NamedConfigs<ImageConf> newImages = _layers.get(layer).images().withNamedStyle(imageName, ground);
-        return _withImages( layer, newImages );
+        return _withLayers(_layers.images(layer, imageName, styler));
     }
 
     List<ImageConf> images( UI.Layer layer ) {
@@ -461,21 +399,11 @@ public final class StyleConf
     }
 
     StyleConf text(UI.Layer layer, String textName, Configurator<TextConf> styler ) {
-        Objects.requireNonNull(textName);
-        Objects.requireNonNull(styler);
-        TextConf text = _layers.get(layer).texts().find(textName).orElse(TextConf.none());
-        try {
-            text = styler.configure(text);
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "Failed to configure text '{}' for layer '{}'", textName, layer, e);
-        }
-        // We clone the text map:
-        NamedConfigs<TextConf> newTexts = _layers.get(layer).texts().withNamedStyle(textName, text);
-        return _withTexts( layer, newTexts );
+        return _withLayers(_layers.text(layer, textName, styler));
     }
 
     StyleConf text( Configurator<TextConf> styler ) {
-        return _withLayers(_layers.map( layer -> layer.withTexts(layer.texts().mapStyles(styler)) ));
+        return _withLayers(_layers.text(styler));
     }
 
     List<TextConf> texts( UI.Layer layer ) {
@@ -506,8 +434,18 @@ public final class StyleConf
     }
 
 
+    /**
+     *  Tells whether any layer of this style renders text, which is what makes the
+     *  style depend on the children and the bounds of the component (see
+     *  {@link #determineTextConfObstaclesFromChildrenOf(JComponent)} and
+     *  {@link #determinePreferredHeightFromTextConfigs(JComponent)}).
+     */
+    boolean hasStyledText() {
+        return _layers.any((layer, conf) -> conf.texts().any(named -> !named.style().isNone()));
+    }
+
     public <C extends JComponent> StyleConf determineTextConfObstaclesFromChildrenOf( C owner ) {
-        boolean hasStyledText = _layers.any((layer, conf) -> conf.texts().any(named -> !named.style().isNone()));
+        boolean hasStyledText = hasStyledText();
         if ( !hasStyledText || owner.getComponentCount() <= 0 )
             return this;
         StyleConfLayers newLayers = _layers.map( s -> s
@@ -527,7 +465,7 @@ public final class StyleConf
     }
 
     StyleConf determinePreferredHeightFromTextConfigs(JComponent owner) {
-        boolean hasStyledText = _layers.any((layer, conf) -> conf.texts().any(named -> !named.style().isNone()));
+        boolean hasStyledText = hasStyledText();
         if ( !hasStyledText )
             return this;
         // We look for text configs with non-empty contents and compute the preferred height from those:
@@ -554,6 +492,21 @@ public final class StyleConf
                Objects.equals(_border.padding(), otherStyle._border.padding());
     }
 
+    /**
+     *  Whether this style lays out its component exactly like the other one,
+     *  which is the case if they only differ in how they paint it (colors, shadows,
+     *  gradients, painters...), and not in their layout, margin, padding,
+     *  border widths, font or dimensionality.
+     *  If so, a change from one to the other merely needs a repaint, but no revalidation.
+     */
+    boolean hasEqualLayoutRelevantPartsAs( StyleConf otherStyle ) {
+        return hasEqualLayoutAs(otherStyle)                                      &&
+               hasEqualMarginAndPaddingAs(otherStyle)                            &&
+               Objects.equals(_border.widths(), otherStyle._border.widths())    &&
+               hasEqualFontAs(otherStyle)                                        &&
+               hasEqualDimensionalityAs(otherStyle);
+    }
+
     boolean hasEqualBorderAs( StyleConf otherStyle ) {
         return Objects.equals(_border, otherStyle._border);
     }
@@ -714,12 +667,46 @@ public final class StyleConf
         return hash;
     }
 
+    /**
+     *  Returns the canonical instance of this style, which is this very instance unless an
+     *  equal style is already held by some component (see {@link ObjectPool#internValue(Object)}).
+     *  Gathering a style creates a new instance every time, even if nothing about the style
+     *  changed, which is by far the most common case when a component repaints. Interning it
+     *  turns the check whether it changed into a reference comparison, and since the canonical
+     *  instance keeps the sub-configurations of the previous gathering (layers, named configs
+     *  and their lazily cached hash codes), the downstream render caches are keyed by objects
+     *  whose hashes are already known. Sub-configurations are not interned on their own though,
+     *  an equal layer of a style which did change is still a fresh copy which is hashed once. <br>
+     *  Interning is not free though, it hashes the whole style and compares it deeply with
+     *  the canonical instance, which only pays off if the style is not gathered on every
+     *  paint cycle. So styles are only interned if style memoization is enabled
+     *  (see {@link SwingTree#isStyleMemoizationEnabled()}), where they are only gathered
+     *  if one of the inputs of the stylers changed, otherwise this returns this very instance.
+     *
+     * @return The canonical instance equal to this style, or this style if interning is disabled.
+     */
+    StyleConf _interned() {
+        if ( this == _NONE || !StyleGatherMemo.isEnabled() )
+            return this;
+        return ObjectPool.get().internValue(this);
+    }
+
     @Override
     public boolean equals( Object obj ) {
         if ( obj == this ) return true;
         if ( obj == null ) return false;
         if ( !(obj instanceof StyleConf) ) return false;
         StyleConf other = (StyleConf) obj;
+        /*
+            Two styles with different hashes cannot be equal, so an already computed pair of
+            them settles the question without the deep comparison below. Gathered styles are
+            hashed when they are interned (see _interned()), so this is what makes a changed
+            style cheap to tell apart from the one it replaces.
+        */
+        final int thisHash  = _hashCode;
+        final int otherHash = other._hashCode;
+        if ( thisHash != 0 && otherHash != 0 && thisHash != otherHash )
+            return false;
         return hasEqualLayoutAs(other)         &&
                hasEqualBorderAs(other)         &&
                hasEqualBaseAs(other)           &&
@@ -177,6 +177,15 @@ final class StyleConfLayer implements Simplifiable<StyleConfLayer>
         return _noises.any( noise -> noise.style().get().colors().length > 0 );
     }
 
+    /**
+     *  Whether rendering this layer calls into code or resources supplied by the user,
+     *  namely custom {@link swingtree.api.Painter}s and image icons, which may only
+     *  expect to be painted on the UI thread.
+     */
+    boolean hasPaintersOrImages() {
+        return _painters.size() > 0 || _images.size() > 0;
+    }
+
     public boolean hasPaintersWhichCannotBeCached() {
         return _painters.any( p -> !p.style().painter().canBeCached() );
     }
@@ -191,12 +200,16 @@ final class StyleConfLayer implements Simplifiable<StyleConfLayer>
 
     @Override
     public boolean equals( Object other ) {
+        if ( other == this )
+            return true;
         if ( other == null )
             return false;
         if ( other.getClass() != this.getClass() )
             return false;
 
         StyleConfLayer otherLayer = (StyleConfLayer) other;
+        if ( _hashCode != 0 && otherLayer._hashCode != 0 && _hashCode != otherLayer._hashCode )
+            return false; // Different cached hashes settle it without a deep comparison.
         return
             Objects.equals(this._shadows,   otherLayer._shadows)   &&
             Objects.equals(this._painters,  otherLayer._painters)  &&
@@ -7,6 +7,7 @@ import sprouts.Pair;
 import swingtree.SwingTree;
 import swingtree.UI;
 import swingtree.api.Configurator;
+import swingtree.api.Painter;
 import swingtree.layout.Bounds;
 
 import javax.swing.JComponent;
@@ -128,6 +129,83 @@ final class StyleConfLayers
         }
     }
 
+    StyleConfLayers painter( UI.Layer layer, UI.ComponentArea area, String painterName, Painter painter ) {
+        Objects.requireNonNull(painterName);
+        Objects.requireNonNull(painter);
+        StyleConfLayer layerConf = get(layer);
+        // Existing painters are overwritten if they have the same name:
+        return with(layer, layerConf.withPainters(layerConf.painters().withNamedStyle(painterName, PainterConf.of(painter, area))));
+    }
+
+    StyleConfLayers shadows( UI.Layer layer, NamedConfigs<ShadowConf> shadows ) {
+        return with(layer, get(layer).withShadows(shadows));
+    }
+
+    StyleConfLayers shadows( UI.Layer layer, Configurator<ShadowConf> styler ) {
+        // A new map is created where all the styler is applied to all the values:
+        return shadows(layer, get(layer).shadows().mapStyles(styler));
+    }
+
+    StyleConfLayers shadows( Configurator<ShadowConf> styler ) {
+        return map( layer -> layer.withShadows(layer.shadows().mapStyles(styler)) );
+    }
+
+    StyleConfLayers gradient( UI.Layer layer, String gradientName, Configurator<GradientConf> styler ) {
+        Objects.requireNonNull(gradientName);
+        Objects.requireNonNull(styler);
+        StyleConfLayer layerConf = get(layer);
+        GradientConf gradient = layerConf.gradients().find(gradientName).orElse(GradientConf.none());
+        try {
+            gradient = styler.configure(gradient);
+        } catch (Exception e) {
+            log.error(SwingTree.get().logMarker(), "Failed to configure gradient '{}' for layer '{}'", gradientName, layer, e);
+        }
+        return with(layer, layerConf.withGradients(layerConf.gradients().withNamedStyle(gradientName, gradient)));
+    }
+
+    StyleConfLayers noise( UI.Layer layer, String noiseName, Configurator<NoiseConf> styler ) {
+        Objects.requireNonNull(noiseName);
+        Objects.requireNonNull(styler);
+        StyleConfLayer layerConf = get(layer);
+        NoiseConf noise = layerConf.noises().find(noiseName).map(Pooled::get).orElse(NoiseConf.none());
+        try {
+            noise = styler.configure(noise);
+        } catch (Exception e) {
+            log.error(SwingTree.get().logMarker(), "Failed to configure noise '{}' for layer '{}'", noiseName, layer, e);
+        }
+        return with(layer, layerConf.withNoises(layerConf.noises().withNamedStyle(noiseName, new Pooled<>(noise))));
+    }
+
+    StyleConfLayers images( UI.Layer layer, String imageName, Configurator<ImageConf> styler ) {
+        Objects.requireNonNull(imageName);
+        Objects.requireNonNull(styler);
+        StyleConfLayer layerConf = get(layer);
+        ImageConf image = layerConf.images().find(imageName).orElse(ImageConf.none());
+        try {
+            image = styler.configure(image);
+        } catch (Exception e) {
+            log.error(SwingTree.get().logMarker(), "Failed to configure image '{}' for layer '{}'", imageName, layer, e);
+        }
+        return with(layer, layerConf.withImages(layerConf.images().withNamedStyle(imageName, image)));
+    }
+
+    StyleConfLayers text( UI.Layer layer, String textName, Configurator<TextConf> styler ) {
+        Objects.requireNonNull(textName);
+        Objects.requireNonNull(styler);
+        StyleConfLayer layerConf = get(layer);
+        TextConf text = layerConf.texts().find(textName).orElse(TextConf.none());
+        try {
+            text = styler.configure(text);
+        } catch (Exception e) {
+            log.error(SwingTree.get().logMarker(), "Failed to configure text '{}' for layer '{}'", textName, layer, e);
+        }
+        return with(layer, layerConf.withTexts(layerConf.texts().withNamedStyle(textName, text)));
+    }
+
+    StyleConfLayers text( Configurator<TextConf> styler ) {
+        return map( layer -> layer.withTexts(layer.texts().mapStyles(styler)) );
+    }
+
     /**
      *  Tests if the predicate returns true for any of the {@link UI.Layer}s and their
      *  corresponding {@link StyleConfLayer}s in this {@link StyleConfLayers} object.
@@ -283,6 +361,8 @@ final class StyleConfLayers
         if ( !(obj instanceof StyleConfLayers) ) return false;
 
         StyleConfLayers other = (StyleConfLayers) obj;
+        if ( _hashCode != 0 && other._hashCode != 0 && _hashCode != other._hashCode )
+            return false; // Different cached hashes settle it without a deep comparison.
         return Objects.equals(_filter,     other._filter)
             && Objects.equals(_background, other._background)
             && Objects.equals(_content,    other._content)
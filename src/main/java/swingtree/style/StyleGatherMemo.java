@@ -0,0 +1,448 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swingtree.SwingTree;
+import swingtree.UI;
+
+import javax.swing.AbstractButton;
+import javax.swing.ButtonModel;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.text.JTextComponent;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Objects;
+
+/**
+ *  Remembers the outcome of the last style gathering of one component (see
+ *  {@link StyleSource#gatherStyleFor(JComponent, StyleGatherMemo, boolean)}) together with
+ *  the inputs that gathering depended on, so that a repaint which changed none of them can
+ *  reuse the previous {@link StyleConf} instance instead of running every styler again. <br>
+ *  <br>
+ *  <b>Which inputs are tracked.</b> A handful of inputs flow into every gathering and are
+ *  therefore always compared: the {@link StyleSource} itself (any new local styler, animation
+ *  styler or style sheet replaces it), the font inherited from the parent, the
+ *  {@link UI#scale()}, the component name (the style sheet id) and a global epoch which
+ *  library configuration changes advance. Everything else is only compared if the last
+ *  gathering actually <i>read</i> it, which the {@link ComponentStyleDelegate} records as the
+ *  stylers go through it:
+ *  <ul>
+ *      <li>{@link #SIZE} - the component size, read through
+ *          {@link ComponentStyleDelegate#componentWidth()},
+ *          {@link ComponentStyleDelegate#componentHeight()} or
+ *          {@link ComponentStyleDelegate#shapeOf(UI.ComponentArea)}.</li>
+ *      <li>{@link #PREFERRED_SIZE} - the preferred size, read through
+ *          {@link ComponentStyleDelegate#componentPrefWidth()} or
+ *          {@link ComponentStyleDelegate#componentPrefHeight()}.</li>
+ *      <li>{@link #COMPONENT_STATE} - anything a styler may look at once it holds the
+ *          component itself (through {@code component()}, {@code parent()} or {@code peek(..)}).
+ *          What is compared then is the standard visual state of a Swing component: whether
+ *          it is enabled and focused, its parent, the state of a button model (selected,
+ *          rollover, pressed, armed), the text of a label or button and the document length
+ *          of a text component.</li>
+ *  </ul>
+ *  <b>A gathering with animation stylers is never reused</b>, because their progress is an
+ *  input which changes on every frame by definition. Neither is one in which a styler threw,
+ *  because the exception may well depend on something this does not see. <br>
+ *  <br>
+ *  <b>Dirty flags.</b> Comparing the inputs is cheap, but for the typical repaint of a large
+ *  view, in which nothing but a handful of components changed, even that is wasted on every
+ *  other component, as is the re-installation of their unchanged style. So once a gathering
+ *  was remembered and installed (see {@link #settle(JComponent)}), the memo listens to the
+ *  component itself: property changes (which includes the name, the font, the background,
+ *  the border and whether it is enabled or opaque), resizes and moves, focus changes, changes
+ *  to its place in the hierarchy and, for buttons, changes to their model. Any of these
+ *  marks the memo dirty. A component which is not dirty is <i>clean</i> (see
+ *  {@link #isClean(JComponent, StyleSource)}) and simply paints with its previously installed style. <br>
+ *  What happens to a component is not always visible to its own listeners though. A styler
+ *  which got hold of the component (see {@link #COMPONENT_STATE}) may have looked at its
+ *  parent or its siblings, which is why every dirty mark also advances the <i>style
+ *  epoch</i> of the window the component is in, and why such a component is only clean for
+ *  as long as the epoch of its window did not move. Changes to the font of a parent are
+ *  propagated to the children which inherit it by the {@link ComponentExtension} of the
+ *  parent. A gathering which read the preferred size (which fires no event when it
+ *  changes), which looked at a text component (whose document does not either) or which
+ *  produced styled text (which is laid out around the children of the component) is never
+ *  clean, but still compared input by input as described above. <br>
+ *  <br>
+ *  <b>Why this is opt-in</b> (see {@link SwingTree#setStyleMemoizationEnabled(boolean)}): a
+ *  styler is a plain lambda and may read state this cannot observe, a property captured from
+ *  a view model for example. Properties bound through {@code withStyle(Val, ..)} re-gather
+ *  the style explicitly when they change, which always bypasses this memo, but a styler
+ *  quietly reading a captured value on every repaint would see its change ignored until one
+ *  of the tracked inputs moves. Turning memoization on is therefore the promise that stylers
+ *  are functions of the inputs listed above. <br>
+ *  <br>
+ *  Like everything else about styling, this is confined to the UI thread.
+ */
+final class StyleGatherMemo
+{
+    private static final Logger log = LoggerFactory.getLogger(StyleGatherMemo.class);
+
+    static final int SIZE            = 1;
+    static final int PREFERRED_SIZE  = 1 << 1;
+    static final int COMPONENT_STATE = 1 << 2;
+
+    private static final int ENABLED  = 1;
+    private static final int FOCUSED  = 1 << 1;
+    private static final int SELECTED = 1 << 2;
+    private static final int ROLLOVER = 1 << 3;
+    private static final int PRESSED  = 1 << 4;
+    private static final int ARMED    = 1 << 5;
+
+    /** Lazily resolved "may gatherings be reused" flag from the library configuration, so
+     *  that the per-paint hot path never touches the {@link SwingTree} singleton. {@code null}
+     *  means "not resolved yet". */
+    private static volatile @Nullable Boolean _enabled = null;
+
+    /** Advanced whenever the library configuration may have changed, which makes every memo
+     *  in the process stale at once without having to find them. */
+    private static volatile int _globalEpoch = 0;
+
+    static boolean isEnabled() {
+        Boolean enabled = _enabled;
+        if ( enabled == null ) {
+            enabled = _resolveEnabled();
+            _enabled = enabled;
+        }
+        return enabled;
+    }
+
+    private static boolean _resolveEnabled() {
+        try {
+            return SwingTree.get().isStyleMemoizationEnabled();
+        } catch ( Throwable t ) {
+            log.debug("Could not resolve the style memoization flag from the SwingTree context; assuming disabled.", t);
+            return false;
+        }
+    }
+
+    /** Forces the next read of the flag to consult the live library configuration, and
+     *  invalidates every remembered gathering, in every component. */
+    static void markUnresolved() {
+        _enabled = null;
+        _globalEpoch++;
+    }
+
+    /**
+     *  The style epoch of a window (see the class documentation), stored as a client property
+     *  of its {@link JRootPane}. A plain mutable counter, because, like the memos pointing to
+     *  it, it is only ever touched on the UI thread.
+     */
+    static final class WindowEpoch
+    {
+        private int _value = 0;
+
+        private static @Nullable WindowEpoch of( JComponent component ) {
+            JRootPane rootPane = SwingUtilities.getRootPane(component);
+            if ( rootPane == null )
+                return null;
+            Object epoch = rootPane.getClientProperty(WindowEpoch.class);
+            if ( epoch instanceof WindowEpoch )
+                return (WindowEpoch) epoch;
+            WindowEpoch newEpoch = new WindowEpoch();
+            rootPane.putClientProperty(WindowEpoch.class, newEpoch);
+            return newEpoch;
+        }
+    }
+
+    /** The memo of the gathering which is currently running on the UI thread, if any. */
+    private static @Nullable StyleGatherMemo _recording = null;
+
+    /**
+     *  Records that a styler of the gathering currently running for the supplied component
+     *  read the given kind of input. Called by the {@link ComponentStyleDelegate} accessors,
+     *  and cheap enough for that: outside of a recorded gathering of that very component
+     *  it does nothing.
+     */
+    static void recordRead( JComponent component, int input ) {
+        StyleGatherMemo recording = _recording;
+        if ( recording != null && recording._recordedOwner == component )
+            recording._reads |= input;
+    }
+
+    private @Nullable StyleGatherMemo _outer         = null;
+    private @Nullable JComponent      _recordedOwner = null;
+    private int                       _reads         = 0;
+    private boolean                   _isReusable    = false;
+    private boolean                   _mayBeClean    = false;
+    private boolean                   _isDirty       = true;
+    private boolean                   _isListening   = false;
+    private @Nullable WindowEpoch     _windowEpoch   = null;
+    private int                       _windowEpochValue = 0;
+
+    private @Nullable StyleConf       _style       = null;
+    private @Nullable StyleSource<?>  _source      = null;
+    private FontConf                  _parentFont  = FontConf.none();
+    private @Nullable String          _name        = null;
+    private float                     _uiScale     = 0f;
+    private int                       _epoch       = 0;
+    private int                       _width       = 0;
+    private int                       _height      = 0;
+    private int                       _prefWidth   = 0;
+    private int                       _prefHeight  = 0;
+    private int                       _stateBits   = 0;
+    private @Nullable Container       _parent      = null;
+    private @Nullable String          _text        = null;
+    private int                       _textLength  = 0;
+
+    private int _skipCount   = 0;
+    private int _gatherCount = 0;
+
+
+    /** How many gatherings were skipped, because the component was clean or because the
+     *  remembered gathering could be reused, rather than executed. */
+    int skipCount() { return _skipCount; }
+
+    /** How many gatherings were actually executed for the component. */
+    int gatherCount() { return _gatherCount; }
+
+    /** Forgets the remembered gathering, so that the next one runs in full. */
+    void invalidate() {
+        _isReusable = false;
+        _isDirty    = true;
+        _style      = null;
+        _source     = null;
+        _parent     = null;
+    }
+
+    /**
+     *  Marks the component dirty, so that the start of its next paint cycle compares the
+     *  inputs of its remembered gathering again, and advances the style epoch of its window,
+     *  so that the components whose stylers may have looked at it do the same.
+     */
+    void markDirty() {
+        _isDirty = true;
+        WindowEpoch epoch = _windowEpoch;
+        if ( epoch != null )
+            epoch._value++;
+    }
+
+    /**
+     *  Tells whether nothing happened to the component since its remembered gathering was
+     *  installed which could change its style, in which case the whole style (re)installation
+     *  at the start of its paint cycle can be skipped. See the class documentation for what
+     *  this means exactly.
+     */
+    boolean isClean( JComponent owner, StyleSource<?> source ) {
+        if ( !_mayBeClean || _isDirty || !_isReusable || !isEnabled() || !UI.thisIsUIThread() )
+            return false;
+        if ( source != _source || _epoch != _globalEpoch || _uiScale != UI.scale() )
+            return false;
+        /*
+            Component and focus events are posted to the event queue rather than
+            delivered right away, so a paint may well come before them, which is
+            why the size and the state bits are compared directly (both are cheap).
+        */
+        if ( (_reads & SIZE) != 0 ) {
+            if ( _width != owner.getWidth() || _height != owner.getHeight() )
+                return false;
+        }
+        if ( (_reads & COMPONENT_STATE) != 0 ) {
+            WindowEpoch epoch = _windowEpoch;
+            if ( epoch == null || epoch._value != _windowEpochValue )
+                return false;
+            if ( _stateBits != _stateBitsOf(owner) )
+                return false;
+        }
+        _skipCount++;
+        return true;
+    }
+
+    /**
+     *  Called after the gathered style was installed on the component, which is the point
+     *  from which on the component is clean until one of its listeners marks it dirty.
+     *  Note that the installation itself may well have changed properties of the component,
+     *  which this deliberately ignores, because those changes are the consequence of the
+     *  very style which is now installed.
+     */
+    void settle( JComponent owner ) {
+        if ( !_isReusable || !isEnabled() || !UI.thisIsUIThread() )
+            return;
+        if ( !_isListening ) {
+            _isListening = true;
+            new ChangeObserver(this).listenTo(owner);
+        }
+        _windowEpoch      = WindowEpoch.of(owner);
+        _windowEpochValue = _windowEpoch == null ? 0 : _windowEpoch._value;
+        _isDirty          = false;
+    }
+
+    /**
+     *  Starts recording what the stylers of the supplied component read. Gatherings may nest
+     *  (a styler asking a child for its preferred size may well gather the style of that
+     *  child), which is why the memo of an enclosing gathering is put aside until this one
+     *  stops recording.
+     */
+    void startRecording( JComponent owner ) {
+        _outer         = _recording;
+        _recordedOwner = owner;
+        _reads         = 0;
+        _recording     = this;
+        _gatherCount++;
+    }
+
+    /**
+     *  Ends the recording started by {@link #startRecording(JComponent)} and remembers the supplied
+     *  outcome together with a snapshot of every input the gathering read. <br>
+     *  If the outcome may not be reused (see the class documentation for when that is), the
+     *  memo is merely invalidated, so that the next gathering runs in full again.
+     */
+    void stopRecordingAndRemember(
+        final StyleSource<?> source,
+        final JComponent     owner,
+        final FontConf       parentFont,
+        final StyleConf      style,
+        final boolean        isReusable
+    ) {
+        _recording     = _outer;
+        _outer         = null;
+        _recordedOwner = null;
+        if ( !isReusable || !isEnabled() ) {
+            invalidate();
+            return;
+        }
+        _isReusable = true;
+        _mayBeClean = (_reads & PREFERRED_SIZE) == 0 &&
+                      !style.hasStyledText() &&
+                      !( (_reads & COMPONENT_STATE) != 0 && owner instanceof JTextComponent );
+        _style      = style;
+        _source     = source;
+        _parentFont = parentFont;
+        _name       = owner.getName();
+        _uiScale    = UI.scale();
+        _epoch      = _globalEpoch;
+        if ( (_reads & SIZE) != 0 ) {
+            _width  = owner.getWidth();
+            _height = owner.getHeight();
+        }
+        if ( (_reads & PREFERRED_SIZE) != 0 ) {
+            Dimension preferred = owner.getPreferredSize();
+            _prefWidth  = preferred.width;
+            _prefHeight = preferred.height;
+        }
+        if ( (_reads & COMPONENT_STATE) != 0 ) {
+            _stateBits  = _stateBitsOf(owner);
+            _parent     = owner.getParent();
+            _text       = _textOf(owner);
+            _textLength = _textLengthOf(owner);
+        } else {
+            _parent     = null;
+        }
+    }
+
+    /**
+     *  Returns the remembered style if the supplied source would gather exactly that for
+     *  the supplied component right now, or {@code null} if it has to run.
+     */
+    @Nullable StyleConf recall( final StyleSource<?> source, final JComponent owner, final FontConf parentFont ) {
+        final StyleConf style = _style;
+        if ( !_isReusable || style == null )
+            return null;
+        if ( source != _source || _epoch != _globalEpoch || _uiScale != UI.scale() )
+            return null;
+        if ( !Objects.equals(_name, owner.getName()) || !_parentFont.equals(parentFont) )
+            return null;
+        if ( (_reads & SIZE) != 0 ) {
+            if ( _width != owner.getWidth() || _height != owner.getHeight() )
+                return null;
+        }
+        if ( (_reads & PREFERRED_SIZE) != 0 ) {
+            Dimension preferred = owner.getPreferredSize();
+            if ( _prefWidth != preferred.width || _prefHeight != preferred.height )
+                return null;
+        }
+        if ( (_reads & COMPONENT_STATE) != 0 ) {
+            if ( _stateBits != _stateBitsOf(owner) || _parent != owner.getParent() )
+                return null;
+            if ( !Objects.equals(_text, _textOf(owner)) || _textLength != _textLengthOf(owner) )
+                return null;
+        }
+        _skipCount++;
+        return style;
+    }
+
+    private static int _stateBitsOf( JComponent owner ) {
+        int bits = 0;
+        if ( owner.isEnabled() ) bits |= ENABLED;
+        if ( owner.hasFocus()  ) bits |= FOCUSED;
+        if ( owner instanceof AbstractButton ) {
+            ButtonModel model = ((AbstractButton) owner).getModel();
+            if ( model != null ) {
+                if ( model.isSelected() ) bits |= SELECTED;
+                if ( model.isRollover() ) bits |= ROLLOVER;
+                if ( model.isPressed()  ) bits |= PRESSED;
+                if ( model.isArmed()    ) bits |= ARMED;
+            }
+        }
+        return bits;
+    }
+
+    private static @Nullable String _textOf( JComponent owner ) {
+        if ( owner instanceof AbstractButton )
+            return ((AbstractButton) owner).getText();
+        if ( owner instanceof JLabel )
+            return ((JLabel) owner).getText();
+        return null;
+    }
+
+    private static int _textLengthOf( JComponent owner ) {
+        /*
+            Deliberately the length rather than the text: asking a text component for its text
+            copies the whole document, which on a large one costs more than the gathering this
+            memo saves. A styler which looks at the text almost always looks at whether there
+            is any (think placeholders), which the length settles.
+        */
+        if ( owner instanceof JTextComponent )
+            return ((JTextComponent) owner).getDocument().getLength();
+        return 0;
+    }
+
+    /**
+     *  Marks the memo dirty whenever something happens to the component which may change
+     *  its style. Deliberately a separate object referencing the memo, rather than the
+     *  memo itself, so that the listener interfaces do not leak into the memo's API.
+     */
+    private static final class ChangeObserver
+        implements PropertyChangeListener, ComponentListener, FocusListener, HierarchyListener, ChangeListener
+    {
+        private final StyleGatherMemo _memo;
+
+        ChangeObserver( StyleGatherMemo memo ) {
+            _memo = memo;
+        }
+
+        void listenTo( JComponent owner ) {
+            owner.addPropertyChangeListener(this);
+            owner.addComponentListener(this);
+            owner.addFocusListener(this);
+            owner.addHierarchyListener(this);
+            if ( owner instanceof AbstractButton )
+                ((AbstractButton) owner).addChangeListener(this);
+        }
+
+        @Override public void propertyChange( PropertyChangeEvent event ) { _memo.markDirty(); }
+        @Override public void componentResized( ComponentEvent event ) { _memo.markDirty(); }
+        @Override public void componentMoved( ComponentEvent event ) { _memo.markDirty(); }
+        @Override public void componentShown( ComponentEvent event ) { _memo.markDirty(); }
+        @Override public void componentHidden( ComponentEvent event ) { _memo.markDirty(); }
+        @Override public void focusGained( FocusEvent event ) { _memo.markDirty(); }
+        @Override public void focusLost( FocusEvent event ) { _memo.markDirty(); }
+        @Override public void hierarchyChanged( HierarchyEvent event ) { _memo.markDirty(); }
+        @Override public void stateChanged( ChangeEvent event ) { _memo.markDirty(); }
+    }
+}
@@ -145,6 +145,15 @@ final class StyleLayerCache
             _paintCacheHitCount++;
     }
 
+    /** Adds the prewarming work of every cached part of this layer which is not rendered yet. */
+    void collectPrewarmings( List<LayerPartitionCache.Prewarming> prewarmings ) {
+        for ( LayerPartitionCache part : _parts ) {
+            LayerPartitionCache.Prewarming prewarming = part.prewarming();
+            if ( prewarming != null )
+                prewarmings.add(prewarming);
+        }
+    }
+
     Tuple<BufferedImage> renderedImages() {
         List<BufferedImage> images = new ArrayList<>(_parts.length);
         for ( LayerPartitionCache part : _parts ) {
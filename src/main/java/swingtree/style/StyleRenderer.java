@@ -20,6 +20,7 @@ import java.awt.image.ConvolveOp;
 import java.awt.image.Kernel;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  *  A stateless un-instantiable utility class that renders the style of a component
@@ -45,7 +46,7 @@ final class StyleRenderer
     private static final float SHADOW_GRADIENT_MIN_SPAN = 1e-3f;
 
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(StyleRenderer.class);
-    private static final Map<Pooled<NoiseConf>, NoisePaintCache> _NOISE_PAINT_CACHE = new WeakHashMap<>();
+    private static final WeakCache<Pooled<NoiseConf>, NoisePaintCache> _NOISE_PAINT_CACHE = new WeakCache<>(CacheLedger::release);
     /**
      *  Caches the geometry-independent blended gradient color stops of a shadow, keyed by the
      *  shadow's interned {@link ShadowConf#renderCacheKey()}. The keys are kept alive by the
@@ -53,7 +54,7 @@ final class StyleRenderer
      *  map is self-cleaning: when a style is dropped its shadow cache entry becomes weakly
      *  reachable and is collected. Mirrors {@link #_NOISE_PAINT_CACHE}.
      */
-    private static final Map<Pooled<ShadowConf>, ShadowGradientCache> _SHADOW_GRADIENT_CACHE = new WeakHashMap<>();
+    private static final WeakCache<Pooled<ShadowConf>, ShadowGradientCache> _SHADOW_GRADIENT_CACHE = new WeakCache<>(CacheLedger::release);
 
     /** Live number of cached noise paints (for monitoring/tests). */
     static int noisePaintCacheSize() { return _NOISE_PAINT_CACHE.size(); }
@@ -61,12 +62,15 @@ final class StyleRenderer
     /** Live number of cached shadow gradients (for monitoring/tests). */
     static int shadowGradientCacheSize() { return _SHADOW_GRADIENT_CACHE.size(); }
 
-    /** Drops the globally cached noise paints/tiles and shadow gradient stops. Called when the
+    /** Drops the globally cached noise paints/tiles, shadow gradient stops and shadow masks. Called when the
      *  library cache configuration changes (see {@link ComponentExtension#updateAllCachesFromLibraryConfig()})
-     *  so memory shrinks immediately; both maps repopulate lazily under the new budget. */
+     *  so memory shrinks immediately; all of them repopulate lazily under the new budget. */
     static void clearGlobalRenderCaches() {
         _NOISE_PAINT_CACHE.clear();
         _SHADOW_GRADIENT_CACHE.clear();
+        ShadowMaskCache.clear();
+        ParentBufferPool.clear();
+        SvgRasterCache.clear();
     }
 
     private StyleRenderer() {} // Un-instantiable!
@@ -336,13 +340,30 @@ final class StyleRenderer
         final Color shadowColor = shadow.color().orElse(null);
         if ( shadowColor == null )
             return;
-        final Size size = conf.boxModel().size();
 
         // First let's check if we need to render any shadows at all
         // Is the shadow color transparent?
         if ( shadowColor.getAlpha() == 0 )
             return;
 
+        // Most of the time, a shadow can be reassembled from its cached exemplar:
+        if ( ShadowMaskCache.paint(conf, shadow, g2d) )
+            return;
+
+        renderShadowExactly(conf, shadow, g2d);
+    }
+
+    /**
+     *  Renders a shadow from its gradients, without going through the {@link ShadowMaskCache},
+     *  which is also what that cache renders its exemplars with.
+     */
+    static void renderShadowExactly(
+        final LayerRenderConf conf,
+        final ShadowConf    shadow,
+        final Graphics2D    g2d
+    ) {
+        final Size size = conf.boxModel().size();
+
         // The background box is calculated from the margins and border radius:
         final float leftBorderWidth   = conf.boxModel().widths().left().orElse(0f);
         final float topBorderWidth    = conf.boxModel().widths().top().orElse(0f);
@@ -803,8 +824,15 @@ final class StyleRenderer
      *  {@link GradientStops} are additionally cached per {@code gradientStart} (bounded, LRU) so
      *  that the symmetric corners/edges sharing a radius within a frame do not even re-allocate
      *  the stop arrays.
+     *  <p>
+     *  The {@link CacheLedger} is charged with an estimate of all of that as a whole.
      */
-    private static final class ShadowGradientCache {
+    private static final class ShadowGradientCache extends CacheLedger.Charge {
+
+        /** Rough heap footprints, which is what the {@link CacheLedger} is charged with. */
+        private static final long BYTES_PER_COLOR = 40; // a blended Color
+        private static final long BYTES_PER_STOP  = 16; // a fraction plus a color reference
+        private static final long BYTES_PER_STOPS = 96; // the GradientStops, its two arrays and its map entry
 
         /** Absolute ceiling on retained per-{@code gradientStart} stop arrays. The live cap
          *  (see {@link #_maxCachedStops()}) only drops below this on a constrained byte budget. */
@@ -820,18 +848,35 @@ final class StyleRenderer
         private final ShadowConf      _conf; // normalized: color + isOutset + type only
         private @Nullable Color       _innerColor;
         private Color    @Nullable [] _transitionColors; // blended curve for sampling indices 1..n
+        private long                  _bytes = 0; // the estimated footprint of the colors and stops
         private final Map<Float,GradientStops> _stopsByStart =
                 new LinkedHashMap<Float,GradientStops>(16, 0.75f, true) {
                     @Override
                     protected boolean removeEldestEntry( Map.Entry<Float,GradientStops> eldest ) {
-                        return size() > _maxCachedStops();
+                        if ( size() <= _maxCachedStops() )
+                            return false;
+                        _bytes -= _bytesOf(eldest.getValue());
+                        return true;
                     }
                 };
 
         ShadowGradientCache( Pooled<ShadowConf> key ) {
+            super(CacheBudget.Kind.SHADOW_GRADIENT);
             _conf = key.get();
         }
 
+        private static long _bytesOf( GradientStops stops ) {
+            return BYTES_PER_STOPS + stops.fractions.length * BYTES_PER_STOP;
+        }
+
+        @Override
+        synchronized void evict() {
+            _stopsByStart.clear();
+            _innerColor       = null;
+            _transitionColors = null;
+            _bytes            = 0;
+        }
+
         private void _ensureColors() {
             if ( _transitionColors != null )
                 return;
@@ -855,9 +900,30 @@ final class StyleRenderer
             }
             _innerColor       = innerColor;
             _transitionColors = transition;
+            _bytes           += ( n + 1 ) * BYTES_PER_COLOR;
         }
 
+        /*
+            The ledger may evict other entries when charged, so it is charged
+            once the monitor of this instance is released again.
+        */
         GradientStops stopsFor( final float gradientStart ) {
+            final GradientStops stops;
+            final long bytesBefore;
+            final long bytesAfter;
+            synchronized ( this ) {
+                bytesBefore = _bytes;
+                stops       = _stopsFor(gradientStart);
+                bytesAfter  = _bytes;
+            }
+            if ( bytesAfter != bytesBefore )
+                CacheLedger.charge(this, bytesAfter);
+            else
+                CacheLedger.touch(this);
+            return stops;
+        }
+
+        private GradientStops _stopsFor( final float gradientStart ) {
             final GradientStops cached = _stopsByStart.get(gradientStart);
             if ( cached != null )
                 return cached;
@@ -883,8 +949,10 @@ final class StyleRenderer
             }
             fractions[lead - 1 + n] = 1f; // guard against float rounding on the last fraction
             final GradientStops stops = new GradientStops(fractions, colors);
-            if ( _maxCachedStops() > 0 )
+            if ( _maxCachedStops() > 0 ) {
+                _bytes += _bytesOf(stops);
                 _stopsByStart.put(gradientStart, stops);
+            }
             return stops;
         }
     }
@@ -1046,7 +1114,8 @@ final class StyleRenderer
                         corner1,
                         rotation,
                         fractions,
-                        colors
+                        colors,
+                        gradient.quality()
                     );
     }
 
@@ -1522,7 +1591,7 @@ final class StyleRenderer
                     SvgIcon svgIcon = (SvgIcon) imageIcon;
                     svgIcon = svgIcon.withIconWidth(imgWidth);
                     svgIcon = svgIcon.withIconHeight(imgHeight);
-                    image   = svgIcon.getImage(); // This will render the SVGIcon with the new size
+                    image   = svgIcon.sharedImage(); // This will render the SVGIcon with the new size
                 }
                 else
                     image = imageIcon.getImage();
@@ -1914,21 +1983,44 @@ final class StyleRenderer
             filtered = convolve.filter(filtered, null);
         }
 
+        @Nullable BufferedImage blurred = null;
+        Rectangle blurredRegion = new Rectangle();
         if ( blur > 0 ) {
-            Kernel blurKernelHorizontal = _makeKernel(blur, false);
-            ConvolveOp blurOp = new ConvolveOp(blurKernelHorizontal, ConvolveOp.EDGE_NO_OP, null);
-            BufferedImage blurred = blurOp.filter(filtered, null);
-            Kernel blurKernelVertical = _makeKernel(blur, true);
-            blurOp = new ConvolveOp(blurKernelVertical, ConvolveOp.EDGE_NO_OP, null);
-            filtered = blurOp.filter(blurred, filtered);
+            /*
+                Only what ends up behind this component is ever drawn, and only where it
+                is being repainted, so only that is blurred. It is blurred into a separate
+                image, because the siblings of this component may blur the parent as well:
+            */
+            blurredRegion = new Rectangle(offsetX, offsetY, (int) Math.ceil(width), (int) Math.ceil(height));
+            final Rectangle clipBounds = g2d.getClipBounds();
+            if ( clipBounds != null ) {
+                clipBounds.translate(offsetX, offsetY);
+                blurredRegion = blurredRegion.intersection(clipBounds);
+            }
+            blurredRegion = blurredRegion.intersection(new Rectangle(0, 0, filtered.getWidth(), filtered.getHeight()));
+            if ( blurredRegion.isEmpty() )
+                return; // Nothing of this component is visible, or it is entirely outside of its parent.
+            blurred = BoxBlur.blurredCopyOf(filtered, blur, blurredRegion);
         }
 
         Shape oldClip = g2d.getClip();
         try {
             ComponentAreas areas = ComponentAreas.of(boxModelConf);
             Shape newClip = areas.get(filterConf.area());
-            g2d.setClip(newClip);
-            g2d.drawImage(filtered, -offsetX, -offsetY, null);
+            // Outside of what is being repainted, the parent may not have been rendered:
+            g2d.setClip(StyleUtil.intersect(newClip, oldClip));
+            if ( blurred != null ) {
+                final int x = blurredRegion.x - offsetX;
+                final int y = blurredRegion.y - offsetY;
+                g2d.drawImage(
+                    blurred,
+                    x, y, x + blurredRegion.width, y + blurredRegion.height,
+                    0, 0, blurredRegion.width, blurredRegion.height,
+                    null
+                );
+            }
+            else
+                g2d.drawImage(filtered, -offsetX, -offsetY, null);
         } catch (Exception e) {
             log.error(SwingTree.get().logMarker(), "Failed to successfully render filtered parent buffer!", e);
         } finally {
@@ -1936,34 +2028,6 @@ final class StyleRenderer
         }
     }
 
-    private static Kernel _makeKernel( final float radius, final boolean transpose ) {
-        final int maxRadius = (int)Math.ceil(radius);
-        final int rows = maxRadius * 2 + 1;
-        final float[] matrix = new float[rows];
-        final float sigma = radius / 3;
-        final float sigma22 = 2*sigma*sigma;
-        final float sigmaPi2 = (float) ( 2 * Math.PI * sigma );
-        final float sqrtSigmaPi2 = (float)Math.sqrt(sigmaPi2);
-        final float radius2 = radius*radius;
-
-        float total = 0;
-        int   index = 0;
-
-        for (int row = -maxRadius; row <= maxRadius; row++) {
-            float distance = row*row;
-            if (distance > radius2)
-                matrix[index] = 0;
-            else
-                matrix[index] = (float)Math.exp(-distance/sigma22) / sqrtSigmaPi2;
-            total += matrix[index];
-            index++;
-        }
-        for ( int i = 0; i < rows; i++ )
-            matrix[i] /= total;
-
-        return new Kernel( transpose ? 1 : rows, transpose ? rows : 1, matrix );
-    }
-
     /**
      *  Caches the work needed to render a {@link NoiseConf} layer.
      *  <p>
@@ -1985,8 +2049,11 @@ final class StyleRenderer
      *  component size and the noise offset. Resizing the component or scrolling merely changes
      *  <i>which</i> tiles are visible and <i>where</i> they are drawn - already rendered tiles
      *  stay valid, which keeps a dynamically resized UI responsive.
+     *  <p>
+     *  The large tiles are what the {@link CacheLedger} is charged with, as a whole per noise.
+     *  When evicted, they are dropped and simply rendered again on their next use.
      */
-    static class NoisePaintCache {
+    static class NoisePaintCache extends CacheLedger.Charge {
 
         /** Side length of the pre-rendered large tiles, in (unscaled) device pixels. */
         private static final int LARGE_TILE_SIZE = 256;
@@ -2021,9 +2088,33 @@ final class StyleRenderer
                 new LinkedHashMap<Long,BufferedImage>(16, 0.75f, true) {
                     @Override
                     protected boolean removeEldestEntry( Map.Entry<Long,BufferedImage> eldest ) {
-                        return size() > _maxCachedTiles();
+                        if ( size() <= _maxCachedTiles() )
+                            return false;
+                        largeTileBytes -= _bytesOf(eldest.getValue());
+                        return true;
                     }
                 };
+        /** The pixel memory of the tiles in {@link #largeTileCache}. */
+        private long largeTileBytes = 0;
+
+
+        NoisePaintCache() {
+            super(CacheBudget.Kind.NOISE_TILE);
+        }
+
+        private static long _bytesOf( BufferedImage tile ) {
+            return (long) tile.getWidth() * tile.getHeight() * 4; // Both tile types use 32 bit pixels.
+        }
+
+        @Override
+        synchronized void evict() {
+            largeTileCache.clear();
+            largeTileBytes = 0;
+        }
+
+        private synchronized long _largeTileBytes() {
+            return largeTileBytes;
+        }
 
 
         void renderNoise(
@@ -2094,17 +2185,15 @@ final class StyleRenderer
             final int tileYMin = Math.floorDiv( (int) Math.floor(vMin), size );
             final int tileYMax = Math.floorDiv( (int) Math.ceil(vMax) - 1, size );
 
+            final long bytesBefore = _largeTileBytes();
             final Shape oldClip = g2d.getClip();
             try {
+                _renderMissingLargeTilesInParallel(tileXMin, tileXMax, tileYMin, tileYMax, noise, g2d.getDeviceConfiguration());
                 g2d.clip(areaToFill); // Restricts the tile blits to the requested shape.
                 for ( int tileY = tileYMin; tileY <= tileYMax; tileY++ ) {
                     for ( int tileX = tileXMin; tileX <= tileXMax; tileX++ ) {
                         final long key = ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
-                        BufferedImage tile = largeTileCache.get(key);
-                        if ( tile == null ) {
-                            tile = _renderLargeTile(tileX, tileY, noise, g2d.getDeviceConfiguration());
-                            largeTileCache.put(key, tile);
-                        }
+                        final BufferedImage tile = _getCachedLargeTile(key, tileX, tileY, noise, g2d.getDeviceConfiguration());
                         final int drawX = Math.round( tileX * (float) size + center.x );
                         final int drawY = Math.round( tileY * (float) size + center.y );
                         g2d.drawImage(tile, drawX, drawY, null);
@@ -2115,6 +2204,73 @@ final class StyleRenderer
             } finally {
                 g2d.setClip(oldClip);
             }
+            final long bytesAfter = _largeTileBytes();
+            if ( bytesAfter != bytesBefore )
+                CacheLedger.charge(this, bytesAfter); // Outside the monitor, because this may evict.
+            else
+                CacheLedger.touch(this);
+        }
+
+        /**
+         *  Renders the tiles of the supplied range which are not cached yet on the
+         *  {@link RasterizationPool} and caches them, so that the blits which follow find
+         *  every tile cached instead of rendering them one after the other. A large noise
+         *  (a full screen background is dozens of tiles) is filled by every core this way.
+         *  Since every tile is rendered by {@link #_renderLargeTile} exactly like it would
+         *  have been on the painting thread, the pixels are the same either way. <br>
+         *  This does nothing if the range does not even fit into the tile cache, because the
+         *  first tiles would then be evicted before they are blitted, in which case the
+         *  blits render (and thrash) tile by tile like they always did.
+         */
+        private void _renderMissingLargeTilesInParallel(
+            final int                             tileXMin,
+            final int                             tileXMax,
+            final int                             tileYMin,
+            final int                             tileYMax,
+            final Pooled<NoiseConf>               noise,
+            final @Nullable GraphicsConfiguration gc
+        ) {
+            if ( !RasterizationPool.isParallel() )
+                return;
+            final long tileCount = (long) (tileXMax - tileXMin + 1) * (tileYMax - tileYMin + 1);
+            if ( tileCount < 2 || tileCount > _maxCachedTiles() )
+                return;
+            final List<Long> missing = new ArrayList<>();
+            synchronized ( this ) {
+                for ( int tileY = tileYMin; tileY <= tileYMax; tileY++ )
+                    for ( int tileX = tileXMin; tileX <= tileXMax; tileX++ ) {
+                        final long key = ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+                        if ( !largeTileCache.containsKey(key) )
+                            missing.add(key);
+                    }
+            }
+            if ( missing.size() < 2 )
+                return;
+            /*
+                We render outside the monitor, so that other threads painting this noise
+                can keep blitting the tiles which are cached already. In the rare case
+                where one of them renders one of the same tiles in the meantime,
+                the tile it cached first wins, and ours is dropped.
+            */
+            final List<Callable<BufferedImage>> jobs = new ArrayList<>(missing.size());
+            for ( long key : missing )
+                jobs.add(() -> _renderLargeTile((int) (key >> 32), (int) key, noise, gc));
+            final List<BufferedImage> tiles;
+            try {
+                tiles = RasterizationPool.computeAll(jobs);
+            } catch ( Exception e ) {
+                log.debug(SwingTree.get().logMarker(), "Failed to render noise tiles in parallel, rendering them one by one instead.", e);
+                return;
+            }
+            synchronized ( this ) {
+                for ( int i = 0; i < missing.size(); i++ ) {
+                    final Long key = missing.get(i);
+                    if ( !largeTileCache.containsKey(key) ) {
+                        largeTileBytes += _bytesOf(tiles.get(i));
+                        largeTileCache.put(key, tiles.get(i));
+                    }
+                }
+            }
         }
 
         /**
@@ -2166,7 +2322,28 @@ final class StyleRenderer
             return _getCachedNoisePaint(center, noise);
         }
 
-        private NoiseGradientPaint _getCachedNoisePaint(
+        /*
+            The two maps of an instance are shared by every thread rendering the same noise
+            (see WeakCache), which is why they are only ever accessed while holding the
+            monitor of the instance. A tile or paint, once created, is only ever read.
+        */
+        private synchronized BufferedImage _getCachedLargeTile(
+            final long                            key,
+            final int                             tileX,
+            final int                             tileY,
+            final Pooled<NoiseConf>               noise,
+            final @Nullable GraphicsConfiguration gc
+        ) {
+            BufferedImage tile = largeTileCache.get(key);
+            if ( tile == null ) {
+                tile = _renderLargeTile(tileX, tileY, noise, gc);
+                largeTileBytes += _bytesOf(tile);
+                largeTileCache.put(key, tile);
+            }
+            return tile;
+        }
+
+        private synchronized NoiseGradientPaint _getCachedNoisePaint(
             final Point2D.Float     center,
             final Pooled<NoiseConf> noise
         ) {
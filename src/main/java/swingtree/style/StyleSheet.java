@@ -80,6 +80,14 @@ public abstract class StyleSheet
 
     private static final StyleSheet _NONE = new StyleSheet() { @Override protected void configure() {} };
 
+    /**
+     *  The maximum number of distinct component kinds (type, id and style groups) for
+     *  which a style sheet remembers the traits applying to them. Ids are usually unique
+     *  per component, so in a large view this is what keeps the memory of a style sheet
+     *  bounded; the least recently styled kind is forgotten first.
+     */
+    private static final int MAX_RESOLVED_TRAIT_SETS = 512;
+
     /**
      *  A factory method for getting the empty style sheet representing no style whatsoever.
      *  It is especially useful instead of null.
@@ -94,6 +102,18 @@ public abstract class StyleSheet
     private final Map<StyleTrait<?>, Styler<?>> _styleDeclarations = new LinkedHashMap<>();
     private StyleTrait<?>[][] _traitPaths = {}; // The paths are calculated from the above map and used to apply the styles.
 
+    // The traits of the above map, bucketed by the most selective thing they target:
+    private final Map<String, List<StyleTrait<?>>> _traitsById       = new HashMap<>();
+    private final Map<String, List<StyleTrait<?>>> _traitsByGroup    = new HashMap<>();
+    private final List<StyleTrait<?>>              _traitsByTypeOnly = new ArrayList<>();
+    // The applicable traits (from sub to super) of every kind of component styled so far:
+    private final Map<TraitResolutionKey, StyleTrait<?>[]> _resolvedTraits = new LinkedHashMap<TraitResolutionKey, StyleTrait<?>[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<TraitResolutionKey, StyleTrait<?>[]> eldest ) {
+            return size() > MAX_RESOLVED_TRAIT_SETS;
+        }
+    };
+
     private boolean _traitGraphBuilt = false;
     private boolean _initialized     = false;
 
@@ -147,6 +167,7 @@ public abstract class StyleSheet
         _traitGraphBuilt = false;
         _traitPaths      = new StyleTrait<?>[0][];
         _styleDeclarations.clear();
+        _clearTraitIndex();
         try {
             configure(); // The subclass will add traits to this style sheet using the add(..) method.
         } catch ( Exception e ) {
@@ -379,14 +400,84 @@ public abstract class StyleSheet
         if ( _traitPaths.length == 0 )
             return startingStyle;
 
-        // Now we run the starting style through the trait graph.
+        StyleTrait<?>[] subToSuper = _findTraitsApplicableTo(toBeStyled);
+
+        // Now we apply the valid traits to the starting style.
+        for ( int i = subToSuper.length - 1; i >= 0; i-- ) {
+            StyleTrait<?> trait = subToSuper[i];
+            ComponentStyleDelegate delegate = new ComponentStyleDelegate<>(toBeStyled, startingStyle);
+            Styler<?> styler = _styleDeclarations.get(trait);
+            if ( styler != null ) {
+                try {
+                    startingStyle = styler.style(delegate).style();
+                } catch ( Exception e ) {
+                    log.error(SwingTree.get().logMarker(),
+                            "An exception occurred while applying the style for " +
+                            "trait '{}' to component '{}' using styler '{}'!",
+                            trait, toBeStyled, styler, e
+                        );
+                    /*
+                        Exceptions inside a style sheet should not be fatal.
+                        We just log the stack trace for debugging purposes
+                        and then continue to prevent the GUI from breaking.
+                     */
+                }
+            }
+        }
+
+        return startingStyle;
+    }
+
+    /**
+     *  Finds the traits of this style sheet which apply to the supplied component,
+     *  ordered from the most specific (sub) trait to the most general (super) trait. <br>
+     *  Which traits apply only depends on the type, the id and the style groups of a
+     *  component, which is why the outcome is cached for every such combination
+     *  (see {@link TraitResolutionKey}) until the style sheet is reconfigured.
+     */
+    private StyleTrait<?>[] _findTraitsApplicableTo( JComponent toBeStyled ) {
+        List<String> groups = _traitsByGroup.isEmpty()
+                                ? Collections.emptyList()
+                                : ComponentExtension.from(toBeStyled).styleGroupList();
+        /*
+            If no trait targets a group, the groups of a component cannot
+            make a difference, and we do not even need to look at them.
+        */
+        TraitResolutionKey key = new TraitResolutionKey(toBeStyled.getClass(), toBeStyled.getName(), groups);
+        StyleTrait<?>[] resolved = _resolvedTraits.get(key);
+        if ( resolved == null ) {
+            resolved = _resolveTraitsApplicableTo(toBeStyled, groups);
+            _resolvedTraits.put(key.withCopiedGroups(), resolved);
+        }
+        return resolved;
+    }
+
+    private StyleTrait<?>[] _resolveTraitsApplicableTo( JComponent toBeStyled, List<String> groups )
+    {
+        /*
+            Instead of asking every trait of every path whether it applies to the component,
+            we only ask the ones which can possibly apply, which are the ones in the buckets
+            for the id and the groups of the component, and those targeting a type only.
+        */
+        Set<StyleTrait<?>> applicable = new HashSet<>();
+        String id = toBeStyled.getName();
+        if ( id != null )
+            _addApplicable(_traitsById.get(id), toBeStyled, applicable);
+        for ( String group : groups )
+            _addApplicable(_traitsByGroup.get(group), toBeStyled, applicable);
+        _addApplicable(_traitsByTypeOnly, toBeStyled, applicable);
+
+        if ( applicable.isEmpty() )
+            return new StyleTrait<?>[0];
+
+        // Now we find out which parts of the trait graph apply to the component.
         // We do this by finding valid trait paths from the root traits to the leaf traits.
         int deepestValidPath = -1;
         List<List<StyleTrait<?>>> validTraitPaths = new java.util.ArrayList<>();
         for ( StyleTrait<?>[] traitPath : _traitPaths ) {
             int lastValidTrait = -1;
             for ( int i = 0; i < traitPath.length; i++ ) {
-                boolean valid = traitPath[i].isApplicableTo(toBeStyled);
+                boolean valid = applicable.contains(traitPath[i]);
                 if (valid) lastValidTrait = i;
             }
             if ( lastValidTrait >= 0 ) {
@@ -427,30 +518,18 @@ public abstract class StyleSheet
             }
         }
 
-        // Now we apply the valid traits to the starting style.
-        for ( int i = subToSuper.size() - 1; i >= 0; i-- ) {
-            StyleTrait<?> trait = subToSuper.get(i);
-            ComponentStyleDelegate delegate = new ComponentStyleDelegate<>(toBeStyled, startingStyle);
-            Styler<?> styler = _styleDeclarations.get(trait);
-            if ( styler != null ) {
-                try {
-                    startingStyle = styler.style(delegate).style();
-                } catch ( Exception e ) {
-                    log.error(SwingTree.get().logMarker(),
-                            "An exception occurred while applying the style for " +
-                            "trait '{}' to component '{}' using styler '{}'!",
-                            trait, toBeStyled, styler, e
-                        );
-                    /*
-                        Exceptions inside a style sheet should not be fatal.
-                        We just log the stack trace for debugging purposes
-                        and then continue to prevent the GUI from breaking.
-                     */
-                }
-            }
-        }
+        return subToSuper.toArray(new StyleTrait<?>[0]);
+    }
 
-        return startingStyle;
+    private static void _addApplicable(
+        @Nullable List<StyleTrait<?>> candidates,
+        JComponent                    toBeStyled,
+        Set<StyleTrait<?>>            applicable
+    ) {
+        if ( candidates != null )
+            for ( StyleTrait<?> candidate : candidates )
+                if ( candidate.isApplicableTo(toBeStyled) )
+                    applicable.add(candidate);
     }
 
     private @Nullable StyleTrait<?> _merge(
@@ -480,9 +559,82 @@ public abstract class StyleSheet
     private void _buildAndSetStyleTraitPaths() {
         if ( !_styleDeclarations.isEmpty() )
             _traitPaths = new GraphPathsBuilder().buildTraitGraphPathsFrom(_styleDeclarations);
+        _buildTraitIndex();
         _traitGraphBuilt = true;
     }
 
+    /**
+     *  Puts every trait into exactly one bucket, the one for the most selective thing
+     *  it targets, which is its id, otherwise its group and otherwise merely its type.
+     *  A trait can only apply to a component which has this id or group, which is why
+     *  only the buckets of the id and the groups of a component need to be searched,
+     *  along with the traits targeting a type only.
+     */
+    private void _buildTraitIndex() {
+        _clearTraitIndex();
+        for ( StyleTrait<?> trait : _styleDeclarations.keySet() ) {
+            if ( !trait.id().isEmpty() )
+                _traitsById.computeIfAbsent(trait.id(), k -> new ArrayList<>()).add(trait);
+            else if ( !trait.group().isEmpty() )
+                _traitsByGroup.computeIfAbsent(trait.group(), k -> new ArrayList<>()).add(trait);
+            else
+                _traitsByTypeOnly.add(trait);
+        }
+    }
+
+    private void _clearTraitIndex() {
+        _traitsById.clear();
+        _traitsByGroup.clear();
+        _traitsByTypeOnly.clear();
+        _resolvedTraits.clear();
+    }
+
+    /**
+     *  Everything about a component which decides which traits of a style sheet apply to
+     *  it (see {@link StyleTrait#isApplicableTo(JComponent)}): its type, its id and its groups.
+     */
+    private static final class TraitResolutionKey
+    {
+        private final Class<?>         _type;
+        private final @Nullable String _id;
+        private final List<String>     _groups;
+        private final int              _hashCode;
+
+
+        TraitResolutionKey( Class<?> type, @Nullable String id, List<String> groups ) {
+            _type     = type;
+            _id       = id;
+            _groups   = groups;
+            _hashCode = Objects.hash(type, id, groups);
+        }
+
+        /**
+         *  Lookups use the live group list of a component to avoid copying it,
+         *  but a key which is stored must not change with the component.
+         */
+        TraitResolutionKey withCopiedGroups() {
+            if ( _groups.isEmpty() )
+                return this;
+            return new TraitResolutionKey(_type, _id, new ArrayList<>(_groups));
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !(o instanceof TraitResolutionKey) ) return false;
+            TraitResolutionKey other = (TraitResolutionKey) o;
+            return _hashCode == other._hashCode &&
+                   _type == other._type &&
+                   Objects.equals(_id, other._id) &&
+                   _groups.equals(other._groups);
+        }
+    }
+
     private static class GraphPathsBuilder
     {
         private final Map<StyleTrait<?>, List<StyleTrait<?>>> _traitGraph = new LinkedHashMap<>();
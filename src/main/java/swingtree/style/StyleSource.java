@@ -1,5 +1,6 @@
 package swingtree.style;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import swingtree.SwingTree;
 import swingtree.UI;
@@ -68,95 +69,158 @@ final class StyleSource<C extends JComponent>
     }
 
     StyleSource<C> withoutAnimationStylers() {
+        if ( _animationStylers.length == 0 )
+            return this; // Keeps the style gather memo of the component valid (see StyleGatherMemo#isClean).
         return new StyleSource<>(_localStyler, new Expirable[0], _styleSheet);
     }
 
+    StyleConf gatherStyleFor( C owner ) {
+        return gatherStyleFor( owner, null, false );
+    }
+
+    /**
+     *  Gathers the style of the supplied component, optionally through a {@link StyleGatherMemo}
+     *  which remembers the outcome and the inputs it depended on.
+     *
+     * @param owner The component whose style should be gathered.
+     * @param uiThreadMemo The memo of the owner, or {@code null} to neither consult nor update one.
+     *                     It is ignored if this is not called on the UI thread.
+     * @param mayReuse Whether the remembered outcome of the memo may be returned if none of
+     *                 its inputs changed. If {@code false}, the stylers always run, but a supplied
+     *                 memo is still updated with their outcome.
+     * @return The fully resolved and scaled style configuration of the owner.
+     */
     @SuppressWarnings("DoNotCall")
-    StyleConf gatherStyleFor( C owner )
+    StyleConf gatherStyleFor( C owner, @Nullable StyleGatherMemo uiThreadMemo, boolean mayReuse )
     {
-        // 0: Some things are inherited from the parent component:
-        StyleConf styleConf = Optional.ofNullable(owner.getParent())
-                              .map( p -> p instanceof JComponent ? (JComponent) p : null )
-                              .map(ComponentExtension::from)
-                              .map(ComponentExtension::getStyle)
-                              .map(StyleConf::font)
-                              .filter( f -> !f.equals(FontConf.none()) )
-                              .map( f -> StyleConf.none()._withFont(f._scale(1/UI.scale())) )
-                              .orElse(StyleConf.none());
-
-        // 1. Global StyleSheet
-        try {
-            StyleConf updated = _styleSheet.computeStyleFrom( owner, styleConf );
-            Objects.requireNonNull(updated);
-            styleConf = updated;
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "An exception occurred while applying the style sheet for component '{}'.", owner, e);
-            /*
-                 If any exceptions happen in a StyleSheet implementation provided by a user,
-                 then we don't want to prevent the other Stylers from doing their job,
-                 which is why we catch any exceptions immediately!
-            */
-        }
+        /*
+            The memo is confined to the UI thread (see StyleGatherMemo), so a gathering
+            for an offscreen rendering on some other thread simply runs without it.
+        */
+        final @Nullable StyleGatherMemo memo = UI.thisIsUIThread() ? uiThreadMemo : null;
 
-        // 2. Look and Feel
-        try {
-            ComponentUI componentUI = LibraryInternalCrossPackageStyleUtil._findComponentUIOf(owner);
-            if ( componentUI instanceof SwingTreeStyledComponentUI) {
-                SwingTreeStyledComponentUI<C> swingTreeUI = (SwingTreeStyledComponentUI) componentUI;
-                ComponentStyleDelegate<C> updated = swingTreeUI.style(new ComponentStyleDelegate<>(owner, styleConf));
-                Objects.requireNonNull(updated);
-                styleConf = updated.style();
-            }
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "An exception occurred while gathering the style information from the 'ComponentUI' of '{}'.", owner, e);
-        }
-
-        // 3. Component Local (  `withStyle(it->it.border(2, "green"))`  )
-        try {
-            ComponentStyleDelegate<C> updated = _localStyler.style(new ComponentStyleDelegate<>(owner, styleConf));
-            Objects.requireNonNull(updated);
-            styleConf = updated.style();
-        } catch (Exception e) {
-            log.error(SwingTree.get().logMarker(), "An exception occurred while gathering the local style for component '{}'.", owner, e);
-            /*
-                 If any exceptions happen in a Styler implementation provided by a user,
-                 then we don't want to prevent the other Stylers from doing their job,
-                 which is why we catch any exceptions immediately!
-            */
-        }
-
-        // 4. Component Local Animations:
-        // => Animation styles are last: they override everything else:
-        for ( Expirable<Styler<C>> expirableStyler : _animationStylers )
+        // 0: Some things are inherited from the parent component:
+        final FontConf parentFont = _inheritedFontOf(owner);
+
+        StyleConf styleConf = null;
+        if ( memo != null && mayReuse && StyleGatherMemo.isEnabled() && hasNoAnimationStylers() )
+            styleConf = memo.recall( this, owner, parentFont );
+
+        if ( styleConf == null ) {
+            if ( memo != null )
+                memo.startRecording(owner);
+            styleConf = parentFont.equals(FontConf.none())
+                            ? StyleConf.none()
+                            : StyleConf.none()._withFont(parentFont._scale(1/UI.scale()));
+            boolean allStylersSucceeded = true;
             try {
-                styleConf = expirableStyler.get().style(new ComponentStyleDelegate<>(owner, styleConf)).style();
-            } catch ( Exception e ) {
-                log.warn(SwingTree.get().logMarker(), "An exception occurred while gathering an animated style!", e);
-                /*
-                     If any exceptions happen in a Styler implementation provided by a user,
-                     then we don't want to prevent the other Stylers from doing their job,
-                     which is why we catch any exceptions immediately!
-
-                     We log as warning because exceptions during
-                     styling are not a big deal!
-
-                     Hi there! If you are reading this, you are probably a developer using the SwingTree
-                     library, thank you for using it! Good luck finding out what went wrong! :)
-                */
+                // 1. Global StyleSheet
+                try {
+                    StyleConf updated = _styleSheet.computeStyleFrom( owner, styleConf );
+                    Objects.requireNonNull(updated);
+                    styleConf = updated;
+                } catch (Exception e) {
+                    allStylersSucceeded = false;
+                    log.error(SwingTree.get().logMarker(), "An exception occurred while applying the style sheet for component '{}'.", owner, e);
+                    /*
+                         If any exceptions happen in a StyleSheet implementation provided by a user,
+                         then we don't want to prevent the other Stylers from doing their job,
+                         which is why we catch any exceptions immediately!
+                    */
+                }
+
+                // 2. Look and Feel
+                try {
+                    ComponentUI componentUI = LibraryInternalCrossPackageStyleUtil._findComponentUIOf(owner);
+                    if ( componentUI instanceof SwingTreeStyledComponentUI) {
+                        SwingTreeStyledComponentUI<C> swingTreeUI = (SwingTreeStyledComponentUI) componentUI;
+                        ComponentStyleDelegate<C> updated = swingTreeUI.style(new ComponentStyleDelegate<>(owner, styleConf));
+                        Objects.requireNonNull(updated);
+                        styleConf = updated.style();
+                    }
+                } catch (Exception e) {
+                    allStylersSucceeded = false;
+                    log.error(SwingTree.get().logMarker(), "An exception occurred while gathering the style information from the 'ComponentUI' of '{}'.", owner, e);
+                }
+
+                // 3. Component Local (  `withStyle(it->it.border(2, "green"))`  )
+                try {
+                    ComponentStyleDelegate<C> updated = _localStyler.style(new ComponentStyleDelegate<>(owner, styleConf));
+                    Objects.requireNonNull(updated);
+                    styleConf = updated.style();
+                } catch (Exception e) {
+                    allStylersSucceeded = false;
+                    log.error(SwingTree.get().logMarker(), "An exception occurred while gathering the local style for component '{}'.", owner, e);
+                    /*
+                         If any exceptions happen in a Styler implementation provided by a user,
+                         then we don't want to prevent the other Stylers from doing their job,
+                         which is why we catch any exceptions immediately!
+                    */
+                }
+
+                // 4. Component Local Animations:
+                // => Animation styles are last: they override everything else:
+                for ( Expirable<Styler<C>> expirableStyler : _animationStylers )
+                    try {
+                        styleConf = expirableStyler.get().style(new ComponentStyleDelegate<>(owner, styleConf)).style();
+                    } catch ( Exception e ) {
+                        log.warn(SwingTree.get().logMarker(), "An exception occurred while gathering an animated style!", e);
+                        /*
+                             If any exceptions happen in a Styler implementation provided by a user,
+                             then we don't want to prevent the other Stylers from doing their job,
+                             which is why we catch any exceptions immediately!
+
+                             We log as warning because exceptions during
+                             styling are not a big deal!
+
+                             Hi there! If you are reading this, you are probably a developer using the SwingTree
+                             library, thank you for using it! Good luck finding out what went wrong! :)
+                        */
+                    }
+
+                styleConf = styleConf.simplified();
+
+                styleConf = _applyDPIScaling(styleConf);
+
+                styleConf = styleConf.correctedForRounding();
+
+                styleConf = styleConf._interned();
+            } finally {
+                if ( memo != null )
+                    memo.stopRecordingAndRemember(
+                        this, owner, parentFont, styleConf,
+                        allStylersSucceeded && hasNoAnimationStylers()
+                    );
             }
+        }
 
-        styleConf = styleConf.simplified();
-
-        styleConf = _applyDPIScaling(styleConf);
-
-        styleConf = styleConf.correctedForRounding();
-
+        /*
+            The following two depend on the children and the layout of the owner,
+            which is why they are never part of what the memo remembers.
+            They return the style as is if there is no styled text.
+        */
+        final StyleConf withoutTextDerivations = styleConf;
         styleConf = styleConf.determineTextConfObstaclesFromChildrenOf(owner);
         styleConf = styleConf.determinePreferredHeightFromTextConfigs(owner);
 
+        if ( styleConf != withoutTextDerivations )
+            styleConf = styleConf._interned();
+            /*
+                Interned, so that the style installer can tell an unchanged style
+                from a changed one through a reference comparison.
+            */
+
         return styleConf;
     }
 
+    private static FontConf _inheritedFontOf( JComponent owner ) {
+        return Optional.ofNullable(owner.getParent())
+                .map( p -> p instanceof JComponent ? (JComponent) p : null )
+                .map(ComponentExtension::from)
+                .map(ComponentExtension::getStyle)
+                .map(StyleConf::font)
+                .orElse(FontConf.none());
+    }
     private static StyleConf _applyDPIScaling(StyleConf styleConf) {
         if ( UI.scale() == 1f )
             return styleConf;
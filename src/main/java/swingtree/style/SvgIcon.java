@@ -1058,11 +1058,30 @@ public final class SvgIcon extends ImageIcon
     }
 
     /**
-     *  Creates a new {@link Image} from the SVG document.
+     *  Creates a new {@link Image} from the SVG document, rendered at the size of this icon.
+     *  The image belongs to the caller, who may draw into it.
      * @return A new {@link Image} where the SVG document has been rendered into.
      */
     @Override
     public Image getImage() {
+        final BufferedImage shared = sharedImage();
+        final BufferedImage copy = new BufferedImage(shared.getWidth(), shared.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2d = copy.createGraphics();
+        try {
+            g2d.setComposite(AlphaComposite.Src);
+            g2d.drawImage(shared, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        return copy;
+    }
+
+    /**
+     *  The rasterization of the SVG document at the size of this icon, which is cached globally
+     *  and shared by all icons of the same document, size and configuration,
+     *  so it is only ever drawn, and never handed out to users (see {@link #getImage()}).
+     */
+    BufferedImage sharedImage() {
 
         if ( _cache != null )
             return _cache;
@@ -1077,23 +1096,53 @@ public final class SvgIcon extends ImageIcon
                 height = (int) UI.scale(_core.docHeight);
         }
 
-        // We create a new buffered image, render into it, and then return it.
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        if ( _core.svgDocument != null ) {
-            Graphics2D g2d = image.createGraphics();
-            _paintIcon(
-                    null,
-                    g2d,
-                    Bounds.of(0, 0, width, height),
-                    Offset.none(),
-                    UI.Placement.CENTER,
-                    UI.FitComponent.WIDTH_AND_HEIGHT,
-                    Outline.none()
+        if ( _core.svgDocument == null )
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        // We render into a buffered image, unless the same rasterization is already cached:
+        final Bounds bounds = Bounds.of(0, 0, width, height);
+        return SvgRasterCache.rasterize(
+                    _rasterKey(UI.FitComponent.WIDTH_AND_HEIGHT, UI.Placement.CENTER, width, height),
+                    g2d -> _paintIcon(
+                                null,
+                                g2d,
+                                bounds,
+                                Offset.none(),
+                                UI.Placement.CENTER,
+                                UI.FitComponent.WIDTH_AND_HEIGHT,
+                                Outline.none()
+                            )
                 );
-            g2d.dispose();
-        }
+    }
 
-        return image;
+    /**
+     *  Rasterizes this icon into the global raster cache, exactly like its first
+     *  {@link #paintIcon(Component, Graphics, int, int)} at its own size would,
+     *  so that painting it merely draws the cached image.
+     *  This is used to do that expensive first rasterization off the UI thread,
+     *  which is why nothing happens for an icon whose size depends on the component.
+     */
+    void prerasterize() {
+        if ( _core.svgDocument == null )
+            return;
+        final int width  = getIconWidth();
+        final int height = getIconHeight();
+        if ( width <= 0 || height <= 0 )
+            return;
+        final Bounds bounds = Bounds.of(0, 0, width, height);
+        SvgRasterCache.rasterize(
+            _rasterKey(_fitComponentFor(_size()), _preferredPlacement, width, height),
+            g2d -> paintIcon(null, g2d, bounds, Offset.none(), Outline.none())
+        );
+    }
+
+    private SvgRasterCache.Key _rasterKey( UI.FitComponent fitComponent, UI.Placement placement, int width, int height ) {
+        return new SvgRasterCache.Key(
+                    Objects.requireNonNull(_core.svgDocument),
+                    _size, _widthUnit, _heightUnit,
+                    fitComponent, placement, _opacity,
+                    width, height
+                );
     }
 
     /**
@@ -1180,8 +1229,11 @@ public final class SvgIcon extends ImageIcon
             if ( _cache != null && _cache.getWidth() == width && _cache.getHeight() == height )
                 g.drawImage(_cache, x, y, width, height, null);
             else {
-                _cache = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-                paintIcon(c, _cache.getGraphics(), Bounds.of(0, 0, width, height), Offset.none(), Outline.none() );
+                final Bounds bounds = Bounds.of(0, 0, width, height);
+                _cache = SvgRasterCache.rasterize(
+                            _rasterKey(_fitComponentFor(_size()), _preferredPlacement, width, height),
+                            g2d -> paintIcon(c, g2d, bounds, Offset.none(), Outline.none())
+                        );
                 g.drawImage(_cache, x, y, width, height, null);
             }
         }
@@ -1204,11 +1256,13 @@ public final class SvgIcon extends ImageIcon
         final Offset offset,
         final Outline padding
     ) {
-        Size size = _size();
-        UI.FitComponent fitComponent = _fitComponent;
-        if ( fitComponent == UI.FitComponent.UNDEFINED && !size.width().isPresent() && !size.height().isPresent() )
-            fitComponent = UI.FitComponent.MIN_DIM; // best default!
-        _paintIcon( c, g, bounds, offset, _preferredPlacement, fitComponent, padding);
+        _paintIcon( c, g, bounds, offset, _preferredPlacement, _fitComponentFor(_size()), padding);
+    }
+
+    private UI.FitComponent _fitComponentFor( Size size ) {
+        if ( _fitComponent == UI.FitComponent.UNDEFINED && !size.width().isPresent() && !size.height().isPresent() )
+            return UI.FitComponent.MIN_DIM; // best default!
+        return _fitComponent;
     }
 
     private Size _computeBaseSizeFrom(int areaWidth, int areaHeight) {
@@ -0,0 +1,234 @@
+package swingtree.style;
+
+import com.github.weisj.jsvg.SVGDocument;
+import org.jspecify.annotations.Nullable;
+import swingtree.UI;
+import swingtree.layout.Size;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ *  A global cache of rasterized {@link SvgIcon}s, shared by all of them. <br>
+ *  <br>
+ *  An {@link SvgIcon} is an immutable value object, so every new size of an icon is a new
+ *  instance, which used to start out without a rasterization of its own. A style which
+ *  renders an SVG image at the size of its component (see {@link ImageConf}) derives such a
+ *  new instance on every render which misses the style cache, and so the same document was
+ *  rasterized by jsvg again and again, for every component showing it and on every resize.
+ *  This cache remembers the rasterizations instead, keyed by everything they depend on:
+ *  the identity of the {@link SVGDocument}, the size, units, fit and placement of the icon,
+ *  its opacity, the size of the raster in pixels, the {@link UI#scale()} and whether
+ *  antialiasing is enabled. <br>
+ *  <br>
+ *  The cache is an access ordered {@link LinkedHashMap} guarded by its own monitor (like the
+ *  text layout cache of the {@link TextLayoutEngine}), bounded by the slice of the byte budget
+ *  dedicated to SVG rasters, and every raster is charged to the {@link CacheLedger}. A raster
+ *  which on its own would take up more than an eighth of that slice is not cached at all.
+ *  The number of hits and misses is counted for monitoring.
+ */
+final class SvgRasterCache
+{
+    /** Absolute ceiling on cached rasters. The live cap (see {@link #_maxRasters()}) only
+     *  drops below this on a constrained byte budget, and is {@code 0} when caching is disabled. */
+    private static final int MAX_RASTERS     = 256;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    @SuppressWarnings("serial")
+    private static final Map<Key, Raster> _CACHE =
+            new LinkedHashMap<Key, Raster>(16, 0.75f, true /* access-order */) {
+                @Override
+                protected boolean removeEldestEntry( Map.Entry<Key, Raster> eldest ) {
+                    if ( size() <= _maxRasters() )
+                        return false;
+                    CacheLedger.release(eldest.getValue()); // Never evicts, so it is fine under the cache monitor.
+                    return true;
+                }
+            };
+
+    private static long _hits   = 0;
+    private static long _misses = 0;
+
+    private SvgRasterCache() {}
+
+    private static int _maxRasters() {
+        return Math.min(MAX_RASTERS, CacheBudget.maxEntriesFor(CacheBudget.Kind.SVG_RASTER));
+    }
+
+    /** Live number of cached rasters (for monitoring/tests). */
+    static int globalEntryCount() {
+        synchronized ( _CACHE ) {
+            return _CACHE.size();
+        }
+    }
+
+    /** The number of rasterizations which were served from the cache so far. */
+    static long globalHitCount() {
+        synchronized ( _CACHE ) {
+            return _hits;
+        }
+    }
+
+    /** The number of rasterizations which had to be rendered by jsvg so far. */
+    static long globalMissCount() {
+        synchronized ( _CACHE ) {
+            return _misses;
+        }
+    }
+
+    /** Drops every cached raster. Called when the library cache configuration changes
+     *  (see {@link StyleRenderer#clearGlobalRenderCaches()}). */
+    static void clear() {
+        synchronized ( _CACHE ) {
+            for ( Raster raster : _CACHE.values() )
+                CacheLedger.release(raster);
+            _CACHE.clear();
+        }
+    }
+
+    /**
+     *  Returns the rasterization described by the supplied key, which is rendered
+     *  by the supplied renderer if it is not cached yet. <br>
+     *  <b>The returned image may be shared with every other icon of the same key,
+     *  so it must not be drawn into.</b>
+     *
+     * @param key Everything the rasterization depends on, including the size of the raster.
+     * @param renderer Renders the icon into the supplied graphics of a new, transparent raster of the size of the key.
+     * @return The rasterized icon.
+     */
+    static BufferedImage rasterize( Key key, Consumer<Graphics2D> renderer ) {
+        Raster raster;
+        synchronized ( _CACHE ) {
+            raster = _CACHE.get(key);
+            if ( raster != null )
+                _hits++;
+            else
+                _misses++;
+        }
+        if ( raster != null ) {
+            CacheLedger.touch(raster);
+            return raster._image;
+        }
+        final BufferedImage image = new BufferedImage(key._width, key._height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2d = image.createGraphics();
+        try {
+            renderer.accept(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        final long bytes = (long) key._width * key._height * BYTES_PER_PIXEL;
+        if ( _maxRasters() <= 0 || bytes > CacheBudget.bytesFor(CacheBudget.Kind.SVG_RASTER) / 8 )
+            return image; // Caching is disabled, or this would crowd out everything else.
+
+        raster = new Raster(key, image);
+        final @Nullable Raster replaced;
+        synchronized ( _CACHE ) {
+            replaced = _CACHE.put(key, raster);
+        }
+        if ( replaced != null )
+            CacheLedger.release(replaced);
+        CacheLedger.charge(raster, bytes); // Outside the cache monitor, because this may evict.
+        return image;
+    }
+
+    /**
+     *  Everything a rasterization of an {@link SvgIcon} depends on.
+     *  The document is compared by identity, because that is what it is.
+     */
+    static final class Key
+    {
+        private final SVGDocument     _document;
+        private final Size            _size;
+        private final Object          _widthUnit;
+        private final Object          _heightUnit;
+        private final UI.FitComponent _fitComponent;
+        private final UI.Placement    _placement;
+        private final float           _opacity;
+        private final int             _width;
+        private final int             _height;
+        private final float           _uiScale;
+        private final boolean         _isAntialiased;
+
+        Key(
+            SVGDocument     document,
+            Size            size,
+            Object          widthUnit,
+            Object          heightUnit,
+            UI.FitComponent fitComponent,
+            UI.Placement    placement,
+            float           opacity,
+            int             width,
+            int             height
+        ) {
+            _document      = Objects.requireNonNull(document);
+            _size          = Objects.requireNonNull(size);
+            _widthUnit     = Objects.requireNonNull(widthUnit);
+            _heightUnit    = Objects.requireNonNull(heightUnit);
+            _fitComponent  = Objects.requireNonNull(fitComponent);
+            _placement     = Objects.requireNonNull(placement);
+            _opacity       = opacity;
+            _width         = width;
+            _height        = height;
+            _uiScale       = UI.scale();
+            _isAntialiased = StyleEngine.IS_ANTIALIASING_ENABLED();
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if ( this == obj ) return true;
+            if ( !( obj instanceof Key ) ) return false;
+            Key other = (Key) obj;
+            return _document      == other._document     &&
+                   _width         == other._width        &&
+                   _height        == other._height       &&
+                   _isAntialiased == other._isAntialiased &&
+                   Float.compare(_opacity, other._opacity) == 0 &&
+                   Float.compare(_uiScale, other._uiScale) == 0 &&
+                   _fitComponent  == other._fitComponent &&
+                   _placement     == other._placement    &&
+                   _widthUnit.equals(other._widthUnit)   &&
+                   _heightUnit.equals(other._heightUnit) &&
+                   _size.equals(other._size);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(_document);
+            hash = 31 * hash + _width;
+            hash = 31 * hash + _height;
+            hash = 31 * hash + Boolean.hashCode(_isAntialiased);
+            hash = 31 * hash + Float.hashCode(_opacity);
+            hash = 31 * hash + Float.hashCode(_uiScale);
+            hash = 31 * hash + _fitComponent.hashCode();
+            hash = 31 * hash + _placement.hashCode();
+            hash = 31 * hash + _widthUnit.hashCode();
+            hash = 31 * hash + _heightUnit.hashCode();
+            hash = 31 * hash + _size.hashCode();
+            return hash;
+        }
+    }
+
+    private static final class Raster extends CacheLedger.Charge
+    {
+        private final Key           _key;
+        private final BufferedImage _image;
+
+        private Raster( Key key, BufferedImage image ) {
+            super(CacheBudget.Kind.SVG_RASTER);
+            _key   = key;
+            _image = image;
+        }
+
+        @Override
+        void evict() {
+            synchronized ( _CACHE ) {
+                if ( _CACHE.get(_key) == this )
+                    _CACHE.remove(_key);
+            }
+        }
+    }
+}
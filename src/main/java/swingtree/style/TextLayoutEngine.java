@@ -18,7 +18,6 @@ import java.text.AttributedString;
 import java.text.BreakIterator;
 import java.util.*;
 import java.util.List;
-import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 final class TextLayoutEngine {
@@ -29,9 +28,11 @@ final class TextLayoutEngine {
      *  (see {@link #_maxLayoutCacheSize()}) only drops below this on a constrained byte
      *  budget, and is {@code 0} when caching is disabled.
      *  Uses an access-order {@link LinkedHashMap} so the least-recently-used entry is
-     *  evicted once the cap is reached. Like every SwingTree rendering cache it is confined
-     *  to the Event Dispatch Thread (SwingTree is built on single-threaded Swing), so it is a
-     *  plain unsynchronized map.
+     *  evicted once the cap is reached. An access-order map is modified by every read, so
+     *  (unlike the {@link WeakCache}s) it is guarded by its own monitor for every access,
+     *  which is what allows offscreen rendering on other threads to share it.
+     *  Every entry is also charged to the {@link CacheLedger}, which may evict it
+     *  to keep all rendering caches together within their byte budget.
      */
     private static final int _CACHE_MAX_SIZE = 128;
 
@@ -51,23 +52,26 @@ final class TextLayoutEngine {
      *  and the map of previously computed {@link LayoutLine} lists for different layout
      *  contexts — see {@link ParagraphLayoutsData} for details.
      *  <p>
-     *  Using a {@link WeakHashMap} allows entries to be reclaimed once no other code holds
+     *  Using a {@link WeakCache} allows entries to be reclaimed once no other code holds
      *  a strong reference to the {@link Pooled} key — paragraphs that have scrolled off or
-     *  been replaced are automatically evicted without a fixed size cap.
+     *  been replaced are automatically evicted without a fixed size cap. This is also why
+     *  these entries are not charged to the {@link CacheLedger} (see there).
      *  <p>
-     *  <b>Borrow semantics:</b> an entry is {@link Map#remove removed} from this cache
-     *  before use and {@link Map#put returned} afterwards. Each entry wraps a <em>stateful</em>
+     *  <b>Borrow semantics:</b> an entry is {@link WeakCache#remove removed} from this cache
+     *  before use and {@link WeakCache#put returned} afterwards. Each entry wraps a <em>stateful</em>
      *  {@link LineBreakMeasurer} (it carries a traversal position), so taking it out of the
      *  cache for the duration of use guarantees a re-entrant layout of the same paragraph can
-     *  never share a measurer mid-traversal — it just builds its own entry on the miss. All
-     *  access is confined to the Event Dispatch Thread, so this is about re-entrancy, not
-     *  threads, and the map needs no synchronization.
+     *  never share a measurer mid-traversal — it just builds its own entry on the miss. The
+     *  same holds for a layout of the same paragraph on another thread (offscreen rendering),
+     *  which is why the borrowing alone makes the entries safe to share between threads.
      */
-    private static final Map<Pooled<Paragraph>, ParagraphLayoutsData> _PARAGRAPH_DATA_CACHE = new WeakHashMap<>();
+    private static final WeakCache<Pooled<Paragraph>, ParagraphLayoutsData> _PARAGRAPH_DATA_CACHE = new WeakCache<>();
 
     /** Live number of cached text layouts (for monitoring/tests). */
     static int globalEntryCount() {
-        return _LAYOUT_CACHE.size();
+        synchronized ( _LAYOUT_CACHE ) {
+            return _LAYOUT_CACHE.size();
+        }
     }
 
 
@@ -83,15 +87,18 @@ final class TextLayoutEngine {
      */
     private static final float _UNBOUNDED_LINE_WIDTH = Short.MAX_VALUE;
     @SuppressWarnings("serial")
-    private static final Map<TextLayoutKey, Pair<Float, List<LayoutLine>>> _LAYOUT_CACHE =
-            new LinkedHashMap<TextLayoutKey, Pair<Float, List<LayoutLine>>>(
+    private static final Map<TextLayoutKey, CachedLayouts> _LAYOUT_CACHE =
+            new LinkedHashMap<TextLayoutKey, CachedLayouts>(
                     _CACHE_MAX_SIZE + 1, 0.75f, true /* access-order */
             ) {
                 @Override
                 protected boolean removeEldestEntry(
-                        Map.Entry<TextLayoutKey, Pair<Float, List<LayoutLine>>> eldest
+                        Map.Entry<TextLayoutKey, CachedLayouts> eldest
                 ) {
-                    return size() > _maxLayoutCacheSize();
+                    if ( size() <= _maxLayoutCacheSize() )
+                        return false;
+                    CacheLedger.release(eldest.getValue()); // Never evicts, so it is fine under the cache monitor.
+                    return true;
                 }
             };
 
@@ -173,9 +180,14 @@ final class TextLayoutEngine {
     ) {
         final Tuple<Shape> compatibleObstacles = _supportsObstacles(placement) ? obstacles : obstacles.clear();
         final TextLayoutKey key = new TextLayoutKey(font, paragraphs, boundsWidth, boundsX, boundsY, wrapLines, boxModelConf, compatibleObstacles);
-        final Pair<Float, List<LayoutLine>> cached = _LAYOUT_CACHE.get(key);
-        if ( cached != null )
-            return cached;
+        final CachedLayouts cached;
+        synchronized ( _LAYOUT_CACHE ) {
+            cached = _LAYOUT_CACHE.get(key);
+        }
+        if ( cached != null ) {
+            CacheLedger.touch(cached);
+            return cached.result;
+        }
 
         /*
             ------------------------------------------------
@@ -199,8 +211,16 @@ final class TextLayoutEngine {
         }
 
         final Pair<Float, List<LayoutLine>> result = Pair.of(totalHeight, Collections.unmodifiableList(lines));
-        if ( _maxLayoutCacheSize() > 0 )
-            _LAYOUT_CACHE.put(key, result);
+        if ( _maxLayoutCacheSize() > 0 ) {
+            final CachedLayouts entry = new CachedLayouts(key, result);
+            final @Nullable CachedLayouts replaced;
+            synchronized ( _LAYOUT_CACHE ) {
+                replaced = _LAYOUT_CACHE.put(key, entry);
+            }
+            if ( replaced != null )
+                CacheLedger.release(replaced);
+            CacheLedger.charge(entry, entry.estimatedBytes()); // Outside the cache monitor, because this may evict.
+        }
         return result;
     }
 
@@ -208,7 +228,11 @@ final class TextLayoutEngine {
      *  cache configuration changes (see {@link ComponentExtension#updateAllCachesFromLibraryConfig()})
      *  so memory shrinks immediately; both caches repopulate lazily under the new budget. */
     static void clearGlobalCaches() {
-        _LAYOUT_CACHE.clear();
+        synchronized ( _LAYOUT_CACHE ) {
+            for ( CachedLayouts entry : _LAYOUT_CACHE.values() )
+                CacheLedger.release(entry);
+            _LAYOUT_CACHE.clear();
+        }
         _PARAGRAPH_DATA_CACHE.clear();
     }
 
@@ -552,6 +576,46 @@ final class TextLayoutEngine {
         boolean isBlank() { return primary().layout == null; }
     }
 
+    /**
+     *  A value of the {@link #_LAYOUT_CACHE}, which is what the {@link CacheLedger} is charged
+     *  with for the layouts it holds. The byte figure is an estimate, because a {@link TextLayout}
+     *  does not reveal its footprint, but it grows with the number of glyphs like the real one.
+     */
+    private static final class CachedLayouts extends CacheLedger.Charge {
+
+        private static final long BYTES_PER_LINE        = 64;  // the line, its segment list and its segments
+        private static final long BYTES_PER_TEXT_LAYOUT = 256; // the layout and its text line, without glyphs
+        private static final long BYTES_PER_CHARACTER   = 48;  // a glyph: its code, position, advance and bounds
+
+        final TextLayoutKey                 key;
+        final Pair<Float, List<LayoutLine>> result;
+
+        CachedLayouts( TextLayoutKey key, Pair<Float, List<LayoutLine>> result ) {
+            super(CacheBudget.Kind.TEXT_LAYOUT);
+            this.key    = key;
+            this.result = result;
+        }
+
+        long estimatedBytes() {
+            long bytes = 0;
+            for ( LayoutLine line : result.second() ) {
+                bytes += BYTES_PER_LINE;
+                for ( LayoutLine.Segment segment : line.segments )
+                    if ( segment.layout != null )
+                        bytes += BYTES_PER_TEXT_LAYOUT + segment.layout.getCharacterCount() * BYTES_PER_CHARACTER;
+            }
+            return bytes;
+        }
+
+        @Override
+        void evict() {
+            synchronized ( _LAYOUT_CACHE ) {
+                if ( _LAYOUT_CACHE.get(key) == this )
+                    _LAYOUT_CACHE.remove(key);
+            }
+        }
+    }
+
     private static final class Range {
         final float start, end;
         Range(float start, float end) {
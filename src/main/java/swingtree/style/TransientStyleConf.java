@@ -0,0 +1,183 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ *  A mutable scratch version of a {@link StyleConf}, which the {@link ComponentStyleDelegate}s
+ *  of a single styling chain (the delegates a {@link swingtree.api.Styler} creates from the one
+ *  it was handed) accumulate their edits in, instead of allocating a new {@link StyleConf}
+ *  for every single fluent call. It is frozen into a regular {@link StyleConf} once somebody
+ *  actually asks for one, which usually only happens when the styler returned. <br>
+ *  <br>
+ *  The delegates of a chain are still values though: a styler may hold on to an earlier
+ *  delegate and continue from there, which must behave as if that delegate was never
+ *  followed by anything. This is why every edit is recorded in an undo log, and why every
+ *  delegate knows the {@link #position()} of the log it stands for. Only the delegate at the
+ *  tip of the log edits this scratch in place. Any other one rewinds the log into a frozen
+ *  {@link StyleConf} (see {@link #freezeAt(int)}) and continues from there with a scratch
+ *  of its own. <br>
+ *  <br>
+ *  Like the stylers feeding it, this is only ever used on a single thread.
+ */
+final class TransientStyleConf
+{
+    private static final byte LAYOUT         = 0;
+    private static final byte BORDER         = 1;
+    private static final byte BASE           = 2;
+    private static final byte FONT           = 3;
+    private static final byte DIMENSIONALITY = 4;
+    private static final byte LAYERS         = 5;
+    private static final byte PROPERTIES     = 6;
+
+    private static final int INITIAL_LOG_CAPACITY = 16;
+
+    private LayoutConf           _layout;
+    private BorderConf           _border;
+    private BaseConf             _base;
+    private FontConf             _font;
+    private DimensionalityConf   _dimensionality;
+    private StyleConfLayers      _layers;
+    private NamedConfigs<String> _properties;
+
+    private byte[]   _undoFields = new byte[INITIAL_LOG_CAPACITY];
+    private Object[] _undoValues = new Object[INITIAL_LOG_CAPACITY];
+    private int      _size       = 0;
+
+    private @Nullable StyleConf _frozen;
+    private int                 _frozenAt;
+
+
+    TransientStyleConf( StyleConf style ) {
+        _layout         = style.layout();
+        _border         = style.border();
+        _base           = style.base();
+        _font           = style.font();
+        _dimensionality = style.dimensionality();
+        _layers         = style.layers();
+        _properties     = style.namedProperties();
+        _frozen         = style;
+        _frozenAt       = 0;
+    }
+
+    /** The position of the tip of the undo log, which changes with every effective edit. */
+    int position() { return _size; }
+
+    LayoutConf layout() { return _layout; }
+
+    BorderConf border() { return _border; }
+
+    BaseConf base() { return _base; }
+
+    FontConf font() { return _font; }
+
+    DimensionalityConf dimensionality() { return _dimensionality; }
+
+    StyleConfLayers layers() { return _layers; }
+
+    NamedConfigs<String> namedProperties() { return _properties; }
+
+    void layout( LayoutConf layout ) {
+        if ( layout != _layout ) {
+            _log(LAYOUT, _layout);
+            _layout = layout;
+        }
+    }
+
+    void border( BorderConf border ) {
+        if ( border != _border ) {
+            _log(BORDER, _border);
+            _border = border;
+        }
+    }
+
+    void base( BaseConf base ) {
+        if ( base != _base ) {
+            _log(BASE, _base);
+            _base = base;
+        }
+    }
+
+    void font( FontConf font ) {
+        if ( font != _font ) {
+            _log(FONT, _font);
+            _font = font;
+        }
+    }
+
+    void dimensionality( DimensionalityConf dimensionality ) {
+        if ( dimensionality != _dimensionality ) {
+            _log(DIMENSIONALITY, _dimensionality);
+            _dimensionality = dimensionality;
+        }
+    }
+
+    void layers( StyleConfLayers layers ) {
+        if ( layers != _layers ) {
+            _log(LAYERS, _layers);
+            _layers = layers;
+        }
+    }
+
+    void properties( NamedConfigs<String> properties ) {
+        if ( properties != _properties ) {
+            _log(PROPERTIES, _properties);
+            _properties = properties;
+        }
+    }
+
+    /** Freezes the tip of the undo log into an immutable {@link StyleConf}. */
+    StyleConf freeze() {
+        StyleConf frozen = _frozen;
+        if ( frozen != null && _frozenAt == _size )
+            return frozen;
+        frozen = StyleConf.of(_layout, _border, _base, _font, _dimensionality, _layers, _properties);
+        _frozen   = frozen;
+        _frozenAt = _size;
+        return frozen;
+    }
+
+    /**
+     *  Freezes the style as it was when the undo log was at the supplied position,
+     *  which is what a delegate that is no longer at the tip of the log stands for.
+     */
+    @SuppressWarnings("unchecked")
+    StyleConf freezeAt( int position ) {
+        if ( position == _size )
+            return freeze();
+        if ( _frozen != null && _frozenAt == position )
+            return _frozen;
+        LayoutConf           layout         = _layout;
+        BorderConf           border         = _border;
+        BaseConf             base           = _base;
+        FontConf             font           = _font;
+        DimensionalityConf   dimensionality = _dimensionality;
+        StyleConfLayers      layers         = _layers;
+        NamedConfigs<String> properties     = _properties;
+        for ( int i = _size - 1; i >= position; i-- ) {
+            Object value = _undoValues[i];
+            switch ( _undoFields[i] ) {
+                case LAYOUT:         layout         = (LayoutConf) value;           break;
+                case BORDER:         border         = (BorderConf) value;           break;
+                case BASE:           base           = (BaseConf) value;             break;
+                case FONT:           font           = (FontConf) value;             break;
+                case DIMENSIONALITY: dimensionality = (DimensionalityConf) value;   break;
+                case LAYERS:         layers         = (StyleConfLayers) value;      break;
+                case PROPERTIES:     properties     = (NamedConfigs<String>) value; break;
+                default: break;
+            }
+        }
+        return StyleConf.of(layout, border, base, font, dimensionality, layers, properties);
+    }
+
+    private void _log( byte field, Object formerValue ) {
+        if ( _size == _undoFields.length ) {
+            _undoFields = Arrays.copyOf(_undoFields, _size * 2);
+            _undoValues = Arrays.copyOf(_undoValues, _size * 2);
+        }
+        _undoFields[_size] = field;
+        _undoValues[_size] = formerValue;
+        _size++;
+    }
+}
@@ -0,0 +1,334 @@
+package swingtree.style;
+
+import org.jspecify.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ *  A thread safe, weakly keyed hash map for SwingTree's global rendering caches and its
+ *  {@link ObjectPool}, which replaces the plain {@link java.util.WeakHashMap}s these
+ *  used to be. Like a {@link java.util.WeakHashMap}, it compares keys by
+ *  {@link Object#equals(Object)} and holds them weakly, so an entry lives for exactly as
+ *  long as something outside of the cache still references its key. <br>
+ *  <br>
+ *  Unlike a {@link java.util.WeakHashMap}, it may be used from any thread, which is what
+ *  allows offscreen rendering on worker threads (snapshots, thumbnails, reports) to share
+ *  the entries the Event Dispatch Thread has already warmed up.
+ *
+ *  <h2>Striping</h2>
+ *  The entries are spread across a fixed number of independently locked segments by the
+ *  high bits of their hash, so that threads looking up different keys hardly ever wait
+ *  for each other. A lock which nobody else holds costs next to nothing, which is why
+ *  the single threaded case (by far the most common one) remains about as fast as the
+ *  unsynchronized map it replaces.
+ *
+ *  <h2>Reclaimed entries</h2>
+ *  Every segment owns a {@link ReferenceQueue} which the garbage collector enqueues the
+ *  references of reclaimed keys into. Rather than emptying it completely on every access,
+ *  every access removes at most {@link #DRAIN_BATCH_SIZE} reclaimed entries, which amortizes
+ *  the cost of a collection which reclaimed many keys at once over the following accesses.
+ *  Only {@link #size()} and {@link #values()} drain completely, because their results
+ *  are supposed to react to garbage collection right away. A cache whose values account
+ *  for memory elsewhere (see {@link CacheLedger}) may supply a listener which is told about
+ *  every value leaving the map this way, or through {@link #clear()}. It is called while
+ *  a segment lock is held, so it must be quick and must not use this cache itself.
+ *
+ *  <h2>Values</h2>
+ *  The map only makes the <i>lookup</i> thread safe. A value which is shared between
+ *  threads through it has to be safe to share itself, just like the values of any
+ *  other concurrent map.
+ *
+ * @param <K> The type of the weakly held keys, which must be immutable value objects.
+ * @param <V> The type of the strongly held values.
+ */
+final class WeakCache<K, V>
+{
+    private static final int SEGMENT_BITS     = 4;
+    private static final int SEGMENT_COUNT    = 1 << SEGMENT_BITS;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DRAIN_BATCH_SIZE = 16;
+
+    private final Segment<K, V>[] _segments;
+
+
+    WeakCache() {
+        this( value -> {} );
+    }
+
+    /**
+     * @param onReclaim Called with the value of every entry which is dropped because its key was
+     *                  reclaimed or because the cache was {@link #clear() cleared}.
+     */
+    @SuppressWarnings("unchecked")
+    WeakCache( Consumer<? super V> onReclaim ) {
+        Objects.requireNonNull(onReclaim);
+        _segments = (Segment<K, V>[]) new Segment[SEGMENT_COUNT];
+        for ( int i = 0; i < SEGMENT_COUNT; i++ )
+            _segments[i] = new Segment<>(onReclaim);
+    }
+
+    private static int _hashOf( Object key ) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private Segment<K, V> _segmentFor( int hash ) {
+        return _segments[(hash * 0x9E3779B9) >>> (32 - SEGMENT_BITS)];
+    }
+
+    /** Returns the value stored for a key equal to the supplied one, or {@code null} if there is none. */
+    @Nullable V get( K key ) {
+        Objects.requireNonNull(key);
+        final int hash = _hashOf(key);
+        return _segmentFor(hash).get(key, hash);
+    }
+
+    /** Stores the supplied value for the supplied key, replacing the value of an equal key. */
+    void put( K key, V value ) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final int hash = _hashOf(key);
+        _segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /** Removes the entry of a key equal to the supplied one, returning its value, if any. */
+    @Nullable V remove( K key ) {
+        Objects.requireNonNull(key);
+        final int hash = _hashOf(key);
+        return _segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     *  Returns the value stored for a key equal to the supplied one, or computes, stores and
+     *  returns a new one if there is none. Deliberately, the mapping function is called
+     *  without holding any lock, so that it may use this cache (or any other) itself. Two
+     *  threads missing the same key at the same time may therefore both compute a value,
+     *  of which the one stored first wins and is returned to both.
+     */
+    V computeIfAbsent( K key, Function<? super K, ? extends V> mappingFunction ) {
+        Objects.requireNonNull(key);
+        final int hash = _hashOf(key);
+        final Segment<K, V> segment = _segmentFor(hash);
+        final V existing = segment.get(key, hash);
+        if ( existing != null )
+            return existing;
+        final V computed = Objects.requireNonNull(mappingFunction.apply(key));
+        return segment.put(key, hash, computed, false);
+    }
+
+    /**
+     *  Returns the key currently stored which is equal to the supplied one, or stores the
+     *  supplied key (with the supplied value) and returns it, if there is none.
+     *  This is what makes this map usable as a weak interner (see {@link ObjectPool}).
+     */
+    K internKey( K key, V value ) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final int hash = _hashOf(key);
+        return _segmentFor(hash).internKey(key, hash, value);
+    }
+
+    /** The number of entries whose keys have not been reclaimed yet. */
+    int size() {
+        int size = 0;
+        for ( Segment<K, V> segment : _segments )
+            size += segment.size();
+        return size;
+    }
+
+    /** A snapshot of the values of all entries whose keys have not been reclaimed yet. */
+    List<V> values() {
+        final List<V> values = new ArrayList<>();
+        for ( Segment<K, V> segment : _segments )
+            segment.collectValues(values);
+        return values;
+    }
+
+    void clear() {
+        for ( Segment<K, V> segment : _segments )
+            segment.clear();
+    }
+
+
+    private static final class Entry<K, V> extends WeakReference<K>
+    {
+        final int hash;
+        V value;
+        @Nullable Entry<K, V> next;
+
+        Entry( K key, int hash, V value, @Nullable Entry<K, V> next, ReferenceQueue<Object> queue ) {
+            super(key, queue);
+            this.hash  = hash;
+            this.value = value;
+            this.next  = next;
+        }
+    }
+
+    private static final class Segment<K, V>
+    {
+        private final ReferenceQueue<Object> _queue = new ReferenceQueue<>();
+        private final Consumer<? super V>    _onReclaim;
+        private @Nullable Entry<K, V>[]      _table = _newTable(INITIAL_CAPACITY);
+        private int                          _size  = 0;
+
+        Segment( Consumer<? super V> onReclaim ) {
+            _onReclaim = onReclaim;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K, V> @Nullable Entry<K, V>[] _newTable( int capacity ) {
+            return (Entry<K, V>[]) new Entry[capacity];
+        }
+
+        synchronized @Nullable V get( K key, int hash ) {
+            _drain(DRAIN_BATCH_SIZE);
+            final Entry<K, V> entry = _find(key, hash);
+            return entry == null ? null : entry.value;
+        }
+
+        synchronized V put( K key, int hash, V value, boolean replace ) {
+            _drain(DRAIN_BATCH_SIZE);
+            final Entry<K, V> existing = _find(key, hash);
+            if ( existing != null ) {
+                if ( replace )
+                    existing.value = value;
+                return existing.value;
+            }
+            _insert(key, hash, value);
+            return value;
+        }
+
+        synchronized K internKey( K key, int hash, V value ) {
+            _drain(DRAIN_BATCH_SIZE);
+            final Entry<K, V> existing = _find(key, hash);
+            if ( existing != null ) {
+                final K canonical = existing.get();
+                if ( canonical != null )
+                    return canonical;
+            }
+            _insert(key, hash, value);
+            return key;
+        }
+
+        synchronized @Nullable V remove( K key, int hash ) {
+            _drain(DRAIN_BATCH_SIZE);
+            final @Nullable Entry<K, V>[] table = _table;
+            final int index = hash & (table.length - 1);
+            Entry<K, V> previous = null;
+            for ( Entry<K, V> entry = table[index]; entry != null; entry = entry.next ) {
+                if ( entry.hash == hash ) {
+                    final K candidate = entry.get();
+                    if ( candidate == key || (candidate != null && candidate.equals(key)) ) {
+                        _unlink(table, index, previous, entry);
+                        return entry.value;
+                    }
+                }
+                previous = entry;
+            }
+            return null;
+        }
+
+        synchronized int size() {
+            _drain(Integer.MAX_VALUE);
+            return _size;
+        }
+
+        synchronized void collectValues( List<V> values ) {
+            _drain(Integer.MAX_VALUE);
+            for ( @Nullable Entry<K, V> head : _table )
+                for ( Entry<K, V> entry = head; entry != null; entry = entry.next )
+                    if ( entry.get() != null )
+                        values.add(entry.value);
+        }
+
+        synchronized void clear() {
+            while ( _queue.poll() != null ) {
+                // The references of the old table are irrelevant once it is replaced.
+            }
+            for ( @Nullable Entry<K, V> head : _table )
+                for ( Entry<K, V> entry = head; entry != null; entry = entry.next )
+                    _onReclaim.accept(entry.value);
+            _table = _newTable(INITIAL_CAPACITY);
+            _size  = 0;
+        }
+
+        private @Nullable Entry<K, V> _find( K key, int hash ) {
+            final @Nullable Entry<K, V>[] table = _table;
+            for ( Entry<K, V> entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next ) {
+                if ( entry.hash == hash ) {
+                    final K candidate = entry.get();
+                    if ( candidate == key || (candidate != null && candidate.equals(key)) )
+                        return entry;
+                }
+            }
+            return null;
+        }
+
+        private void _insert( K key, int hash, V value ) {
+            if ( _size >= _table.length - (_table.length >>> 2) )
+                _resize();
+            final @Nullable Entry<K, V>[] table = _table;
+            final int index = hash & (table.length - 1);
+            table[index] = new Entry<>(key, hash, value, table[index], _queue);
+            _size++;
+        }
+
+        private void _resize() {
+            final @Nullable Entry<K, V>[] oldTable = _table;
+            final @Nullable Entry<K, V>[] newTable = _newTable(oldTable.length * 2);
+            for ( @Nullable Entry<K, V> head : oldTable ) {
+                Entry<K, V> entry = head;
+                while ( entry != null ) {
+                    final Entry<K, V> next = entry.next;
+                    final int index = entry.hash & (newTable.length - 1);
+                    entry.next = newTable[index];
+                    newTable[index] = entry;
+                    entry = next;
+                }
+            }
+            _table = newTable;
+        }
+
+        private void _unlink( @Nullable Entry<K, V>[] table, int index, @Nullable Entry<K, V> previous, Entry<K, V> entry ) {
+            if ( previous == null )
+                table[index] = entry.next;
+            else
+                previous.next = entry.next;
+            entry.next = null;
+            _size--;
+        }
+
+        /**
+         *  Removes up to the supplied number of entries whose keys were reclaimed.
+         *  A reference which is no longer in the table (because it was removed or
+         *  the table was cleared before the collector got to it) is simply skipped.
+         */
+        @SuppressWarnings("unchecked")
+        private void _drain( int maxEntries ) {
+            for ( int i = 0; i < maxEntries; i++ ) {
+                final Reference<?> reclaimed = _queue.poll();
+                if ( reclaimed == null )
+                    return;
+                final Entry<K, V> stale = (Entry<K, V>) reclaimed;
+                final @Nullable Entry<K, V>[] table = _table;
+                final int index = stale.hash & (table.length - 1);
+                Entry<K, V> previous = null;
+                for ( Entry<K, V> entry = table[index]; entry != null; entry = entry.next ) {
+                    if ( entry == stale ) {
+                        _unlink(table, index, previous, entry);
+                        _onReclaim.accept(entry.value);
+                        break;
+                    }
+                    previous = entry;
+                }
+            }
+        }
+    }
+}
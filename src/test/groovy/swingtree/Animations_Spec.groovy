@@ -4,6 +4,7 @@ import spock.lang.Narrative
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Title
+import sprouts.From
 import sprouts.Var
 import swingtree.animation.*
 import swingtree.threading.EventProcessor
@@ -20,7 +21,7 @@ import java.util.concurrent.TimeUnit
     Animations are a great way to improve the UX of your application.
     Swing-Tree has a built in animation scheduler that can execute animations 
     given that you have at least specified the duration of the animation.
-    Internally the animation scheduler is a `Timer` that will regularly update
+    Internally the animation scheduler is a single frame clock that will regularly update
     your animations and then remove them from the scheduler once they are finished.
 
 ''')
@@ -209,8 +210,8 @@ class Animations_Spec extends Specification
     {
         reportInfo """
             Swing-Tree has a built in animation scheduler, which is essentially a
-            "Timer" that can be used to schedule implementations of the "Animation" interface.
-            However this timer has a fixed resolution of 16 milliseconds so that
+            frame clock that can be used to schedule implementations of the "Animation" interface.
+            However this clock has a default resolution of 16 milliseconds so that
             the animation is not executed too often but often enough to be smooth (60 fps).
             
             This means that if you schedule an animation that has a duration of 1 millisecond
@@ -237,6 +238,114 @@ class Animations_Spec extends Specification
             wasFinished == 1
     }
 
+    def 'Animations with different intervals are advanced together, by a single frame clock.'()
+    {
+        reportInfo """
+            Every animation has an interval, which is how often it wants to be advanced.
+            Instead of running a separate timer for every distinct interval, which would
+            tick out of step with one another and repaint the UI at their own pace,
+            all animations share a single frame clock. It ticks at the interval of the
+            fastest animation and advances the slower ones in those frames in which their own
+            interval has elapsed. So animations which are advanced together observe the very
+            same frame event, and their components are repainted together as well.
+        """
+        given : 'Three sets for the frame events observed by three animations:'
+            var fastFrames   = Collections.synchronizedSet(new HashSet())
+            var mediumFrames = Collections.synchronizedSet(new HashSet())
+            var slowFrames   = Collections.synchronizedSet(new HashSet())
+            int finished = 0
+        and : 'A factory for animations which record their frames and count their finishes:'
+            var recorder = { Set frames ->
+                new Animation() {
+                    @Override void run(AnimationStatus status) { frames << status.event() }
+                    @Override void finish(AnimationStatus status) { finished++ }
+                }
+            }
+
+        when : 'We run three animations with an interval of 10, 20 and 30 milliseconds at the same time:'
+            UI.animateFor(LifeTime.of(300, TimeUnit.MILLISECONDS).withInterval(10, TimeUnit.MILLISECONDS)).go(recorder(fastFrames))
+            UI.animateFor(LifeTime.of(300, TimeUnit.MILLISECONDS).withInterval(20, TimeUnit.MILLISECONDS)).go(recorder(mediumFrames))
+            UI.animateFor(LifeTime.of(300, TimeUnit.MILLISECONDS).withInterval(30, TimeUnit.MILLISECONDS)).go(recorder(slowFrames))
+        and : 'We wait for all of them to finish:'
+            Wait.until({ finished == 3 }, 2_500)
+
+        then : 'All of them were advanced:'
+            !fastFrames.isEmpty() && !mediumFrames.isEmpty() && !slowFrames.isEmpty()
+        and : 'The slower animations were advanced in some of the very same frames as the fastest one:'
+            !Collections.disjoint(fastFrames, mediumFrames)
+            !Collections.disjoint(fastFrames, slowFrames)
+    }
+
+    def 'An animation started by another animation runs from the next frame on, alongside the others.'()
+    {
+        reportInfo """
+            The frame clock does not copy its running animations into a new array on every frame.
+            Instead, the ones which keep running are carried over into a second list, which then
+            takes the place of the first one. An animation may start new animations while it
+            is being advanced, which must neither be lost in this shuffle, nor be advanced
+            in the very frame in which they were started.
+        """
+        given : 'Traces of the frame events observed by an outer and an inner animation:'
+            var outerFrames = Collections.synchronizedList([])
+            var innerFrames = Collections.synchronizedList([])
+            boolean innerFinished = false
+        and : 'The inner animation, which is started by the outer one:'
+            var inner = new Animation() {
+                @Override void run(AnimationStatus status) { innerFrames << status.event() }
+                @Override void finish(AnimationStatus status) { innerFinished = true }
+            }
+
+        when : 'We run an outer animation, which starts the inner animation when it is first advanced:'
+            UI.animateFor(LifeTime.of(200, TimeUnit.MILLISECONDS).withInterval(10, TimeUnit.MILLISECONDS))
+                .go( status -> {
+                    if ( outerFrames.isEmpty() )
+                        UI.animateFor(LifeTime.of(200, TimeUnit.MILLISECONDS).withInterval(10, TimeUnit.MILLISECONDS)).go(inner)
+                    outerFrames << status.event()
+                })
+        and : 'We wait for the inner animation to finish:'
+            Wait.until({ innerFinished }, 2_500)
+
+        then : 'The inner animation was advanced, but not in the frame in which it was started:'
+            !innerFrames.isEmpty()
+            !innerFrames.contains(outerFrames[0])
+        and : 'Afterwards, it was advanced in the same frames as the outer animation:'
+            !Collections.disjoint(outerFrames, innerFrames)
+    }
+
+    def 'Use `UI.animateInBackground(..)` to transform a view model off the UI thread, and only write it on the UI thread.'()
+    {
+        reportInfo """
+            Interpolating a large view model on every frame of an animation can take a while,
+            and the UI thread has better things to do, like painting. So instead of `UI.animate(..)`,
+            you may use `UI.animateInBackground(..)`, which evaluates the transformation of the
+            `Animatable<M>` on the animation frame clock thread. Only the resulting models are
+            written to the property on the UI thread, once per frame and in one batch with
+            the results of all other animations, no matter which event processor is in use.
+        """
+        given : 'A property holding a number, and traces of the threads on which it is transformed and written:'
+            var state = Var.of(0d)
+            var transformedOnUIThread = Collections.synchronizedList([])
+            var writtenOnUIThread = Collections.synchronizedList([])
+            state.onChange(From.ALL, it -> writtenOnUIThread << SwingUtilities.isEventDispatchThread())
+        and : 'An `Animatable<M>` which transforms the number into the progress of the animation:'
+            var animatable = Animatable.of(LifeTime.of(300, TimeUnit.MILLISECONDS), 0d, (status, number) -> {
+                transformedOnUIThread << SwingUtilities.isEventDispatchThread()
+                return status.progress()
+            })
+
+        when : 'We animate the property in the background, from a UI declaration in decoupled mode:'
+            UI.use(EventProcessor.DECOUPLED, ()-> UI.animateInBackground(state, animatable))
+        and : 'We wait for the animation to reach its end:'
+            Wait.until({ state.get() == 1d }, 2_500)
+
+        then : 'The transformation never ran on the UI thread:'
+            !transformedOnUIThread.isEmpty()
+            transformedOnUIThread.every( { it == false } )
+        and : 'The property was only ever written on the UI thread:'
+            !writtenOnUIThread.isEmpty()
+            writtenOnUIThread.every( { it == true } )
+    }
+
     def 'Animate the color of a label when it is clicked.'()
     {
         given : 'A simple list used as a trace for the animation runs.'
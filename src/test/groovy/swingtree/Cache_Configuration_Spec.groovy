@@ -63,6 +63,16 @@ class Cache_Configuration_Spec extends Specification
         Utility.renderSingleComponent(c)
     }
 
+    private java.awt.image.BufferedImage paintAndCapture(java.awt.Component c) {
+        def pref = c.getPreferredSize()
+        c.setSize(Math.max(1, (int) pref.width), Math.max(1, (int) pref.height))
+        return Utility.renderSingleComponent(c)
+    }
+
+    private static int[] pixelsOf(java.awt.image.BufferedImage image) {
+        return image.getRGB(0, 0, image.width, image.height, null, 0, image.width)
+    }
+
     def 'The default cache mode is BALANCED, and it can be changed at runtime.'()
     {
         expect : 'A freshly configured library context reports the balanced default.'
@@ -243,6 +253,246 @@ class Cache_Configuration_Spec extends Specification
             ComponentExtension.updateAllCachesFromLibraryConfig()
     }
 
+    def 'The bytes held by all rendering caches together never exceed the total budget.'()
+    {
+        reportInfo """
+            The per cache limits count entries, and entries differ wildly in size, so on
+            their own they only approximate the budget. What makes it a hard ceiling is
+            the ledger all caches charge the real size of their entries to, which evicts
+            the coldest ones, across caches, as soon as the total would exceed the budget.
+            `ComponentExtension.globalRenderCacheBytesCharged()` is the figure it keeps
+            below `ComponentExtension.globalRenderCacheByteBudget()`.
+        """
+        given : 'A small, deterministic budget of 4 MiB and two dozen differently styled boxes, each large enough to be expensive.'
+            CacheBudget.UNITS_OVERRIDE = 1
+            ComponentExtension.updateAllCachesFromLibraryConfig() // clears every global rendering cache
+            var boxes = (0..<24).collect { i ->
+                            UI.box()
+                              .withStyle({ it
+                                  .size(300, 200)
+                                  .borderRadius(12)
+                                  .backgroundColor(new Color(i * 10, 90, 160))
+                                  .gradient( g -> g.colors(new Color(200, i * 10, 70), new Color(30, 70, 200)) )
+                              })
+                              .get(swingtree.components.JBox)
+                        }
+        expect : 'Nothing is charged yet.'
+            ComponentExtension.globalRenderCacheBytesCharged() == 0
+            ComponentExtension.globalRenderCacheByteBudget() == 4L * 1024 * 1024
+
+        when : 'Each of them is painted often enough to be cached, one after the other.'
+            var peak = 0L
+            var neverExceeded = true
+            boxes.each { box ->
+                8.times {
+                    paint(box)
+                    var charged = ComponentExtension.globalRenderCacheBytesCharged()
+                    peak = Math.max(peak, charged)
+                    neverExceeded &= charged <= ComponentExtension.globalRenderCacheByteBudget()
+                }
+            }
+        then : 'The caches did fill up to the budget...'
+            peak > ComponentExtension.globalRenderCacheByteBudget() / 2
+        and : '...but they were never allowed to hold more than it.'
+            neverExceeded
+        and : 'Which is because the coldest renderings, those of the boxes painted first, were evicted.'
+            ComponentExtension.from(boxes.first()).cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+            !ComponentExtension.from(boxes.last()).cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+
+        cleanup :
+            CacheBudget.UNITS_OVERRIDE = -1
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+    }
+
+    def 'Cached renderings can be stored outside of the Java heap, and look exactly the same.'()
+    {
+        reportInfo """
+            Applications for which garbage collection pauses or heap size matter more than
+            the cost of a cache hit may store the pixels of cached style renderings in native
+            memory instead, through `SwingTree.get().setOffHeapCacheEnabled(true)`. Those
+            pixels are freed the moment their entry is evicted, rather than whenever the
+            garbage collector gets to them. What gets painted does not change at all.
+        """
+        given : 'A box with a rounded gradient, which is cached after a few paints.'
+            CacheBudget.UNITS_OVERRIDE = 10
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+            var box =
+                UI.box()
+                  .withStyle( it -> it
+                      .size(180, 120)
+                      .borderRadius(14)
+                      .backgroundColor(new Color(40, 60, 90))
+                      .gradient( g -> g.colors(new Color(230, 120, 40), new Color(20, 90, 200, 180)) )
+                  )
+                  .get(swingtree.components.JBox)
+            var ext = ComponentExtension.from(box)
+
+        expect : 'The heap is where cached renderings live by default.'
+            !SwingTree.get().isOffHeapCacheEnabled()
+
+        when : 'It is painted until its background is cached on the heap.'
+            6.times { paint(box) }
+            var onHeap = ext.cachedRendering(UI.Layer.BACKGROUND)
+        then :
+            onHeap.size() == 1
+
+        when : 'The off-heap storage is switched on, which empties the caches, and it is painted again.'
+            SwingTree.get().setOffHeapCacheEnabled(true)
+            var emptied = ext.cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+            6.times { paint(box) }
+            var offHeap = ext.cachedRendering(UI.Layer.BACKGROUND)
+        then : 'The setting took effect, and the rendering was cached anew...'
+            SwingTree.get().isOffHeapCacheEnabled()
+            emptied
+            offHeap.size() == 1
+        and : '...with exactly the same pixels as before.'
+            pixelsOf(onHeap.first()) == pixelsOf(offHeap.first())
+
+        when : 'It is switched off again.'
+            SwingTree.get().setOffHeapCacheEnabled(false)
+        then : 'Which frees every off-heap rendering right away.'
+            !SwingTree.get().isOffHeapCacheEnabled()
+            ext.cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+
+        cleanup :
+            SwingTree.get().setOffHeapCacheEnabled(false)
+            CacheBudget.UNITS_OVERRIDE = -1
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+    }
+
+    def 'A large noise is rendered from tiles filled on every core, with exactly the same pixels.'()
+    {
+        reportInfo """
+            A large noise, like a full screen background, is blitted from pre-rendered tiles,
+            and the tiles it is missing are all rendered at once, in parallel. Every one of them
+            is still rendered exactly like it would have been on the UI thread, so the result
+            is pixel for pixel what the per pixel noise paint produces when tile caching is off.
+        """
+        given : 'A large box with an opaque noise, which spans a dozen tiles.'
+            CacheBudget.UNITS_OVERRIDE = 10
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+            var newBox = { ->
+                UI.box()
+                  .withStyle( it -> it
+                      .size(900, 600)
+                      .noise("marble", n -> n
+                          .function(UI.NoiseType.MARBLE)
+                          .colors(new Color(20, 40, 60), new Color(200, 180, 140), new Color(90, 30, 30))
+                      )
+                  )
+                  .get(swingtree.components.JBox)
+            }
+
+        when : 'It is painted with tile caching on, which renders its tiles in parallel.'
+            var tiled = paintAndCapture(newBox())
+        and : 'An identical box is painted with every cache off, which renders the noise pixel by pixel.'
+            SwingTree.get().setCacheMode(CacheMode.DISABLED)
+            var direct = paintAndCapture(newBox())
+        then : 'Both look exactly the same.'
+            pixelsOf(tiled) == pixelsOf(direct)
+
+        cleanup :
+            CacheBudget.UNITS_OVERRIDE = -1
+            SwingTree.get().setCacheMode(CacheMode.BALANCED)
+    }
+
+    def 'The exemplar renderings of stretch tiled styles can be persisted across application restarts.'()
+    {
+        reportInfo """
+            Rounded backgrounds, borders and shadows are cached as a small exemplar, from which
+            every actual size is reconstructed. With `SwingTree.get().setExemplarDiskCacheDirectory(dir)`
+            these exemplars are also written to files, from which a later run of the application
+            reads them back instead of rendering them again. An entry belongs to exactly one
+            style, set of rendering hints, UI scale and SwingTree build, and files which do not
+            fit are never used. Files are read on a background thread, so painting never waits
+            for the disk, it renders directly until the file was read.
+            Here we tamper with the pixels of the written files, which is how we can tell
+            whether a rendering was read from disk or rendered anew.
+        """
+        given : 'A directory to persist exemplars in, and a rounded box with a border.'
+            var dir = java.nio.file.Files.createTempDirectory("swingtree-exemplars").toFile()
+            SwingTree.get().setExemplarDiskCacheDirectory(dir)
+            var newBox = { ->
+                UI.box()
+                  .withStyle( it -> it
+                      .size(260, 140)
+                      .borderRadius(16)
+                      .backgroundColor(new Color(40, 90, 140))
+                      .border(2, new Color(10, 20, 30))
+                  )
+                  .get(swingtree.components.JBox)
+            }
+            var firstRun = newBox()
+            var entryFiles = { -> (dir.listFiles() ?: []).findAll { it.name.endsWith(".exemplar") } }
+            var await = { int count ->
+                long deadline = System.currentTimeMillis() + 10_000
+                while ( entryFiles().size() < count && System.currentTimeMillis() < deadline )
+                    Thread.sleep(20)
+                return entryFiles()
+            }
+            var paintUntilCached = { box ->
+                long deadline = System.currentTimeMillis() + 10_000
+                paint(box)
+                while ( ComponentExtension.from(box).cachedRendering(UI.Layer.BACKGROUND).isEmpty() && System.currentTimeMillis() < deadline ) {
+                    Thread.sleep(20) // Files are read on a background thread, while painting renders directly.
+                    paint(box)
+                }
+                return ComponentExtension.from(box).cachedRendering(UI.Layer.BACKGROUND)
+            }
+
+        expect : 'The directory is configured.'
+            SwingTree.get().getExemplarDiskCacheDirectory() == Optional.of(dir)
+
+        when : 'The box is painted until its background is cached, which writes its exemplar to disk.'
+            var rendered = paintUntilCached(firstRun)
+            var files = await(1)
+        then : 'The cached rendering is the small exemplar, and it was written to a file.'
+            rendered.size() == 1
+            rendered.first().width < 260
+            files.size() >= 1
+
+        when : 'We paint over the stored pixels, and start over with empty caches and a new box.'
+            files.each { file ->
+                byte[] bytes = file.bytes
+                int pixelBytes = rendered.first().width * rendered.first().height * 4
+                for ( int i = bytes.length - pixelBytes; i < bytes.length; i += 4 ) {
+                    bytes[i] = (byte) 0xFF; bytes[i+1] = (byte) 0xFF; bytes[i+2] = (byte) 0x00; bytes[i+3] = (byte) 0xFF
+                }
+                file.bytes = bytes
+            }
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+            var secondRun = newBox()
+            var restored = paintUntilCached(secondRun)
+        then : 'The cached rendering was read from disk, and not rendered.'
+            restored.size() == 1
+            pixelsOf(restored.first()).every { it == 0xFFFF00FF as int }
+
+        when : 'The UI scale changes, and a new box is painted.'
+            SwingTree.get().setUiScaleFactor(2f)
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+            var scaledBox = newBox()
+            var scaled = paintUntilCached(scaledBox)
+        then : 'The entries of the other scale are not used, and the new one is written alongside them.'
+            scaled.size() == 1
+            !pixelsOf(scaled.first()).every { it == 0xFFFF00FF as int }
+            await(files.size() + 1).size() > files.size()
+
+        when : 'Back at the original scale, the files are cut short, and a new box is painted.'
+            SwingTree.get().setUiScaleFactor(1f)
+            files.each { file -> file.bytes = java.util.Arrays.copyOf(file.bytes, (int) (file.length() / 2)) }
+            ComponentExtension.updateAllCachesFromLibraryConfig()
+            var thirdRun = newBox()
+            var recovered = paintUntilCached(thirdRun)
+        then : 'The broken files are ignored, and the style is rendered exactly as in the first place.'
+            recovered.size() == 1
+            pixelsOf(recovered.first()) == pixelsOf(rendered.first())
+
+        cleanup :
+            SwingTree.get().setExemplarDiskCacheDirectory(null)
+            SwingTree.get().setUiScaleFactor(1f)
+            dir?.deleteDir()
+    }
+
     def 'The live cache monitoring snapshot covers every global rendering cache.'()
     {
         reportInfo """
@@ -252,7 +502,7 @@ class Cache_Configuration_Spec extends Specification
             inventory of SwingTree's global rendering caches.
         """
         expect : 'One entry per global rendering cache, in stable order, never negative.'
-            ComponentExtension.globalRenderCacheEntryCounts().keySet().toList() == ["style layers", "text layouts", "noise paints", "shadow gradients"]
+            ComponentExtension.globalRenderCacheEntryCounts().keySet().toList() == ["style layers", "text layouts", "noise paints", "shadow gradients", "shadow masks", "svg rasters"]
             ComponentExtension.globalRenderCacheEntryCounts().values().every { it >= 0 }
     }
 }
@@ -4,13 +4,18 @@ import spock.lang.Narrative
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Title
+import spock.util.concurrent.PollingConditions
 import swingtree.api.IconDeclaration
 import swingtree.components.JBox
 import swingtree.layout.Size
+import swingtree.style.SvgIcon
 
 import javax.swing.JButton
+import javax.swing.JLabel
 import javax.swing.JPanel
 import javax.swing.JToggleButton
+import java.awt.Color
+import java.awt.image.BufferedImage
 import java.lang.ref.WeakReference
 import java.util.function.Supplier
 
@@ -167,6 +172,91 @@ class Icon_Caching_Spec extends Specification
             IconDeclaration.ofAutoScaledSvg(svg1) !== IconDeclaration.ofAutoScaledSvg(svg2)
     }
 
+    def 'An icon can be loaded in the background, while a stand-in of its declared size is painted in its place.'()
+    {
+        reportInfo """
+            Loading, parsing and rasterizing a lot of SVG icons takes time,
+            which you do not want the UI thread to spend when opening a view.
+            Through `IconDeclaration.findLater()` (or `UI.findIconLater(..)`)
+            you get an icon right away, which is loaded in the background.
+            Until it is loaded, it paints nothing (or a placeholder of your choice),
+            and the components it was painted onto are repainted once it is ready.
+            The loaded icon ends up in the very same cache as the ones
+            loaded through `find()`, so asking for it again is a cache hit.
+        """
+        given : 'We start with a clean library context and declare an SVG icon with a size:'
+            SwingTree.initialize()
+            var svg = "<svg width=\"16\" height=\"16\" viewBox=\"0 0 16 16\"><rect width=\"16\" height=\"16\" fill=\"red\"/></svg>"
+            var declaration = IconDeclaration.ofSvg(svg).withSize(24, 24)
+
+        when : 'We ask for the icon without waiting for it:'
+            var icon = declaration.findLater()
+        then : 'We get an icon of the declared size right away, loaded or not:'
+            icon.getIconWidth()  == 24
+            icon.getIconHeight() == 24
+
+        when : 'We wait for the background loading to finish:'
+            new PollingConditions(timeout: 10, initialDelay: 0, factor: 1.25).eventually {
+                assert SwingTree.get().getIconCache().get(declaration) != null
+            }
+            UI.sync()
+        and : 'We paint the icon we got:'
+            var image = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB)
+            var g2d = image.createGraphics()
+            icon.paintIcon(null, g2d, 0, 0)
+            g2d.dispose()
+        then : 'It paints the loaded icon:'
+            image.getRGB(12, 12) == Color.RED.getRGB()
+        and : 'Asking for the icon again returns the loaded icon from the cache:'
+            declaration.findLater() instanceof SvgIcon
+            declaration.findLater().is(SwingTree.get().getIconCache().get(declaration))
+            declaration.find().get().is(declaration.findLater())
+
+        cleanup :
+            SwingTree.clear()
+    }
+
+    def 'A disabled label shows the gray version of an icon loaded in the background, once it is loaded.'()
+    {
+        reportInfo """
+            A disabled label does not paint its icon, but a gray version of it,
+            which the look and feel derives from the image of the icon once and
+            which the label keeps. For an icon loaded in the background,
+            that would be the image of the placeholder, so when the icon is loaded,
+            the gray versions derived from the placeholder are dropped,
+            and the label derives the one of the loaded icon instead.
+        """
+        given : 'We start with a clean library context and declare an SVG icon with a size:'
+            SwingTree.initialize()
+            var svg = "<svg width=\"16\" height=\"16\" viewBox=\"0 0 16 16\"><rect width=\"16\" height=\"16\" fill=\"blue\"/></svg>"
+            var declaration = IconDeclaration.ofSvg(svg).withSize(24, 24)
+        and : 'A label showing the icon without waiting for it, which is painted once:'
+            var label = new JLabel(declaration.findLater())
+            label.setSize(24, 24)
+            var image = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB)
+            var g2d = image.createGraphics()
+            label.paint(g2d)
+            g2d.dispose()
+        when : 'The label is disabled and derives its gray icon:'
+            label.setEnabled(false)
+            label.getDisabledIcon()
+        and : 'We wait for the background loading to finish:'
+            new PollingConditions(timeout: 10, initialDelay: 0, factor: 1.25).eventually {
+                assert SwingTree.get().getIconCache().get(declaration) != null
+            }
+            UI.sync()
+        and : 'We paint the gray icon of the label:'
+            var gray = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB)
+            var g = gray.createGraphics()
+            label.getDisabledIcon().paintIcon(label, g, 0, 0)
+            g.dispose()
+        then : 'It is a gray version of the loaded icon, and not of the empty placeholder:'
+            (gray.getRGB(12, 12) >>> 24) > 0
+
+        cleanup :
+            SwingTree.clear()
+    }
+
     /**
      * This method guarantees that garbage collection is
      * done unlike <code>{@link System#gc()}</code> for
@@ -3554,6 +3554,46 @@ class Individual_Component_Styling_Spec extends Specification
     }
 
 
+    def 'A conic gradient rendered with the fast quality looks just like one rendered exactly.'()
+    {
+        reportInfo """
+                A conic gradient is rasterized pixel by pixel, which makes a large one
+                expensive whenever it is rendered anew, like on every frame of an animation.
+                Pass `UI.GradientQuality.FAST` to the `quality` method of the gradient
+                configuration to have it rendered several times faster instead. It then
+                approximates the angle of every pixel so precisely that no pixel differs by
+                more than a single color level from its exact rendering.
+            """
+        given : 'Two identical labels with a conic gradient, except for the quality of the gradient.'
+            var labelOf = { UI.GradientQuality quality ->
+                UI.label("Conic").withStyle( it -> it
+                    .size(180, 140)
+                    .gradient( gradConf -> gradConf
+                        .colors(Color.BLACK, Color.CYAN, Color.GREEN, Color.MAGENTA, Color.ORANGE)
+                        .boundary(UI.ComponentBoundary.CENTER_TO_CONTENT)
+                        .span(UI.Span.TOP_LEFT_TO_BOTTOM_RIGHT)
+                        .type(UI.GradientType.CONIC)
+                        .rotation(33)
+                        .quality(quality)
+                    )
+                )
+                .get(JLabel)
+            }
+        when : 'We render both of them.'
+            var exact = Utility.renderSingleComponent(labelOf(UI.GradientQuality.EXACT))
+            var fast  = Utility.renderSingleComponent(labelOf(UI.GradientQuality.FAST))
+            int largestDifference = 0
+            for ( int y = 0; y < 140; y++ )
+                for ( int x = 0; x < 180; x++ )
+                    for ( int shift = 0; shift < 32; shift += 8 )
+                        largestDifference = Math.max(largestDifference, Math.abs(
+                            ((exact.getRGB(x, y) >>> shift) & 0xFF) - ((fast.getRGB(x, y) >>> shift) & 0xFF)
+                        ))
+        then : 'No channel of any pixel differs by more than a single level.'
+            largestDifference <= 1
+    }
+
+
     def 'Render noise gradients as component backgrounds using the style API.'()
     {
         reportInfo """
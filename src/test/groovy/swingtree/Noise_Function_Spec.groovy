@@ -4,7 +4,12 @@ import spock.lang.Narrative
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Title
+import swingtree.api.NoiseFunction
+import swingtree.components.JBox
 import swingtree.style.NoiseFunctions
+import utility.Utility
+
+import java.awt.Color
 
 @Title("Noise Functions")
 @Narrative('''
@@ -146,6 +151,79 @@ class Noise_Function_Spec extends Specification
             textures.toSet().size() == textures.size()
     }
 
+    def 'Sampling a whole row of a noise yields exactly what sampling it coordinate by coordinate does.'()
+    {
+        reportInfo """
+            An unrotated noise is rasterized row by row, through `NoiseFunction.fillRow`,
+            which several of the built in noise types implement much faster than one
+            coordinate after the other, by hashing the pseudo random lattice their kernels
+            share only once per row. Since a noise function is a look, the row version
+            has to produce the very same values, bit for bit, or the texture would change
+            depending on whether it is rotated.
+        """
+        given : 'Rows of coordinates which are fractional, negative, unevenly spaced or spread far apart.'
+            var rows = [
+                (0..<300).collect { (float)(it * 0.37f + 11.5f) },
+                (0..<300).collect { (float)(it * 1.6f - 250.25f) },
+                (0..<64).collect  { (float)(-it * it * 0.73f) },
+                (0..<50).collect  { (float)((it % 2 == 0 ? 1 : -1) * it * 9_000.3f) }
+            ].collect { it as float[] }
+        and : 'A custom noise function, which simply has the default row implementation.'
+            NoiseFunction custom = (x, y) -> (float)((Math.sin(x * 0.1) * Math.cos(y * 0.2) + 1) / 2)
+        expect :
+            (UI.NoiseType.values().toList() + [custom]).every( fun ->
+                rows.every( xs ->
+                    [-113.75f, -0.5f, 0f, 7.25f, 4_321.6f].every( y -> {
+                        var out = new float[xs.length + 3] // Larger than needed, only the count matters.
+                        fun.fillRow(xs, y, out, xs.length)
+                        return (0..<xs.length).every( i ->
+                            Float.floatToIntBits(out[i]) == Float.floatToIntBits(fun.getFractionAt(xs[i], y))
+                        )
+                    })
+                )
+            )
+    }
+
+    def 'A noise gradient colors every pixel by the value of its noise function at that pixel.'()
+    {
+        reportInfo """
+            A noise gradient turns the value of its noise function at a pixel into a color
+            between the colors of the gradient. Instead of interpolating the color stops for
+            every single pixel, it looks that color up in a table sampled so densely along the
+            gradient that its colors are never more than a single level off the exactly
+            interpolated ones. A noise function which is the same everywhere shows this nicely,
+            because it paints every pixel of a component in exactly one color.
+        """
+        given : 'A box filled with a noise whose value is the same everywhere.'
+            SwingTree.get().setUiScaleFactor(1f)
+            var box = UI.box()
+                        .withStyle( it -> it
+                            .size(60, 40)
+                            .noise("flat", n -> n
+                                .function( (x, y) -> value )
+                                .colors(Color.RED, Color.GREEN, Color.BLUE)
+                            )
+                        )
+                        .get(JBox)
+        when : 'We render the box and take the color of a pixel in its middle.'
+            var argb = Utility.renderSingleComponent(box).getRGB(30, 20)
+        then : 'It is the color which the noise value stands for on the gradient.'
+            (argb >>> 24) == 255
+            Math.abs(((argb >> 16) & 0xFF) - red)   <= 1
+            Math.abs(((argb >>  8) & 0xFF) - green) <= 1
+            Math.abs(( argb        & 0xFF) - blue)  <= 1
+
+        cleanup :
+            SwingTree.clear()
+        where : 'The red to green to blue gradient has these colors at these values:'
+            value  || red   | green | blue
+            0f     || 255   | 0     | 0
+            0.25f  || 127.5 | 127.5 | 0
+            0.5f   || 0     | 255   | 0
+            0.8f   || 0     | 102   | 153
+            1f     || 0     | 0     | 255
+    }
+
     def 'The available noise functions produce values in the range between 0 and 1.'()
     {
         reportInfo """
@@ -0,0 +1,305 @@
+package swingtree
+
+import spock.lang.Narrative
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Title
+import swingtree.style.BoxBlur
+import swingtree.style.CacheBudget
+import swingtree.style.CacheLedger
+import swingtree.style.ComponentExtension
+import swingtree.style.ParentBufferPool
+
+import javax.swing.JLabel
+import javax.swing.JPanel
+import java.awt.Color
+import java.awt.Rectangle
+import java.awt.image.BufferedImage
+
+@Title("Blurring the Parent of a Component")
+@Narrative('''
+
+    A component may blur the rendering of its parent behind itself,
+    through the `blur` of its parent filter, which is how a frosted
+    glass panel is made. That blur runs on every paint of such a
+    component, so its cost must not grow with its radius.
+
+    In this specification we ensure that the blur behind such a
+    component is fast without looking any different than a
+    gaussian blur of the same radius: it leaves a flat area
+    exactly as it is, it only touches the pixels it is asked to
+    blur and it does not let transparent pixels bleed into the
+    opaque ones around them.
+    We also ensure that the buffer the parent is rendered into,
+    for its children to blur, is reused from one paint to the next,
+    and that repainting a small part of such a parent looks exactly
+    like repainting all of it.
+
+''')
+@Subject([BoxBlur, ParentBufferPool])
+class Parent_Filter_Blur_Spec extends Specification
+{
+    private static BufferedImage checkerboard( int width, int height ) {
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+        for ( int y = 0; y < height; y++ )
+            for ( int x = 0; x < width; x++ )
+                image.setRGB(x, y, ( (x.intdiv(16) + y.intdiv(16)) % 2 == 0 ) ? 0xFFF0E020 as int : 0xFF102080 as int)
+        return image
+    }
+
+    /** A straightforward, separable and exact gaussian blur of a single pixel of an opaque image. */
+    private static int gaussianAt( BufferedImage image, int x, int y, float radius, int shift ) {
+        int reach = (int) Math.ceil(radius)
+        double sigma = radius / 3.0
+        double total = 0
+        double sum = 0
+        for ( int dy = -reach; dy <= reach; dy++ )
+            for ( int dx = -reach; dx <= reach; dx++ ) {
+                if ( dx * dx > radius * radius || dy * dy > radius * radius )
+                    continue
+                double weight = Math.exp(-(dx * dx + dy * dy) / (2 * sigma * sigma))
+                int px = Math.max(0, Math.min(x + dx, image.width  - 1))
+                int py = Math.max(0, Math.min(y + dy, image.height - 1))
+                sum   += weight * ((image.getRGB(px, py) >> shift) & 0xFF)
+                total += weight
+            }
+        return (int) Math.round(sum / total)
+    }
+
+    def 'Blurring a flat area leaves every single pixel of it exactly as it is. (radius #radius)'( float radius )
+    {
+        reportInfo """
+            Whatever shape the blur has, a weighted average of identical pixels
+            is that very pixel. An off by one in a running sum, a rounding bias
+            or weights which do not add up exactly would all show here, as a
+            tint or a darkening of large plain areas behind a frosted panel.
+        """
+        given : 'An image of a single translucent color:'
+            var image = new BufferedImage(120, 90, BufferedImage.TYPE_INT_ARGB)
+            for ( int y = 0; y < 90; y++ )
+                for ( int x = 0; x < 120; x++ )
+                    image.setRGB(x, y, 0xC04080F0 as int)
+        when : 'We blur the whole image:'
+            BoxBlur.blur(image, radius, new Rectangle(0, 0, 120, 90))
+        then : 'Not a single pixel has changed:'
+            (0..<90).every { y -> (0..<120).every { x -> image.getRGB(x, y) == (0xC04080F0 as int) } }
+        where :
+            radius << [1.5f, 4f, 12f, 33f]
+    }
+
+    def 'Only the pixels of the requested region are blurred. (radius #radius)'( float radius )
+    {
+        reportInfo """
+            Only the part of the parent behind the component is ever drawn,
+            so nothing else is blurred, which is a large part of what makes
+            the blur cheap. The pixels around the region are still blurred
+            into it though, which is why the region has to look blurred as well.
+        """
+        given : 'A sharp checkerboard and an untouched copy of it:'
+            var image    = checkerboard(300, 200)
+            var original = checkerboard(300, 200)
+            var region   = new Rectangle(70, 50, 120, 80)
+        when :
+            BoxBlur.blur(image, radius, region)
+        then : 'Every pixel outside of the region is untouched:'
+            (0..<200).every { y -> (0..<300).every { x -> region.contains(x, y) || image.getRGB(x, y) == original.getRGB(x, y) } }
+        and : 'The edges between the squares inside of it are soft:'
+            image.getRGB(96, 60) != original.getRGB(96, 60)
+            image.getRGB(95, 60) != original.getRGB(95, 60)
+        where :
+            radius << [3f, 24f]
+    }
+
+    def 'The blur looks like a gaussian blur of the same radius. (radius #radius)'( float radius, int tolerance )
+    {
+        reportInfo """
+            A large blur is made of three box blurs in each direction, which
+            cost the same for every radius. That is not a gaussian blur, only
+            a close approximation of one, so we compare it with an exact
+            gaussian blur on a checkerboard, whose sharp edges are the hardest
+            case there is. A small blur is computed exactly.
+        """
+        given : 'A sharp checkerboard, blurred in a region:'
+            var original = checkerboard(160, 120)
+            var image    = checkerboard(160, 120)
+            var region   = new Rectangle(40, 30, 80, 60)
+            BoxBlur.blur(image, radius, region)
+        when : 'We look for the worst deviation from an exact gaussian blur, on a coarse grid of the region:'
+            int worst = 0
+            for ( int y = region.y; y < region.y + region.height; y += 3 )
+                for ( int x = region.x; x < region.x + region.width; x += 3 )
+                    for ( int shift : [0, 8, 16] )
+                        worst = Math.max(worst, Math.abs(((image.getRGB(x, y) >> shift) & 0xFF) - gaussianAt(original, x, y, radius, shift)))
+        then : 'No channel of any pixel deviates by more than the tolerance:'
+            worst <= tolerance
+        where :
+            radius | tolerance
+            2f     | 2
+            6f     | 2
+            10f    | 12
+            30f    | 12
+    }
+
+    def 'Transparent pixels do not bleed their color into the blur.'()
+    {
+        reportInfo """
+            The color of a fully transparent pixel is meaningless, it could
+            just as well be any other color. So the blur has to weigh every
+            pixel by its alpha, or else the transparent areas of a parent
+            would tint the edges of its opaque ones with whatever invisible
+            color they happen to have.
+        """
+        given : 'An image which is transparent blue on the left and opaque red on the right:'
+            var image = new BufferedImage(80, 20, BufferedImage.TYPE_INT_ARGB)
+            for ( int y = 0; y < 20; y++ )
+                for ( int x = 0; x < 80; x++ )
+                    image.setRGB(x, y, x < 40 ? 0x000000FF : 0xFFFF0000 as int)
+        when :
+            BoxBlur.blur(image, 12f, new Rectangle(0, 0, 80, 20))
+        then : 'The edge fades out, but every pixel which is visible at all is pure red:'
+            (0..<80).every { x ->
+                int argb = image.getRGB(x, 10)
+                (argb >>> 24) == 0 || (argb & 0x00FFFFFF) == 0x00FF0000
+            }
+        and : 'The fade really happened:'
+            (image.getRGB(40, 10) >>> 24) in 1..254
+    }
+
+    def 'The scratch image of a thread shrinks again once the blurred regions do.'()
+    {
+        reportInfo """
+            Every thread keeps the image it blurs copies into, so that it does not
+            allocate a new one for every blur. But a single large blur must not
+            leave that thread with a large image for good, so an image much larger
+            than what is asked for is replaced by one of the requested size.
+        """
+        given : 'An image, which is blurred into a copy over a large region:'
+            var image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB)
+            var large = BoxBlur.blurredCopyOf(image, 6f, new Rectangle(0, 0, 800, 600))
+        when : 'We blur a small region of it afterwards:'
+            var small = BoxBlur.blurredCopyOf(image, 6f, new Rectangle(0, 0, 100, 80))
+        then : 'The copy is no longer the large image, but one of the size of the region:'
+            !small.is(large)
+            small.width == 100
+            small.height == 80
+        when : 'We blur a region of about the same size again:'
+            var again = BoxBlur.blurredCopyOf(image, 6f, new Rectangle(0, 0, 90, 80))
+        then : 'The small image is reused:'
+            again.is(small)
+    }
+
+    def 'A parent renders into the same buffer on every paint, for as long as its size does not change.'()
+    {
+        reportInfo """
+            Before its children can filter what is behind them, a parent is rendered
+            into a buffer as large as itself, which for an animated frosted glass
+            panel happens on every single frame. Allocating that buffer anew every
+            time would be pure garbage, so the parent keeps it and merely clears it.
+            A parent which no longer has a filtered child hands its buffer back
+            to a small pool, from which it is picked up again when needed.
+        """
+        given : 'A parent with a glassy child, which blurs what is behind it:'
+            var child = UI.label("Glass")
+                            .withStyle( it -> it
+                                .backgroundColor(UI.Color.TRANSPARENT)
+                                .parentFilter( f -> f.blur(6) )
+                            )
+                            .get(JLabel)
+            var parent = UI.panel().withStyle( it -> it.backgroundColor("steelblue") ).add(child).get(JPanel)
+            parent.setSize(200, 120)
+            child.setBounds(40, 30, 120, 60)
+            var canvas = new BufferedImage(200, 120, BufferedImage.TYPE_INT_ARGB)
+        when : 'We paint the parent twice:'
+            parent.paint(canvas.createGraphics())
+            var buffer = ComponentExtension.from(parent).getBufferedImage().get()
+            parent.paint(canvas.createGraphics())
+        then : 'The second paint went into the very same buffer:'
+            ComponentExtension.from(parent).getBufferedImage().get().is(buffer)
+
+        when : 'We remove the child and paint the parent again:'
+            parent.remove(child)
+            parent.paint(canvas.createGraphics())
+        then : 'The parent no longer needs a buffer and has given it back:'
+            !ComponentExtension.from(parent).getBufferedImage().isPresent()
+            ParentBufferPool.idleCount() >= 1
+        and : 'While it waits in the pool, it counts towards the cache budget:'
+            CacheLedger.chargedBytes(CacheBudget.Kind.PARENT_BUFFER) >= 200 * 120 * 4
+
+        when : 'We add the child back and paint once more:'
+            long chargedWhileIdle = CacheLedger.chargedBytes(CacheBudget.Kind.PARENT_BUFFER)
+            parent.add(child)
+            child.setBounds(40, 30, 120, 60)
+            parent.paint(canvas.createGraphics())
+        then : 'The parent got its old buffer back from the pool, which no longer charges for it:'
+            ComponentExtension.from(parent).getBufferedImage().get().is(buffer)
+            CacheLedger.chargedBytes(CacheBudget.Kind.PARENT_BUFFER) == chargedWhileIdle - 200 * 120 * 4
+    }
+
+    def 'Repainting a small part of a glassy parent looks exactly like repainting all of it. (#description)'(
+        String description, Rectangle dirty
+    ) {
+        reportInfo """
+            A blinking caret or a hover highlight in a frosted glass panel only
+            repaints a small rectangle. For that, the parent is only rendered
+            within that rectangle, grown by as far as the filters of its children
+            reach, and only what is visible of that rectangle is blurred.
+            This must not be visible: the pixels of such a repaint have to be
+            exactly the same as the ones of a repaint of the whole parent.
+        """
+        given : 'A parent with a sharp checkerboard and two glassy children, which blur it:'
+            var glass = UI.label("Glass")
+                            .withStyle( it -> it
+                                .backgroundColor(UI.Color.TRANSPARENT)
+                                .border(1, Color.BLACK)
+                                .borderRadius(8)
+                                .parentFilter( f -> f.blur(12) )
+                            )
+                            .get(JLabel)
+            var shiftedGlass = UI.label("Shifted")
+                            .withStyle( it -> it
+                                .backgroundColor(UI.Color.TRANSPARENT)
+                                .parentFilter( f -> f.offset(4, 2).blur(3) )
+                            )
+                            .get(JLabel)
+            var parent = UI.panel()
+                            .withStyle( it -> it
+                                .backgroundColor("steelblue")
+                                .painter(UI.Layer.BACKGROUND, g2d -> {
+                                    g2d.setColor(Color.ORANGE)
+                                    for ( int y = 0; y < 160; y += 16 )
+                                        for ( int x = ( y % 32 ); x < 260; x += 32 )
+                                            g2d.fillRect(x, y, 16, 16)
+                                })
+                            )
+                            .add(glass, shiftedGlass)
+                            .get(JPanel)
+            parent.setSize(260, 160)
+            glass.setBounds(20, 20, 110, 80)
+            shiftedGlass.setBounds(140, 30, 100, 90)
+        and : 'A rendering of the whole parent:'
+            var full = new BufferedImage(260, 160, BufferedImage.TYPE_INT_ARGB)
+            var g = full.createGraphics()
+            parent.paint(g)
+            g.dispose()
+
+        when : 'We only repaint the dirty rectangle, into another image:'
+            var partial = new BufferedImage(260, 160, BufferedImage.TYPE_INT_ARGB)
+            g = partial.createGraphics()
+            g.setClip(dirty)
+            parent.paint(g)
+            g.dispose()
+
+        then : 'Every pixel of the dirty rectangle is exactly the same as in the full rendering:'
+            (dirty.y..<(dirty.y + dirty.height)).every { y ->
+                (dirty.x..<(dirty.x + dirty.width)).every { x -> partial.getRGB(x, y) == full.getRGB(x, y) }
+            }
+
+        where :
+            description                                     | dirty
+            "a caret in a glassy child"                     | new Rectangle(60, 50, 2, 18)
+            "a highlight across the edge of a glassy child" | new Rectangle(10, 60, 40, 30)
+            "the gap between two glassy children"           | new Rectangle(125, 40, 20, 50)
+            "a part of the shifted glassy child"            | new Rectangle(150, 100, 60, 30)
+            "the whole parent"                              | new Rectangle(0, 0, 260, 160)
+    }
+}
@@ -351,6 +351,58 @@ class Stretch_Tiling_Equivalence_Spec extends Specification
                                                                                                }) }
     }
 
+    def 'A shadow reassembled from its cached mask looks like one rendered from its gradients. (#description)'(
+        String description, int width, int height, Closure styler
+    ) {
+        reportInfo """
+            A layer which also holds a gradient cannot be cached independently of
+            its size, so every new size of such a component renders the layer
+            from scratch, shadows included. That is what happens on every frame
+            of a resize animation. The shadows of such a layer are therefore
+            not rendered from their gradients every time, but reassembled from
+            a small rendering of the same shadow, which is made once and then
+            shared by all sizes — a nine slice dedicated to the shadow alone.
+
+            Like every other kind of stretch tiling, this is only acceptable if
+            it is invisible, so both positions of the tiling switch have to
+            produce the same pixels here as well.
+        """
+        given : 'The component painted the classic way, with stretch tiling disabled:'
+            var classic = renderedClassically(width, height, styler)
+        and : 'An identically styled box painted with stretch tiling enabled:'
+            var tiledBox = tiledAndWarmed(width, height, styler)
+        and : """
+            Proof that the comparison is not vacuous: the shadow was reassembled
+            from a cached mask, and a differently sized sibling, which has to render
+            its layer from scratch, reuses that very mask instead of making its own.
+        """
+            int masks = swingtree.style.ShadowMaskCache.globalEntryCount()
+            assert masks >= 1
+            var sibling = boxWith(width + 16, height + 12, styler)
+            Utility.renderSingleComponent(sibling)
+            assert swingtree.style.ShadowMaskCache.globalEntryCount() == masks
+
+        expect : 'Both switch positions produced practically identical pixels:'
+            var tiled = Utility.renderSingleComponent(tiledBox)
+            Utility.similarityBetween(classic, tiled) >= 99.9
+
+        where :
+            description                          | width | height | styler
+            "an outset drop shadow with offset"  | 360   | 140    | { it.borderRadius(12).margin(12)
+                                                                        .gradient(UI.Layer.CONTENT, "sheen", g -> g.colors("#e0e8f0", "#a0b0c0"))
+                                                                        .shadow(UI.Layer.CONTENT, "drop", s -> s.color("#101010").blurRadius(8).spreadRadius(2).offset(2, 3)) }
+            "an inset shadow"                    | 300   | 200    | { it.borderRadius(16).border(2, "#202430")
+                                                                        .gradient(UI.Layer.CONTENT, "sheen", g -> g.colors("#e0e8f0", "#a0b0c0"))
+                                                                        .shadow(UI.Layer.CONTENT, "inner", s -> s.color("#242424").blurRadius(5).isInset(true)) }
+            "a different arc for every corner"   | 240   | 320    | { it.margin(10)
+                                                                        .borderRadiusAt(UI.Corner.TOP_LEFT, 0, 0)
+                                                                        .borderRadiusAt(UI.Corner.TOP_RIGHT, 8, 8)
+                                                                        .borderRadiusAt(UI.Corner.BOTTOM_LEFT, 16, 16)
+                                                                        .borderRadiusAt(UI.Corner.BOTTOM_RIGHT, 24, 24)
+                                                                        .gradient(UI.Layer.CONTENT, "sheen", g -> g.colors("#e0e8f0", "#a0b0c0"))
+                                                                        .shadow(UI.Layer.CONTENT, "drop", s -> s.color("#3a3a5c").blurRadius(6).spreadRadius(1)) }
+    }
+
     def 'For a flat, arcless style the reconstruction is exactly pixel identical.'()
     {
         reportInfo """
@@ -5,9 +5,13 @@ import spock.lang.Specification
 import spock.lang.Title
 import spock.util.concurrent.PollingConditions
 import sprouts.Var
+import swingtree.animation.AnimationStatus
+import swingtree.animation.LifeSpan
 import swingtree.animation.LifeTime
+import swingtree.animation.Stride
 import swingtree.style.ComponentExtension
 import utility.Utility
+import utility.Wait
 import swingtree.threading.EventProcessor
 
 import javax.swing.*
@@ -15,6 +19,7 @@ import javax.swing.border.CompoundBorder
 import javax.swing.plaf.metal.MetalButtonUI
 import javax.swing.plaf.metal.MetalLabelUI
 import java.awt.*
+import java.awt.event.ActionEvent
 import java.awt.event.MouseEvent
 import java.awt.image.BufferedImage
 import java.util.concurrent.TimeUnit
@@ -312,6 +317,192 @@ class Style_Animations_Spec extends Specification
             !(button.getUI() instanceof MetalButtonUI)
     }
 
+    def 'A style animation which only changes colors does not cause a layout pass.'()
+    {
+        reportInfo """
+            Animating the style of a component means updating its style on every frame.
+            A layout pass on every frame is only necessary if the animation actually changes
+            something the layout depends on, like the padding, margin, border widths,
+            font or size of the component. A highlight which only fades a background color
+            in and out, for example in the cells of a large table, merely needs a repaint.
+            So in that case, the component is not revalidated, and its layout stays valid.
+        """
+        given : 'Two properties for triggering the animations, and a trace of their progress:'
+            var highlighted = Var.of(false)
+            var enlarged    = Var.of(false)
+            var trace = []
+        and : 'A label with a style animation which only changes its background color:'
+            var highlightedLabel = UI.label("42.00")
+                                    .withStyle( it -> it.padding(4).backgroundColor(Color.WHITE) )
+                                    .withTransitionalStyle(highlighted, LifeTime.of(0.1, TimeUnit.SECONDS), (status, it) -> {
+                                        trace << status.progress()
+                                        return it.backgroundColor(new Color(1f, 1f, (float) (1 - status.progress())))
+                                    })
+                                    .get(JLabel)
+        and : 'A label with a style animation which changes its padding:'
+            var enlargedLabel = UI.label("43.00")
+                                    .withStyle( it -> it.padding(4).backgroundColor(Color.WHITE) )
+                                    .withTransitionalStyle(enlarged, LifeTime.of(0.1, TimeUnit.SECONDS), (status, it) -> {
+                                        trace << status.progress()
+                                        return it.padding(4 + 10 * status.progress())
+                                    })
+                                    .get(JLabel)
+        and : 'A parent whose layout is valid:'
+            var parent = UI.panel().add(highlightedLabel).add(enlargedLabel).get(JPanel)
+            parent.setSize(300, 60)
+            parent.validate()
+
+        when : 'We play the color animation to its end:'
+            highlighted.set(true)
+            Wait.until({ trace.contains(1d) }, 2_500)
+            Thread.sleep(100)
+            UI.sync()
+        then : 'The label was animated, but its layout is still valid:'
+            trace.contains(1d)
+            highlightedLabel.isValid()
+
+        when : 'We play the padding animation to its end:'
+            trace.clear()
+            enlarged.set(true)
+            Wait.until({ trace.contains(1d) }, 2_500)
+            Thread.sleep(100)
+            UI.sync()
+        then : 'The other label was revalidated:'
+            !enlargedLabel.isValid()
+    }
+
+    def 'The stylers of an animation frame run once, not again when the frame is painted.'()
+    {
+        reportInfo """
+            For every frame of a style animation, the style of the animated component is
+            gathered and installed right away, because that is how the animation knows whether
+            the component has to be laid out again. The paint which follows that frame
+            then simply paints with the installed style, instead of running every styler
+            a second time for the very same frame.
+        """
+        given : 'A styled panel, whose stylers are counted:'
+            var runs = 0
+            var panel = UI.panel()
+                            .withStyle( it -> { runs++; return it.backgroundColor(Color.RED) } )
+                            .get(JPanel)
+            panel.setSize(60, 40)
+            var extension = ComponentExtension.from(panel)
+        and : 'The status of an animation:'
+            var status = AnimationStatus.startOf(LifeSpan.startingNowWith(LifeTime.of(1, TimeUnit.SECONDS)), Stride.PROGRESSIVE, new ActionEvent(this, 0, "frame"))
+
+        when : 'We add an animated styler and install the style of that frame, like the animation does:'
+            extension.addAnimatedStyler(status, it -> it.borderRadius(6) )
+            runs = 0
+            extension.gatherApplyAndInstallAnimatedStyle()
+        and : 'We paint the panel afterwards:'
+            panel.paint(new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB).createGraphics())
+        then : 'The stylers ran only once:'
+            runs == 1
+
+        when : 'We paint the panel again, without a new frame:'
+            panel.paint(new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB).createGraphics())
+        then : 'The stylers ran again, because the animation still changes the style over time:'
+            runs == 2
+    }
+
+    def 'A component which is only faded or slid is rendered once, and then painted as an image.'()
+    {
+        reportInfo """
+            Many animations do not change the style of a component at all, they merely fade
+            it in or out, or slide it into place. Restyling and rendering the component on every
+            frame of such an animation would be a waste, so instead, an animation may composite
+            the component: it is rendered into a layer once, which is then painted on every frame
+            with the opacity and the offset of that frame. The component is only rendered again
+            if its style changes, and once the animation is over, it is painted as usual.
+        """
+        given : 'A styled panel with an opaque background, and a transparent canvas to paint it on:'
+            var panel = UI.panel()
+                            .withStyle( it -> it.backgroundColor(Color.RED).borderRadius(6) )
+                            .get(JPanel)
+            panel.setSize(60, 40)
+            var canvas = new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB)
+            var extension = ComponentExtension.from(panel)
+        and : 'The status of an animation:'
+            var status = AnimationStatus.startOf(LifeSpan.startingNowWith(LifeTime.of(1, TimeUnit.SECONDS)), Stride.PROGRESSIVE, new ActionEvent(this, 0, "frame"))
+
+        when : 'We composite the panel with half of its opacity, and paint it:'
+            extension.addAnimatedComposition(status, 0.5, 0, 0)
+            panel.paint(canvas.createGraphics())
+        then : 'The panel is composited, and it was painted half transparent:'
+            extension.isComposited()
+            extension.compositedLayerRenderCount() == 1
+            (canvas.getRGB(30, 20) >>> 24) in 120..135
+            new Color(canvas.getRGB(30, 20)).red > 240
+
+        when : 'We paint a few more frames with different opacities and offsets:'
+            for ( int i = 1; i <= 5; i++ ) {
+                extension.clearAnimations()
+                extension.addAnimatedComposition(status, i / 5d, 0, 10 - 2 * i)
+                canvas = new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB)
+                panel.paint(canvas.createGraphics())
+            }
+        then : 'The panel was not rendered again, but the last frame is fully opaque:'
+            extension.compositedLayerRenderCount() == 1
+            (canvas.getRGB(30, 20) >>> 24) == 255
+
+        when : 'The style of the panel changes during the composition:'
+            extension.addStyler( it -> it.backgroundColor(Color.BLUE) )
+            canvas = new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB)
+            panel.paint(canvas.createGraphics())
+        then : 'The panel was rendered again, with its new style:'
+            extension.compositedLayerRenderCount() == 2
+            new Color(canvas.getRGB(30, 20)).blue > 240
+            new Color(canvas.getRGB(30, 20)).red < 15
+
+        when : 'The animation ends, and we paint the panel once more:'
+            extension.clearAnimations()
+            canvas = new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB)
+            panel.paint(canvas.createGraphics())
+        then : 'The panel is no longer composited, and it was painted as usual:'
+            !extension.isComposited()
+            extension.compositedLayerRenderCount() == 2
+            canvas.getRGB(30, 20) == (0xFF0000FF as int)
+    }
+
+    def 'The text of a composited text field is part of its layer, and it is not painted on top of it.'()
+    {
+        reportInfo """
+            The look and feel of a text field paints its text outside of the steps in which
+            SwingTree paints the style of a component. When a text field is faded, its text
+            is rendered into the composited layer together with everything else, so it fades
+            with the rest of the text field, instead of being painted fully opaque on top of it.
+            A component which SwingTree does not paint entirely, like a plain `JTextField`,
+            cannot be composited at all, and is simply painted as usual.
+        """
+        given : 'A styled text field with some dark text, and a transparent canvas to paint it on:'
+            var textField = UI.textField("Hello World")
+                            .withStyle( it -> it.backgroundColor(Color.WHITE).foregroundColor(Color.BLACK).fontSize(16) )
+                            .get(JTextField)
+            textField.setSize(140, 30)
+            var canvas = new BufferedImage(140, 30, BufferedImage.TYPE_INT_ARGB)
+            var extension = ComponentExtension.from(textField)
+        and : 'The status of an animation:'
+            var status = AnimationStatus.startOf(LifeSpan.startingNowWith(LifeTime.of(1, TimeUnit.SECONDS)), Stride.PROGRESSIVE, new ActionEvent(this, 0, "frame"))
+
+        when : 'We composite the text field with half of its opacity, and paint it:'
+            extension.addAnimatedComposition(status, 0.5, 0, 0)
+            textField.paint(canvas.createGraphics())
+        then : 'It is composited, and not a single pixel of it, not even of its text, is opaque:'
+            extension.isComposited()
+            (0..<140).every { x -> (0..<30).every { y -> (canvas.getRGB(x, y) >>> 24) <= 135 } }
+        and : 'But the text is there, half transparent:'
+            (0..<140).any { x -> (0..<30).any { y ->
+                int argb = canvas.getRGB(x, y)
+                (argb >>> 24) > 100 && new Color(argb).red < 100
+            } }
+
+        when : 'We try to composite a plain text field, which SwingTree does not paint entirely:'
+            var plain = new JTextField("Hello World")
+            ComponentExtension.from(plain).addAnimatedComposition(status, 0.5, 0, 0)
+        then : 'It is not composited:'
+            !ComponentExtension.from(plain).isComposited()
+    }
+
     def 'You can animate a style using properties and the `withRepaintOn` methods!'( float uiScale ) {
         reportInfo """
             Styles in SwingTree a functions which take in a configuration
@@ -0,0 +1,256 @@
+package swingtree
+
+import spock.lang.Narrative
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Timeout
+import spock.lang.Title
+import swingtree.api.Painter
+import swingtree.components.JBox
+import swingtree.layout.Size
+import swingtree.style.CacheBudget
+import swingtree.style.ComponentExtension
+import swingtree.style.LayerPartitionCache
+import swingtree.threading.EventProcessor
+import utility.Utility
+
+import javax.swing.JPanel
+import java.awt.Color
+import java.awt.image.BufferedImage
+import java.util.concurrent.TimeUnit
+
+@Title("Prewarming the Style Caches of a View")
+@Narrative('''
+
+    A component's style is only cached after it was painted a few times, so the
+    first frame of a new view rasterizes every heavily styled component from
+    scratch, on the UI thread. For a large view, that is a noticeable stutter
+    exactly when the user is looking.
+
+    `SwingTree.get().prewarmStyleCaches(root)` moves that work in front of the
+    first frame and off the UI thread: it walks a laid out component tree, finds
+    the cache entries its first paint is going to ask for, and renders them on
+    background threads. The first paint then merely copies finished images.
+    Prewarming stays within the cache budget and can be cancelled.
+
+''')
+@Subject([SwingTree, ComponentExtension])
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class Style_Cache_Prewarming_Spec extends Specification
+{
+    def setup() {
+        SwingTree.get().setEventProcessor(EventProcessor.COUPLED)
+        SwingTree.get().setUiScaleFactor(1f)
+        CacheBudget.UNITS_OVERRIDE = 10 // A deterministic budget, independent of the runner's RAM.
+        UI.runNow( () -> ComponentExtension.updateAllCachesFromLibraryConfig() ) // Every scenario starts with empty caches.
+    }
+
+    def cleanup() {
+        CacheBudget.UNITS_OVERRIDE = -1
+        SwingTree.clear()
+    }
+
+    /** A box with a rounded gradient, whose cache entry is specific to its exact size and colors. */
+    private static JBox gradientBox(int index, int width, int height) {
+        var box = UI.box()
+                    .withStyle( it -> it
+                        .borderRadius(12)
+                        .backgroundColor(new Color(30, (index * 10) % 255, 160))
+                        .gradient( g -> g.colors(new Color(200, (index * 10) % 255, 70), new Color(30, 70, 200)) )
+                    )
+                    .get(JBox)
+        box.setBounds(0, 0, width, height)
+        return box
+    }
+
+    def 'A prewarmed view is painted from the cache the very first time.'()
+    {
+        reportInfo """
+            The whole point, exercised on both kinds of cache entries: a rounded flat fill,
+            which is cached through a small, size independent exemplar, and a gradient,
+            which is cached at exactly the component size. Neither would ordinarily be
+            served from the cache on its first paint, a large entry not even on the next few.
+        """
+        given : 'A laid out view which was never painted.'
+            var flat = UI.box()
+                         .withStyle( it -> it
+                             .borderRadius(16)
+                             .backgroundColor(new Color(40, 90, 140))
+                             .border(2, new Color(10, 20, 30))
+                         )
+                         .get(JBox)
+            flat.setBounds(0, 0, 260, 140)
+            var gradient = gradientBox(1, 300, 180)
+            var root = new JPanel(null)
+            root.add(flat)
+            root.add(gradient)
+            root.setBounds(0, 0, 600, 200)
+        expect : 'Nothing of it is cached yet.'
+            ComponentExtension.from(flat).cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+            ComponentExtension.from(gradient).cachedRendering(UI.Layer.BACKGROUND).isEmpty()
+
+        when : 'Its style caches are prewarmed, and we wait for that to finish.'
+            var prewarmed = SwingTree.get().prewarmStyleCaches(root).get(30, TimeUnit.SECONDS)
+        then : 'Both renderings are cached before anything was painted.'
+            prewarmed >= 2
+            ComponentExtension.from(flat).cachedRendering(UI.Layer.BACKGROUND).size() == 1
+            ComponentExtension.from(gradient).cachedRendering(UI.Layer.BACKGROUND).size() == 1
+        and : 'The flat fill is cached as its small exemplar, the gradient at its full size.'
+            ComponentExtension.from(flat).cachedRendering(UI.Layer.BACKGROUND).first().width < 260
+            ComponentExtension.from(gradient).cachedRendering(UI.Layer.BACKGROUND).first().width == 300
+        and : 'The ledger accounts for what was rendered.'
+            ComponentExtension.globalRenderCacheBytesCharged() > 0
+
+        when : 'The components are painted for the first time.'
+            Utility.renderSingleComponent(flat)
+            Utility.renderSingleComponent(gradient)
+        then : 'Their first paint is a cache hit.'
+            ComponentExtension.from(flat).cacheHitCount(UI.Layer.BACKGROUND) == 1
+            ComponentExtension.from(flat).cacheMissCount(UI.Layer.BACKGROUND) == 0
+            ComponentExtension.from(gradient).cacheHitCount(UI.Layer.BACKGROUND) == 1
+            ComponentExtension.from(gradient).cacheMissCount(UI.Layer.BACKGROUND) == 0
+    }
+
+    def 'A prewarmed rendering is exactly what painting would have cached.'()
+    {
+        given : 'Two identically styled components in two separate views.'
+            var prewarmedBox = gradientBox(3, 240, 160)
+            var paintedBox   = gradientBox(3, 240, 160)
+            var prewarmedRoot = new JPanel(null)
+            prewarmedRoot.add(prewarmedBox)
+            prewarmedRoot.setBounds(0, 0, 240, 160)
+
+        when : 'One is prewarmed, and its rendering taken out of the cache.'
+            SwingTree.get().prewarmStyleCaches(prewarmedRoot).get(30, TimeUnit.SECONDS)
+            var prewarmed = ComponentExtension.from(prewarmedBox).cachedRendering(UI.Layer.BACKGROUND).first()
+        and : 'The cache is emptied, and the other one is painted until it is cached.'
+            UI.runNow( () -> ComponentExtension.updateAllCachesFromLibraryConfig() )
+            8.times { Utility.renderSingleComponent(paintedBox) }
+            var painted = ComponentExtension.from(paintedBox).cachedRendering(UI.Layer.BACKGROUND).first()
+        then : 'Both renderings have exactly the same pixels.'
+            prewarmed.getRGB(0, 0, 240, 160, null, 0, 240) == painted.getRGB(0, 0, 240, 160, null, 0, 240)
+    }
+
+    def 'Prewarming stays within the cache budget instead of evicting anything.'()
+    {
+        reportInfo """
+            Prewarmed entries are only expected to be used, so they are no reason to evict
+            the ones which are. A view too large for the budget is therefore only prewarmed
+            up to the budget, and the rest is left to the regular warm-up of the cache.
+        """
+        given : 'A small budget of 4 MiB, and a view holding more than that in gradients.'
+            CacheBudget.UNITS_OVERRIDE = 1
+            UI.runNow( () -> ComponentExtension.updateAllCachesFromLibraryConfig() )
+            var root = new JPanel(null)
+            var boxes = (0..<24).collect { i -> gradientBox(i, 300, 200) }
+            boxes.each { root.add(it) }
+            root.setBounds(0, 0, 300, 200)
+
+        when : 'The view is prewarmed.'
+            var prewarmed = SwingTree.get().prewarmStyleCaches(root).get(30, TimeUnit.SECONDS)
+        then : 'Some, but not all of it was rendered, and the budget was respected.'
+            prewarmed > 0
+            prewarmed < boxes.size()
+            ComponentExtension.globalRenderCacheBytesCharged() <= ComponentExtension.globalRenderCacheByteBudget()
+    }
+
+    def 'Prewarming can be cancelled, after which nothing else is rendered.'()
+    {
+        given : 'A view with a few dozen distinct gradients.'
+            var root = new JPanel(null)
+            (0..<40).each { i -> root.add(gradientBox(i, 200, 120)) }
+            root.setBounds(0, 0, 200, 120)
+
+        when : 'It is prewarmed, but cancelled right away.'
+            var future = SwingTree.get().prewarmStyleCaches(root)
+            future.cancel(true)
+        then : 'The future reports the cancellation.'
+            future.isCancelled()
+            future.isDone()
+
+        when : 'Whatever was already being rendered had time to finish.'
+            Thread.sleep(500)
+            var charged = ComponentExtension.globalRenderCacheBytesCharged()
+            Thread.sleep(500)
+        then : 'Nothing is rendered anymore.'
+            ComponentExtension.globalRenderCacheBytesCharged() == charged
+    }
+
+    def 'Layers with custom painters are left to the UI thread.'()
+    {
+        reportInfo """
+            Prewarming renders on background threads, but painters are user code which
+            has only ever been invoked on the UI thread. So a layer with a painter is not
+            prewarmed, even if the painter is cacheable. It is rendered by the first
+            paints, like it would be without prewarming.
+        """
+        given : 'A laid out view with a cacheable painter, which remembers the threads it is called on.'
+            var threads = Collections.synchronizedList(new ArrayList<Thread>())
+            var box = UI.box()
+                        .withStyle( it -> it
+                            .borderRadius(12)
+                            .backgroundColor(new Color(60, 120, 180))
+                            .painter(UI.Layer.BACKGROUND, Painter.of("circle", g -> {
+                                threads.add(Thread.currentThread())
+                                g.setColor(Color.ORANGE)
+                                g.fillOval(10, 10, 40, 40)
+                            }))
+                        )
+                        .get(JBox)
+            box.setBounds(0, 0, 240, 160)
+            var root = new JPanel(null)
+            root.add(box)
+            root.setBounds(0, 0, 240, 160)
+
+        when : 'The view is prewarmed.'
+            var prewarmed = SwingTree.get().prewarmStyleCaches(root).get(30, TimeUnit.SECONDS)
+        then : 'Nothing was rendered, and the painter was never called.'
+            prewarmed == 0
+            threads.isEmpty()
+
+        when : 'The component is painted.'
+            Utility.renderSingleComponent(box)
+        then : 'The painter was called by the paint, and never by a prewarming thread.'
+            !threads.isEmpty()
+            threads.every { !it.name.startsWith("SwingTree-Cache-Prewarmer") }
+    }
+
+    def 'A cache entry which another thread finished in the meantime is simply painted.'()
+    {
+        reportInfo """
+            A cache entry can be finished by a prewarming, by the read of an exemplar
+            persisted on disk or by a paint on another thread, right between the moment
+            a paint sees that the entry is not rendered yet and the moment it tries
+            to claim it for rendering. The claim is made atomically, so instead of failing,
+            the paint learns that there is nothing left to render and paints the entry.
+        """
+        given : 'A cache entry which is due to be rendered:'
+            var entry = new LayerPartitionCache.CachedImage(Size.of(20f, 10f), 0)
+        expect : 'A paint sees that it is not rendered yet:'
+            !entry.isRendered()
+
+        when : 'Another thread renders and finishes it right after that:'
+            Thread.start {
+                var g = entry.createGraphicsAheadOfUse(null)
+                g.setColor(Color.RED)
+                g.fillRect(0, 0, 20, 10)
+                g.dispose()
+                entry.finishRendering()
+            }.join()
+        and : 'The paint tries to claim the entry for rendering:'
+            var g2 = entry.createGraphics(null)
+        then : 'There is nothing to render into, and no exception was thrown:'
+            g2 == null
+            noExceptionThrown()
+            entry.isRendered()
+
+        when : 'The paint falls through to painting the finished rendering:'
+            var canvas = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB)
+            var g = canvas.createGraphics()
+            var painted = entry.paintRendering(g, null, Size.of(20f, 10f), false)
+            g.dispose()
+        then : 'It is painted:'
+            painted
+            canvas.getRGB(10, 5) == Color.RED.getRGB()
+    }
+}
@@ -0,0 +1,275 @@
+package swingtree
+
+import spock.lang.Narrative
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Timeout
+import spock.lang.Title
+import swingtree.style.ComponentExtension
+import swingtree.threading.EventProcessor
+import utility.Utility
+
+import javax.swing.JButton
+import javax.swing.JPanel
+import java.awt.Color
+import java.util.concurrent.TimeUnit
+
+@Title("Skipping Unchanged Style Gatherings")
+@Narrative('''
+
+    Every paint cycle of a SwingTree component starts by running its stylers
+    (style sheet, look and feel, local and animation stylers) to find out whether
+    its style changed. Most of the time it did not, which makes this the dominant
+    cost of repainting large, mostly static views.
+
+    With style memoization enabled (`SwingTree.get().setStyleMemoizationEnabled(true)`),
+    a component remembers which inputs the last run of its stylers read — its size,
+    its preferred size or its component state — and only runs them again if one of
+    those (or one of the inputs every styling depends on, like the UI scale) changed.
+
+    These scenarios count how often a styler is invoked while a component is
+    repainted, and verify that a skipped gathering never changes what is painted.
+
+''')
+@Subject([SwingTree, SwingTreeInitConfig, ComponentExtension])
+@Timeout(value = 25, unit = TimeUnit.SECONDS)
+class Style_Gather_Memoization_Spec extends Specification
+{
+    def setup() {
+        SwingTree.get().setEventProcessor(EventProcessor.COUPLED)
+        SwingTree.get().setUiScaleFactor(1f)
+    }
+
+    def cleanup() {
+        SwingTree.clear()
+    }
+
+    def 'Style memoization is opt-in, and can be toggled at runtime.'()
+    {
+        expect : 'A freshly configured library context does not memoize styles.'
+            !SwingTree.get().isStyleMemoizationEnabled()
+
+        when : 'We turn it on...'
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        then : '...it is reflected immediately.'
+            SwingTree.get().isStyleMemoizationEnabled()
+
+        when : 'And we turn it off again.'
+            SwingTree.get().setStyleMemoizationEnabled(false)
+        then : 'That too is reflected.'
+            !SwingTree.get().isStyleMemoizationEnabled()
+    }
+
+    def 'Without memoization, every paint cycle runs the stylers of a component.'()
+    {
+        given : 'A panel whose styler counts its invocations.'
+            int calls = 0
+            var panel =
+                UI.panel()
+                  .withStyle( it -> { calls++; return it.backgroundColor(Color.CYAN).borderRadius(12) } )
+                  .withSize(80, 40)
+                  .get(JPanel)
+            Utility.renderSingleComponent(panel)
+            int callsBefore = calls
+
+        when : 'We paint it three more times.'
+            3.times { Utility.renderSingleComponent(panel) }
+
+        then : 'The styler ran at least once for every one of those paint cycles.'
+            calls >= callsBefore + 3
+    }
+
+    def 'With memoization, repainting an unchanged component does not run its stylers again.'()
+    {
+        reportInfo """
+            The styler below reads nothing but the delegate it is handed, so the only
+            inputs its outcome depends on are the ones every styling depends on.
+            None of them change between the paint cycles, so the first gathering
+            is reused for all of them.
+        """
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A panel whose styler counts its invocations.'
+            int calls = 0
+            var panel =
+                UI.panel()
+                  .withStyle( it -> { calls++; return it.backgroundColor(Color.CYAN).borderRadius(12) } )
+                  .withSize(80, 40)
+                  .get(JPanel)
+            var firstImage = Utility.renderSingleComponent(panel)
+            int callsBefore = calls
+
+        when : 'We paint it three more times.'
+            var images = (1..3).collect { Utility.renderSingleComponent(panel) }
+
+        then : 'The styler was not invoked again.'
+            calls == callsBefore
+        and : 'What was painted is exactly what was painted before.'
+            images.every { Utility.similarityBetween(it, firstImage) > 99.9 }
+    }
+
+    def 'A memoized styler which reads the component size runs again once the size changes.'()
+    {
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A panel whose styler derives its border radius from the width of the component.'
+            int calls = 0
+            var panel =
+                UI.panel()
+                  .withStyle( it -> { calls++; return it.backgroundColor(Color.ORANGE).borderRadius(it.componentWidth() / 8) } )
+                  .withSize(80, 40)
+                  .get(JPanel)
+            Utility.renderSingleComponent(panel)
+            int callsBefore = calls
+            float radiusBefore = ComponentExtension.from(panel).getStyle().border().topLeftRadius()
+
+        when : 'We repaint it without resizing it.'
+            Utility.renderSingleComponent(panel)
+        then : 'The styler was not invoked.'
+            calls == callsBefore
+
+        when : 'We resize it and paint it again.'
+            UI.runNow({ panel.setSize(160, 40) })
+            Utility.renderSingleComponent(panel)
+        then : 'The styler ran again, and the style reflects the new size.'
+            calls > callsBefore
+            ComponentExtension.from(panel).getStyle().border().topLeftRadius() > radiusBefore
+    }
+
+    def 'A memoized styler which looks at the component state runs again once that state changes.'()
+    {
+        reportInfo """
+            A styler which asks for the component itself may look at anything about it,
+            which is why SwingTree then compares the standard visual state of the component
+            (whether it is enabled and focused, the state of a button model, ...) before
+            reusing a remembered style.
+        """
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A button whose background depends on whether it is enabled.'
+            int calls = 0
+            var button =
+                UI.button("Click me")
+                  .withStyle( it -> {
+                      calls++
+                      return it.backgroundColor(it.component().isEnabled() ? Color.GREEN : Color.GRAY)
+                  })
+                  .withSize(120, 40)
+                  .get(JButton)
+            Utility.renderSingleComponent(button)
+            int callsBefore = calls
+
+        when : 'We repaint it without changing it.'
+            Utility.renderSingleComponent(button)
+        then : 'The styler was not invoked.'
+            calls == callsBefore
+
+        when : 'We disable it and paint it again.'
+            UI.runNow({ button.setEnabled(false) })
+            Utility.renderSingleComponent(button)
+        then : 'The styler ran again, and the background reflects the new state.'
+            calls > callsBefore
+            ComponentExtension.from(button).getStyle().base().backgroundColor().get() == Color.GRAY
+    }
+
+    def 'Explicitly gathering a style always runs the stylers, even when memoization is enabled.'()
+    {
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A panel whose styler counts its invocations, painted once.'
+            int calls = 0
+            var panel =
+                UI.panel()
+                  .withStyle( it -> { calls++; return it.backgroundColor(Color.PINK) } )
+                  .withSize(50, 50)
+                  .get(JPanel)
+            Utility.renderSingleComponent(panel)
+            int callsBefore = calls
+
+        when : 'We ask the component extension for a freshly gathered style.'
+            var style = UI.runAndGet({ ComponentExtension.from(panel).gatherStyle() })
+
+        then : 'The styler ran, because this is what explicit re-gathering is for.'
+            calls == callsBefore + 1
+            style.base().backgroundColor().get() == Color.PINK
+    }
+
+    def 'A component extension counts how many style gatherings were skipped and how many were executed.'()
+    {
+        reportInfo """
+            Once the style of a component was installed, it listens to the component
+            for anything which might change its style. As long as nothing happens,
+            the component is clean, and the start of its paint cycles neither runs its
+            stylers nor installs its style again. The two counters on the
+            `ComponentExtension` make this observable.
+        """
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A simple styled panel, painted once.'
+            var panel =
+                UI.panel()
+                  .withStyle( it -> it.backgroundColor(Color.MAGENTA).borderRadius(8) )
+                  .withSize(60, 30)
+                  .get(JPanel)
+            var extension = ComponentExtension.from(panel)
+            Utility.renderSingleComponent(panel)
+            int executedBefore = extension.executedStyleGatherCount()
+            int skippedBefore  = extension.skippedStyleGatherCount()
+
+        expect : 'The style was gathered at least once for that first paint.'
+            executedBefore > 0
+
+        when : 'We paint it three more times.'
+            3.times { Utility.renderSingleComponent(panel) }
+        then : 'All of those gatherings were skipped.'
+            extension.executedStyleGatherCount() == executedBefore
+            extension.skippedStyleGatherCount() >= skippedBefore + 3
+
+        when : 'We change one of its properties and paint it again.'
+            UI.runNow({ panel.setName("renamed") })
+            Utility.renderSingleComponent(panel)
+        then : 'The style was gathered again, because the name is what style sheets select by.'
+            extension.executedStyleGatherCount() > executedBefore
+    }
+
+    def 'Changing a component does not cause its clean siblings to gather their style again.'()
+    {
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'A panel with two styled children, one of which derives its style from its state.'
+            int firstCalls = 0
+            int secondCalls = 0
+            var first =
+                UI.button("First")
+                  .withStyle( it -> {
+                      firstCalls++
+                      return it.backgroundColor(it.component().isEnabled() ? Color.GREEN : Color.GRAY)
+                  })
+                  .get(JButton)
+            var second =
+                UI.panel()
+                  .withStyle( it -> { secondCalls++; return it.backgroundColor(Color.BLUE).borderRadius(6) } )
+                  .get(JPanel)
+            var parent =
+                UI.panel().withSize(200, 60)
+                .add(first)
+                .add(second)
+                .get(JPanel)
+            UI.runNow({ parent.setSize(200, 60); parent.doLayout() })
+            Utility.renderSingleComponent(parent)
+            Utility.renderSingleComponent(parent)
+            int firstBefore = firstCalls
+            int secondBefore = secondCalls
+            int secondExecutedBefore = ComponentExtension.from(second).executedStyleGatherCount()
+
+        when : 'We disable the first child and paint the whole panel again.'
+            UI.runNow({ first.setEnabled(false) })
+            Utility.renderSingleComponent(parent)
+
+        then : 'The styler of the first child ran again...'
+            firstCalls > firstBefore
+        and : '...but the one of its sibling did not.'
+            secondCalls == secondBefore
+            ComponentExtension.from(second).executedStyleGatherCount() == secondExecutedBefore
+    }
+}
@@ -1042,4 +1042,56 @@ class Style_Render_Caching_Spec extends Specification
         and : 'But the foreground layer was skipped by the cache because it carries no heavy ingredients.'
             ext.cachedRendering(UI.Layer.FOREGROUND).isEmpty()
     }
-}
\ No newline at end of file
+
+    def 'Components rendered offscreen on worker threads share the cached renderings of the UI thread.'()
+    {
+        reportInfo """
+            Rendering a view offscreen, for a report, a thumbnail or a print preview,
+            usually happens on a worker thread, so that the UI stays responsive.
+            The global render caches are safe to use from any thread, which means that
+            such a rendering is served from the very same cache entries the UI thread
+            has already warmed up, rather than rendering everything from scratch.
+        """
+        given : 'A styler, and a component styled by it which is painted on the UI thread until its style is cached.'
+            var styler = { conf -> conf.borderRadius(14).margin(3).borderWidth(2).borderColor(Color.DARK_GRAY)
+                                       .gradient( g -> g.colors(new Color(40, 120, 200), new Color(200, 60, 90)) ) }
+            var original = UI.box().withStyle(styler as swingtree.api.Styler).get(JBox)
+            original.setSize(180, 90)
+            12.times { Utility.renderSingleComponent(original) }
+            var expected = Utility.renderSingleComponent(original)
+            var ext = ComponentExtension.from(original)
+        expect : 'The style of the original component is served from the cache.'
+            ext.cachedRendering(UI.Layer.BACKGROUND).isNotEmpty()
+        when : 'Several worker threads each render an identically styled component at the same time.'
+            var errors = Collections.synchronizedList(new ArrayList<Throwable>())
+            var images = Collections.synchronizedList(new ArrayList<java.awt.image.BufferedImage>())
+            var counts = Collections.synchronizedList(new ArrayList<Integer>())
+            var workers = (1..4).collect {
+                Thread.start {
+                    try {
+                        var twin = UI.box().withStyle(styler as swingtree.api.Styler).get(JBox)
+                        twin.setSize(180, 90)
+                        12.times {
+                            var image = Utility.createDeterministicImage(180, 90)
+                            var g2d = Utility.createDeterministicGraphics(image)
+                            Utility.paintWithoutWindow(twin, g2d)
+                            g2d.dispose()
+                            images.add(image)
+                        }
+                        counts.add(ComponentExtension.from(twin).cacheHitCount(UI.Layer.BACKGROUND))
+                    } catch ( Throwable t ) {
+                        errors.add(t)
+                    }
+                }
+            }
+            workers.each { it.join() }
+
+        then : 'None of them ran into a problem.'
+            errors.isEmpty()
+        and : 'They painted what the UI thread paints.'
+            images.size() == 4 * 12
+            images.every { Utility.similarityBetween(it, expected) > 99.5 }
+        and : 'And their paints were served from the cache which the UI thread filled.'
+            counts.every { it > 0 }
+    }
+}
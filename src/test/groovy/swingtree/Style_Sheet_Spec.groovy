@@ -5,6 +5,7 @@ import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Title
 import swingtree.UI.Layer
+import swingtree.style.ComponentExtension
 import swingtree.style.ShadowConf
 import swingtree.threading.EventProcessor
 import swingtree.style.Arc
@@ -244,6 +245,59 @@ class Style_Sheet_Spec extends Specification
             s3.base().foundationColor().get() == Color.CYAN
     }
 
+    def 'A style sheet keeps up with components whose id or groups change after they were styled.'()
+    {
+        reportInfo """
+            Which rules of a style sheet apply to a component only depends on its type,
+            its id and its groups. A style sheet remembers the rules applying to every such
+            combination it has seen, so that it does not have to test every single rule
+            against every single component on every repaint, which is what makes large
+            style sheets cheap to use.
+            But a component may very well change its id or groups at runtime,
+            in which case the style sheet has to pick the rules for its new identity.
+        """
+        given : 'A style sheet with rules for a type, an id and two groups.'
+            var ss = new StyleSheet() {
+                        @Override
+                        protected void configure() {
+                             add(type(JLabel.class), it -> it
+                                 .borderWidth(3)
+                             );
+                             add(id("special"), it -> it
+                                 .borderColor(Color.MAGENTA)
+                             );
+                             add(group("group1"), it -> it
+                                 .backgroundColor(Color.BLUE)
+                             );
+                             add(group("group2"), it -> it
+                                 .foundationColor(Color.CYAN)
+                             );
+                         }
+                     }
+        and : 'A label in the first group, which we style once.'
+            var label = UI.label("hi").group("group1").get(JLabel)
+            var s1 = ss.computeStyleFrom(label)
+
+        when : 'We move the label into the second group and give it the special id.'
+            UI.runNow({
+                ComponentExtension.from(label).setStyleGroups("group2")
+                label.setName("special")
+            })
+        and : 'We style it again.'
+            var s2 = ss.computeStyleFrom(label)
+
+        then : 'The first style reflects the first group, and the type rule.'
+            s1.base().backgroundColor().get() == Color.BLUE
+            !s1.base().foundationColor().isPresent()
+            !s1.border().colors().top().isPresent()
+            s1.border().widths().top().get() == 3
+        and : 'The second style reflects the new group, the id and still the type rule.'
+            !s2.base().backgroundColor().isPresent()
+            s2.base().foundationColor().get() == Color.CYAN
+            s2.border().colors().top().get() == Color.MAGENTA
+            s2.border().widths().top().get() == 3
+    }
+
     def 'The `group` style trait allows for inheritance, meaning a group can inherit from other ones.'()
     {
         reportInfo """
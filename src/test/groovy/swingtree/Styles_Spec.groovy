@@ -472,6 +472,61 @@ class Styles_Spec extends Specification
                 styler(style2).shadowBlurRadius(1).style().hashCode()   == styler(style2).shadowBlurRadius(1).style().hashCode()
     }
 
+    def 'Equal component styles are shared as one and the same instance.'()
+    {
+        reportInfo """
+            A component gathers its style over and over again, on every repaint,
+            and most of the time the outcome is equal to the style it already has.
+            With style memoization enabled, SwingTree therefore interns gathered styles,
+            so that equal styles are represented by the same instance for as long as some
+            component uses it. This makes telling a changed style from an unchanged one a mere
+            reference comparison, and it lets every cache keyed by a style (or a part of it)
+            reuse what it already computed for the canonical instance.
+        """
+        given :
+            SwingTree.get().setStyleMemoizationEnabled(true)
+        and : 'Two components with the same style, and a third one with a slightly different style.'
+            var box1 = UI.box().withStyle(conf -> conf.backgroundColor("green").borderRadius(12).padding(4)).get(JBox)
+            var box2 = UI.box().withStyle(conf -> conf.backgroundColor("green").borderRadius(12).padding(4)).get(JBox)
+            var box3 = UI.box().withStyle(conf -> conf.backgroundColor("green").borderRadius(12).padding(5)).get(JBox)
+        when : 'We gather the styles of all of them.'
+            var style1 = ComponentExtension.from(box1).gatherStyle()
+            var style2 = ComponentExtension.from(box2).gatherStyle()
+            var style3 = ComponentExtension.from(box3).gatherStyle()
+        then : 'The equal styles are not only equal, but the very same instance.'
+            style1 == style2
+            style1.is(style2)
+        and : 'The different one is neither.'
+            style1 != style3
+            !style1.is(style3)
+        and : 'Gathering a style again yields the very instance installed on the component.'
+            ComponentExtension.from(box1).gatherStyle().is(ComponentExtension.from(box1).getStyle())
+
+        cleanup :
+            SwingTree.get().setStyleMemoizationEnabled(false)
+    }
+
+    def 'Without style memoization, gathered styles are equal but not interned.'()
+    {
+        reportInfo """
+            Interning a style means hashing it and comparing it deeply with the canonical
+            instance, which only pays off if styles are not gathered over and over again.
+            So without style memoization, where every paint cycle gathers the style anew,
+            equal styles are simply left as the separate instances they are.
+        """
+        given : 'Two components with the same style.'
+            var box1 = UI.box().withStyle(conf -> conf.backgroundColor("green").borderRadius(12).padding(4)).get(JBox)
+            var box2 = UI.box().withStyle(conf -> conf.backgroundColor("green").borderRadius(12).padding(4)).get(JBox)
+        expect : 'Style memoization is disabled by default.'
+            !SwingTree.get().isStyleMemoizationEnabled()
+        when : 'We gather the styles of both of them.'
+            var style1 = ComponentExtension.from(box1).gatherStyle()
+            var style2 = ComponentExtension.from(box2).gatherStyle()
+        then : 'They are equal, but separate instances.'
+            style1 == style2
+            !style1.is(style2)
+    }
+
     def 'SwingTree will simplify the style configuration of a component if possible.'( float uiScale )
     {
         reportInfo """
@@ -1189,4 +1244,48 @@ class Styles_Spec extends Specification
                 Color.WHITE
             ]
     }
+
+    def 'A style delegate stays an immutable value, even if a styler continues from an earlier one.'()
+    {
+        reportInfo """
+            Internally, the delegates of a styling chain share a mutable scratch style
+            which accumulates the edits of the chain, so that a long chain of fluent
+            calls does not have to create a new style object for every single call.
+            From the outside, every delegate must nevertheless behave like an
+            immutable value, no matter in which order its siblings are used.
+        """
+        given : 'A delegate for a simple panel, and a style derived from it.'
+            var start = new ComponentStyleDelegate<>(new JPanel(), StyleConf.none())
+            var base = start.borderWidth(3).backgroundColor(Color.RED)
+        when : 'We continue from the same delegate twice, in two different directions.'
+            var first = base.borderRadius(12).paddingTop(5)
+            var second = base.borderColor(Color.BLUE).backgroundColor(Color.GREEN)
+        and : 'We also continue from the very first delegate again.'
+            var third = start.fontSize(20)
+
+        then : 'Every branch only sees what was done along its own path.'
+            first.style().border().topLeftRadius() == 12
+            first.style().border().padding().top().orElse(0f) == 5f
+            first.style().base().backgroundColor().get() == Color.RED
+            second.style().border().topLeftRadius() == 0
+            second.style().border().padding().top().orElse(0f) == 0f
+            second.style().base().backgroundColor().get() == Color.GREEN
+            second.style().border().widths().top().orElse(0f) == 3f
+        and : 'The delegates in between are unaffected as well.'
+            base.style().border().topLeftRadius() == 0
+            base.style().base().backgroundColor().get() == Color.RED
+            start.style() == StyleConf.none()
+            third.style().font().size() == 20
+            third.style().border().widths().top().orElse(0f) == 0f
+        and : 'Continuing along a branch after asking for its style works too.'
+            first.borderRadius(4).style().border().topLeftRadius() == 4
+            first.style().border().topLeftRadius() == 12
+        and : 'And all of this produces exactly what the same calls produced in one go.'
+            second.style() == new ComponentStyleDelegate<>(new JPanel(), StyleConf.none())
+                                    .borderWidth(3)
+                                    .backgroundColor(Color.RED)
+                                    .borderColor(Color.BLUE)
+                                    .backgroundColor(Color.GREEN)
+                                    .style()
+    }
 }
@@ -7,6 +7,7 @@ import spock.lang.Title
 import swingtree.api.IconDeclaration
 import swingtree.components.JBox
 import swingtree.layout.Size
+import swingtree.style.ComponentExtension
 import swingtree.style.SvgIcon
 import utility.Utility
 
@@ -423,6 +424,59 @@ class SvgIcon_Spec extends Specification
               2   | 'green-stretched-circle-2'|| "<svg width=\"100px\" height=\"200px\" viewBox=\"0 0 100 100\">\n<circle cx=\"50\" cy=\"50\" r=\"40\" fill=\"green\"/>\n</svg>"
     }
 
+    def 'Icons of the same SVG document and size share a single rasterization.'()
+    {
+        reportInfo """
+            An `SvgIcon` is an immutable value object, so resizing one gives you a new
+            instance. Rasterizing an SVG document is expensive though, which is why
+            the rasterizations are kept in a cache shared by all icons, instead of
+            in every single icon instance. So two icons which were derived
+            differently, but end up showing the same document at the same size,
+            are only rendered once.
+            The cached rasterization itself is only ever drawn, `getImage()`
+            gives you a copy of it, which is yours to draw into.
+        """
+        given :
+            SwingTree.initialize()
+        and : 'Two icons of the same document and size, derived in two different ways:'
+            var funnel = SvgIcon.at("/img/funnel.svg")
+            var icon1  = funnel.withIconSize(24, 24)
+            var icon2  = funnel.withIconWidth(24).withIconHeight(24)
+        and :
+            var hits   = ComponentExtension.globalSvgRasterCacheHitCount()
+            var misses = ComponentExtension.globalSvgRasterCacheMissCount()
+
+        when : 'We ask both of them for an image:'
+            var img1 = icon1.getImage()
+            var img2 = icon2.getImage()
+        then : 'They return two copies of the same image, which was only rendered once:'
+            !img1.is(img2)
+            (0..<24).every { x -> (0..<24).every { y -> img1.getRGB(x, y) == img2.getRGB(x, y) } }
+            ComponentExtension.globalSvgRasterCacheMissCount() == misses + 1
+            ComponentExtension.globalSvgRasterCacheHitCount()  == hits + 1
+
+        when : 'We draw into one of the copies:'
+            var g = img1.createGraphics()
+            g.setComposite(java.awt.AlphaComposite.Src)
+            g.setColor(new java.awt.Color(255, 0, 0, 255))
+            g.fillRect(0, 0, 24, 24)
+            g.dispose()
+        then : 'The cached rasterization, and so every other image of it, is unaffected:'
+            var img4 = icon1.getImage()
+            (0..<24).every { x -> (0..<24).every { y -> img4.getRGB(x, y) == img2.getRGB(x, y) } }
+            (0..<24).any { x -> (0..<24).any { y -> img4.getRGB(x, y) != img1.getRGB(x, y) } }
+
+        when : 'We ask an icon of a different size for an image:'
+            var img3 = funnel.withIconSize(32, 32).getImage()
+        then : 'It is rendered anew:'
+            !img3.is(img1)
+            img3.getWidth() == 32
+            ComponentExtension.globalSvgRasterCacheMissCount() == misses + 2
+
+        cleanup :
+            SwingTree.clear()
+    }
+
     def 'An SVG passed to the style API is rendered onto the component according to placement, fit mode and its declared size.'(
         float uiScale, String imgToMatch, String svgWidth, String svgHeight, String viewBox, UI.Placement placement, UI.FitComponent fitMode
     ) {
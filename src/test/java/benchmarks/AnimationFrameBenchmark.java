@@ -0,0 +1,103 @@
+package benchmarks;
+
+import swingtree.SwingTree;
+import swingtree.UI;
+import swingtree.animation.LifeTime;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Measures what the animation frame clock allocates per frame, on the UI thread and on the
+ *  clock thread, while it advances a few hundred animations at 60 frames per second.
+ *  At that rate, everything the runner allocates per animation and frame adds up to a steady
+ *  stream of young garbage, and every collection of it is a stutter waiting to happen.
+ *  <p>
+ *  The animations have no component and do nothing but count, so what is measured is the
+ *  runner itself: what remains per advanced animation is its {@code AnimationStatus}, which
+ *  is handed to user code and therefore never recycled, and what remains per frame is the
+ *  frame event and the posting of the frame to the UI thread. Anything beyond that is a
+ *  regression. The counters are the per thread allocation counters of HotSpot
+ *  ({@code com.sun.management.ThreadMXBean}), so other virtual machines report nothing.
+ *  <p>
+ *  {@code -Dbenchmark.animations=..} sets the number of animations,
+ *  {@code -Dbenchmark.warmup=..} and {@code -Dbenchmark.seconds=..} how long to warm up and to measure.
+ *  Run with {@code ./gradlew runAnimationFrameBenchmark}. It animates no component,
+ *  so it does not need a display.
+ */
+public final class AnimationFrameBenchmark
+{
+    private static final int ANIMATIONS     = Integer.getInteger("benchmark.animations", 400);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup",     3);
+    private static final int TIMED_SECONDS  = Integer.getInteger("benchmark.seconds",    5);
+    private static final int INTERVAL       = 16;
+
+    public static void main( String[] args ) throws Exception
+    {
+        SwingTree.initializeUsing( it -> it.uiScaleFactor(1) );
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if ( !( threads instanceof com.sun.management.ThreadMXBean ) ) {
+            System.out.println("  This virtual machine does not count the allocations of individual threads.");
+            System.exit(0);
+        }
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+        final LifeTime lifeTime = LifeTime.of(1, TimeUnit.HOURS).withInterval(INTERVAL, TimeUnit.MILLISECONDS);
+        final AtomicLong frames   = new AtomicLong(0);
+        final long[]     advances = new long[1]; // Only touched by the UI thread.
+
+        UI.runNow(() -> {
+            UI.animateFor(lifeTime).asLongAs( status -> true ).go( status -> frames.incrementAndGet() );
+            for ( int i = 0; i < ANIMATIONS; i++ )
+                UI.animateFor(lifeTime).asLongAs( status -> true ).go( status -> advances[0]++ );
+        });
+        final long uiThread    = UI.runAndGet(() -> Thread.currentThread().getId());
+        final long clockThread = threadIdOf("SwingTree-Animation-Clock");
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(WARMUP_SECONDS));
+
+        final long framesBefore   = frames.get();
+        final long advancesBefore = UI.runAndGet(() -> advances[0]);
+        final long uiBytesBefore    = allocations.getThreadAllocatedBytes(uiThread);
+        final long clockBytesBefore = allocations.getThreadAllocatedBytes(clockThread);
+        final long gcCountBefore  = gcCount();
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(TIMED_SECONDS));
+
+        final long uiBytes    = allocations.getThreadAllocatedBytes(uiThread) - uiBytesBefore;
+        final long clockBytes = allocations.getThreadAllocatedBytes(clockThread) - clockBytesBefore;
+        final long frameCount   = Math.max(1, frames.get() - framesBefore);
+        final long advanceCount = Math.max(1, UI.runAndGet(() -> advances[0]) - advancesBefore);
+        final long gcCount      = gcCount() - gcCountBefore;
+
+        System.out.println();
+        System.out.println("  Animation frame benchmark, " + ANIMATIONS + " animations every " + INTERVAL
+                         + " ms, measured for " + TIMED_SECONDS + " seconds");
+        System.out.printf ("  frames                                %10d (%.1f per second)%n", frameCount, frameCount / (double) TIMED_SECONDS);
+        System.out.printf ("  UI thread bytes per frame             %10.0f%n", uiBytes / (double) frameCount);
+        System.out.printf ("  UI thread bytes per advanced animation%10.1f%n", uiBytes / (double) advanceCount);
+        System.out.printf ("  clock thread bytes per frame          %10.0f%n", clockBytes / (double) frameCount);
+        System.out.printf ("  collections during the measurement    %10d%n", gcCount);
+        System.out.println();
+
+        System.exit(0);
+    }
+
+    private static long threadIdOf( String name ) {
+        for ( Thread thread : Thread.getAllStackTraces().keySet() )
+            if ( name.equals(thread.getName()) )
+                return thread.getId();
+        throw new IllegalStateException("There is no thread named '" + name + "'.");
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for ( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() )
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+}
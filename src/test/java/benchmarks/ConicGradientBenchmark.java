@@ -0,0 +1,134 @@
+package benchmarks;
+
+import swingtree.SwingTree;
+import swingtree.SwingTreeInitConfig;
+import swingtree.UI;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ *  Compares the two qualities a conic gradient can be rasterized with
+ *  (see {@code UI.GradientQuality}): the exact one, which takes an arc cosine for every
+ *  pixel, and the fast one, which steps through a row incrementally and takes a polynomial
+ *  arctangent instead. A conic gradient is rasterized pixel by pixel by SwingTree itself,
+ *  which is what a large one costs whenever it misses the cache, for example on every
+ *  frame of an animated color shift.
+ *  <p>
+ *  So that every paint actually rasterizes, the style caches are disabled. The two
+ *  qualities are measured alternately, round after round, which keeps the drift of a
+ *  desktop machine out of their ratio. Besides the median paint times and the speedup,
+ *  this reports by how many levels the two renderings differ at most, in any channel,
+ *  which is what the approximation costs.
+ *  <p>
+ *  Run with {@code ./gradlew runConicGradientBenchmark}. It paints offscreen, so it does
+ *  not need a display.
+ */
+public final class ConicGradientBenchmark
+{
+    private static final int SIZE          = Integer.getInteger("benchmark.size",   2048);
+    private static final int WARMUP_ROUNDS = Integer.getInteger("benchmark.warmup", 3);
+    private static final int TIMED_ROUNDS  = Integer.getInteger("benchmark.rounds", 11);
+
+    private static final Color[] COLORS = {
+            new Color(230, 60, 70), new Color(250, 200, 60), new Color(60, 200, 120),
+            new Color(50, 120, 230), new Color(170, 70, 220), new Color(230, 60, 70)
+    };
+
+    public static void main( String[] args ) throws Exception
+    {
+        SwingTree.initializeUsing( it -> it
+            .uiScaleFactor(1)
+            .withCacheMode(SwingTreeInitConfig.CacheMode.DISABLED)
+        );
+
+        JComponent exact = UI.runAndGet(() -> conicBox(UI.GradientQuality.EXACT));
+        JComponent fast  = UI.runAndGet(() -> conicBox(UI.GradientQuality.FAST));
+
+        BufferedImage exactCanvas = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage fastCanvas  = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+
+        for ( int i = 0; i < WARMUP_ROUNDS; i++ ) {
+            paintOnce(exact, exactCanvas);
+            paintOnce(fast, fastCanvas);
+        }
+        long[] exactSamples = new long[TIMED_ROUNDS];
+        long[] fastSamples  = new long[TIMED_ROUNDS];
+        for ( int i = 0; i < TIMED_ROUNDS; i++ ) {
+            exactSamples[i] = paintOnce(exact, exactCanvas);
+            fastSamples[i]  = paintOnce(fast, fastCanvas);
+        }
+
+        final double exactMillis = medianMillis(exactSamples);
+        final double fastMillis  = medianMillis(fastSamples);
+
+        System.out.println();
+        System.out.println("  Conic gradient benchmark, " + SIZE + "x" + SIZE + ", median of " + TIMED_ROUNDS + " paints");
+        System.out.printf ("  EXACT quality              %8.3f ms%n", exactMillis);
+        System.out.printf ("  FAST quality               %8.3f ms   (%.2fx)%n", fastMillis, exactMillis / fastMillis);
+        System.out.printf ("  largest channel difference %8d levels%n", largestDifference(exactCanvas, fastCanvas));
+        System.out.println();
+
+        System.exit(0);
+    }
+
+    private static JComponent conicBox( UI.GradientQuality quality ) {
+        JComponent box = UI.box()
+                            .withStyle( it -> it
+                                .gradient( g -> g
+                                    .type(UI.GradientType.CONIC)
+                                    .boundary(UI.ComponentBoundary.CENTER_TO_CONTENT) // All the way around.
+                                    .colors(COLORS)
+                                    .quality(quality)
+                                )
+                            )
+                            .get(JComponent.class);
+        box.setSize(SIZE, SIZE);
+        return box;
+    }
+
+    private static long paintOnce( JComponent component, BufferedImage canvas ) {
+        long[] nanos = new long[1];
+        UI.runNow(() -> {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                long start = System.nanoTime();
+                component.paint(g);
+                nanos[0] = System.nanoTime() - start;
+            } finally {
+                g.dispose();
+            }
+        });
+        return nanos[0];
+    }
+
+    private static int largestDifference( BufferedImage a, BufferedImage b ) {
+        int largest = 0;
+        for ( int y = 0; y < SIZE; y++ )
+            for ( int x = 0; x < SIZE; x++ ) {
+                final int pixelA = a.getRGB(x, y);
+                final int pixelB = b.getRGB(x, y);
+                for ( int shift = 0; shift < 32; shift += 8 )
+                    largest = Math.max(largest, Math.abs(((pixelA >>> shift) & 0xFF) - ((pixelB >>> shift) & 0xFF)));
+            }
+        return largest;
+    }
+
+    /**
+     *  The median rather than the mean, because a single paint which happens to contain a
+     *  garbage collection would move a mean by more than the difference we are looking for.
+     */
+    private static double medianMillis( long[] samples ) {
+        long[] sorted = samples.clone();
+        java.util.Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        double nanos = ( sorted.length % 2 == 0 )
+                        ? ( sorted[middle - 1] + sorted[middle] ) / 2.0
+                        : sorted[middle];
+        return nanos / 1_000_000.0;
+    }
+
+    private ConicGradientBenchmark() {}
+}
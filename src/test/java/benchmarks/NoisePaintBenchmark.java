@@ -29,6 +29,13 @@ import java.awt.image.VolatileImage;
  *  alpha channel, which picks a specialised blit loop; {@code -Dbenchmark.noise=translucent}
  *  measures the same style with one colour carrying an alpha channel, to check that.
  *  <p>
+ *  Before the window opens, it also samples the noise function alone over the whole
+ *  component, once coordinate by coordinate and once row by row through
+ *  {@link swingtree.api.NoiseFunction#fillRow}, which is how an unrotated noise is rasterized.
+ *  Both produce the same values, the ratio of the two is the speedup of the row path.
+ *  {@code -Dbenchmark.function=STOCHASTIC} (or any other {@link UI.NoiseType}) picks the
+ *  function, the default is {@code FABRIC}.
+ *  <p>
  *  <b>One case per process, on purpose:</b> two windows would compete for the one global
  *  layer cache, which this deliberately misses on every resize sweep, so they thrash each
  *  other. Compare runs instead, several of them alternating, because the absolute figure on
@@ -47,6 +54,9 @@ public final class NoisePaintBenchmark
     private static final int WARMUP_SWEEPS = Integer.getInteger("benchmark.warmup", 30);
     private static final int TIMED_SWEEPS  = Integer.getInteger("benchmark.sweeps", 80);
 
+    private static final int WARMUP_SAMPLINGS = 5;
+    private static final int TIMED_SAMPLINGS  = 15;
+
     /** Fully opaque, so every pixel the gradient produces is opaque. */
     private static final Color[] OPAQUE_COLORS = {
             new Color(38, 54, 47), new Color(96, 124, 96)
@@ -61,6 +71,7 @@ public final class NoisePaintBenchmark
         String  which  = System.getProperty("benchmark.noise", "opaque");
         boolean opaque = !"translucent".equalsIgnoreCase(which);
         Color[] colors = opaque ? OPAQUE_COLORS : TRANSLUCENT_COLORS;
+        UI.NoiseType function = UI.NoiseType.valueOf(System.getProperty("benchmark.function", "FABRIC").toUpperCase());
 
         /*
             Checked before anything is shown: past the number of distinct widths a resize
@@ -78,6 +89,10 @@ public final class NoisePaintBenchmark
                 + "Raise -Dbenchmark.width, or lower -Dbenchmark.warmup / -Dbenchmark.sweeps."
             );
 
+        // Without a window around, so that it measures nothing but the arithmetic:
+        double perCoordinate = measureSampling(function, false);
+        double perRow        = measureSampling(function, true);
+
         SwingTree.initializeUsing( it -> it.uiScaleFactor(1) );
 
         JFrame[] frameBox = new JFrame[1];
@@ -90,7 +105,7 @@ public final class NoisePaintBenchmark
                     .backgroundColor(new Color(28, 34, 31))
                     .borderRadius(16)
                     .noise("grain", n -> n
-                        .function(UI.NoiseType.FABRIC)
+                        .function(function)
                         .colors(colors)
                         .scale(0.6)
                         .clipTo(UI.ComponentArea.BODY)
@@ -129,11 +144,14 @@ public final class NoisePaintBenchmark
         buffer[0].flush();
 
         System.out.println();
-        System.out.println("  Noise benchmark, " + (opaque ? "OPAQUE" : "TRANSLUCENT") + " colours, "
+        System.out.println("  Noise benchmark, " + function + ", " + (opaque ? "OPAQUE" : "TRANSLUCENT") + " colours, "
                          + NARROW_WIDTH + ".." + WIDE_WIDTH + "x" + HEIGHT
                          + ", median of " + TIMED_SWEEPS + " sweeps");
         System.out.printf ("  repaint while resizing       %8.3f ms%n", whileResizing);
         System.out.printf ("  repaint at an unchanged size %8.3f ms%n", unchangedSize);
+        System.out.println("  sampling " + WIDE_WIDTH + "x" + HEIGHT + ", median of " + TIMED_SAMPLINGS + " passes");
+        System.out.printf ("  coordinate by coordinate     %8.3f ms%n", perCoordinate);
+        System.out.printf ("  row by row                   %8.3f ms   (%.2fx)%n", perRow, perCoordinate / perRow);
         System.out.println();
 
         System.exit(0);
@@ -192,6 +210,39 @@ public final class NoisePaintBenchmark
         return nanos[0];
     }
 
+    /**
+     *  Samples the noise function over every pixel of the wide component, at the same scale
+     *  as the styled noise, either with one {@code getFractionAt} call per pixel or with
+     *  one {@code fillRow} call per row of pixels.
+     */
+    private static double measureSampling( UI.NoiseType function, boolean byRow ) {
+        final float   scale = 0.6f;
+        final float[] xs    = new float[WIDE_WIDTH];
+        final float[] out   = new float[WIDE_WIDTH];
+        for ( int x = 0; x < WIDE_WIDTH; x++ )
+            xs[x] = x / scale;
+
+        long[] samples = new long[TIMED_SAMPLINGS];
+        float  sink    = 0; // Consumed below, so that the JIT cannot drop the work.
+        for ( int i = 0; i < WARMUP_SAMPLINGS + TIMED_SAMPLINGS; i++ ) {
+            long start = System.nanoTime();
+            for ( int y = 0; y < HEIGHT; y++ ) {
+                final float rowY = y / scale;
+                if ( byRow )
+                    function.fillRow(xs, rowY, out, WIDE_WIDTH);
+                else
+                    for ( int x = 0; x < WIDE_WIDTH; x++ )
+                        out[x] = function.getFractionAt(xs[x], rowY);
+                sink += out[y % WIDE_WIDTH];
+            }
+            if ( i >= WARMUP_SAMPLINGS )
+                samples[i - WARMUP_SAMPLINGS] = System.nanoTime() - start;
+        }
+        if ( sink == Float.MIN_VALUE )
+            System.out.println(sink);
+        return medianMillis(samples);
+    }
+
     /**
      *  The median rather than the mean, because a benchmark sharing a machine with a window
      *  manager and a garbage collector produces the occasional wild sample, and one such
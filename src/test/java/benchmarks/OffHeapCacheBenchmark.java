@@ -0,0 +1,168 @@
+package benchmarks;
+
+import swingtree.SwingTree;
+import swingtree.SwingTreeInitConfig;
+import swingtree.UI;
+import swingtree.style.ComponentExtension;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  Compares the two ways the style layer cache can store its pixels: in ordinary heap
+ *  images, and in native memory (see {@code SwingTree.setOffHeapCacheEnabled}). What
+ *  moves between them is not so much the paint time as the garbage collector's work, so
+ *  besides the median round time this reports what the collectors did during the timed
+ *  rounds and what the heap and the direct buffer pool hold at the end.
+ *  <p>
+ *  Every round paints a few hundred components with distinct rounded gradient styles, more
+ *  than the {@code AGGRESSIVE} budget holds, so the cache is filled, evicts and refills all
+ *  the time - which is when the heap version keeps producing large garbage and the native
+ *  version keeps freeing memory on the spot. A round paints every component twice, so that
+ *  the hit path (the generic blit loop a native image costs, see {@code OffHeapPixels}) is
+ *  part of the figure too.
+ *  <p>
+ *  {@code -Dbenchmark.storage=heap} (the default) or {@code -Dbenchmark.storage=offheap}
+ *  picks the case. <b>One case per process, on purpose:</b> the collector counters and the
+ *  heap are process wide, and a case run second would inherit the first one's heap.
+ *  Compare whole runs, several of them alternating. For the details of individual pauses,
+ *  run with {@code -Pjfr=<file>} and look at the garbage collection events of the
+ *  recording, or add {@code -Xlog:gc} to the JVM arguments (Java 9 and later).
+ *  <p>
+ *  Run with {@code ./gradlew runOffHeapCacheBenchmark}. It paints offscreen, so it does not
+ *  need a display.
+ */
+public final class OffHeapCacheBenchmark
+{
+    private static final int COMPONENTS    = Integer.getInteger("benchmark.components", 320);
+    private static final int WIDTH         = Integer.getInteger("benchmark.width",      240);
+    private static final int HEIGHT        = Integer.getInteger("benchmark.height",     160);
+    private static final int WARMUP_ROUNDS = Integer.getInteger("benchmark.warmup",     10);
+    private static final int TIMED_ROUNDS  = Integer.getInteger("benchmark.rounds",     40);
+
+    public static void main( String[] args ) throws Exception
+    {
+        final boolean offHeap = "offheap".equalsIgnoreCase(System.getProperty("benchmark.storage", "heap"));
+
+        SwingTree.initializeUsing( it -> it
+            .uiScaleFactor(1)
+            .withCacheMode(SwingTreeInitConfig.CacheMode.AGGRESSIVE)
+            .withOffHeapCacheEnabled(offHeap)
+        );
+
+        List<JComponent> components = new ArrayList<>(COMPONENTS);
+        UI.runNow(() -> {
+            for ( int i = 0; i < COMPONENTS; i++ ) {
+                // Distinct colours make distinct cache keys, so no two components share an entry:
+                final Color from = new Color(40 + i % 180, 60 + (i * 7) % 160, 90 + (i * 13) % 150);
+                final Color to   = new Color(200 - i % 180, 30 + (i * 11) % 200, 20 + (i * 3) % 210);
+                JComponent component = UI.box()
+                                        .withStyle( it -> it
+                                            .borderRadius(16)
+                                            .gradient( g -> g
+                                                .span(UI.Span.TOP_LEFT_TO_BOTTOM_RIGHT)
+                                                .colors(from, to)
+                                            )
+                                        )
+                                        .get(JComponent.class);
+                component.setSize(WIDTH, HEIGHT);
+                components.add(component);
+            }
+        });
+
+        BufferedImage canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+
+        for ( int i = 0; i < WARMUP_ROUNDS; i++ )
+            paintRound(components, canvas);
+
+        final long gcCountBefore = gcCount();
+        final long gcTimeBefore  = gcMillis();
+        long[] samples = new long[TIMED_ROUNDS];
+        for ( int i = 0; i < TIMED_ROUNDS; i++ )
+            samples[i] = paintRound(components, canvas);
+        final long gcCount = gcCount() - gcCountBefore;
+        final long gcTime  = gcMillis() - gcTimeBefore;
+
+        System.gc();
+        final long heapUsed   = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final long directUsed = directBufferBytes();
+
+        System.out.println();
+        System.out.println("  Off-heap cache benchmark, " + COMPONENTS + " components of "
+                         + WIDTH + "x" + HEIGHT + ", storage " + ( offHeap ? "OFF HEAP" : "heap" )
+                         + ", median of " + TIMED_ROUNDS + " rounds");
+        System.out.printf ("  paint round                   %8.3f ms%n", medianMillis(samples));
+        System.out.printf ("  collections during the rounds %8d (%d ms)%n", gcCount, gcTime);
+        System.out.printf ("  heap used after a full GC     %8.1f MiB%n", heapUsed / (1024.0 * 1024.0));
+        System.out.printf ("  direct buffers in use         %8.1f MiB%n", directUsed / (1024.0 * 1024.0));
+        System.out.printf ("  cache bytes charged           %8.1f MiB%n",
+                           ComponentExtension.globalRenderCacheBytesCharged() / (1024.0 * 1024.0));
+        System.out.println();
+
+        System.exit(0);
+    }
+
+    private static long paintRound( List<JComponent> components, BufferedImage canvas ) {
+        long[] nanos = new long[1];
+        UI.runNow(() -> {
+            long start = System.nanoTime();
+            for ( int pass = 0; pass < 2; pass++ ) {
+                for ( JComponent component : components ) {
+                    Graphics2D g = canvas.createGraphics();
+                    try {
+                        component.paint(g);
+                    } finally {
+                        g.dispose();
+                    }
+                }
+            }
+            nanos[0] = System.nanoTime() - start;
+        });
+        return nanos[0];
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for ( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() )
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for ( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() )
+            millis += Math.max(0, gc.getCollectionTime());
+        return millis;
+    }
+
+    private static long directBufferBytes() {
+        for ( BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class) )
+            if ( "direct".equals(pool.getName()) )
+                return pool.getMemoryUsed();
+        return 0;
+    }
+
+    /**
+     *  The median rather than the mean, because a single round which happens to contain a
+     *  long collection would move a mean by more than the difference we are looking for
+     *  (which is instead what the collector figures are for).
+     */
+    private static double medianMillis( long[] samples ) {
+        long[] sorted = samples.clone();
+        java.util.Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        double nanos = ( sorted.length % 2 == 0 )
+                        ? ( sorted[middle - 1] + sorted[middle] ) / 2.0
+                        : sorted[middle];
+        return nanos / 1_000_000.0;
+    }
+
+    private OffHeapCacheBenchmark() {}
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import swingtree.SwingTree;
+import swingtree.UI;
+import swingtree.api.Styler;
+import swingtree.style.ComponentExtension;
+
+import javax.swing.JPanel;
+import java.awt.Color;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ *  Measures what gathering the style of a component allocates, for a styler which
+ *  edits the layers of the style (shadows, gradients, noise, images, texts and painters)
+ *  about as much as the fancier examples do, and which also sets a few plain properties. <br>
+ *  Every fluent call of such a styler used to freeze the style into a new {@code StyleConf}
+ *  and then allocate the edited one on top, whereas the calls of a styling chain
+ *  are now meant to accumulate their edits in a single scratch style. What remains
+ *  per call is the edited sub-configuration itself, so the bytes per styler call are
+ *  what a regression shows up in first.
+ *  <p>
+ *  The stylers run on the thread of this benchmark, whose allocations are read from the
+ *  per thread allocation counters of HotSpot ({@code com.sun.management.ThreadMXBean}),
+ *  so other virtual machines report nothing.
+ *  <p>
+ *  {@code -Dbenchmark.warmup=..} and {@code -Dbenchmark.gatherings=..} set how many
+ *  gatherings warm up and how many are measured.
+ *  Run with {@code ./gradlew runStyleGatherBenchmark}. It paints nothing,
+ *  so it does not need a display.
+ */
+public final class StyleGatherBenchmark
+{
+    private static final int WARMUP_GATHERINGS = Integer.getInteger("benchmark.warmup",     20_000);
+    private static final int TIMED_GATHERINGS  = Integer.getInteger("benchmark.gatherings", 100_000);
+
+    /** The number of fluent calls {@link #STYLER} makes on the delegate it is handed. */
+    private static final int CALLS_PER_GATHERING = 16;
+
+    private static final Styler<JPanel> STYLER = it -> it
+            .borderRadius(12)
+            .backgroundColor(new Color(240, 240, 245))
+            .shadowColor(new Color(0, 0, 0, 80))
+            .shadowBlurRadius(6)
+            .shadowSpreadRadius(1)
+            .shadowIsInset(false)
+            .shadow(UI.Layer.CONTENT, "glow", shadow -> shadow.color(new Color(80, 120, 255, 60)).blurRadius(10))
+            .gradient(UI.Layer.BACKGROUND, "sheen", gradient -> gradient.colors(Color.WHITE, Color.LIGHT_GRAY).span(UI.Span.TOP_TO_BOTTOM))
+            .gradient(UI.Layer.BORDER, "rim", gradient -> gradient.colors(Color.GRAY, Color.DARK_GRAY))
+            .noise(UI.Layer.BACKGROUND, "grain", noise -> noise.function(UI.NoiseType.GRAINY).colors(new Color(0, 0, 0, 10), new Color(0, 0, 0, 0)))
+            .image(UI.Layer.FOREGROUND, "badge", image -> image)
+            .text(UI.Layer.FOREGROUND, "caption", text -> text.content("Benchmark"))
+            .painter(UI.Layer.FOREGROUND, "outline", g2d -> {})
+            .text(UI.Layer.FOREGROUND, "caption", text -> text.content("Gathered"))
+            .property("benchmark", "style")
+            .shadowBlurRadius(8);
+
+    public static void main( String[] args )
+    {
+        SwingTree.initializeUsing( it -> it.uiScaleFactor(1) );
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if ( !( threads instanceof com.sun.management.ThreadMXBean ) ) {
+            System.out.println("  This virtual machine does not count the allocations of individual threads.");
+            System.exit(0);
+        }
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        final long thisThread = Thread.currentThread().getId();
+
+        final JPanel panel = new JPanel();
+        final ComponentExtension<JPanel> extension = ComponentExtension.from(panel);
+        extension.addStyler(STYLER);
+
+        long checksum = 0;
+        for ( int i = 0; i < WARMUP_GATHERINGS; i++ )
+            checksum += extension.gatherStyle().hashCode();
+
+        final long bytesBefore   = allocations.getThreadAllocatedBytes(thisThread);
+        final long gcCountBefore = gcCount();
+        final long nanosBefore   = System.nanoTime();
+
+        for ( int i = 0; i < TIMED_GATHERINGS; i++ )
+            checksum += extension.gatherStyle().hashCode();
+
+        final long nanos   = System.nanoTime() - nanosBefore;
+        final long bytes   = allocations.getThreadAllocatedBytes(thisThread) - bytesBefore;
+        final long gcCount = gcCount() - gcCountBefore;
+
+        System.out.println();
+        System.out.println("  Style gather benchmark, " + CALLS_PER_GATHERING + " styler calls per gathering, "
+                         + TIMED_GATHERINGS + " gatherings measured");
+        System.out.printf ("  microseconds per gathering            %10.2f%n", nanos / 1_000d / TIMED_GATHERINGS);
+        System.out.printf ("  bytes per gathering                   %10.0f%n", bytes / (double) TIMED_GATHERINGS);
+        System.out.printf ("  bytes per styler call                 %10.1f%n", bytes / (double) TIMED_GATHERINGS / CALLS_PER_GATHERING);
+        System.out.printf ("  collections during the measurement    %10d%n", gcCount);
+        System.out.println("  (checksum " + checksum + ")");
+        System.out.println();
+
+        System.exit(0);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for ( GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans() )
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+}